@@ -0,0 +1,113 @@
+package com.brandy.benchmark;
+
+import com.brandy.core.attack.AttackListener;
+import com.brandy.core.attack.JWTAttackEngine;
+import com.brandy.core.mask.Mask;
+import com.brandy.core.model.AttackConfig;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.utils.DictionaryCache;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 端到端吞吐：完整执行一次不命中的攻击 (调度、遍历、校验、统计)，
+ * 辅助计数器 keys 给出每秒测试的密钥数，按线程数与算法分别测量。
+ * 关闭已知密钥与穷尽搜索记录，保证每次都完整遍历。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class AttackThroughputBenchmark {
+    private static final String MASK = "?l?l?l?l";
+    private static final AttackListener QUIET = new AttackListener() {
+        @Override
+        public void onSecretFound(KeyBytes secret) {
+        }
+
+        @Override
+        public void onProgressUpdate(int progress) {
+        }
+
+        @Override
+        public void onLogMessage(String message) {
+        }
+
+        @Override
+        public void onAttackComplete() {
+        }
+
+        @Override
+        public void onAttackFailed(String reason) {
+            throw new IllegalStateException(reason);
+        }
+    };
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"HS256", "HS512"})
+    public String algorithm;
+
+    private String token;
+    private Mask mask;
+    private long builtinKeys;
+
+    /**
+     * 每次调用测试的密钥数，按 JMH 的操作数统计为每秒速率
+     */
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Keys {
+        public long keys;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws GeneralSecurityException, IOException {
+        // 密钥不在任何候选空间内
+        token = BenchmarkData.token(algorithm, 128, "not-a-candidate-#");
+        mask = Mask.parse(MASK, null, 0, 0);
+        // 内置字典只加载一次，之后的攻击都使用缓存
+        builtinKeys = DictionaryCache.shared().builtin().size();
+    }
+
+    @Benchmark
+    public void maskAttack(Keys counter) throws InterruptedException {
+        AttackConfig config = new AttackConfig(token, algorithm, threads);
+        config.setMask(mask);
+        run(config);
+        counter.keys += mask.keyspace();
+    }
+
+    @Benchmark
+    public void builtinDictionaryAttack(Keys counter) throws InterruptedException {
+        run(new AttackConfig(token, algorithm, threads));
+        counter.keys += builtinKeys;
+    }
+
+    private static void run(AttackConfig config) throws InterruptedException {
+        config.setUseHistory(false);
+        // 固定线程数，避免调节器的试探影响测量
+        config.setAdaptiveThreads(false);
+        JWTAttackEngine engine = new JWTAttackEngine(config, QUIET);
+        engine.start();
+        engine.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,58 @@
+package com.brandy.benchmark;
+
+import com.brandy.core.attack.HmacVerifier;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Random;
+
+/**
+ * 基准测试使用的令牌与合成字典
+ */
+final class BenchmarkData {
+    private static final Base64.Encoder URL = Base64.getUrlEncoder().withoutPadding();
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param payloadBytes 载荷 JSON 的近似字节数，决定签名输入的长度
+     * @return 用 secret 签名的 JWT
+     */
+    static String token(String algorithm, int payloadBytes, String secret) throws GeneralSecurityException {
+        String header = URL.encodeToString(("{\"alg\":\"" + algorithm + "\",\"typ\":\"JWT\"}")
+                .getBytes(StandardCharsets.UTF_8));
+        StringBuilder claims = new StringBuilder("{\"sub\":\"benchmark\",\"pad\":\"");
+        while (claims.length() < payloadBytes - 2) {
+            claims.append('x');
+        }
+        claims.append("\"}");
+        String payload = URL.encodeToString(claims.toString().getBytes(StandardCharsets.UTF_8));
+        String javaAlgorithm = HmacVerifier.getJavaAlgorithm(algorithm);
+        Mac mac = Mac.getInstance(javaAlgorithm);
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), javaAlgorithm));
+        byte[] signature = mac.doFinal((header + "." + payload).getBytes(StandardCharsets.US_ASCII));
+        return header + "." + payload + "." + URL.encodeToString(signature);
+    }
+
+    /**
+     * 固定种子生成的字典，每行 6-14 个小写字母与数字
+     */
+    static byte[] wordlist(int words) {
+        Random random = new Random(42);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(words * 11);
+        for (int i = 0; i < words; i++) {
+            int length = 6 + random.nextInt(9);
+            for (int j = 0; j < length; j++) {
+                int c = random.nextInt(36);
+                out.write(c < 26 ? 'a' + c : '0' + c - 26);
+            }
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+}
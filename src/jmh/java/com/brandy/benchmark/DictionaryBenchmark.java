@@ -0,0 +1,118 @@
+package com.brandy.benchmark;
+
+import com.brandy.core.model.CandidateArena;
+import com.brandy.core.model.WordArena;
+import com.brandy.core.utils.DictLoader;
+import com.brandy.core.utils.MappedDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 字典加载、变体展开与内存映射遍历的耗时，分别针对内置字典与不同规模的合成字典
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DictionaryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Builtin {
+        WordArena words;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            words = load();
+        }
+
+        /**
+         * 与 {@link com.brandy.core.utils.DictionaryCache#builtin()} 相同：优先预编译的二进制字典，缺失时读取文本字典
+         */
+        static WordArena load() throws IOException {
+            WordArena words = DictLoader.loadBuiltinArena();
+            if (words == null) {
+                try (InputStream in = DictLoader.openBuiltinDictionary()) {
+                    words = DictLoader.loadArena(in);
+                }
+            }
+            return words;
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Synthetic {
+        @Param({"100000", "1000000"})
+        public int words;
+
+        byte[] wordlist;
+        WordArena arena;
+        Path file;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            wordlist = BenchmarkData.wordlist(words);
+            arena = DictLoader.loadArena(new ByteArrayInputStream(wordlist));
+            file = Files.createTempFile("jwt-benchmark", ".txt");
+            Files.write(file, wordlist);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Benchmark
+    public WordArena loadBuiltin() throws IOException {
+        return Builtin.load();
+    }
+
+    @Benchmark
+    public CandidateArena expandBuiltin(Builtin builtin) {
+        return CandidateArena.expand(builtin.words);
+    }
+
+    @Benchmark
+    public WordArena loadSynthetic(Synthetic synthetic) throws IOException {
+        return DictLoader.loadArena(new ByteArrayInputStream(synthetic.wordlist));
+    }
+
+    @Benchmark
+    public CandidateArena expandSynthetic(Synthetic synthetic) {
+        return CandidateArena.expand(synthetic.arena);
+    }
+
+    /**
+     * 流式路径：在映射内存上逐行读取整个文件
+     */
+    @Benchmark
+    public long scanMapped(Synthetic synthetic) throws IOException {
+        long bytes = 0;
+        try (MappedDictionary dictionary = MappedDictionary.open(synthetic.file)) {
+            MappedDictionary.Cursor cursor = dictionary.cursor(0, dictionary.size());
+            while (cursor.next()) {
+                bytes += cursor.length();
+            }
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,75 @@
+package com.brandy.benchmark;
+
+import com.brandy.core.attack.HmacVerifier;
+import com.brandy.core.utils.JWTUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 单个候选密钥的校验开销：爆破核心 (或回退的 JCA Mac) 与直接使用 JCA Mac 的对照，
+ * 按算法与签名输入长度 (载荷字节数) 分别测量
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class HmacVerifyBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"HS256", "HS384", "HS512"})
+    public String algorithm;
+
+    @Param({"64", "512", "4096"})
+    public int payloadBytes;
+
+    private HmacVerifier.Worker worker;
+    private Mac mac;
+    private String javaAlgorithm;
+    private byte[] signingInput;
+    private byte[][] keys;
+    private int next;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        String[] parts = JWTUtils.parseJWT(BenchmarkData.token(algorithm, payloadBytes, "benchmark-secret"));
+        worker = HmacVerifier.forToken(parts, algorithm).newWorker();
+        javaAlgorithm = HmacVerifier.getJavaAlgorithm(algorithm);
+        mac = Mac.getInstance(javaAlgorithm);
+        signingInput = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+        // 不命中的候选，长度与常见字典词相近
+        keys = new byte[KEY_COUNT][];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = ("candidate" + i).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    public boolean verify() {
+        byte[] key = keys[next++ & (KEY_COUNT - 1)];
+        return worker.verify(key, 0, key.length);
+    }
+
+    @Benchmark
+    public byte[] jcaMac() throws GeneralSecurityException {
+        byte[] key = keys[next++ & (KEY_COUNT - 1)];
+        mac.init(new SecretKeySpec(key, javaAlgorithm));
+        return mac.doFinal(signingInput);
+    }
+}
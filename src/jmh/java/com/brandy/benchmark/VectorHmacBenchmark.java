@@ -0,0 +1,110 @@
+package com.brandy.benchmark;
+
+import com.brandy.core.attack.HmacVerifier;
+import com.brandy.core.utils.JWTUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多缓冲 (向量化) 核心与标量核心、JCA Mac 的对照，每次调用校验同一组不命中的候选密钥
+ * 需以 -Pjmh,vector 构建；向量化核心不可用时在 setup 中直接失败，避免把逐个校验的结果当作向量化吞吐
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class VectorHmacBenchmark {
+    private static final int KEY_COUNT = 1024;
+
+    @Param({"HS256", "HS512"})
+    public String algorithm;
+
+    @Param({"64", "512"})
+    public int payloadBytes;
+
+    private HmacVerifier.Worker scalar;
+    private HmacVerifier.Worker batch;
+    private Mac mac;
+    private String javaAlgorithm;
+    private byte[] signingInput;
+    private byte[][] keys;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        String[] parts = JWTUtils.parseJWT(BenchmarkData.token(algorithm, payloadBytes, "benchmark-secret"));
+        scalar = HmacVerifier.forToken(parts, algorithm).newWorker();
+        HmacVerifier verifier = HmacVerifier.forToken(parts, algorithm);
+        verifier.enableBatchKernel();
+        batch = verifier.newWorker();
+        if (batch.batchSize() < 2) {
+            throw new IllegalStateException("Vector HMAC kernel unavailable for " + algorithm
+                    + " (build with -Pjmh,vector on a CPU with at least two lanes)");
+        }
+        javaAlgorithm = HmacVerifier.getJavaAlgorithm(algorithm);
+        mac = Mac.getInstance(javaAlgorithm);
+        signingInput = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+        keys = new byte[KEY_COUNT][];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = ("candidate" + i).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEY_COUNT)
+    public int jcaMac() throws GeneralSecurityException {
+        int sum = 0;
+        for (byte[] key : keys) {
+            mac.init(new SecretKeySpec(key, javaAlgorithm));
+            sum += mac.doFinal(signingInput)[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEY_COUNT)
+    public int scalarKernel() {
+        int hits = 0;
+        for (byte[] key : keys) {
+            if (scalar.verify(key, 0, key.length)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(KEY_COUNT)
+    public int vectorBatch() {
+        int size = batch.batchSize();
+        int hits = 0;
+        for (int from = 0; from < KEY_COUNT; from += size) {
+            int count = Math.min(size, KEY_COUNT - from);
+            for (int slot = 0; slot < count; slot++) {
+                byte[] key = keys[from + slot];
+                batch.stage(slot, key, 0, key.length);
+            }
+            if (batch.verifyBatch(count) >= 0) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+}
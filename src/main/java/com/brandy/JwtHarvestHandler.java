@@ -0,0 +1,91 @@
+package com.brandy;
+
+import burp.api.montoya.core.ByteArray;
+import burp.api.montoya.http.message.HttpHeader;
+import burp.api.montoya.http.message.HttpMessage;
+import burp.api.montoya.proxy.http.InterceptedRequest;
+import burp.api.montoya.proxy.http.InterceptedResponse;
+import burp.api.montoya.proxy.http.ProxyRequestHandler;
+import burp.api.montoya.proxy.http.ProxyRequestReceivedAction;
+import burp.api.montoya.proxy.http.ProxyRequestToBeSentAction;
+import burp.api.montoya.proxy.http.ProxyResponseHandler;
+import burp.api.montoya.proxy.http.ProxyResponseReceivedAction;
+import burp.api.montoya.proxy.http.ProxyResponseToBeSentAction;
+import com.brandy.core.harvest.JwtHarvester;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 把代理流量交给 {@link JwtHarvester}
+ * 请求与响应各在收到时提交一次：请求路径与头部 (含 Cookie) 取自 Burp 已解析的字符串，
+ * 正文按 Content-Length 先判断大小，不超过 {@link JwtHarvester#MAX_SCAN_BYTES} 时才拷贝，且只拷贝一次；
+ * 不序列化整个报文，报文本身原样放行，扫描在后台线程进行。
+ */
+public class JwtHarvestHandler implements ProxyRequestHandler, ProxyResponseHandler {
+    private final JwtHarvester harvester;
+
+    public JwtHarvestHandler(JwtHarvester harvester) {
+        this.harvester = harvester;
+    }
+
+    @Override
+    public ProxyRequestReceivedAction handleRequestReceived(InterceptedRequest interceptedRequest) {
+        if (harvester.isEnabled()) {
+            harvester.submit(head(interceptedRequest.path(), interceptedRequest), body(interceptedRequest),
+                    interceptedRequest.url());
+        }
+        return ProxyRequestReceivedAction.continueWith(interceptedRequest);
+    }
+
+    @Override
+    public ProxyRequestToBeSentAction handleRequestToBeSent(InterceptedRequest interceptedRequest) {
+        return ProxyRequestToBeSentAction.continueWith(interceptedRequest);
+    }
+
+    @Override
+    public ProxyResponseReceivedAction handleResponseReceived(InterceptedResponse interceptedResponse) {
+        if (harvester.isEnabled()) {
+            harvester.submit(head("", interceptedResponse), body(interceptedResponse),
+                    interceptedResponse.initiatingRequest().url());
+        }
+        return ProxyResponseReceivedAction.continueWith(interceptedResponse);
+    }
+
+    @Override
+    public ProxyResponseToBeSentAction handleResponseToBeSent(InterceptedResponse interceptedResponse) {
+        return ProxyResponseToBeSentAction.continueWith(interceptedResponse);
+    }
+
+    /**
+     * 请求路径 (查询参数中的令牌) 与各个头部，每行一个
+     */
+    private static byte[] head(String path, HttpMessage message) {
+        StringBuilder head = new StringBuilder(path).append("\r\n");
+        for (HttpHeader header : message.headers()) {
+            head.append(header.name()).append(": ").append(header.value()).append("\r\n");
+        }
+        return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * @return 正文字节；没有正文或超过扫描上限 (通常是大文件下载) 时为 null
+     */
+    private static byte[] body(HttpMessage message) {
+        String contentLength = message.headerValue("Content-Length");
+        if (contentLength != null) {
+            try {
+                long length = Long.parseLong(contentLength.trim());
+                if (length == 0 || length > JwtHarvester.MAX_SCAN_BYTES) {
+                    return null;
+                }
+            } catch (NumberFormatException e) {
+                // 格式错误的长度不可信，按实际正文长度判断
+            }
+        }
+        ByteArray body = message.body();
+        if (body == null || body.length() == 0 || body.length() > JwtHarvester.MAX_SCAN_BYTES) {
+            return null;
+        }
+        return body.getBytes();
+    }
+}
@@ -4,6 +4,9 @@ import burp.api.montoya.BurpExtension;
 import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.ui.contextmenu.ContextMenuEvent;
 import burp.api.montoya.ui.contextmenu.ContextMenuItemsProvider;
+import com.brandy.core.harvest.JwtHarvester;
+import com.brandy.core.utils.CheckpointStore;
+import com.brandy.core.utils.DictionaryCache;
 import com.brandy.ui.JWTAuditorTab;
 
 import javax.swing.*;
@@ -36,5 +39,22 @@ public class JwtScaner implements BurpExtension {
         
         // 输出UI注册成功信息
         api.logging().logToOutput("JWT Scanner UI标签页注册成功!");
+
+        // 被动捕获代理流量中的令牌，后台破解只占用少量线程
+        JwtHarvester harvester = new JwtHarvester(tab, Math.max(1, Runtime.getRuntime().availableProcessors() / 4));
+        tab.setHarvester(harvester);
+        JwtHarvestHandler handler = new JwtHarvestHandler(harvester);
+        api.proxy().registerRequestHandler(handler);
+        api.proxy().registerResponseHandler(handler);
+
+        // 扩展卸载时停止攻击并释放字典缓存
+        api.extension().registerUnloadingHandler(() -> {
+            tab.shutdown();
+            harvester.shutdown();
+            DictionaryCache.shared().clear();
+            // 等待检查点与已知密钥写完
+            CheckpointStore.shared().flush();
+            api.logging().logToOutput("JWT Scanner 已卸载，字典缓存已释放");
+        });
     }
 }
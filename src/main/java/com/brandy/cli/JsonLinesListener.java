@@ -0,0 +1,150 @@
+package com.brandy.cli;
+
+import com.brandy.core.attack.AttackListener;
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.KeyBytes;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 把攻击事件逐行输出为 JSON，每行一个对象，event 字段区分事件类型：
+ * log、progress、stats、found、forged、not_found、failed、complete
+ */
+public class JsonLinesListener implements AttackListener {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final PrintStream out;
+    private final boolean verbose;
+    private final AtomicInteger found = new AtomicInteger();
+    private final AtomicInteger forged = new AtomicInteger();
+    private volatile boolean failed;
+
+    /**
+     * @param verbose 是否输出 log 事件
+     */
+    public JsonLinesListener(PrintStream out, boolean verbose) {
+        this.out = out;
+        this.verbose = verbose;
+    }
+
+    /**
+     * @return 已破解的令牌数
+     */
+    public int getFound() {
+        return found.get();
+    }
+
+    /**
+     * @return 算法混淆模式下伪造的令牌数
+     */
+    public int getForged() {
+        return forged.get();
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    @Override
+    public void onSecretFound(KeyBytes secret) {
+        onTokenSecretFound(0, null, secret);
+    }
+
+    @Override
+    public void onTokenSecretFound(int tokenIndex, String token, KeyBytes secret) {
+        found.incrementAndGet();
+        ObjectNode event = event("found");
+        event.put("tokenIndex", tokenIndex);
+        if (token != null) {
+            event.put("token", token);
+        }
+        // secret 供阅读，非 UTF-8 的密钥显示为 $HEX[...]；secretBase64 是原始字节
+        event.put("secret", secret.display());
+        event.put("secretBase64", secret.toBase64());
+        emit(event);
+    }
+
+    @Override
+    public void onForgedToken(int tokenIndex, String algorithm, String keySource, String encoding, String token) {
+        forged.incrementAndGet();
+        emit(event("forged")
+                .put("tokenIndex", tokenIndex)
+                .put("algorithm", algorithm)
+                .put("keySource", keySource)
+                .put("encoding", encoding)
+                .put("token", token));
+    }
+
+    @Override
+    public void onSecretNotFound() {
+        emit(event("not_found"));
+    }
+
+    @Override
+    public void onProgressUpdate(int progress) {
+        emit(event("progress").put("percent", progress));
+    }
+
+    @Override
+    public void onStatsUpdate(AttackStats stats) {
+        ObjectNode event = event("stats");
+        event.put("keysPerSecond", (long) stats.getKeysPerSecond());
+        event.put("keysTested", stats.getKeysTested());
+        event.put("completedUnits", stats.getCompletedUnits());
+        event.put("totalUnits", stats.getTotalUnits());
+        event.put("remainingKeys", stats.getRemainingKeys());
+        event.put("elapsedMillis", stats.getElapsedMillis());
+        event.put("etaMillis", stats.getEtaMillis());
+        event.put("activeThreads", stats.getActiveThreads());
+        ArrayNode threads = event.putArray("threadKeysPerSecond");
+        for (double rate : stats.getThreadKeysPerSecond()) {
+            threads.add((long) rate);
+        }
+        emit(event);
+    }
+
+    @Override
+    public void onLogMessage(String message) {
+        if (verbose) {
+            emit(event("log").put("message", message));
+        }
+    }
+
+    @Override
+    public void onAttackComplete() {
+        emit(event("complete").put("found", found.get()));
+    }
+
+    @Override
+    public void onAttackFailed(String reason) {
+        failed = true;
+        emit(event("failed").put("reason", reason));
+    }
+
+    ObjectNode event(String type) {
+        ObjectNode event = MAPPER.createObjectNode();
+        event.put("event", type);
+        event.put("time", System.currentTimeMillis());
+        return event;
+    }
+
+    /**
+     * 多个工作线程可能同时上报，整行写出后再刷新
+     */
+    void emit(ObjectNode event) {
+        try {
+            String line = MAPPER.writeValueAsString(event);
+            synchronized (out) {
+                out.println(line);
+                out.flush();
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,441 @@
+package com.brandy.cli;
+
+import com.brandy.core.attack.JWTAttackEngine;
+import com.brandy.core.cluster.ClusterCoordinator;
+import com.brandy.core.cluster.ClusterWorker;
+import com.brandy.core.model.AttackConfig;
+import com.brandy.core.model.AttackSpec;
+import com.brandy.core.model.AttackTier;
+import com.brandy.core.model.DictionarySource;
+import com.brandy.core.transform.KeyTransformPipeline;
+import com.brandy.core.utils.CheckpointStore;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 无界面的命令行入口，与 Burp 扩展共用同一个攻击引擎，不加载 AWT/Swing。
+ * 进度与结果以 JSON Lines 输出到标准输出，参数错误输出到标准错误。
+ * 除单进程攻击外，还可以作为集群协调进程 (--coordinator) 或工作进程 (--worker) 运行。
+ * 退出码：0 至少破解一个令牌 (或在算法混淆模式下伪造出令牌)，1 未找到，2 参数错误，3 攻击失败。
+ */
+public class JwtScanerCli {
+    private static final int EXIT_FOUND = 0;
+    private static final int EXIT_NOT_FOUND = 1;
+    private static final int EXIT_USAGE = 2;
+    private static final int EXIT_FAILED = 3;
+    // Ctrl-C 后等待检查点保存的最长时间
+    private static final int STOP_TIMEOUT_SECONDS = 30;
+
+    private static final String USAGE = String.join("\n",
+            "Usage: java -jar JwtScaner.jar [options]",
+            "  -t, --token <jwt>          target token, repeatable",
+            "  -f, --tokens-file <path>   file with one token per line",
+            "  -a, --alg <HS256|HS384|HS512>  algorithm for a single token (default: from header)",
+            "  -d, --dict <path[@weight]> dictionary file (default: builtin dictionary); repeat to merge several",
+            "                             deduplicated, higher weights tried first (default 1); 'builtin' = builtin list",
+            "  -r, --rules <path>         apply a Hashcat-style rule file",
+            "      --builtin-rules        apply the builtin rules",
+            "  -x, --transforms <list>    key transforms tried per dictionary word (default: raw,base64,hex);",
+            "                             comma-separated, steps chained with ':', e.g. raw,base64-decode,sha256:hex",
+            "                             steps: raw base64 base64url base64-decode base64url-decode hex hex-decode",
+            "                             md5 sha1 sha256",
+            "  -m, --mask <mask>          mask attack, e.g. ?u?l?l?l?d?d",
+            "  -1, -2, -3, -4 <charset>   custom charsets for ?1-?4",
+            "  -k, --keys <path>          key confusion: PEM/JWK/certificate files (dir or file) as HMAC secrets;",
+            "                             RS/PS/ES tokens get forged HS* tokens signed with the matching key",
+            "      --min-length <n>       shortest mask length (default: mask length)",
+            "      --max-length <n>       longest mask length (default: mask length)",
+            "  -T, --threads <n>          worker threads (default: available processors)",
+            "      --cpu <percent>        CPU budget; active threads adapt to throughput and load within it (default: 100)",
+            "      --fixed-threads        keep all threads within the CPU budget active, no adaptive tuning",
+            "      --tiers <list>         tiered attack, each tier finished for all tokens before the next:",
+            "                             quick = known/default secrets + top dictionary words, dict = full",
+            "                             dictionaries, deep = rules or mask; e.g. quick,dict,deep",
+            "      --quick-words <n>      dictionary words tried in the quick tier (default: 10000)",
+            "      --vector               SIMD multi-buffer HMAC (jar built with -Pvector, JVM started with",
+            "                             --add-modules jdk.incubator.vector); falls back to the scalar kernel",
+            "      --resume               continue from a matching checkpoint",
+            "      --no-history           skip known secrets and exhausted-search records",
+            "  -q, --quiet                omit log events",
+            "  -h, --help                 show this help",
+            "Cluster mode:",
+            "      --coordinator <port>   lease the keyspace to worker processes (0 = any port)",
+            "      --bind <host>          coordinator listen address (default: 127.0.0.1)",
+            "      --lease-ttl <ms>       lease expiry without heartbeat (default: 10000)",
+            "      --local-workers <n>    start n worker processes on this machine",
+            "      --worker <host:port>   join a coordinator; attack options come from it");
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    static int run(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        if (options.help) {
+            System.out.println(USAGE);
+            return EXIT_FOUND;
+        }
+
+        PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out), true, StandardCharsets.UTF_8);
+        JsonLinesListener listener = new JsonLinesListener(out, !options.quiet);
+        try {
+            if (options.worker != null) {
+                return runWorker(options, listener);
+            }
+            if (options.coordinatorPort >= 0) {
+                return runCoordinator(options, listener);
+            }
+            return runLocal(options, listener);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println(e.getMessage());
+            return EXIT_USAGE;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return EXIT_FAILED;
+        }
+    }
+
+    /**
+     * 单进程攻击
+     */
+    private static int runLocal(Options options, JsonLinesListener listener) throws IOException {
+        AttackConfig config = options.spec.toConfig(options.threads);
+        config.setResume(options.resume);
+        config.setUseHistory(!options.noHistory);
+        config.setCpuBudgetPercent(options.cpuBudget);
+        config.setAdaptiveThreads(!options.fixedThreads);
+        config.setPublicKeysPath(options.publicKeys);
+        listener.emit(listener.event("start")
+                .put("tokens", config.getJwtTokens().size())
+                .put("threads", config.getThreadCount())
+                .put("source", options.publicKeys != null ? "keys:" + options.publicKeys : options.spec.describeSource()));
+
+        JWTAttackEngine engine = new JWTAttackEngine(config, listener);
+        // Ctrl-C 时先停止攻击并等待检查点写完
+        Thread stopHook = new Thread(() -> {
+            engine.stop();
+            try {
+                engine.awaitTermination(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                Thread.currentThread().interrupt();
+            }
+            CheckpointStore.shared().flush();
+        }, "jwt-cli-stop");
+        Runtime.getRuntime().addShutdownHook(stopHook);
+
+        long start = System.currentTimeMillis();
+        engine.start();
+        try {
+            engine.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        CheckpointStore.shared().flush();
+        Runtime.getRuntime().removeShutdownHook(stopHook);
+        return done(listener, config.getJwtTokens().size(), start);
+    }
+
+    /**
+     * 集群协调进程，可选在本机启动若干工作进程
+     */
+    private static int runCoordinator(Options options, JsonLinesListener listener)
+            throws IOException, InterruptedException {
+        // 提前校验参数，避免工作进程连上后才发现错误
+        int tokens = options.spec.toConfig(1).getJwtTokens().size();
+        ClusterCoordinator coordinator = new ClusterCoordinator(options.spec, listener, options.bind,
+                options.coordinatorPort, options.leaseTtlMillis);
+        coordinator.setUseHistory(!options.noHistory);
+        int port = coordinator.bind();
+        listener.emit(listener.event("start")
+                .put("tokens", tokens)
+                .put("coordinator", options.bind + ":" + port)
+                .put("source", options.spec.describeSource()));
+
+        List<Process> children = new ArrayList<>();
+        for (int i = 0; i < options.localWorkers; i++) {
+            children.add(startLocalWorker(options.bind + ":" + port, options.threads));
+        }
+        Thread stopHook = new Thread(coordinator::stop, "jwt-cli-stop");
+        Runtime.getRuntime().addShutdownHook(stopHook);
+
+        long start = System.currentTimeMillis();
+        try {
+            coordinator.run();
+        } finally {
+            for (Process child : children) {
+                if (!child.waitFor(STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    child.destroy();
+                }
+            }
+            // 已知密钥在后台线程写盘，退出前等待写完
+            CheckpointStore.shared().flush();
+        }
+        Runtime.getRuntime().removeShutdownHook(stopHook);
+        return done(listener, tokens, start);
+    }
+
+    /**
+     * 本机工作进程：使用同一个 java 与类路径，日志不写入协调进程的输出
+     */
+    private static Process startLocalWorker(String address, int threads) throws IOException {
+        Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+        return new ProcessBuilder(java.toString(), "-cp", System.getProperty("java.class.path"),
+                JwtScanerCli.class.getName(), "--worker", address, "--threads", String.valueOf(threads), "--quiet")
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    /**
+     * 集群工作进程
+     */
+    private static int runWorker(Options options, JsonLinesListener listener)
+            throws IOException, InterruptedException {
+        int colon = options.worker.lastIndexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("--worker expects host:port");
+        }
+        ClusterWorker worker = new ClusterWorker(options.worker.substring(0, colon),
+                Integer.parseInt(options.worker.substring(colon + 1)), options.threads, listener);
+        Thread stopHook = new Thread(worker::stop, "jwt-cli-stop");
+        Runtime.getRuntime().addShutdownHook(stopHook);
+        worker.run();
+        Runtime.getRuntime().removeShutdownHook(stopHook);
+        return EXIT_FOUND;
+    }
+
+    private static int done(JsonLinesListener listener, int tokens, long start) {
+        int exitCode = listener.isFailed() ? EXIT_FAILED
+                : listener.getFound() > 0 || listener.getForged() > 0 ? EXIT_FOUND : EXIT_NOT_FOUND;
+        listener.emit(listener.event("done")
+                .put("found", listener.getFound())
+                .put("forged", listener.getForged())
+                .put("tokens", tokens)
+                .put("elapsedMillis", System.currentTimeMillis() - start)
+                .put("exitCode", exitCode));
+        return exitCode;
+    }
+
+    /**
+     * 命令行参数
+     */
+    static final class Options {
+        final AttackSpec spec = new AttackSpec();
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean resume;
+        boolean noHistory;
+        int cpuBudget = 100;
+        boolean fixedThreads;
+        Path publicKeys;
+        boolean quiet;
+        boolean help;
+        int coordinatorPort = -1;
+        String bind = "127.0.0.1";
+        long leaseTtlMillis = ClusterCoordinator.DEFAULT_LEASE_TTL_MILLIS;
+        int localWorkers;
+        String worker;
+
+        static Options parse(String[] args) {
+            Options options = new Options();
+            AttackSpec spec = options.spec;
+            List<DictionarySource> dictionaries = new ArrayList<>();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                switch (arg) {
+                    case "-t":
+                    case "--token":
+                        spec.getTokens().add(value(args, ++i, arg).trim());
+                        break;
+                    case "-f":
+                    case "--tokens-file":
+                        spec.getTokens().addAll(readTokens(Paths.get(value(args, ++i, arg))));
+                        break;
+                    case "-a":
+                    case "--alg":
+                        spec.setAlgorithm(value(args, ++i, arg));
+                        break;
+                    case "-d":
+                    case "--dict":
+                        // 提前解析以便在启动前报告无效的权重
+                        dictionaries.add(DictionarySource.parse(value(args, ++i, arg)));
+                        break;
+                    case "-r":
+                    case "--rules":
+                        spec.setRulesPath(Paths.get(value(args, ++i, arg)).toAbsolutePath().toString());
+                        break;
+                    case "--builtin-rules":
+                        spec.setBuiltinRules(true);
+                        break;
+                    case "-x":
+                    case "--transforms":
+                        // 提前解析以便在启动前报告未知的步骤
+                        spec.setKeyTransforms(KeyTransformPipeline.parse(value(args, ++i, arg)).toString());
+                        break;
+                    case "-m":
+                    case "--mask":
+                        spec.setMask(value(args, ++i, arg));
+                        break;
+                    case "-1":
+                    case "-2":
+                    case "-3":
+                    case "-4":
+                        spec.getCustomCharsets()[arg.charAt(1) - '1'] = value(args, ++i, arg);
+                        break;
+                    case "--min-length":
+                        spec.setMinLength(intValue(args, ++i, arg));
+                        break;
+                    case "--max-length":
+                        spec.setMaxLength(intValue(args, ++i, arg));
+                        break;
+                    case "-k":
+                    case "--keys":
+                        options.publicKeys = Paths.get(value(args, ++i, arg)).toAbsolutePath();
+                        break;
+                    case "-T":
+                    case "--threads":
+                        options.threads = intValue(args, ++i, arg);
+                        break;
+                    case "--cpu":
+                        options.cpuBudget = intValue(args, ++i, arg);
+                        break;
+                    case "--fixed-threads":
+                        options.fixedThreads = true;
+                        break;
+                    case "--tiers":
+                        // 提前解析以便在启动前报告未知的层名
+                        spec.setTiers(AttackTier.toText(AttackTier.parseList(value(args, ++i, arg))));
+                        break;
+                    case "--quick-words":
+                        spec.setQuickWords(intValue(args, ++i, arg));
+                        break;
+                    case "--vector":
+                        spec.setVectorHmac(true);
+                        break;
+                    case "--resume":
+                        options.resume = true;
+                        break;
+                    case "--no-history":
+                        options.noHistory = true;
+                        break;
+                    case "-q":
+                    case "--quiet":
+                        options.quiet = true;
+                        break;
+                    case "-h":
+                    case "--help":
+                        options.help = true;
+                        break;
+                    case "--coordinator":
+                        options.coordinatorPort = intValue(args, ++i, arg);
+                        break;
+                    case "--bind":
+                        options.bind = value(args, ++i, arg);
+                        break;
+                    case "--lease-ttl":
+                        options.leaseTtlMillis = intValue(args, ++i, arg);
+                        break;
+                    case "--local-workers":
+                        options.localWorkers = intValue(args, ++i, arg);
+                        break;
+                    case "--worker":
+                        options.worker = value(args, ++i, arg);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+            if (dictionaries.size() > 1) {
+                for (DictionarySource source : dictionaries) {
+                    spec.getDictionaries().add(source.toString());
+                }
+            } else if (dictionaries.size() == 1 && !dictionaries.get(0).isBuiltin()) {
+                spec.setDictionaryPath(dictionaries.get(0).getPath().toString());
+            }
+            if (!options.help && options.worker == null && spec.getTokens().isEmpty()) {
+                throw new IllegalArgumentException("No token given, use --token or --tokens-file");
+            }
+            // 分层攻击时掩码作为 deep 层，可以与字典 (quick、dict 层) 组合，但仍不能与规则组合
+            if (spec.getMask() != null && (spec.getRulesPath() != null || spec.isBuiltinRules()
+                    || spec.getTiers() == null && !dictionaries.isEmpty())) {
+                throw new IllegalArgumentException("--mask cannot be combined with rules, or with --dict unless --tiers is given");
+            }
+            if (options.publicKeys != null && (spec.getMask() != null || !dictionaries.isEmpty()
+                    || spec.getRulesPath() != null || spec.isBuiltinRules())) {
+                throw new IllegalArgumentException("--keys cannot be combined with --mask, --dict or rules");
+            }
+            // 分层攻击时密钥变换用于 quick 与 dict 层
+            if (spec.getKeyTransforms() != null && (options.publicKeys != null || spec.getTiers() == null
+                    && (spec.getMask() != null || spec.getRulesPath() != null || spec.isBuiltinRules()))) {
+                throw new IllegalArgumentException("--transforms only applies to plain dictionary attacks");
+            }
+            if (options.publicKeys != null && (options.coordinatorPort >= 0 || options.worker != null)) {
+                throw new IllegalArgumentException("--keys is not supported in cluster mode");
+            }
+            if (spec.getTiers() != null && (options.coordinatorPort >= 0 || options.worker != null)) {
+                throw new IllegalArgumentException("--tiers is not supported in cluster mode");
+            }
+            if (spec.getQuickWords() != null && spec.getTiers() == null) {
+                throw new IllegalArgumentException("--quick-words requires --tiers");
+            }
+            if (spec.getQuickWords() != null && spec.getQuickWords() < 0) {
+                throw new IllegalArgumentException("--quick-words must not be negative");
+            }
+            if (options.threads < 1) {
+                throw new IllegalArgumentException("--threads must be at least 1");
+            }
+            if (options.cpuBudget < 1 || options.cpuBudget > 100) {
+                throw new IllegalArgumentException("--cpu must be between 1 and 100");
+            }
+            if (options.localWorkers > 0 && options.coordinatorPort < 0) {
+                throw new IllegalArgumentException("--local-workers requires --coordinator");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException("Missing value for " + option);
+            }
+            return args[index];
+        }
+
+        private static int intValue(String[] args, int index, String option) {
+            try {
+                return Integer.parseInt(value(args, index, option));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid number for " + option + ": " + args[index]);
+            }
+        }
+
+        private static List<String> readTokens(Path file) {
+            try {
+                List<String> tokens = new ArrayList<>();
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (!line.trim().isEmpty()) {
+                        tokens.add(line.trim());
+                    }
+                }
+                return tokens;
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot read tokens file: " + e.getMessage());
+            }
+        }
+    }
+}
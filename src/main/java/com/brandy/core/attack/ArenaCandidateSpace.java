@@ -0,0 +1,119 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.CandidateArena;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.WordArena;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 已展开全部变体的候选区，序号即密钥序号
+ * 校验实例支持批量时按批提交连续的密钥。
+ */
+public class ArenaCandidateSpace implements CandidateSpace {
+    private final CandidateArena arena;
+    private final String name;
+
+    public ArenaCandidateSpace(CandidateArena arena, String name) {
+        this.arena = arena;
+        this.name = name;
+    }
+
+    @Override
+    public long size() {
+        return arena.size();
+    }
+
+    @Override
+    public long blockSize() {
+        return 4096;
+    }
+
+    @Override
+    public String[] variantNames() {
+        return AttackStats.VARIANT_NAMES;
+    }
+
+    @Override
+    public String describe() {
+        return name + "，词数: " + arena.words().size() + "，密钥总数: " + arena.size();
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final WordArena keys = arena.keys();
+            private final byte[] data = keys.data();
+            private final int batch = worker.batchSize();
+            private KeyBytes hit;
+            private long tested;
+            private int last;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                int i = (int) from;
+                int end = (int) to;
+                while (i < end) {
+                    if (stopped.getAsBoolean()) {
+                        break;
+                    }
+                    int stop = Math.min(end, i + CHECK_INTERVAL);
+                    int found = batch > 1 ? verifyBatches(i, stop) : verifyEach(i, stop);
+                    if (found >= 0) {
+                        hit = arena.originalKeyBytes(found);
+                        tested += found + 1 - from;
+                        last = found;
+                        return found + 1;
+                    }
+                    i = stop;
+                }
+                tested += i - from;
+                last = (int) Math.max(from, i - 1);
+                return i;
+            }
+
+            /**
+             * @return [from, to) 内第一个命中的密钥序号，没有时返回 -1
+             */
+            private int verifyEach(int from, int to) {
+                for (int i = from; i < to; i++) {
+                    if (worker.verify(data, keys.offset(i), keys.length(i))) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+
+            private int verifyBatches(int from, int to) {
+                for (int i = from; i < to; i += batch) {
+                    int count = Math.min(batch, to - i);
+                    for (int slot = 0; slot < count; slot++) {
+                        worker.stage(slot, data, keys.offset(i + slot), keys.length(i + slot));
+                    }
+                    int slot = worker.verifyBatch(count);
+                    if (slot >= 0) {
+                        return i + slot;
+                    }
+                }
+                return -1;
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                return last < arena.size() ? arena.originalKey(last) : "";
+            }
+        };
+    }
+}
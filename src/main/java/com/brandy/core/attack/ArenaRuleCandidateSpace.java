@@ -0,0 +1,96 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.WordArena;
+import com.brandy.core.rules.Rule;
+import com.brandy.core.rules.RuleSet;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 词区 × 规则的候选空间，序号 = 词序号 × 规则数 + 规则序号
+ * 同一个词的所有规则连续执行，变换结果写入线程私有缓冲区，不额外占用内存。
+ */
+public class ArenaRuleCandidateSpace implements CandidateSpace {
+    private final WordArena words;
+    private final RuleSet rules;
+    private final String name;
+
+    public ArenaRuleCandidateSpace(WordArena words, RuleSet rules, String name) {
+        this.words = words;
+        this.rules = rules;
+        this.name = name;
+    }
+
+    @Override
+    public long size() {
+        return (long) words.size() * rules.size();
+    }
+
+    @Override
+    public long blockSize() {
+        return 4096;
+    }
+
+    @Override
+    public String describe() {
+        return name + " × 规则 " + rules.getName() + "，词数: " + words.size() + "，规则数: " + rules.size()
+                + "，密钥总数: " + size();
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final Rule.Workspace work = new Rule.Workspace();
+            private final byte[] data = words.data();
+            private final int ruleCount = rules.size();
+            private KeyBytes hit;
+            private long tested;
+            private long last;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                long u = from;
+                while (u < to) {
+                    if (stopped.getAsBoolean()) {
+                        break;
+                    }
+                    long stop = Math.min(to, u + CHECK_INTERVAL);
+                    for (; u < stop; u++) {
+                        int word = (int) (u / ruleCount);
+                        Rule rule = rules.get((int) (u % ruleCount));
+                        int len = rule.apply(data, words.offset(word), words.length(word), work);
+                        if (len >= 0 && worker.verify(work.output(), 0, len)) {
+                            hit = KeyBytes.copyOf(work.output(), 0, len);
+                            tested += u + 1 - from;
+                            last = u;
+                            return u + 1;
+                        }
+                    }
+                }
+                tested += u - from;
+                last = Math.max(from, u - 1);
+                return u;
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                if (last >= size()) {
+                    return "";
+                }
+                return words.word((int) (last / ruleCount)) + " [" + rules.get((int) (last % ruleCount)) + "]";
+            }
+        };
+    }
+}
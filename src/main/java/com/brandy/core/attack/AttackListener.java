@@ -1,10 +1,47 @@
 package com.brandy.core.attack;
 
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.KeyBytes;
+
 public interface AttackListener {
 
-    void onSecretFound(String secret);
+    /**
+     * 单令牌模式下找到密钥
+     * @param secret 原始密钥字节，界面显示用 {@link KeyBytes#display()}
+     */
+    void onSecretFound(KeyBytes secret);
     void onProgressUpdate(int progress);
     void onLogMessage(String message);
     void onAttackComplete();
     void onAttackFailed(String reason);
+
+    /**
+     * 批量模式下某个令牌被破解，默认按单令牌方式通知
+     * @param tokenIndex 令牌在 {@link com.brandy.core.model.AttackConfig#getJwtTokens()} 中的序号
+     */
+    default void onTokenSecretFound(int tokenIndex, String token, KeyBytes secret) {
+        onSecretFound(secret);
+    }
+
+    /**
+     * 遍历完所有候选仍未找到任何密钥，默认忽略；随后仍会调用 {@link #onAttackComplete()}
+     */
+    default void onSecretNotFound() {
+    }
+
+    /**
+     * 算法混淆模式下为非对称签名的令牌生成了一个伪造的 HS* 令牌，默认写入日志
+     * @param tokenIndex 原令牌在 {@link com.brandy.core.model.AttackConfig#getJwtTokens()} 中的序号
+     * @param keySource 签名公钥的来源文件
+     * @param encoding 用作 HMAC 密钥的公钥编码
+     */
+    default void onForgedToken(int tokenIndex, String algorithm, String keySource, String encoding, String token) {
+        onLogMessage("伪造令牌 (" + algorithm + ", " + keySource + " [" + encoding + "]): " + token);
+    }
+
+    /**
+     * 每秒推送一次速率、预计剩余时间等实时统计，默认忽略
+     */
+    default void onStatsUpdate(AttackStats stats) {
+    }
 }
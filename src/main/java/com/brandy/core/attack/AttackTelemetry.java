@@ -0,0 +1,103 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.AttackStats;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * 攻击统计采集
+ * 每个工作线程写自己的 LongAdder，只在领取的区间测试完后汇总一次，热循环中不触碰共享计数器；
+ * {@link #sample()} 由进度定时器单线程调用，根据两次采样的差值计算速率与预计剩余时间。
+ */
+public class AttackTelemetry {
+    private final LongAdder[] threadKeys;
+    private final LongSupplier completedUnits;
+    private final long totalUnits;
+    private final String[] variantNames;
+    private final IntSupplier activeThreads;
+    private final long startNanos = System.nanoTime();
+
+    private long lastNanos = startNanos;
+    private final long initialUnits;
+    private long lastUnits;
+    private final long[] lastThreadKeys;
+
+    /**
+     * @param threads 工作线程数
+     * @param completedUnits 已完成的序号数
+     * @param totalUnits 序号总数
+     * @param variantNames 每个词展开的变体名称
+     */
+    public AttackTelemetry(int threads, LongSupplier completedUnits, long totalUnits, String[] variantNames) {
+        this(threads, completedUnits, totalUnits, variantNames, () -> threads);
+    }
+
+    /**
+     * @param activeThreads 当前的活动线程数，线程数由调节器动态决定时使用
+     */
+    public AttackTelemetry(int threads, LongSupplier completedUnits, long totalUnits, String[] variantNames,
+                           IntSupplier activeThreads) {
+        this.threadKeys = new LongAdder[threads];
+        for (int i = 0; i < threads; i++) {
+            threadKeys[i] = new LongAdder();
+        }
+        this.lastThreadKeys = new long[threads];
+        this.completedUnits = completedUnits;
+        // 从检查点恢复时已完成的部分不计入速率与密度
+        this.initialUnits = completedUnits.getAsLong();
+        this.lastUnits = initialUnits;
+        this.totalUnits = totalUnits;
+        this.variantNames = variantNames;
+        this.activeThreads = activeThreads;
+    }
+
+    /**
+     * 记录工作线程新测试的密钥数
+     */
+    public void record(int worker, long keys) {
+        threadKeys[worker].add(keys);
+    }
+
+    /**
+     * @return 已测试的密钥总数
+     */
+    public long keysTested() {
+        long sum = 0;
+        for (LongAdder keys : threadKeys) {
+            sum += keys.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * 生成统计快照，只能由单个采样线程调用
+     */
+    public AttackStats sample() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1e-3, (now - lastNanos) / 1e9);
+        double[] threadRates = new double[threadKeys.length];
+        long tested = 0;
+        double rate = 0;
+        for (int i = 0; i < threadKeys.length; i++) {
+            long keys = threadKeys[i].sum();
+            threadRates[i] = (keys - lastThreadKeys[i]) / seconds;
+            rate += threadRates[i];
+            lastThreadKeys[i] = keys;
+            tested += keys;
+        }
+        long units = completedUnits.getAsLong();
+        double unitRate = (units - lastUnits) / seconds;
+        lastUnits = units;
+        lastNanos = now;
+
+        long remainingUnits = Math.max(0, totalUnits - units);
+        // 序号单位不一定是密钥 (映射字典为字节)，按已完成部分的平均密度换算
+        long unitsThisRun = units - initialUnits;
+        long remainingKeys = unitsThisRun > 0 ? (long) ((double) tested / unitsThisRun * remainingUnits) : -1;
+        long eta = unitRate > 0 ? (long) (remainingUnits / unitRate * 1000) : -1;
+        return new AttackStats((now - startNanos) / 1_000_000, tested, rate, threadRates,
+                units, totalUnits, remainingKeys, eta, variantNames, activeThreads.getAsInt());
+    }
+}
@@ -0,0 +1,73 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.KeyBytes;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 可按序号区间寻址的候选空间
+ * 序号的单位由实现决定 (例如展开后的密钥序号、映射文件的字节偏移)，
+ * 调度器只负责把 [0, size()) 切成区间分发给工作线程。
+ */
+public interface CandidateSpace {
+    /**
+     * 每测试这么多个密钥检查一次停止标志
+     */
+    int CHECK_INTERVAL = 256;
+
+    /**
+     * @return 序号空间大小
+     */
+    long size();
+
+    /**
+     * @return 调度时每次领取的区间长度
+     */
+    long blockSize();
+
+    /**
+     * @return 每个词展开的变体名称，用于按变体统计剩余量；不按变体展开时返回空数组
+     */
+    default String[] variantNames() {
+        return AttackStats.NO_VARIANTS;
+    }
+
+    /**
+     * @return 描述信息，用于日志
+     */
+    String describe();
+
+    /**
+     * 为一个工作线程创建遍历器
+     * @param worker 该线程私有的校验实例
+     */
+    Walker newWalker(HmacVerifier.Worker worker);
+
+    /**
+     * 单线程使用的区间遍历器
+     */
+    interface Walker {
+        /**
+         * 测试序号 [from, to) 内的候选，每 {@link #CHECK_INTERVAL} 个密钥检查一次 stopped
+         * @return 停止位置：等于 to 表示区间已全部测试；命中或被停止时可能小于 to，
+         *         命中后从返回位置再次调用会继续测试尚未测试的候选
+         */
+        long walk(long from, long to, BooleanSupplier stopped);
+
+        /**
+         * @return 最近一次命中的原始密钥字节 (密钥变换之前)，没有命中时为 null
+         */
+        KeyBytes hit();
+
+        /**
+         * @return 累计测试的密钥数
+         */
+        long keysTested();
+
+        /**
+         * @return 最近测试的原始密钥，用于日志
+         */
+        String current();
+    }
+}
@@ -0,0 +1,195 @@
+package com.brandy.core.attack;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 工作线程数的自适应调节
+ * 线程池按上限创建，只有序号小于活动数的线程领取新区间，其余线程在区间之间停下等待；
+ * 停下线程分区中的剩余部分由活动线程窃取，不会漏测。
+ * 活动数每秒根据总速率做一次爬山：从上限开始逐个试探增减，增加后速率没有明显提高、
+ * 或减少后速率明显下降就退回，并在一段时间内保持不变；
+ * 同时不超过 CPU 预算，也不超过扣除其他负载 (包括 Burp 自身的代理线程) 后剩余的核心数。
+ * 预算可以在攻击过程中随时修改。
+ */
+public class CpuGovernor {
+    // 新增一个线程带来的速率提高低于单线程平均速率的这个比例时视为没有收益
+    private static final double MIN_GAIN = 0.25;
+    // 两次调整之间的采样次数，给新线程留出预热时间
+    private static final int SETTLE_SAMPLES = 2;
+    // 一次试探被退回后，在这么多次采样内保持不变
+    private static final int HOLD_SAMPLES = 30;
+
+    private final int processors = Runtime.getRuntime().availableProcessors();
+    private final Object lock = new Object();
+    private final boolean adaptive;
+    private volatile int budgetPercent;
+    private volatile int active;
+    private volatile int maxThreads;
+
+    // 以下字段只由采样线程访问
+    private int samplesSinceChange;
+    private int previousActive;
+    private double previousRate = -1;
+    private int holdSamples;
+    // 下一次试探的方向
+    private boolean growing;
+    private double externalLoad;
+
+    /**
+     * @param budgetPercent 允许使用的 CPU 比例 (1-100)，按核心数折算为线程上限
+     * @param adaptive 为 false 时只执行预算，不试探也不避让其他负载，用于需要固定线程数的基准测试
+     */
+    public CpuGovernor(int budgetPercent, boolean adaptive) {
+        this.budgetPercent = clampPercent(budgetPercent);
+        this.adaptive = adaptive;
+    }
+
+    /**
+     * 开始新的一轮遍历，重新学习最佳线程数
+     * @param threads 线程池大小，即活动线程数的上限
+     */
+    public void begin(int threads) {
+        synchronized (lock) {
+            maxThreads = Math.max(1, threads);
+            previousRate = -1;
+            previousActive = 0;
+            samplesSinceChange = 0;
+            holdSamples = 0;
+            // 从上限开始，短时间的攻击不受调节影响；随后先向下试探
+            growing = false;
+            active = Math.min(maxThreads, allowed());
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * 修改 CPU 预算，立即生效：降低时多出的线程在当前区间结束后停下，提高时直接放开到新的上限
+     */
+    public void setBudgetPercent(int percent) {
+        synchronized (lock) {
+            budgetPercent = clampPercent(percent);
+            if (maxThreads > 0) {
+                holdSamples = 0;
+                previousRate = -1;
+                setActive(Math.min(maxThreads, allowed()));
+            }
+        }
+    }
+
+    public int getBudgetPercent() {
+        return budgetPercent;
+    }
+
+    /**
+     * @return 当前的活动线程数
+     */
+    public int getActive() {
+        return active;
+    }
+
+    /**
+     * 工作线程领取下一个区间之前调用；本线程不在活动范围内时等待，直到被放开或 done 为真
+     */
+    public void awaitTurn(int worker, BooleanSupplier done) throws InterruptedException {
+        if (worker < active) {
+            return;
+        }
+        synchronized (lock) {
+            while (worker >= active && !done.getAsBoolean()) {
+                // 停止与遍历完成不会通知，定期复查
+                lock.wait(100);
+            }
+        }
+    }
+
+    /**
+     * 由进度定时器每秒调用一次
+     * @param keysPerSecond 最近一个采样周期的总速率
+     */
+    public void update(double keysPerSecond) {
+        synchronized (lock) {
+            if (maxThreads == 0 || !adaptive) {
+                return;
+            }
+            int limit = Math.min(maxThreads, allowed());
+            if (active > limit) {
+                // 预算降低或其他负载升高，立即让出
+                setActive(limit);
+                previousRate = -1;
+                return;
+            }
+            if (++samplesSinceChange < SETTLE_SAMPLES) {
+                return;
+            }
+            if (previousRate >= 0 && active != previousActive) {
+                int delta = active - previousActive;
+                double threshold = previousRate / previousActive * MIN_GAIN * Math.abs(delta);
+                // 增加线程没有明显提速，或减少线程明显降速：退回并暂停试探
+                boolean revert = delta > 0
+                        ? keysPerSecond - previousRate < threshold
+                        : previousRate - keysPerSecond >= threshold;
+                if (revert) {
+                    setActive(previousActive);
+                    previousRate = -1;
+                    holdSamples = HOLD_SAMPLES;
+                    growing = !growing;
+                    return;
+                }
+            }
+            previousActive = active;
+            previousRate = keysPerSecond;
+            if (holdSamples > 0) {
+                holdSamples--;
+                return;
+            }
+            // 沿当前方向试探一个线程，到达边界后换向
+            if (growing && active >= limit) {
+                growing = false;
+            } else if (!growing && active <= 1) {
+                growing = true;
+            }
+            int next = growing ? active + 1 : active - 1;
+            if (next >= 1 && next <= limit) {
+                setActive(next);
+            }
+        }
+    }
+
+    /**
+     * @return 预算与剩余核心数共同决定的活动线程上限
+     */
+    private int allowed() {
+        int budget = Math.max(1, (int) Math.round(processors * budgetPercent / 100.0));
+        if (!adaptive) {
+            return budget;
+        }
+        double systemLoad = systemCpuLoad();
+        if (systemLoad >= 0) {
+            // 系统总负载减去本攻击的活动线程 (按每个线程占满一个核心估算)，平滑后作为其他负载
+            double other = Math.max(0, systemLoad * processors - active);
+            externalLoad = externalLoad * 0.5 + other * 0.5;
+        }
+        int free = Math.max(1, processors - (int) Math.floor(externalLoad));
+        return Math.min(budget, free);
+    }
+
+    private void setActive(int count) {
+        active = Math.max(1, count);
+        samplesSinceChange = 0;
+        lock.notifyAll();
+    }
+
+    private static double systemCpuLoad() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getCpuLoad();
+        }
+        return -1;
+    }
+
+    private static int clampPercent(int percent) {
+        return Math.max(1, Math.min(100, percent));
+    }
+}
@@ -0,0 +1,568 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.crypto.HmacBatchKernel;
+import com.brandy.core.crypto.HmacKernel;
+import com.brandy.core.crypto.HmacKernels;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.transform.KeyTransformPipeline;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * HMAC 签名校验器
+ * 每次攻击只构造一次：签名输入只编码一次，目标签名只解码一次，
+ * 每个工作线程通过 {@link #newWorker()} 持有自己的 Mac 与缓冲区，
+ * 单个候选密钥的校验只包含 init/update/doFinal 与逐字节比较。
+ * HS256/HS384/HS512 在通过与 JCA Mac 的交叉校验后自动切换到纯 Java 爆破核心，
+ * 消息调度表只预计算一次，每个候选只做密钥相关的压缩。
+ * 一个校验器可以同时持有同一算法的多个目标令牌：每个候选的 ipad/opad 状态只计算一次，
+ * 再依次与所有尚未破解的目标比较。
+ * 可选的多缓冲核心 ({@link #enableBatchKernel()}) 一次计算一批候选，由支持批量的候选空间通过
+ * {@link Worker#stage} 与 {@link Worker#verifyBatch} 使用。
+ */
+public class HmacVerifier {
+    private final String jwtAlgorithm;
+    private final String javaAlgorithm;
+    private final byte[][] signingInputs;
+    private final byte[][] targetSignatures;
+    private final Supplier<HmacKernel> kernelFactory;
+    // 通过自检后才设置，之后创建的工作线程实例支持批量校验
+    private volatile Supplier<HmacBatchKernel> batchFactory;
+    private volatile int batchLanes = 1;
+    // 已破解的目标 (0/1)，工作线程据此跳过，避免重复计算与重复上报
+    private final AtomicIntegerArray solved;
+    private final AtomicInteger remaining;
+
+    /**
+     * @param jwtAlgorithm JWT 算法名 (HS256/HS384/HS512)
+     * @param signingInput 签名输入 header.payload
+     * @param targetSignature Base64URL 编码的目标签名
+     * @throws IllegalArgumentException 算法不支持或签名无法解码
+     */
+    public HmacVerifier(String jwtAlgorithm, String signingInput, String targetSignature) {
+        this(jwtAlgorithm, new String[]{signingInput}, new String[]{targetSignature});
+    }
+
+    /**
+     * 同一算法的多个目标
+     * @param jwtAlgorithm JWT 算法名 (HS256/HS384/HS512)
+     * @param signingInputs 各目标的签名输入 header.payload
+     * @param targetSignatures 各目标 Base64URL 编码的签名
+     * @throws IllegalArgumentException 算法不支持或签名无法解码
+     */
+    public HmacVerifier(String jwtAlgorithm, String[] signingInputs, String[] targetSignatures) {
+        this.jwtAlgorithm = jwtAlgorithm;
+        this.javaAlgorithm = getJavaAlgorithm(jwtAlgorithm);
+        this.signingInputs = new byte[signingInputs.length][];
+        this.targetSignatures = new byte[signingInputs.length][];
+        for (int i = 0; i < signingInputs.length; i++) {
+            this.signingInputs[i] = signingInputs[i].getBytes(StandardCharsets.US_ASCII);
+            this.targetSignatures[i] = Base64.getUrlDecoder().decode(targetSignatures[i]);
+        }
+        this.solved = new AtomicIntegerArray(signingInputs.length);
+        this.remaining = new AtomicInteger(signingInputs.length);
+        // 提前确认 JCA 提供者可用，避免在工作线程中才失败
+        newMac(javaAlgorithm);
+        boolean kernelOk = true;
+        for (byte[] signingInput : this.signingInputs) {
+            // 自检覆盖每种消息长度 (块数)
+            kernelOk &= HmacKernels.selfTest(jwtAlgorithm, javaAlgorithm, signingInput);
+        }
+        this.kernelFactory = kernelOk
+                ? HmacKernels.forAlgorithm(jwtAlgorithm, this.signingInputs, this.targetSignatures)
+                : null;
+    }
+
+    /**
+     * 根据 JWT 三段式结构构造校验器
+     * @param jwtParts {@link com.brandy.core.utils.JWTUtils#parseJWT(String)} 的结果
+     * @param jwtAlgorithm JWT 算法名
+     */
+    public static HmacVerifier forToken(String[] jwtParts, String jwtAlgorithm) {
+        return new HmacVerifier(jwtAlgorithm, jwtParts[0] + "." + jwtParts[1], jwtParts[2]);
+    }
+
+    public static String getJavaAlgorithm(String jwtAlgorithm) {
+        return switch (jwtAlgorithm) {
+            case "HS256" -> "HmacSHA256";
+            case "HS384" -> "HmacSHA384";
+            case "HS512" -> "HmacSHA512";
+            default -> throw new IllegalArgumentException("Unsupported algorithm: " + jwtAlgorithm);
+        };
+    }
+
+    public String getAlgorithm() {
+        return jwtAlgorithm;
+    }
+
+    public byte[] getSigningInput() {
+        return signingInputs[0];
+    }
+
+    public byte[] getTargetSignature() {
+        return targetSignatures[0];
+    }
+
+    /**
+     * @return 目标数量
+     */
+    public int getTargetCount() {
+        return signingInputs.length;
+    }
+
+    /**
+     * 把目标标记为已破解
+     * @return 首次标记时返回 true，用于保证每个目标只上报一次
+     */
+    public boolean markSolved(int target) {
+        if (solved.compareAndSet(target, 0, 1)) {
+            remaining.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    public boolean isSolved(int target) {
+        return solved.get(target) != 0;
+    }
+
+    /**
+     * @return 所有目标都已破解
+     */
+    public boolean isAllSolved() {
+        return remaining.get() == 0;
+    }
+
+    /**
+     * @return 是否使用纯 Java 爆破核心 (否则回退到 JCA Mac)
+     */
+    public boolean isKernelEnabled() {
+        return kernelFactory != null;
+    }
+
+    /**
+     * 尝试启用基于 Vector API 的多缓冲核心，需在创建工作线程实例之前调用
+     * @return 是否启用；向量核心不可用 (未以 vector 配置构建或 JVM 未加载 jdk.incubator.vector 模块)、
+     *         纯 Java 核心未启用或与 JCA Mac 的交叉校验不一致时保持逐个校验
+     */
+    public synchronized boolean enableBatchKernel() {
+        if (batchFactory != null) {
+            return true;
+        }
+        if (kernelFactory == null) {
+            return false;
+        }
+        for (byte[] signingInput : signingInputs) {
+            if (!HmacKernels.selfTestBatch(jwtAlgorithm, javaAlgorithm, signingInput)) {
+                return false;
+            }
+        }
+        Supplier<HmacBatchKernel> factory = HmacKernels.forBatch(jwtAlgorithm, signingInputs, targetSignatures);
+        if (factory == null) {
+            return false;
+        }
+        batchLanes = factory.get().lanes();
+        batchFactory = factory;
+        return true;
+    }
+
+    /**
+     * @return 多缓冲核心每批的候选数，未启用时为 1
+     */
+    public int getBatchLanes() {
+        return batchLanes;
+    }
+
+    /**
+     * 创建一个工作线程私有的校验实例，实例本身不是线程安全的
+     */
+    public Worker newWorker() {
+        Supplier<HmacBatchKernel> batch = batchFactory;
+        if (kernelFactory != null && batch != null) {
+            return new BatchWorker(kernelFactory.get(), batch.get(), solved);
+        }
+        if (kernelFactory != null) {
+            return new KernelWorker(kernelFactory.get(), solved);
+        }
+        return new MacWorker(newMac(javaAlgorithm), javaAlgorithm, signingInputs, targetSignatures, solved);
+    }
+
+    /**
+     * 以原始、Base64、Hex 三种变体 (与字典展开的变体一致) 校验一个已知的原始密钥，
+     * 用于已知密钥与其他进程上报的命中
+     * @return 匹配的目标序号，不匹配时为空数组
+     */
+    public static int[] matchVariants(Worker worker, KeyBytes secret) {
+        return matchVariants(worker, secret, KeyTransformPipeline.DEFAULT);
+    }
+
+    /**
+     * 以给定的每个密钥变换校验一个已知的原始密钥，密钥字节原样使用，不经过字符串编码
+     * @return 匹配的目标序号，不匹配时为空数组
+     */
+    public static int[] matchVariants(Worker worker, KeyBytes secret, KeyTransformPipeline transforms) {
+        byte[] raw = secret.toByteArray();
+        KeyTransformPipeline.Evaluator evaluator = transforms.newEvaluator();
+        evaluator.reset(raw, 0, raw.length);
+        int[] targets = new int[0];
+        for (int variant = 0; variant < transforms.size(); variant++) {
+            int len = evaluator.apply(variant);
+            if (len >= 0 && worker.verify(evaluator.output(variant), 0, len)) {
+                int found = targets.length;
+                targets = Arrays.copyOf(targets, found + worker.matchCount());
+                for (int m = 0; m < worker.matchCount(); m++) {
+                    targets[found + m] = worker.matchedTarget(m);
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static Mac newMac(String javaAlgorithm) {
+        try {
+            return Mac.getInstance(javaAlgorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported algorithm: " + javaAlgorithm, e);
+        }
+    }
+
+    /**
+     * 单线程使用的校验接口
+     */
+    public interface Worker {
+        /**
+         * 校验 key[off, off + len) 作为 HMAC 密钥时是否与任一尚未破解的目标签名匹配
+         */
+        boolean verify(byte[] key, int off, int len);
+
+        /**
+         * 以 UTF-8 编码校验字符串密钥，编码写入复用缓冲区
+         */
+        boolean verify(String key);
+
+        /**
+         * @return 最近一次 verify 或 verifyBatch 匹配的目标数量
+         */
+        int matchCount();
+
+        /**
+         * @return 最近一次 verify 或 verifyBatch 匹配的第 i 个目标序号
+         */
+        int matchedTarget(int i);
+
+        /**
+         * @return 一批最多校验的候选数，1 表示只支持逐个校验，此时不能调用 stage 与 verifyBatch
+         */
+        default int batchSize() {
+            return 1;
+        }
+
+        /**
+         * 把候选 key[off, off + len) 放到当前批次的第 slot 个位置；返回后 key 可以被修改
+         */
+        default void stage(int slot, byte[] key, int off, int len) {
+            throw new UnsupportedOperationException("Batch verification is not enabled");
+        }
+
+        /**
+         * 校验当前批次的前 count 个候选
+         * @return 第一个匹配的位置，其匹配的目标通过 matchCount/matchedTarget 取得；没有匹配时返回 -1
+         */
+        default int verifyBatch(int count) {
+            throw new UnsupportedOperationException("Batch verification is not enabled");
+        }
+    }
+
+    /**
+     * 提供字符串密钥到复用缓冲区的 UTF-8 编码，以及对所有未破解目标的遍历
+     */
+    abstract static class AbstractWorker implements Worker {
+        private final AtomicIntegerArray solved;
+        private final int[] matches;
+        private int matchCount;
+        private byte[] encodeBuffer = new byte[256];
+
+        AbstractWorker(AtomicIntegerArray solved) {
+            this.solved = solved;
+            this.matches = new int[solved.length()];
+        }
+
+        @Override
+        public boolean verify(byte[] key, int off, int len) {
+            matchCount = 0;
+            loadKey(key, off, len);
+            for (int t = 0; t < matches.length; t++) {
+                if (solved.get(t) == 0 && matches(t)) {
+                    matches[matchCount++] = t;
+                }
+            }
+            return matchCount > 0;
+        }
+
+        /**
+         * @return 目标尚未破解
+         */
+        boolean isPending(int target) {
+            return solved.get(target) == 0;
+        }
+
+        /**
+         * 由批量校验直接记录匹配结果
+         */
+        void setMatches(int[] targets, int count) {
+            System.arraycopy(targets, 0, matches, 0, count);
+            matchCount = count;
+        }
+
+        /**
+         * 载入候选密钥，计算与目标无关的密钥状态
+         */
+        abstract void loadKey(byte[] key, int off, int len);
+
+        /**
+         * 用当前密钥状态校验第 target 个目标
+         */
+        abstract boolean matches(int target);
+
+        @Override
+        public int matchCount() {
+            return matchCount;
+        }
+
+        @Override
+        public int matchedTarget(int i) {
+            return matches[i];
+        }
+
+        @Override
+        public boolean verify(String keyText) {
+            int len = encodeUtf8(keyText);
+            return verify(encodeBuffer, 0, len);
+        }
+
+        private int encodeUtf8(String s) {
+            int n = s.length();
+            if (encodeBuffer.length < n * 3) {
+                encodeBuffer = new byte[n * 3];
+            }
+            byte[] buf = encodeBuffer;
+            int pos = 0;
+            for (int i = 0; i < n; i++) {
+                char c = s.charAt(i);
+                if (c < 0x80) {
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x800) {
+                    buf[pos++] = (byte) (0xC0 | (c >> 6));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(s.charAt(i + 1))) {
+                    int cp = Character.toCodePoint(c, s.charAt(++i));
+                    buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    // 与 String.getBytes(UTF_8) 一致，孤立代理替换为 '?'
+                    buf[pos++] = '?';
+                } else {
+                    buf[pos++] = (byte) (0xE0 | (c >> 12));
+                    buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buf[pos++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            return pos;
+        }
+    }
+
+    /**
+     * 基于纯 Java 爆破核心的实现
+     */
+    static final class KernelWorker extends AbstractWorker {
+        private final HmacKernel kernel;
+
+        KernelWorker(HmacKernel kernel, AtomicIntegerArray solved) {
+            super(solved);
+            this.kernel = kernel;
+        }
+
+        @Override
+        void loadKey(byte[] key, int off, int len) {
+            kernel.setKey(key, off, len);
+        }
+
+        @Override
+        boolean matches(int target) {
+            return kernel.matches(target);
+        }
+    }
+
+    /**
+     * 逐个校验使用纯 Java 核心，批量校验使用多缓冲核心：每个目标得到一个通道掩码，
+     * 只报告第一个匹配的通道，调用方从其后一个位置继续即可
+     */
+    static final class BatchWorker extends AbstractWorker {
+        private final HmacKernel kernel;
+        private final HmacBatchKernel batch;
+        private final long[] laneMatches;
+        private final int[] batchTargets;
+
+        BatchWorker(HmacKernel kernel, HmacBatchKernel batch, AtomicIntegerArray solved) {
+            super(solved);
+            this.kernel = kernel;
+            this.batch = batch;
+            this.laneMatches = new long[batch.targetCount()];
+            this.batchTargets = new int[batch.targetCount()];
+        }
+
+        @Override
+        void loadKey(byte[] key, int off, int len) {
+            kernel.setKey(key, off, len);
+        }
+
+        @Override
+        boolean matches(int target) {
+            return kernel.matches(target);
+        }
+
+        @Override
+        public int batchSize() {
+            return batch.lanes();
+        }
+
+        @Override
+        public void stage(int slot, byte[] key, int off, int len) {
+            batch.setKey(slot, key, off, len);
+        }
+
+        @Override
+        public int verifyBatch(int count) {
+            long any = 0;
+            for (int t = 0; t < laneMatches.length; t++) {
+                laneMatches[t] = isPending(t) ? batch.matches(t, count) : 0;
+                any |= laneMatches[t];
+            }
+            if (any == 0) {
+                setMatches(batchTargets, 0);
+                return -1;
+            }
+            int lane = Long.numberOfTrailingZeros(any);
+            int found = 0;
+            for (int t = 0; t < laneMatches.length; t++) {
+                if ((laneMatches[t] >>> lane & 1) != 0) {
+                    batchTargets[found++] = t;
+                }
+            }
+            setMatches(batchTargets, found);
+            return lane;
+        }
+    }
+
+    /**
+     * 基于 JCA Mac 的实现，Mac 不暴露中间状态，因此每个目标都要重新 init
+     */
+    static final class MacWorker extends AbstractWorker {
+        private final Mac mac;
+        private final byte[][] signingInputs;
+        private final byte[][] targets;
+        private final byte[] output;
+        private final ReusableKey key;
+        private byte[] keyBytes;
+        private int keyOff;
+        private int keyLen;
+
+        MacWorker(Mac mac, String javaAlgorithm, byte[][] signingInputs, byte[][] targets, AtomicIntegerArray solved) {
+            super(solved);
+            this.mac = mac;
+            this.signingInputs = signingInputs;
+            this.targets = targets;
+            this.output = new byte[mac.getMacLength()];
+            this.key = new ReusableKey(javaAlgorithm);
+        }
+
+        @Override
+        void loadKey(byte[] keyBytes, int off, int len) {
+            this.keyBytes = keyBytes;
+            this.keyOff = off;
+            this.keyLen = len;
+        }
+
+        @Override
+        boolean matches(int t) {
+            byte[] target = targets[t];
+            if (target.length != output.length) {
+                return false;
+            }
+            try {
+                // init 会清零 getEncoded() 返回的数组，每个目标都重新写入
+                key.load(keyBytes, keyOff, keyLen);
+                mac.init(key);
+                mac.update(signingInputs[t]);
+                mac.doFinal(output, 0);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            for (int i = 0; i < output.length; i++) {
+                if (output[i] != target[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 可复用的密钥对象，避免每个候选都创建 SecretKeySpec。
+     * SunJCE 的 HmacCore 在 init 时会把 getEncoded() 的结果拷贝进 ipad/opad 后清零，
+     * 因此这里按长度缓存数组，每次 load 重新写入即可。
+     * 只在工作线程内传给 Mac.init，持有候选密钥缓冲区，绝不应被序列化，故不声明 serialVersionUID。
+     */
+    @SuppressWarnings("serial")
+    static final class ReusableKey implements SecretKey {
+        private static final int MAX_CACHED_LENGTH = 1024;
+
+        private final String algorithm;
+        private final byte[][] byLength = new byte[MAX_CACHED_LENGTH + 1][];
+        private byte[] current = new byte[0];
+
+        ReusableKey(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        void load(byte[] src, int off, int len) {
+            byte[] dst;
+            if (len > MAX_CACHED_LENGTH) {
+                dst = new byte[len];
+            } else {
+                dst = byLength[len];
+                if (dst == null) {
+                    dst = byLength[len] = new byte[len];
+                }
+            }
+            System.arraycopy(src, off, dst, 0, len);
+            current = dst;
+        }
+
+        @Override
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        @Override
+        public String getFormat() {
+            return "RAW";
+        }
+
+        @Override
+        public byte[] getEncoded() {
+            return current;
+        }
+    }
+}
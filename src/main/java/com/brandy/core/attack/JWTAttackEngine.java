@@ -1,36 +1,88 @@
 package com.brandy.core.attack;
 
 import com.brandy.core.model.AttackConfig;
-import com.brandy.core.model.KeyCandidate;
+import com.brandy.core.model.AttackTier;
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.CandidateArena;
+import com.brandy.core.model.Checkpoint;
+import com.brandy.core.model.DictionarySource;
+import com.brandy.core.model.ExhaustedSearch;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.KeyMaterial;
+import com.brandy.core.model.KnownSecret;
+import com.brandy.core.model.WordArena;
+import com.brandy.core.rules.Rule;
+import com.brandy.core.rules.RuleSet;
+import com.brandy.core.transform.KeyTransformPipeline;
+import com.brandy.core.utils.CheckpointStore;
 import com.brandy.core.utils.DictLoader;
+import com.brandy.core.utils.DictionaryCache;
+import com.brandy.core.utils.DictionaryMerger;
 import com.brandy.core.utils.JWTUtils;
+import com.brandy.core.utils.KeyMaterialStore;
+import com.brandy.core.utils.MappedDictionary;
+import com.brandy.core.utils.SecretStore;
 
-import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Base64;
-import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.zip.CRC32;
 
 
 public class JWTAttackEngine {
+    private static final int CHECKPOINT_INTERVAL_SECONDS = 10;
+
     private final AttackConfig config;
     private final AttackListener listener;
     private ExecutorService executor;
     private volatile boolean isStopped;
     private ExecutorService workerPool;
+    private Timer progressTimer;
+    // 当前执行的算法组序号与组数，用于折算整体进度
+    private volatile int passIndex;
+    private volatile int passCount = 1;
+    // 算法混淆模式下的候选空间，其他模式为 null
+    private KeyEncodingCandidateSpace keySpace;
+    // 按 CPU 预算与实测速率调节活动线程数
+    private final CpuGovernor governor;
+    // 分层攻击时快速层的候选词，进入该层时加载
+    private WordArena quickTierWords;
 
     public JWTAttackEngine(AttackConfig config, AttackListener listener) {
         this.config = config;
         this.listener = listener;
+        this.governor = new CpuGovernor(config.getCpuBudgetPercent(), config.isAdaptiveThreads());
+    }
+
+    /**
+     * 攻击过程中修改 CPU 预算，无需重启攻击
+     * @param percent 允许使用的 CPU 比例 (1-100)
+     */
+    public void setCpuBudget(int percent) {
+        config.setCpuBudgetPercent(percent);
+        governor.setBudgetPercent(percent);
+        listener.onLogMessage("CPU 预算: " + governor.getBudgetPercent() + "%，活动线程数: " + governor.getActive());
     }
 
     public void start() {
@@ -54,287 +106,1003 @@ public class JWTAttackEngine {
             workerPool.shutdownNow();
         }
     }
+    /**
+     * 等待攻击线程结束 (包括停止后的检查点保存)，供无界面运行时使用
+     * @return 超时前结束返回 true
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor == null || executor.awaitTermination(timeout, unit);
+    }
+
     //重置方法
     public void reset() {
         this.isStopped = false;
         this.executor = null;
         this.workerPool = null;
+        this.progressTimer = null;
     }
     private void doAttack() {
-        // 添加一个标志，表示是否找到了正确的密钥
+        // 已破解的令牌数；单令牌模式下只会是 0 或 1
         AtomicInteger secretFound = new AtomicInteger(0);
         
         try {
-            // 1. 解析 JWT
-            final String[] jwtParts = JWTUtils.parseJWT(config.getJwtToken());
-            final String unsignedToken = jwtParts[0] + "." + jwtParts[1];
-            final String targetSignature = jwtParts[2];
+            // 算法混淆：先加载候选公钥，非对称签名的令牌直接伪造，剩下的 HS* 令牌以公钥编码爆破
+            if (config.isKeyConfusion()) {
+                List<KeyMaterial> publicKeys = loadPublicKeys();
+                if (publicKeys == null) {
+                    return;
+                }
+                if (!forgeConfusedTokens(publicKeys)) {
+                    notifyComplete();
+                    return;
+                }
+                keySpace = new KeyEncodingCandidateSpace(publicKeys);
+            }
+
+            // 1. 解析 JWT，按算法分组；签名输入、目标签名只准备一次，每个工作线程复用自己的实例
+            List<TargetGroup> groups = buildTargetGroups();
+            if (groups.isEmpty()) {
+                listener.onAttackFailed("没有可爆破的HMAC令牌");
+                notifyComplete();
+                return;
+            }
+
+            // 2. 计算线程数：HMAC 计算是纯 CPU 任务，超过核心数只会与 Burp 争抢，实际活动数由调节器决定
+            int optimalThreadCount = Math.min(config.getThreadCount(),
+                    Math.max(1, Runtime.getRuntime().availableProcessors()));
+            listener.onLogMessage("使用线程数: " + optimalThreadCount + "，CPU 预算: " + config.getCpuBudgetPercent() + "%"
+                    + (config.isAdaptiveThreads() ? "，自适应调节" : ""));
+
+            // 加载任何字典之前先试本地记录的已知密钥
+            if (config.isUseHistory()) {
+                for (TargetGroup group : groups) {
+                    tryKnownSecrets(group, secretFound);
+                }
+            }
+            if (!config.isBatch() && secretFound.get() == 1) {
+                return;
+            }
+
+            // 可选的规则变换，只加载一次，所有算法组共用
+            RuleSet rules = null;
+            if (keySpace != null) {
+                listener.onLogMessage("算法混淆模式，" + keySpace.describe());
+            } else if (config.isMaskAttack()) {
+                listener.onLogMessage("掩码模式: " + config.getMask() + "，密钥空间: " + config.getMask().keyspace());
+            } else if (config.isUseRules()) {
+                try {
+                    rules = loadRules();
+                } catch (IOException e) {
+                    listener.onLogMessage("加载规则失败: " + e.getMessage());
+                    listener.onAttackFailed("规则加载失败: " + e.getMessage());
+                    notifyComplete();
+                    return;
+                }
+                if (rules.size() == 0) {
+                    listener.onAttackFailed("规则文件中没有有效规则");
+                    notifyComplete();
+                    return;
+                }
+            }
 
-            // 2. 加载字典（捕获IO异常）
-            List<KeyCandidate> candidates;
+            // 每个算法组选择校验核心，之后各层共用
+            for (TargetGroup group : groups) {
+                HmacVerifier verifier = group.verifier;
+                if (config.isVectorHmac() && !verifier.enableBatchKernel()) {
+                    listener.onLogMessage("向量化 HMAC 核心不可用 (需以 vector 配置构建，并以 --add-modules "
+                            + "jdk.incubator.vector 启动)，改为逐个校验");
+                }
+                listener.onLogMessage((verifier.getBatchLanes() > 1
+                        ? "使用向量化 HMAC 爆破核心 (每批 " + verifier.getBatchLanes() + " 个密钥): "
+                        : verifier.isKernelEnabled() ? "使用纯Java HMAC爆破核心: " : "使用JCA Mac校验: ")
+                        + verifier.getAlgorithm() + "，目标令牌数: " + verifier.getTargetCount());
+            }
 
+            // 3. 每个算法组对候选来源做一遍；分层时每一层对全部算法组做完才进入下一层
+            boolean exhausted = true;
             try {
-                if (config.isUseBuiltinDictionary()) {
-                    // 使用内置字典
-                    try {
-                        candidates = DictLoader.loadBuiltinDictionary()
-                                .collect(Collectors.toList());
-                        listener.onLogMessage("成功加载内置字典，密钥总数: " + candidates.size());
-                    } catch (IOException e) {
-                        // 详细记录异常信息
-                        listener.onLogMessage("加载内置字典失败: " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
+                if (!config.isTiered() || keySpace != null) {
+                    if (config.isTiered()) {
+                        listener.onLogMessage("算法混淆模式不分层");
                     }
+                    passCount = groups.size();
+                    exhausted = attackGroups(null, groups, rules, 0, optimalThreadCount, secretFound);
                 } else {
-                    // 使用用户选择的字典
-                    try {
-                        candidates = DictLoader.loadDictionary(config.getDictionaryPath())
-                                .collect(Collectors.toList());
-                        listener.onLogMessage("成功加载字典，密钥总数: " + candidates.size());
-                    } catch (IOException e) {
-                        // 详细记录异常信息
-                        listener.onLogMessage("加载用户字典失败: " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
+                    List<AttackTier> tiers = planTiers(rules);
+                    passCount = Math.max(1, tiers.size() * groups.size());
+                    for (int t = 0; t < tiers.size() && !isStopped; t++) {
+                        AttackTier tier = tiers.get(t);
+                        listener.onLogMessage("第 " + (t + 1) + "/" + tiers.size() + " 层: " + describeTier(tier));
+                        if (!attackGroups(tier, groups, rules, t * groups.size(), optimalThreadCount, secretFound)) {
+                            exhausted = false;
+                        }
+                        if (config.isBatch() && !isStopped) {
+                            listener.onLogMessage(tier.text() + " 层结束，已破解: " + secretFound.get() + "/"
+                                    + config.getJwtTokens().size());
+                        }
                     }
                 }
-                listener.onLogMessage("目标签名: " + targetSignature);
             } catch (IOException e) {
+                // 详细记录异常信息
+                listener.onLogMessage("加载字典失败: " + e.getMessage());
+                e.printStackTrace();
                 listener.onAttackFailed("字典加载失败: " + e.getMessage());
                 return;
             }
 
-            // 3. 初始化线程池 - 根据字典大小动态调整线程数
-            int optimalThreadCount = Math.min(config.getThreadCount(), 
-                    Math.max(1, Runtime.getRuntime().availableProcessors() * 2));
-            listener.onLogMessage("使用线程数: " + optimalThreadCount);
-            workerPool = Executors.newFixedThreadPool(optimalThreadCount);
-            
-            AtomicInteger processedCount = new AtomicInteger(0);
-            AtomicInteger completedTasks = new AtomicInteger(0);
-            AtomicInteger totalTasks = new AtomicInteger(0);
-            
-            // 添加进度更新定时器，定期更新进度
-            int updateInterval = Math.max(1, candidates.size() / 100); // 每1%更新一次
-            AtomicInteger lastUpdateCount = new AtomicInteger(0);
-            
-            // 创建进度更新定时器
-            Timer progressTimer = new Timer();
-            progressTimer.scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    int currentCount = processedCount.get();
-                    int lastCount = lastUpdateCount.get();
-                    
-                    if (currentCount > lastCount) {
-                        int progress = (int) ((currentCount * 100.0) / candidates.size());
-                        listener.onProgressUpdate(progress);
-                        lastUpdateCount.set(currentCount);
-                    }
-                }
-            }, 1000, 1000); // 每秒更新一次
-
-            // 4. 分批提交任务，避免一次性提交过多任务导致内存压力
-            int batchSize = 1000; // 每批处理1000个密钥
-            int totalCandidates = candidates.size();
-            
-            for (int i = 0; i < totalCandidates; i += batchSize) {
-                if (isStopped) break;
-                
-                int endIndex = Math.min(i + batchSize, totalCandidates);
-                List<KeyCandidate> batch = candidates.subList(i, endIndex);
-                
-                // 提交这一批任务
-                for (KeyCandidate candidate : batch) {
-                    if (isStopped) break;
-                    
-                    final KeyCandidate finalCandidate = candidate;
-                    totalTasks.incrementAndGet();
-                    
-                    workerPool.submit(() -> {
-                        try {
-                            if (isStopped) return;
-                            
-                            // 减少日志输出频率，避免日志过多
-                            if (processedCount.get() % 100 == 0) {
-                                listener.onLogMessage("正在测试密钥: " + finalCandidate.getOriginalKey()
-                                        + " (编码形式: " + finalCandidate.getEncodedKey() + ")");
-                            }
-                            
-                            boolean isValid = verifySignature(
-                                    unsignedToken,
-                                    targetSignature,
-                                    finalCandidate.getEncodedKey()
-                            );
-
-                            // 更新进度
-                            processedCount.incrementAndGet();
-
-                            if (isValid) {
-                                // 设置找到密钥的标志
-                                secretFound.set(1);
-                                // 更新进度到100%
-                                listener.onProgressUpdate(100);
-                                // 通知找到密钥
-                                listener.onSecretFound(finalCandidate.getOriginalKey());
-                                // 显示弹窗提示
-                                showSecretFoundDialog(finalCandidate.getOriginalKey());
-                                // 恢复startButton状态
-                                resetStartButton();
-                                stop();
-                            }
-                        } catch (Exception e) {
-                            // 减少异常日志输出频率
-                            if (completedTasks.get() % 1000 == 0) {
-                                listener.onLogMessage("任务执行异常: " + e.getMessage());
-                            }
-                        } finally {
-                            completedTasks.incrementAndGet();
-                        }
-                    });
+            if (!config.isBatch()) {
+                // 检查是否找到了密钥
+                if (secretFound.get() == 1) {
+                    // 如果找到了密钥，直接返回，不执行后续代码
+                    return;
                 }
-                
-                // 等待当前批次完成，避免内存压力过大
-                if (!isStopped && i + batchSize < totalCandidates) {
-                    // 短暂等待，让已提交的任务有机会执行
-                    Thread.sleep(100);
+                // 检查是否所有候选都已测试
+                if (exhausted) {
+                    listener.onProgressUpdate(100);
+                    listener.onSecretNotFound();
                 }
-            }
-
-            // 5. 等待线程池结束或超时
-            workerPool.shutdown();
-            
-            // 取消进度更新定时器
-            progressTimer.cancel();
-            
-            // 设置更合理的超时时间，例如30秒
-            boolean terminated = workerPool.awaitTermination(30, TimeUnit.SECONDS);
-            
-            if (!terminated) {
-                listener.onLogMessage("攻击超时，强制停止");
-                workerPool.shutdownNow();
-            }
-            
-            // 检查是否找到了密钥
-            if (secretFound.get() == 1) {
-                // 如果找到了密钥，直接返回，不执行后续代码
+                // 通知攻击结束
+                notifyComplete();
                 return;
             }
-            
-            // 检查是否所有任务都已完成
-            if (completedTasks.get() == totalTasks.get()) {
-                listener.onAttackComplete();
-                // 密钥未找到，显示提示
-                showSecretNotFoundDialog();
-                // 恢复startButton状态
-                resetStartButton();
-            } else {
-                listener.onLogMessage("攻击未完全完成，已完成: " + completedTasks.get() + "/" + totalTasks.get());
-                // 恢复startButton状态
-                resetStartButton();
+
+            listener.onLogMessage("批量爆破结束，已破解: " + secretFound.get() + "/" + config.getJwtTokens().size());
+            if (exhausted) {
+                listener.onProgressUpdate(100);
+                if (secretFound.get() == 0) {
+                    listener.onSecretNotFound();
+                }
             }
+            notifyComplete();
 
         } catch (Exception e) {
             // 只有在没有找到密钥的情况下才执行异常处理
-            if (secretFound.get() == 0) {
+            if ((config.isBatch() || secretFound.get() == 0) && !isStopped) {
                 // 详细记录异常信息
                 listener.onLogMessage("攻击异常: " + e.getMessage());
                 e.printStackTrace();
                 listener.onAttackFailed("攻击异常: " + e.getMessage());
-                // 恢复startButton状态
-                resetStartButton();
+                // 通知攻击结束
+                notifyComplete();
             }
         } finally {
+            // 取消进度更新定时器
+            if (progressTimer != null) {
+                progressTimer.cancel();
+            }
             if (workerPool != null && !workerPool.isShutdown()) {
                 workerPool.shutdownNow();
             }
         }
     }
 
-    private String getJavaAlgorithm(String jwtAlgorithm) {
-        return switch (jwtAlgorithm) {
-            case "HS256" -> "HmacSHA256";
-            case "HS384" -> "HmacSHA384";
-            case "HS512" -> "HmacSHA512";
-            case "RS256" -> "SHA256withRSA";
-            case "RS384" -> "SHA384withRSA";
-            case "RS512" -> "SHA512withRSA";
-            // 添加其他算法支持
-            default -> throw new IllegalArgumentException("Unsupported algorithm: " + jwtAlgorithm);
-        };
+    /**
+     * 对全部算法组执行一遍攻击，组内每个候选的密钥状态只计算一次
+     * @param tier 分层攻击的当前层，为 null 时不分层，直接使用配置的候选来源
+     * @param firstPass 本层第一个组的全局序号，用于折算整体进度与区分检查点
+     * @return 各组是否都已遍历完全部候选 (或已全部破解)
+     */
+    private boolean attackGroups(AttackTier tier, List<TargetGroup> groups, RuleSet rules, int firstPass, int threads,
+                                 AtomicInteger secretFound)
+            throws IOException, InterruptedException, ExecutionException {
+        boolean exhausted = true;
+        String sourceId = null;
+        for (int g = 0; g < groups.size() && !isStopped; g++) {
+            passIndex = firstPass + g;
+            TargetGroup group = groups.get(g);
+            HmacVerifier verifier = group.verifier;
+            if (verifier.isAllSolved()) {
+                continue;
+            }
+            if (sourceId == null) {
+                if (tier == AttackTier.QUICK) {
+                    quickTierWords = loadQuickWords();
+                }
+                sourceId = describeSource(tier, rules);
+            }
+            if (config.isUseHistory() && isExhausted(group, sourceId)) {
+                continue;
+            }
+            long[] result = attackSource(tier, group, rules, sourceId, threads, secretFound);
+            if (result[0] != result[1] && !verifier.isAllSolved()) {
+                exhausted = false;
+                listener.onLogMessage("攻击未完全完成，已完成: " + result[0] + "/" + result[1]);
+            }
+        }
+        return exhausted;
     }
-    private byte[] processKeyEncoding(String encodedKey, String algorithm) {
-        // 直接使用预先生成的编码密钥字节
-        return encodedKey.getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * 去掉未配置的层：deep 层需要规则或掩码
+     */
+    private List<AttackTier> planTiers(RuleSet rules) {
+        List<AttackTier> tiers = new ArrayList<>();
+        for (AttackTier tier : config.getTiers()) {
+            if (tier == AttackTier.DEEP && rules == null && !config.isMaskAttack()) {
+                listener.onLogMessage("未配置规则或掩码，跳过 deep 层");
+                continue;
+            }
+            tiers.add(tier);
+        }
+        return tiers;
     }
 
-//    private boolean isHex(String str) {
-//        // 允许偶数长度并忽略大小写
-//        return str.length() % 2 == 0 && str.matches("^[0-9a-fA-F]*$");
-//    }
+    private String describeTier(AttackTier tier) {
+        switch (tier) {
+            case QUICK:
+                return "quick (已知密钥、默认密钥与字典前 " + config.getQuickWords() + " 个词)";
+            case DICTIONARY:
+                return "dict (完整字典，不应用规则)";
+            default:
+                return config.isMaskAttack() ? "deep (掩码 " + config.getMask() + ")" : "deep (字典 + 规则)";
+        }
+    }
 
-    private boolean verifySignature(String unsignedToken, String targetSig, String key) {
+    /**
+     * 快速层的候选：内置的常见默认密钥，加上配置的字典文件 (合并字典按权重交错) 的前若干个不重复的词
+     */
+    private WordArena loadQuickWords() throws IOException {
+        long loadStart = System.nanoTime();
+        List<DictionarySource> sources = config.isMergedDictionary() ? config.getDictionaries()
+                : config.isUseBuiltinDictionary() ? List.of()
+                : List.of(new DictionarySource(config.getDictionaryPath(), 1));
+        WordArena words = DictionaryMerger.mergeTop(DictLoader.loadDefaultSecrets(), sources, config.getQuickWords());
+        listener.onLogMessage("快速层候选就绪，去重后词数: " + words.size() + "，耗时: "
+                + (System.nanoTime() - loadStart) / 1_000_000 + " ms");
+        return words;
+    }
+
+    /**
+     * 按当前层选择候选空间：quick 层为默认密钥与字典前若干个词，dict 层为不带规则的完整字典，
+     * deep 层与不分层时为配置的掩码或字典 (+ 规则)
+     * @return {已完成序号数, 序号总数}
+     */
+    private long[] attackSource(AttackTier tier, TargetGroup group, RuleSet rules, String sourceId, int threads,
+                                AtomicInteger secretFound)
+            throws IOException, InterruptedException, ExecutionException {
+        if (keySpace != null) {
+            return attackSpace(keySpace, sourceId, group, threads, secretFound);
+        }
+        if (tier == AttackTier.QUICK) {
+            return attackSpace(new TransformCandidateSpace(quickTierWords, config.getKeyTransforms(), "快速层"),
+                    sourceId, group, threads, secretFound);
+        }
+        if (config.isMaskAttack() && tier != AttackTier.DICTIONARY) {
+            return attackSpace(new MaskCandidateSpace(config.getMask()), sourceId, group, threads, secretFound);
+        }
+        return attackDictionary(group, tier == AttackTier.DICTIONARY ? null : rules, sourceId, threads, secretFound);
+    }
+
+    /**
+     * 配置的字典：合并字典、内置字典或用户字典，可带规则
+     * @return {已完成序号数, 序号总数}
+     */
+    private long[] attackDictionary(TargetGroup group, RuleSet rules, String sourceId, int threads,
+                                    AtomicInteger secretFound)
+            throws IOException, InterruptedException, ExecutionException {
+        if (config.isMergedDictionary()) {
+            return attackWithMergedDictionary(group, rules, sourceId, threads, secretFound);
+        }
+        if (config.isUseBuiltinDictionary()) {
+            return attackWithBuiltinDictionary(group, rules, sourceId, threads, secretFound);
+        }
+        return attackWithUserDictionary(group, rules, sourceId, threads, secretFound);
+    }
+
+    /**
+     * 读取候选公钥 (使用解析缓存)
+     * @return 公钥列表；失败或为空时已通知监听器并返回 null
+     */
+    private List<KeyMaterial> loadPublicKeys() {
+        KeyMaterialStore store = KeyMaterialStore.shared();
+        List<KeyMaterial> keys;
         try {
-            String javaAlgo = getJavaAlgorithm(config.getAlgorithm());
-            Mac mac = Mac.getInstance(javaAlgo);
-            // 修正后的密钥处理
-            byte[] keyBytes = processKeyEncoding(key, config.getAlgorithm());
-            SecretKeySpec secretKey = new SecretKeySpec(keyBytes, javaAlgo);
+            keys = store.load(config.getPublicKeysPath());
+        } catch (IOException e) {
+            listener.onLogMessage("加载公钥失败: " + e.getMessage());
+            listener.onAttackFailed("公钥加载失败: " + e.getMessage());
+            notifyComplete();
+            return null;
+        }
+        if (keys.isEmpty()) {
+            listener.onAttackFailed("没有找到可用的公钥 (PEM、JWK/JWKS 或证书): " + config.getPublicKeysPath());
+            notifyComplete();
+            return null;
+        }
+        listener.onLogMessage("已加载候选公钥: " + keys.size() + "，重新解析的文件数: " + store.getParsedFiles());
+        return keys;
+    }
 
-            mac.init(secretKey);
-            byte[] calculatedSig = mac.doFinal(unsignedToken.getBytes());
+    /**
+     * 为 RS*、PS*、ES* 令牌找出签名公钥，并用它的每种编码伪造 HS256/HS384/HS512 令牌
+     * @return 是否还有 HS* 令牌需要以公钥编码爆破
+     */
+    private boolean forgeConfusedTokens(List<KeyMaterial> keys) {
+        List<String> tokens = config.getJwtTokens();
+        boolean hmacLeft = false;
+        int signed = 0;
+        for (int i = 0; i < tokens.size() && !isStopped; i++) {
+            String alg;
+            String[] parts;
+            try {
+                alg = JWTUtils.getAlgorithm(tokens.get(i));
+                parts = JWTUtils.parseJWT(tokens.get(i));
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (alg.startsWith("HS")) {
+                hmacLeft = true;
+                continue;
+            }
+            List<KeyMaterial> signers;
+            try {
+                signers = KeyConfusionForger.findSigningKeys(parts, alg, keys);
+            } catch (IllegalArgumentException e) {
+                listener.onLogMessage("令牌 #" + (i + 1) + " 无法进行算法混淆: " + e.getMessage());
+                continue;
+            }
+            if (signers.isEmpty()) {
+                listener.onLogMessage("令牌 #" + (i + 1) + " (" + alg + ") 的签名无法用任何候选公钥验证");
+                continue;
+            }
+            signed++;
+            for (KeyMaterial key : signers) {
+                listener.onLogMessage("令牌 #" + (i + 1) + " (" + alg + ") 由公钥签名: " + key.getSource()
+                        + "，编码数: " + key.getEncodings().size());
+                for (String hmac : KeyConfusionForger.HMAC_ALGORITHMS) {
+                    for (Map.Entry<String, byte[]> encoding : key.getEncodings().entrySet()) {
+                        listener.onForgedToken(i, hmac, key.getSource(), encoding.getKey(),
+                                KeyConfusionForger.forge(parts, hmac, encoding.getValue()));
+                    }
+                }
+            }
+        }
+        if (!hmacLeft && signed == 0 && !isStopped) {
+            listener.onSecretNotFound();
+        }
+        return hmacLeft;
+    }
 
-            String encodedSig = Base64.getUrlEncoder()
-                    .withoutPadding()
-                    .encodeToString(calculatedSig);
+    /**
+     * 把目标令牌按算法分组，每组共用一个多目标校验器；
+     * 批量模式下算法取自令牌头部，无法解析或不是 HS* 的令牌记录日志后跳过
+     */
+    private List<TargetGroup> buildTargetGroups() {
+        List<String> tokens = config.getJwtTokens();
+        if (!config.isBatch()) {
+            String[] jwtParts = JWTUtils.parseJWT(tokens.get(0));
+            listener.onLogMessage("目标签名: " + jwtParts[2]);
+            return List.of(new TargetGroup(HmacVerifier.forToken(jwtParts, config.getAlgorithm()), new int[]{0}));
+        }
+        Map<String, List<Integer>> byAlgorithm = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            try {
+                String alg = JWTUtils.getAlgorithm(tokens.get(i));
+                if (config.isKeyConfusion() && !alg.startsWith("HS")) {
+                    // 已在伪造阶段处理
+                    continue;
+                }
+                HmacVerifier.getJavaAlgorithm(alg);
+                Base64.getUrlDecoder().decode(JWTUtils.parseJWT(tokens.get(i))[2]);
+                byAlgorithm.computeIfAbsent(alg, k -> new ArrayList<>()).add(i);
+            } catch (IllegalArgumentException e) {
+                listener.onLogMessage("跳过令牌 #" + (i + 1) + ": " + e.getMessage());
+            }
+        }
+        List<TargetGroup> groups = new ArrayList<>();
+        for (Map.Entry<String, List<Integer>> entry : byAlgorithm.entrySet()) {
+            List<Integer> indices = entry.getValue();
+            String[] signingInputs = new String[indices.size()];
+            String[] signatures = new String[indices.size()];
+            int[] tokenIndices = new int[indices.size()];
+            for (int t = 0; t < indices.size(); t++) {
+                String[] parts = JWTUtils.parseJWT(tokens.get(indices.get(t)));
+                signingInputs[t] = parts[0] + "." + parts[1];
+                signatures[t] = parts[2];
+                tokenIndices[t] = indices.get(t);
+            }
+            groups.add(new TargetGroup(new HmacVerifier(entry.getKey(), signingInputs, signatures), tokenIndices));
+        }
+        listener.onLogMessage("批量模式，令牌数: " + tokens.size() + "，算法分组: " + byAlgorithm.keySet());
+        return groups;
+    }
 
-            return encodedSig.equals(targetSig);
-        } catch (Exception e) {
-            listener.onLogMessage("Error verifying ["+key+"]: "+e.getMessage());
-            return false;
+    /**
+     * 同一算法的一组目标令牌
+     */
+    private static final class TargetGroup {
+        final HmacVerifier verifier;
+        // 组内目标序号到 config.getJwtTokens() 序号的映射
+        final int[] tokenIndices;
+        // 已破解目标的密钥，写入检查点以便恢复后不再重复计算
+        final AtomicReferenceArray<KeyBytes> secrets;
+
+        TargetGroup(HmacVerifier verifier, int[] tokenIndices) {
+            this.verifier = verifier;
+            this.tokenIndices = tokenIndices;
+            this.secrets = new AtomicReferenceArray<>(tokenIndices.length);
+        }
+
+        /**
+         * @return 各目标密钥的 Base64 编码，未破解为 null
+         */
+        String[] solvedSecrets() {
+            String[] solved = new String[secrets.length()];
+            for (int i = 0; i < solved.length; i++) {
+                KeyBytes secret = secrets.get(i);
+                solved[i] = secret == null ? null : secret.toBase64();
+            }
+            return solved;
         }
     }
-    
+
     /**
-     * 显示找到密钥的弹窗
-     * @param secret 找到的密钥
+     * @return 目标令牌列表的指纹，界面据此判断是否有可恢复的检查点
      */
-    private void showSecretFoundDialog(String secret) {
-        // 使用SwingUtilities确保在EDT线程中执行UI操作
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            javax.swing.JOptionPane.showMessageDialog(
-                null,
-                "恭喜！已找到正确的密钥：\n" + secret,
-                "密钥找到",
-                javax.swing.JOptionPane.INFORMATION_MESSAGE
-            );
-        });
+    public static String tokenFingerprint(List<String> tokens) {
+        return CheckpointStore.fingerprint(String.join("\n", tokens));
     }
-    
+
+    /**
+     * 检查点中已破解的目标直接标记并重新上报，恢复后的遍历不再为它们计算
+     */
+    private void restoreSolved(TargetGroup group, Checkpoint checkpoint, AtomicInteger secretFound) {
+        String[] solved = checkpoint.getSolvedSecrets();
+        for (int target = 0; solved != null && target < Math.min(solved.length, group.tokenIndices.length); target++) {
+            if (solved[target] == null) {
+                continue;
+            }
+            KeyBytes secret;
+            try {
+                secret = KeyBytes.decode(solved[target], checkpoint.getSecretEncoding());
+            } catch (IllegalArgumentException e) {
+                listener.onLogMessage("检查点中令牌 #" + (group.tokenIndices[target] + 1) + " 的密钥已损坏，重新搜索");
+                continue;
+            }
+            if (group.verifier.markSolved(target)) {
+                listener.onLogMessage("检查点中已破解的令牌 #" + (group.tokenIndices[target] + 1));
+                reportSecret(group, target, secret, secretFound);
+            }
+        }
+    }
+
+    /**
+     * 用本地记录的已知密钥校验组内尚未破解的目标，每个密钥尝试默认变体与本次攻击的密钥变换
+     */
+    private void tryKnownSecrets(TargetGroup group, AtomicInteger secretFound) {
+        HmacVerifier verifier = group.verifier;
+        SecretStore store = SecretStore.shared();
+        Set<KeyBytes> candidates = new LinkedHashSet<>();
+        for (int target = 0; target < group.tokenIndices.length; target++) {
+            if (!verifier.isSolved(target)) {
+                String token = config.getJwtTokens().get(group.tokenIndices[target]);
+                candidates.addAll(store.candidates(verifier.getAlgorithm(), JWTUtils.getClaim(token, "iss"),
+                        JWTUtils.getHeaderField(token, "kid"), JWTUtils.getClaim(token, "aud")));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        GuardedWorker worker = new GuardedWorker(verifier.newWorker());
+        KeyTransformPipeline transforms = config.getKeyTransforms().withDefaults();
+        for (KeyBytes secret : candidates) {
+            if (verifier.isAllSolved() || isStopped) {
+                break;
+            }
+            for (int target : HmacVerifier.matchVariants(worker, secret, transforms)) {
+                if (verifier.markSolved(target)) {
+                    listener.onLogMessage("已知密钥命中令牌 #" + (group.tokenIndices[target] + 1));
+                    reportSecret(group, target, secret, secretFound);
+                }
+            }
+        }
+        listener.onLogMessage("已尝试已知密钥: " + candidates.size() + " 个，耗时: "
+                + (System.nanoTime() - start) / 1000 + " µs");
+    }
+
+    /**
+     * 组内所有未破解的目标都已用相同来源与配置穷尽搜索过时跳过本组
+     */
+    private boolean isExhausted(TargetGroup group, String sourceId) {
+        SecretStore store = SecretStore.shared();
+        HmacVerifier verifier = group.verifier;
+        for (int target = 0; target < group.tokenIndices.length; target++) {
+            String token = config.getJwtTokens().get(group.tokenIndices[target]);
+            if (!verifier.isSolved(target)
+                    && !store.isExhausted(SecretStore.exhaustedFingerprint(verifier.getAlgorithm(), token, sourceId))) {
+                return false;
+            }
+        }
+        listener.onLogMessage("已用相同字典与配置穷尽搜索过 (" + verifier.getAlgorithm() + ")，跳过");
+        return true;
+    }
+
+    /**
+     * 遍历完整个空间后，为仍未破解的目标写入穷尽搜索记录
+     */
+    private void markExhausted(TargetGroup group, CandidateSpace space, String sourceId) {
+        HmacVerifier verifier = group.verifier;
+        List<ExhaustedSearch> searches = new ArrayList<>();
+        for (int target = 0; target < group.tokenIndices.length; target++) {
+            if (!verifier.isSolved(target)) {
+                String token = config.getJwtTokens().get(group.tokenIndices[target]);
+                ExhaustedSearch search = new ExhaustedSearch();
+                search.setFingerprint(SecretStore.exhaustedFingerprint(verifier.getAlgorithm(), token, sourceId));
+                search.setAlgorithm(verifier.getAlgorithm());
+                search.setSource(space.describe());
+                search.setSpaceSize(space.size());
+                search.setFinishedAt(System.currentTimeMillis());
+                searches.add(search);
+            }
+        }
+        SecretStore.shared().markExhausted(searches);
+    }
+
+    /**
+     * 加载规则文件 (或内置规则)，跳过的行写入日志
+     */
+    private RuleSet loadRules() throws IOException {
+        RuleSet rules = config.getRulesPath() != null ? RuleSet.load(config.getRulesPath()) : RuleSet.loadBuiltin();
+        for (String error : rules.getErrors()) {
+            listener.onLogMessage("跳过规则 " + error);
+        }
+        listener.onLogMessage("规则就绪: " + rules.getName() + "，规则数: " + rules.size());
+        return rules;
+    }
+
+    /**
+     * 内置字典：从扩展级缓存中获取已展开全部变体的候选区，整个 Burp 会话只加载一次；
+     * 启用规则时在原始词上逐条应用规则
+     * @return {已完成序号数, 序号总数}
+     */
+    private long[] attackWithBuiltinDictionary(TargetGroup group, RuleSet rules, String sourceId, int threads,
+                                               AtomicInteger secretFound)
+            throws IOException, InterruptedException, ExecutionException {
+        long loadStart = System.nanoTime();
+        CandidateArena arena = DictionaryCache.shared().builtin();
+        listener.onLogMessage("内置字典就绪，词数: " + arena.words().size() + "，耗时: "
+                + (System.nanoTime() - loadStart) / 1_000_000 + " ms，" + describeCache());
+        CandidateSpace space = rules != null
+                ? new ArenaRuleCandidateSpace(arena.words(), rules, "内置字典")
+                : TransformCandidateSpace.forArena(arena, config.getKeyTransforms(), "内置字典");
+        return attackSpace(space, sourceId, group, threads, secretFound);
+    }
+
+    /**
+     * 用户字典：预计能放进缓存预算的字典整体展开并缓存，过大的字典走内存映射流式读取
+     * @return {已完成序号数, 序号总数}
+     */
+    private long[] attackWithUserDictionary(TargetGroup group, RuleSet rules, String sourceId, int threads,
+                                            AtomicInteger secretFound)
+            throws IOException, InterruptedException, ExecutionException {
+        long loadStart = System.nanoTime();
+        CandidateArena arena = DictionaryCache.shared().dictionary(config.getDictionaryPath());
+        if (arena == null) {
+            try (MappedDictionary dictionary = MappedDictionary.open(config.getDictionaryPath())) {
+                listener.onLogMessage("成功映射字典，大小: " + dictionary.size() + " 字节");
+                CandidateSpace space = rules != null
+                        ? new MappedRuleCandidateSpace(dictionary, rules)
+                        : new MappedCandidateSpace(dictionary, config.getKeyTransforms());
+                return attackSpace(space, sourceId, group, threads, secretFound);
+            }
+        }
+        listener.onLogMessage("用户字典就绪，词数: " + arena.words().size() + "，耗时: "
+                + (System.nanoTime() - loadStart) / 1_000_000 + " ms，" + describeCache());
+        CandidateSpace space = rules != null
+                ? new ArenaRuleCandidateSpace(arena.words(), rules, "用户字典")
+                : TransformCandidateSpace.forArena(arena, config.getKeyTransforms(), "用户字典");
+        return attackSpace(space, sourceId, group, threads, secretFound);
+    }
+
+    /**
+     * 合并字典：多个来源按权重交错、去重后整体作为一个字典，能放进缓存预算时展开变体并缓存，
+     * 否则边合并边写入临时文件，与过大的用户字典一样走内存映射流式读取
+     * @return {已完成序号数, 序号总数}
+     */
+    private long[] attackWithMergedDictionary(TargetGroup group, RuleSet rules, String sourceId, int threads,
+                                              AtomicInteger secretFound)
+            throws IOException, InterruptedException, ExecutionException {
+        long loadStart = System.nanoTime();
+        List<DictionarySource> sources = config.getDictionaries();
+        CandidateArena arena = DictionaryCache.shared().merged(sources);
+        if (arena == null) {
+            Path spool = DictionaryMerger.createSpool();
+            try {
+                long count = DictionaryMerger.mergeToFile(sources, spool);
+                try (MappedDictionary dictionary = MappedDictionary.open(spool)) {
+                    listener.onLogMessage("合并字典已写入临时文件，来源: " + sources + "，去重后词数: " + count
+                            + "，耗时: " + (System.nanoTime() - loadStart) / 1_000_000 + " ms，超出缓存预算，内存映射流式读取");
+                    CandidateSpace space = rules != null
+                            ? new MappedRuleCandidateSpace(dictionary, rules)
+                            : new MappedCandidateSpace(dictionary, config.getKeyTransforms());
+                    return attackSpace(space, sourceId, group, threads, secretFound);
+                }
+            } finally {
+                DictionaryMerger.deleteSpool(spool);
+            }
+        }
+        listener.onLogMessage("合并字典就绪，来源: " + sources + "，去重后词数: " + arena.words().size() + "，耗时: "
+                + (System.nanoTime() - loadStart) / 1_000_000 + " ms，" + describeCache());
+        CandidateSpace space = rules != null
+                ? new ArenaRuleCandidateSpace(arena.words(), rules, "合并字典")
+                : TransformCandidateSpace.forArena(arena, config.getKeyTransforms(), "合并字典");
+        return attackSpace(space, sourceId, group, threads, secretFound);
+    }
+
+    /**
+     * 候选来源与规则/掩码配置的身份，用于匹配检查点与穷尽搜索记录。
+     * 用户字典只取文件属性，不需要读取内容；内置字典取自扩展级缓存。
+     * 不分层时与 deep 层的身份相同，已有的检查点与记录继续有效
+     */
+    private String describeSource(AttackTier tier, RuleSet rules) throws IOException {
+        if (keySpace != null) {
+            return "keys:" + keySpace.identity();
+        }
+        if (tier == AttackTier.QUICK) {
+            return "quick:" + describeWords(quickTierWords) + describeTransforms(null);
+        }
+        if (config.isMaskAttack() && tier != AttackTier.DICTIONARY) {
+            return "mask:" + config.getMask().identity();
+        }
+        if (tier == AttackTier.DICTIONARY) {
+            rules = null;
+        }
+        if (config.isMergedDictionary()) {
+            // 来源顺序与权重决定合并后的词序，都属于身份
+            List<String> parts = new ArrayList<>();
+            for (DictionarySource source : config.getDictionaries()) {
+                parts.add((source.isBuiltin() ? describeBuiltin() : describeFile(source.getPath()))
+                        + "@" + source.getWeight());
+            }
+            return "merge:" + String.join(",", parts) + describeRules(rules) + describeTransforms(rules);
+        }
+        if (!config.isUseBuiltinDictionary()) {
+            return describeFile(config.getDictionaryPath()) + describeRules(rules) + describeTransforms(rules);
+        }
+        return describeBuiltin() + describeRules(rules) + describeTransforms(rules);
+    }
+
+    /**
+     * 内置字典的身份：词数与内容校验和，取自扩展级缓存
+     */
+    private static String describeBuiltin() throws IOException {
+        return "builtin:" + describeWords(DictionaryCache.shared().builtin().words());
+    }
+
+    /**
+     * 词区的身份：词数与内容校验和
+     */
+    private static String describeWords(WordArena words) {
+        CRC32 crc = new CRC32();
+        crc.update(words.data(), 0, words.offset(words.size()));
+        return words.size() + ":" + crc.getValue();
+    }
+
+    /**
+     * 用户字典的身份：路径、大小与修改时间，内容变化后旧检查点自动失效
+     */
+    private static String describeFile(Path path) throws IOException {
+        return "file:" + path.toAbsolutePath() + ":" + Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+    }
+
+    private static String describeRules(RuleSet rules) {
+        if (rules == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Rule rule : rules.getRules()) {
+            text.append(rule.getText()).append('\n');
+        }
+        return "|rules:" + rules.size() + ":" + CheckpointStore.fingerprint(text.toString());
+    }
+
+    /**
+     * 默认变换不改变身份，已有的检查点与穷尽搜索记录继续有效；规则模式不使用密钥变换
+     */
+    private String describeTransforms(RuleSet rules) {
+        KeyTransformPipeline transforms = config.getKeyTransforms();
+        return rules != null || transforms.isDefault() ? "" : "|transforms:" + transforms;
+    }
+
+    private String describeCache() {
+        DictionaryCache cache = DictionaryCache.shared();
+        return "字典缓存占用: " + (cache.getUsedBytes() >> 20) + " MB / " + (cache.getBudgetBytes() >> 20) + " MB";
+    }
+
     /**
-     * 显示未找到密钥的弹窗
+     * 在候选空间上执行攻击：序号空间按线程分区，线程领取区间后在本线程内连续测试，
+     * 自己的分区做完后窃取其他分区的剩余部分；停止标志每 {@link CandidateSpace#CHECK_INTERVAL} 个密钥检查一次。
+     * 已完成的区间定期异步写入检查点，停止时同步保存，遍历完成或全部破解后删除。
+     * @param sourceId 候选来源与规则/掩码配置的身份，用于匹配检查点
+     * @return {已完成序号数, 序号总数}
      */
-    private void showSecretNotFoundDialog() {
-        // 使用SwingUtilities确保在EDT线程中执行UI操作
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            javax.swing.JOptionPane.showMessageDialog(
-                null,
-                "很遗憾，未找到正确的密钥。\n请尝试使用其他字典或调整攻击参数。",
-                "密钥未找到",
-                javax.swing.JOptionPane.WARNING_MESSAGE
-            );
+    private long[] attackSpace(CandidateSpace space, String sourceId, TargetGroup group, int threads,
+                               AtomicInteger secretFound)
+            throws InterruptedException, ExecutionException {
+        HmacVerifier verifier = group.verifier;
+        long total = space.size();
+        CheckpointStore store = CheckpointStore.shared();
+        String tokenFingerprint = tokenFingerprint(config.getJwtTokens());
+        // 每个算法一个组，算法与来源足以区分；不含层序号，dict 层与不带规则的不分层攻击共用检查点
+        String fingerprint = CheckpointStore.fingerprint(tokenFingerprint, verifier.getAlgorithm(),
+                sourceId, space.getClass().getSimpleName(), String.valueOf(total));
+        long[] resumed = new long[0];
+        if (config.isResume()) {
+            Checkpoint checkpoint = store.load(tokenFingerprint, fingerprint);
+            if (checkpoint != null) {
+                resumed = checkpoint.getCompletedRanges();
+                restoreSolved(group, checkpoint, secretFound);
+                listener.onLogMessage("从检查点恢复，已完成: " + checkpoint.getCompletedUnits() + "/" + total);
+            } else {
+                listener.onLogMessage("没有匹配的检查点，从头开始");
+            }
+        }
+
+        // 小空间也保证每个线程能分到若干区间
+        long blockSize = Math.max(1, Math.min(space.blockSize(), total / (threads * 4L)));
+        RangeScheduler scheduler = new RangeScheduler(total, threads, blockSize, resumed);
+        governor.begin(threads);
+        AttackTelemetry telemetry = new AttackTelemetry(threads, scheduler::completed, total, space.variantNames(),
+                governor::getActive);
+        Supplier<Checkpoint> snapshot = () -> {
+            Checkpoint checkpoint = new Checkpoint();
+            checkpoint.setTokenFingerprint(tokenFingerprint);
+            checkpoint.setFingerprint(fingerprint);
+            checkpoint.setAlgorithm(verifier.getAlgorithm());
+            checkpoint.setSource(space.describe());
+            checkpoint.setSpaceSize(total);
+            checkpoint.setCompletedUnits(scheduler.completed());
+            checkpoint.setCompletedRanges(scheduler.completedRanges());
+            checkpoint.setSolvedSecrets(group.solvedSecrets());
+            checkpoint.setSecretEncoding(KeyBytes.BASE64);
+            checkpoint.setUpdatedAt(System.currentTimeMillis());
+            return checkpoint;
+        };
+        // 定时器的最后一次运行可能与结束处理并发，用 finished 保证删除之后不会再写入
+        AtomicBoolean finished = new AtomicBoolean(false);
+        startProgressTimer(telemetry, () -> {
+            synchronized (finished) {
+                if (!finished.get()) {
+                    store.saveAsync(snapshot.get());
+                }
+            }
         });
+        workerPool = Executors.newFixedThreadPool(threads);
+        // 组内全部破解后提前结束本组
+        BooleanSupplier stopped = () -> isStopped || verifier.isAllSolved();
+        // 停下等待的线程在没有可领取的区间时也要退出
+        BooleanSupplier drained = () -> stopped.getAsBoolean() || scheduler.isDrained();
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int w = 0; w < threads; w++) {
+            final int id = w;
+            workers.add(workerPool.submit(() -> {
+                GuardedWorker worker = new GuardedWorker(verifier.newWorker());
+                CandidateSpace.Walker walker = space.newWalker(worker);
+                long[] range = new long[2];
+                long reported = 0;
+                try {
+                    while (!stopped.getAsBoolean()) {
+                        governor.awaitTurn(id, drained);
+                        if (stopped.getAsBoolean() || !scheduler.claim(id, range)) {
+                            break;
+                        }
+                        long from = range[0];
+                        // 批量模式下命中后继续测试区间剩余部分
+                        while (from < range[1] && !stopped.getAsBoolean()) {
+                            long end = walker.walk(from, range[1], stopped);
+                            telemetry.record(id, walker.keysTested() - reported);
+                            reported = walker.keysTested();
+                            scheduler.complete(from, end);
+                            if (walker.hit() == null) {
+                                if (end == range[1]) {
+                                    listener.onLogMessage("正在测试密钥: " + walker.current()
+                                            + " (区间 " + range[0] + "-" + range[1] + ")");
+                                }
+                                break;
+                            }
+                            for (int m = 0; m < worker.matchCount(); m++) {
+                                int target = worker.matchedTarget(m);
+                                if (verifier.markSolved(target)) {
+                                    reportSecret(group, target, walker.hit(), secretFound);
+                                }
+                            }
+                            from = end;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    // 停止攻击时线程池被中断
+                    Thread.currentThread().interrupt();
+                } finally {
+                    telemetry.record(id, walker.keysTested() - reported);
+                }
+            }));
+        }
+
+        awaitWorkers(workers);
+        progressTimer.cancel();
+        if (scheduler.completed() == total) {
+            listener.onLogMessage(space.describe() + "，已测试密钥数: " + telemetry.keysTested());
+        }
+        synchronized (finished) {
+            finished.set(true);
+            if (scheduler.completed() == total || verifier.isAllSolved()) {
+                store.delete(tokenFingerprint, fingerprint);
+                if (scheduler.completed() == total && config.isUseHistory()) {
+                    markExhausted(group, space, sourceId);
+                }
+            } else {
+                store.save(snapshot.get());
+                listener.onLogMessage("检查点已保存，已完成: " + scheduler.completed() + "/" + total);
+            }
+        }
+        return new long[]{scheduler.completed(), total};
+    }
+
+    /**
+     * 校验异常只记录日志并视为不匹配，避免单个候选中断整个区间
+     */
+    private class GuardedWorker implements HmacVerifier.Worker {
+        private final HmacVerifier.Worker worker;
+
+        GuardedWorker(HmacVerifier.Worker worker) {
+            this.worker = worker;
+        }
+
+        @Override
+        public boolean verify(byte[] key, int off, int len) {
+            return verifySignature(worker, key, off, len);
+        }
+
+        @Override
+        public boolean verify(String key) {
+            try {
+                return worker.verify(key);
+            } catch (Exception e) {
+                listener.onLogMessage("Error verifying [" + key + "]: " + e.getMessage());
+                return false;
+            }
+        }
+
+        @Override
+        public int matchCount() {
+            return worker.matchCount();
+        }
+
+        @Override
+        public int matchedTarget(int i) {
+            return worker.matchedTarget(i);
+        }
+
+        @Override
+        public int batchSize() {
+            return worker.batchSize();
+        }
+
+        @Override
+        public void stage(int slot, byte[] key, int off, int len) {
+            worker.stage(slot, key, off, len);
+        }
+
+        @Override
+        public int verifyBatch(int count) {
+            try {
+                return worker.verifyBatch(count);
+            } catch (Exception e) {
+                listener.onLogMessage("Error verifying batch of " + count + " keys: " + e.getMessage());
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 启动进度更新定时器，每秒采样一次统计并推送进度与实时统计，
+     * 每 {@link #CHECKPOINT_INTERVAL_SECONDS} 秒提交一次检查点 (写入在后台线程完成)
+     */
+    private void startProgressTimer(AttackTelemetry telemetry, Runnable checkpoint) {
+        if (progressTimer != null) {
+            progressTimer.cancel();
+        }
+        int pass = passIndex;
+        int passes = passCount;
+        AtomicInteger lastProgress = new AtomicInteger(pass * 100 / passes);
+        progressTimer = new Timer(true);
+        progressTimer.scheduleAtFixedRate(new TimerTask() {
+            private int ticks;
+
+            @Override
+            public void run() {
+                if (++ticks % CHECKPOINT_INTERVAL_SECONDS == 0) {
+                    checkpoint.run();
+                }
+                AttackStats stats = telemetry.sample();
+                listener.onStatsUpdate(stats);
+                int active = governor.getActive();
+                governor.update(stats.getKeysPerSecond());
+                if (governor.getActive() != active) {
+                    listener.onLogMessage("活动线程数: " + active + " -> " + governor.getActive());
+                }
+                // 多个算法组依次执行时按组数折算整体进度
+                int progress = Math.min(99, (pass * 100 + stats.getPercent()) / passes);
+                if (progress > lastProgress.get()) {
+                    listener.onProgressUpdate(progress);
+                    lastProgress.set(progress);
+                }
+            }
+        }, 1000, 1000); // 每秒更新一次
+    }
+
+    /**
+     * 等待所有工作线程退出。停止攻击会中断当前线程，此时工作线程也会很快退出，
+     * 继续等待它们结束，保证随后保存的检查点包含所有已完成的区间
+     */
+    private void awaitWorkers(List<Future<?>> workers) throws InterruptedException, ExecutionException {
+        workerPool.shutdown();
+        for (Future<?> worker : workers) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    if (!isStopped) {
+                        throw e;
+                    }
+                } catch (CancellationException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * 某个目标被破解：单令牌模式下通知监听器并停止攻击，批量模式下只通知该令牌
+     */
+    private void reportSecret(TargetGroup group, int target, KeyBytes secret, AtomicInteger secretFound) {
+        group.secrets.set(target, secret);
+        String token = config.getJwtTokens().get(group.tokenIndices[target]);
+        // 算法混淆命中的是公钥编码的描述，不是可复用的密钥文本
+        if (config.isUseHistory() && !config.isKeyConfusion()) {
+            SecretStore.shared().remember(new KnownSecret(group.verifier.getAlgorithm(), JWTUtils.getClaim(token, "iss"),
+                    JWTUtils.getHeaderField(token, "kid"), JWTUtils.getClaim(token, "aud"), secret));
+        }
+        if (config.isBatch()) {
+            int tokenIndex = group.tokenIndices[target];
+            secretFound.incrementAndGet();
+            listener.onLogMessage("令牌 #" + (tokenIndex + 1) + " (" + group.verifier.getAlgorithm() + ") 已破解: " + secret);
+            listener.onTokenSecretFound(tokenIndex, config.getJwtTokens().get(tokenIndex), secret);
+            return;
+        }
+        // 只上报第一个命中
+        if (!secretFound.compareAndSet(0, 1)) {
+            return;
+        }
+        // 更新进度到100%
+        listener.onProgressUpdate(100);
+        // 通知找到密钥
+        listener.onSecretFound(secret);
+        notifyComplete();
+        stop();
+    }
+
+//    private boolean isHex(String str) {
+//        // 允许偶数长度并忽略大小写
+//        return str.length() % 2 == 0 && str.matches("^[0-9a-fA-F]*$");
+//    }
+
+    private boolean verifySignature(HmacVerifier.Worker worker, byte[] key, int off, int len) {
+        try {
+            return worker.verify(key, off, len);
+        } catch (Exception e) {
+            listener.onLogMessage("Error verifying ["+new String(key, off, len, StandardCharsets.UTF_8)+"]: "+e.getMessage());
+            return false;
+        }
     }
     
     /**
-     * 恢复startButton状态
+     * 通知监听器攻击结束；引擎不依赖 Swing，切换到界面线程由监听器负责
      */
-    private void resetStartButton() {
-        // 使用SwingUtilities确保在EDT线程中执行UI操作
-        javax.swing.SwingUtilities.invokeLater(() -> {
-            // 通知监听器恢复startButton状态
-            listener.onAttackComplete();
-        });
+    private void notifyComplete() {
+        listener.onAttackComplete();
     }
 }
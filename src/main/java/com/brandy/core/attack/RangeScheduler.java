@@ -0,0 +1,241 @@
+package com.brandy.core.attack;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 区间划分 + 工作窃取调度器
+ * 序号空间 [0, size) 按工作线程数均分为若干分区，每个线程优先从自己的分区按块领取区间；
+ * 自己的分区领完后，从剩余最多的分区尾部窃取半段，避免快线程空等慢线程。
+ * 领取与窃取都只做 CAS，不提交任何任务对象。
+ * 已完成的区间合并记录在有序表中，用于检查点：恢复时只调度尚未完成的空隙。
+ */
+public class RangeScheduler {
+    private final Partition[] partitions;
+    private final long blockSize;
+    private final AtomicLong completed = new AtomicLong();
+    // 已完成区间 from -> to，相邻区间合并；每个区间完成时才更新一次，用锁即可
+    private final TreeMap<Long, Long> done = new TreeMap<>();
+
+    /**
+     * @param size 序号空间大小
+     * @param workers 工作线程数
+     * @param blockSize 每次领取的区间长度
+     */
+    public RangeScheduler(long size, int workers, long blockSize) {
+        this(size, workers, blockSize, new long[0]);
+    }
+
+    /**
+     * 从检查点恢复
+     * @param completedRanges 已完成区间，依次为 from0, to0, from1, to1 ...
+     */
+    public RangeScheduler(long size, int workers, long blockSize, long[] completedRanges) {
+        this.blockSize = Math.max(1, blockSize);
+        // 检查点来自文件，先裁剪到空间内并合并重叠部分
+        TreeMap<Long, Long> seeds = new TreeMap<>();
+        for (int i = 0; i + 1 < completedRanges.length; i += 2) {
+            long from = Math.max(0, completedRanges[i]);
+            long to = Math.min(size, completedRanges[i + 1]);
+            if (from < to) {
+                seeds.merge(from, to, Math::max);
+            }
+        }
+        long lastFrom = -1;
+        long lastTo = -1;
+        for (Map.Entry<Long, Long> e : seeds.entrySet()) {
+            if (e.getKey() <= lastTo) {
+                lastTo = Math.max(lastTo, e.getValue());
+                continue;
+            }
+            if (lastFrom >= 0) {
+                complete(lastFrom, lastTo);
+            }
+            lastFrom = e.getKey();
+            lastTo = e.getValue();
+        }
+        if (lastFrom >= 0) {
+            complete(lastFrom, lastTo);
+        }
+
+        // 剩余空隙均分给工作线程：先按总量切分，每段再落回各自的空隙内
+        List<long[]> gaps = gaps(size);
+        long remaining = size - completed.get();
+        List<long[]> pieces = new ArrayList<>();
+        long share = Math.max(1, (remaining + workers - 1) / workers);
+        for (long[] gap : gaps) {
+            for (long from = gap[0]; from < gap[1]; from += share) {
+                pieces.add(new long[]{from, Math.min(gap[1], from + share)});
+            }
+        }
+        this.partitions = new Partition[Math.max(workers, pieces.size())];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = i < pieces.size()
+                    ? new Partition(pieces.get(i)[0], pieces.get(i)[1])
+                    : new Partition(0, 0);
+        }
+    }
+
+    /**
+     * 为工作线程领取下一个区间
+     * @param worker 工作线程序号
+     * @param range 输出参数，写入 [from, to)
+     * @return 所有分区都已领完时返回 false
+     */
+    public boolean claim(int worker, long[] range) {
+        if (partitions[worker].take(blockSize, range)) {
+            return true;
+        }
+        while (true) {
+            Partition victim = null;
+            long most = 0;
+            for (Partition p : partitions) {
+                long left = p.remaining();
+                if (left > most) {
+                    most = left;
+                    victim = p;
+                }
+            }
+            if (victim == null) {
+                return false;
+            }
+            if (most <= blockSize) {
+                if (victim.take(blockSize, range)) {
+                    return true;
+                }
+            } else if (victim.stealHalf(partitions[worker])) {
+                if (partitions[worker].take(blockSize, range)) {
+                    return true;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return 所有分区都已领完 (已领取的区间可能仍在测试中)
+     */
+    public boolean isDrained() {
+        for (Partition p : partitions) {
+            if (p.remaining() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 记录 [from, to) 已全部测试完成
+     */
+    public void complete(long from, long to) {
+        if (from >= to) {
+            return;
+        }
+        completed.addAndGet(to - from);
+        synchronized (done) {
+            Map.Entry<Long, Long> before = done.floorEntry(from);
+            if (before != null && before.getValue() == from) {
+                from = before.getKey();
+            }
+            Long after = done.remove(to);
+            if (after != null) {
+                to = after;
+            }
+            done.put(from, to);
+        }
+    }
+
+    /**
+     * @return 已完成的序号数
+     */
+    public long completed() {
+        return completed.get();
+    }
+
+    /**
+     * @return 已完成区间的快照，依次为 from0, to0, from1, to1 ...
+     */
+    public long[] completedRanges() {
+        synchronized (done) {
+            long[] ranges = new long[done.size() * 2];
+            int i = 0;
+            for (Map.Entry<Long, Long> e : done.entrySet()) {
+                ranges[i++] = e.getKey();
+                ranges[i++] = e.getValue();
+            }
+            return ranges;
+        }
+    }
+
+    private List<long[]> gaps(long size) {
+        List<long[]> gaps = new ArrayList<>();
+        long cursor = 0;
+        synchronized (done) {
+            for (Map.Entry<Long, Long> e : done.entrySet()) {
+                if (e.getKey() > cursor) {
+                    gaps.add(new long[]{cursor, e.getKey()});
+                }
+                cursor = e.getValue();
+            }
+        }
+        if (cursor < size) {
+            gaps.add(new long[]{cursor, size});
+        }
+        return gaps;
+    }
+
+    /**
+     * 一个分区：[cursor, end) 为尚未领取的部分，二者打包在一个 long[] 中整体替换
+     */
+    private static final class Partition {
+        private final AtomicReference<long[]> state;
+
+        Partition(long from, long to) {
+            this.state = new AtomicReference<>(new long[]{from, to});
+        }
+
+        long remaining() {
+            long[] s = state.get();
+            return s[1] - s[0];
+        }
+
+        /**
+         * 从分区头部领取一块
+         */
+        boolean take(long blockSize, long[] range) {
+            while (true) {
+                long[] s = state.get();
+                if (s[0] >= s[1]) {
+                    return false;
+                }
+                long to = Math.min(s[1], s[0] + blockSize);
+                if (state.compareAndSet(s, new long[]{to, s[1]})) {
+                    range[0] = s[0];
+                    range[1] = to;
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * 把本分区尾部的一半转移给空闲的 thief 分区
+         */
+        boolean stealHalf(Partition thief) {
+            long[] s = state.get();
+            long left = s[1] - s[0];
+            if (left <= 1) {
+                return false;
+            }
+            long mid = s[0] + left / 2;
+            if (!state.compareAndSet(s, new long[]{s[0], mid})) {
+                return false;
+            }
+            // thief 只会被自己的线程补充，此时它已为空
+            thief.state.set(new long[]{mid, s[1]});
+            return true;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.model.CandidateArena;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.WordArena;
+import com.brandy.core.transform.KeyTransformPipeline;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * 词区 × 密钥变换的候选空间，序号 = 词序号 × 变换数 + 变换序号
+ * 用于非默认的变换组合；变换结果在线程私有缓冲区中按需计算，不适用或与同一词的其他变换重复的结果直接跳过。
+ */
+public class TransformCandidateSpace implements CandidateSpace {
+    private final WordArena words;
+    private final KeyTransformPipeline pipeline;
+    private final String name;
+
+    public TransformCandidateSpace(WordArena words, KeyTransformPipeline pipeline, String name) {
+        this.words = words;
+        this.pipeline = pipeline;
+        this.name = name;
+    }
+
+    /**
+     * 默认变换使用预展开的候选区，其他组合按需计算
+     */
+    public static CandidateSpace forArena(CandidateArena arena, KeyTransformPipeline pipeline, String name) {
+        return pipeline.isDefault()
+                ? new ArenaCandidateSpace(arena, name)
+                : new TransformCandidateSpace(arena.words(), pipeline, name);
+    }
+
+    @Override
+    public long size() {
+        return (long) words.size() * pipeline.size();
+    }
+
+    @Override
+    public long blockSize() {
+        return 4096;
+    }
+
+    @Override
+    public String[] variantNames() {
+        return pipeline.names();
+    }
+
+    @Override
+    public String describe() {
+        return name + " × 变换 " + pipeline + "，词数: " + words.size() + "，密钥总数: " + size();
+    }
+
+    @Override
+    public Walker newWalker(HmacVerifier.Worker worker) {
+        return new Walker() {
+            private final KeyTransformPipeline.Evaluator evaluator = pipeline.newEvaluator();
+            private final byte[] data = words.data();
+            private final int transformCount = pipeline.size();
+            private int currentWord = -1;
+            private KeyBytes hit;
+            private long tested;
+            private long last;
+
+            @Override
+            public long walk(long from, long to, BooleanSupplier stopped) {
+                hit = null;
+                long u = from;
+                while (u < to) {
+                    if (stopped.getAsBoolean()) {
+                        break;
+                    }
+                    long stop = Math.min(to, u + CHECK_INTERVAL);
+                    for (; u < stop; u++) {
+                        int word = (int) (u / transformCount);
+                        if (word != currentWord) {
+                            evaluator.reset(data, words.offset(word), words.length(word));
+                            currentWord = word;
+                        }
+                        int transform = (int) (u % transformCount);
+                        int len = evaluator.apply(transform);
+                        if (len >= 0 && worker.verify(evaluator.output(transform), 0, len)) {
+                            hit = KeyBytes.copyOf(data, words.offset(word), words.length(word));
+                            tested += u + 1 - from;
+                            last = u;
+                            return u + 1;
+                        }
+                    }
+                }
+                tested += u - from;
+                last = Math.max(from, u - 1);
+                return u;
+            }
+
+            @Override
+            public KeyBytes hit() {
+                return hit;
+            }
+
+            @Override
+            public long keysTested() {
+                return tested;
+            }
+
+            @Override
+            public String current() {
+                if (last >= size()) {
+                    return "";
+                }
+                return words.word((int) (last / transformCount)) + " [" + pipeline.get((int) (last % transformCount)) + "]";
+            }
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package com.brandy.core.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 协调进程与工作进程之间的连接
+ * 每行一个 JSON 对象，type 字段区分消息类型；工作进程发请求，协调进程逐条应答。
+ */
+public class ClusterConnection implements Closeable {
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Socket socket;
+    private final BufferedReader in;
+    private final BufferedWriter out;
+
+    public ClusterConnection(Socket socket) throws IOException {
+        this.socket = socket;
+        // 消息都很短，关闭 Nagle 以免心跳与应答被延迟
+        socket.setTcpNoDelay(true);
+        this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+    }
+
+    public static ObjectNode message(String type) {
+        ObjectNode message = MAPPER.createObjectNode();
+        message.put("type", type);
+        return message;
+    }
+
+    public void send(ObjectNode message) throws IOException {
+        out.write(MAPPER.writeValueAsString(message));
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * @throws EOFException 对端已关闭连接
+     */
+    public ObjectNode receive() throws IOException {
+        String line = in.readLine();
+        if (line == null) {
+            throw new EOFException("连接已关闭");
+        }
+        return (ObjectNode) MAPPER.readTree(line);
+    }
+
+    /**
+     * 发送请求并等待应答
+     */
+    public ObjectNode request(ObjectNode message) throws IOException {
+        send(message);
+        return receive();
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
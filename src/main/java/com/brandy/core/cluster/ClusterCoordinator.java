@@ -0,0 +1,316 @@
+package com.brandy.core.cluster;
+
+import com.brandy.core.attack.AttackListener;
+import com.brandy.core.attack.AttackTelemetry;
+import com.brandy.core.attack.CandidateSpace;
+import com.brandy.core.attack.HmacVerifier;
+import com.brandy.core.model.AttackConfig;
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.AttackSpec;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.KnownSecret;
+import com.brandy.core.utils.JWTUtils;
+import com.brandy.core.utils.SecretStore;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 集群协调进程
+ * 在本地端口上接受工作进程的连接，把候选空间切成租约发放；工作进程定期心跳续期，
+ * 进程退出或失联后它持有的租约被收回并重新发放。任一工作进程上报的命中先在本地复核，
+ * 单令牌命中或批量全部破解后，所有工作进程在下一次心跳时收到停止指令。
+ */
+public class ClusterCoordinator {
+    public static final long DEFAULT_LEASE_TTL_MILLIS = 10_000;
+    // 工作进程的心跳间隔，同时决定停止指令的最大延迟
+    static final long HEARTBEAT_MILLIS = 250;
+
+    private final AttackSpec spec;
+    private final AttackListener listener;
+    private final String host;
+    private final int port;
+    private final long leaseTtlMillis;
+    private boolean useHistory = true;
+
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionIds = new AtomicInteger();
+    private final AtomicInteger found = new AtomicInteger();
+    private volatile ServerSocket server;
+    private volatile boolean stopped;
+
+    private AttackConfig config;
+    private HmacVerifier verifier;
+    // 复核上报的命中，多个连接线程共用，使用时加锁
+    private HmacVerifier.Worker checker;
+    private LeaseTable leases;
+    private AttackTelemetry telemetry;
+
+    /**
+     * @param host 监听地址，默认只监听本机回环地址
+     * @param port 监听端口，0 表示由系统分配
+     */
+    public ClusterCoordinator(AttackSpec spec, AttackListener listener, String host, int port, long leaseTtlMillis) {
+        this.spec = spec;
+        this.listener = listener;
+        this.host = host;
+        this.port = port;
+        this.leaseTtlMillis = leaseTtlMillis;
+    }
+
+    /**
+     * 是否把复核通过的命中写入本地已知密钥记录，默认开启；须在 {@link #run()} 之前设置
+     */
+    public void setUseHistory(boolean useHistory) {
+        this.useHistory = useHistory;
+    }
+
+    /**
+     * 开始监听，返回实际端口；随后调用 {@link #run()} 等待攻击结束
+     */
+    public int bind() throws IOException {
+        server = new ServerSocket(port, 128, InetAddress.getByName(host));
+        return server.getLocalPort();
+    }
+
+    /**
+     * 发放租约直到遍历完成、目标全部破解或被停止
+     */
+    public void run() throws IOException, InterruptedException {
+        if (server == null) {
+            bind();
+        }
+        config = spec.toConfig(1);
+        config.setUseHistory(useHistory);
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "jwt-cluster-timer");
+            t.setDaemon(true);
+            return t;
+        });
+        try (ClusterSpace opened = ClusterSpace.open(config)) {
+            CandidateSpace space = opened.space();
+            verifier = opened.verifier();
+            checker = verifier.newWorker();
+            long total = space.size();
+            // 每个租约约为数个调度块，小空间也至少切成数百个租约
+            long leaseSize = Math.max(1, Math.min(space.blockSize() * 4, (total + 255) / 256));
+            leases = new LeaseTable(total, leaseSize, leaseTtlMillis);
+            telemetry = new AttackTelemetry(1, leases::completed, total, space.variantNames());
+            listener.onLogMessage("协调进程监听: " + host + ":" + server.getLocalPort() + "，" + space.describe()
+                    + "，租约长度: " + leaseSize + "，目标令牌数: " + verifier.getTargetCount());
+
+            Thread acceptor = new Thread(this::acceptLoop, "jwt-cluster-accept");
+            acceptor.setDaemon(true);
+            acceptor.start();
+            timer.scheduleAtFixedRate(this::tick, 1, 1, TimeUnit.SECONDS);
+            if (total == 0) {
+                finish();
+            }
+            done.await();
+
+            // 留出一个心跳周期，让工作进程从应答中收到停止指令，再关闭连接
+            Thread.sleep(HEARTBEAT_MILLIS * 2);
+            if (leases.isFinished() && found.get() == 0) {
+                listener.onProgressUpdate(100);
+                listener.onSecretNotFound();
+            }
+            listener.onLogMessage("集群攻击结束，已完成: " + leases.completed() + "/" + total
+                    + "，已测试密钥数: " + telemetry.keysTested());
+        } finally {
+            stopped = true;
+            timer.shutdownNow();
+            server.close();
+            for (Socket socket : connections) {
+                socket.close();
+            }
+            listener.onAttackComplete();
+        }
+    }
+
+    public void stop() {
+        finish();
+    }
+
+    /**
+     * @return 已破解的令牌数
+     */
+    public int getFound() {
+        return found.get();
+    }
+
+    private void finish() {
+        stopped = true;
+        done.countDown();
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.add(socket);
+                String owner = socket.getRemoteSocketAddress() + "#" + connectionIds.incrementAndGet();
+                Thread handler = new Thread(() -> serve(socket, owner), "jwt-cluster-" + owner);
+                handler.setDaemon(true);
+                handler.start();
+            } catch (IOException e) {
+                // 关闭监听后退出
+            }
+        }
+    }
+
+    /**
+     * 逐条处理一个连接上的请求；连接断开时立即收回它持有的租约
+     */
+    private void serve(Socket socket, String owner) {
+        try (ClusterConnection connection = new ClusterConnection(socket)) {
+            while (true) {
+                connection.send(handle(owner, connection.receive()));
+            }
+        } catch (IOException e) {
+            // 工作进程退出或连接被关闭
+        } finally {
+            connections.remove(socket);
+            int released = leases.release(owner);
+            if (released > 0 && !stopped) {
+                listener.onLogMessage("工作连接断开: " + owner + "，收回租约: " + released);
+            }
+        }
+    }
+
+    private ObjectNode handle(String owner, ObjectNode request) {
+        long now = System.currentTimeMillis();
+        String type = request.path("type").asText();
+        switch (type) {
+            case "hello": {
+                ObjectNode job = ClusterConnection.message("job");
+                job.set("spec", ClusterConnection.MAPPER.valueToTree(spec));
+                job.put("spaceSize", leases.size());
+                job.put("heartbeatMillis", HEARTBEAT_MILLIS);
+                listener.onLogMessage("工作连接加入: " + owner + " (" + request.path("worker").asText() + ")");
+                return job;
+            }
+            case "lease": {
+                if (stopped) {
+                    return ClusterConnection.message("stop");
+                }
+                long[] lease = leases.acquire(owner, now);
+                if (lease == null) {
+                    // 剩余区间都已发出，等待完成或到期收回
+                    return ClusterConnection.message("wait").put("millis", HEARTBEAT_MILLIS);
+                }
+                return ClusterConnection.message("lease").put("id", lease[0]).put("from", lease[1]).put("to", lease[2]);
+            }
+            case "heartbeat": {
+                telemetry.record(0, request.path("keys").asLong());
+                if (stopped) {
+                    return ClusterConnection.message("stop");
+                }
+                return leases.renew(request.path("id").asLong(), now) ? ok() : ClusterConnection.message("expired");
+            }
+            case "complete": {
+                telemetry.record(0, request.path("keys").asLong());
+                leases.complete(request.path("id").asLong());
+                if (leases.isFinished()) {
+                    finish();
+                }
+                return stopped ? ClusterConnection.message("stop") : ok();
+            }
+            case "found": {
+                telemetry.record(0, request.path("keys").asLong());
+                KeyBytes secret;
+                try {
+                    secret = KeyBytes.decode(request.path("key").asText(), KeyBytes.BASE64);
+                } catch (IllegalArgumentException e) {
+                    listener.onLogMessage("忽略无效的命中上报: " + owner);
+                    return stopped ? ClusterConnection.message("stop") : ok();
+                }
+                onFound(owner, secret);
+                return stopped ? ClusterConnection.message("stop") : ok();
+            }
+            default:
+                return ClusterConnection.message("error").put("message", "unknown message type: " + type);
+        }
+    }
+
+    /**
+     * @return 带已破解目标列表的应答，工作进程据此跳过这些目标
+     */
+    private ObjectNode ok() {
+        ObjectNode reply = ClusterConnection.message("ok");
+        ArrayNode solved = reply.putArray("solved");
+        for (int target = 0; target < verifier.getTargetCount(); target++) {
+            if (verifier.isSolved(target)) {
+                solved.add(target);
+            }
+        }
+        return reply;
+    }
+
+    /**
+     * 复核工作进程上报的密钥，只有确实匹配尚未破解的目标才上报
+     */
+    private void onFound(String owner, KeyBytes secret) {
+        int[] targets;
+        synchronized (checker) {
+            targets = HmacVerifier.matchVariants(checker, secret,
+                    config.getKeyTransforms().withDefaults());
+        }
+        if (targets.length == 0) {
+            listener.onLogMessage("忽略无效的命中上报: " + owner);
+            return;
+        }
+        for (int target : targets) {
+            if (!verifier.markSolved(target)) {
+                continue;
+            }
+            found.incrementAndGet();
+            String token = config.getJwtTokens().get(target);
+            // 与单机引擎相同：关闭历史记录时不写入已知密钥
+            if (config.isUseHistory() && !config.isKeyConfusion()) {
+                SecretStore.shared().remember(new KnownSecret(verifier.getAlgorithm(), JWTUtils.getClaim(token, "iss"),
+                        JWTUtils.getHeaderField(token, "kid"), JWTUtils.getClaim(token, "aud"), secret));
+            }
+            if (config.isBatch()) {
+                listener.onLogMessage("令牌 #" + (target + 1) + " 已破解 (" + owner + "): " + secret);
+                listener.onTokenSecretFound(target, token, secret);
+            } else {
+                listener.onProgressUpdate(100);
+                listener.onSecretFound(secret);
+            }
+        }
+        if (!config.isBatch() || verifier.isAllSolved()) {
+            finish();
+        }
+    }
+
+    /**
+     * 每秒收回到期租约并推送统计
+     */
+    private void tick() {
+        try {
+            Map<Long, String> expired = leases.expire(System.currentTimeMillis());
+            for (Map.Entry<Long, String> lease : expired.entrySet()) {
+                listener.onLogMessage("租约 " + lease.getKey() + " 已到期收回: " + lease.getValue());
+            }
+            AttackStats stats = telemetry.sample();
+            listener.onStatsUpdate(stats);
+            listener.onProgressUpdate(Math.min(99, stats.getPercent()));
+        } catch (RuntimeException e) {
+            // 定时任务抛出异常后会被取消，只记录不中断
+            listener.onLogMessage("协调定时任务异常: " + e.getMessage());
+        }
+    }
+}
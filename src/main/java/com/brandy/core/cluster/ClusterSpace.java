@@ -0,0 +1,129 @@
+package com.brandy.core.cluster;
+
+import com.brandy.core.attack.ArenaRuleCandidateSpace;
+import com.brandy.core.attack.CandidateSpace;
+import com.brandy.core.attack.HmacVerifier;
+import com.brandy.core.attack.MappedCandidateSpace;
+import com.brandy.core.attack.MappedRuleCandidateSpace;
+import com.brandy.core.attack.MaskCandidateSpace;
+import com.brandy.core.attack.TransformCandidateSpace;
+import com.brandy.core.model.AttackConfig;
+import com.brandy.core.rules.RuleSet;
+import com.brandy.core.utils.DictionaryCache;
+import com.brandy.core.utils.DictionaryMerger;
+import com.brandy.core.utils.JWTUtils;
+import com.brandy.core.utils.MappedDictionary;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 集群模式下各进程共同遍历的候选空间与校验器
+ * 序号的含义必须在所有进程间一致，因此不随字典缓存预算切换实现：
+ * 用户字典与合并字典始终内存映射 (序号为字节偏移，合并字典先写入本进程的临时文件)，
+ * 内置字典使用展开后的候选区，掩码使用掩码序号。
+ * 集群模式只处理同一算法的令牌，每个候选的密钥状态在所有目标间共享。
+ */
+public class ClusterSpace implements Closeable {
+    private final CandidateSpace space;
+    private final HmacVerifier verifier;
+    private final MappedDictionary dictionary;
+    // 合并字典的临时文件，关闭时删除
+    private final Path spool;
+
+    private ClusterSpace(CandidateSpace space, HmacVerifier verifier, MappedDictionary dictionary, Path spool) {
+        this.space = space;
+        this.verifier = verifier;
+        this.dictionary = dictionary;
+        this.spool = spool;
+    }
+
+    /**
+     * @throws IllegalArgumentException 令牌无效或算法不一致
+     * @throws IOException 字典或规则无法读取
+     */
+    public static ClusterSpace open(AttackConfig config) throws IOException {
+        HmacVerifier verifier = newVerifier(config);
+        if (config.isMaskAttack()) {
+            return new ClusterSpace(new MaskCandidateSpace(config.getMask()), verifier, null, null);
+        }
+        RuleSet rules = null;
+        if (config.isUseRules()) {
+            rules = config.getRulesPath() != null ? RuleSet.load(config.getRulesPath()) : RuleSet.loadBuiltin();
+            if (rules.size() == 0) {
+                throw new IllegalArgumentException("规则文件中没有有效规则");
+            }
+        }
+        if (config.isMergedDictionary()) {
+            // 各进程按相同的来源与权重合并，写出的文件逐字节相同，与各自的堆大小无关
+            Path spool = DictionaryMerger.createSpool();
+            try {
+                DictionaryMerger.mergeToFile(config.getDictionaries(), spool);
+                MappedDictionary dictionary = MappedDictionary.open(spool);
+                return new ClusterSpace(mapped(dictionary, rules, config), verifier, dictionary, spool);
+            } catch (IOException | RuntimeException e) {
+                DictionaryMerger.deleteSpool(spool);
+                throw e;
+            }
+        }
+        if (config.isUseBuiltinDictionary()) {
+            CandidateSpace space = rules != null
+                    ? new ArenaRuleCandidateSpace(DictionaryCache.shared().builtin().words(), rules, "内置字典")
+                    : TransformCandidateSpace.forArena(DictionaryCache.shared().builtin(), config.getKeyTransforms(),
+                            "内置字典");
+            return new ClusterSpace(space, verifier, null, null);
+        }
+        MappedDictionary dictionary = MappedDictionary.open(config.getDictionaryPath());
+        return new ClusterSpace(mapped(dictionary, rules, config), verifier, dictionary, null);
+    }
+
+    private static CandidateSpace mapped(MappedDictionary dictionary, RuleSet rules, AttackConfig config) {
+        return rules != null
+                ? new MappedRuleCandidateSpace(dictionary, rules)
+                : new MappedCandidateSpace(dictionary, config.getKeyTransforms());
+    }
+
+    /**
+     * 所有令牌放进同一个多目标校验器；批量模式下算法取自令牌头部且必须一致
+     */
+    private static HmacVerifier newVerifier(AttackConfig config) {
+        List<String> tokens = config.getJwtTokens();
+        String algorithm = config.isBatch() ? JWTUtils.getAlgorithm(tokens.get(0)) : config.getAlgorithm();
+        String[] signingInputs = new String[tokens.size()];
+        String[] signatures = new String[tokens.size()];
+        for (int i = 0; i < tokens.size(); i++) {
+            if (config.isBatch() && !algorithm.equals(JWTUtils.getAlgorithm(tokens.get(i)))) {
+                throw new IllegalArgumentException("集群模式要求所有令牌使用同一算法: 令牌 #" + (i + 1));
+            }
+            String[] parts = JWTUtils.parseJWT(tokens.get(i));
+            signingInputs[i] = parts[0] + "." + parts[1];
+            signatures[i] = parts[2];
+        }
+        HmacVerifier verifier = new HmacVerifier(algorithm, signingInputs, signatures);
+        if (config.isVectorHmac()) {
+            // 不可用时保持逐个校验，各工作进程的 JVM 可以不同
+            verifier.enableBatchKernel();
+        }
+        return verifier;
+    }
+
+    public CandidateSpace space() {
+        return space;
+    }
+
+    public HmacVerifier verifier() {
+        return verifier;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (dictionary != null) {
+            dictionary.close();
+        }
+        if (spool != null) {
+            DictionaryMerger.deleteSpool(spool);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.brandy.core.cluster;
+
+import com.brandy.core.attack.AttackListener;
+import com.brandy.core.attack.CandidateSpace;
+import com.brandy.core.attack.HmacVerifier;
+import com.brandy.core.model.AttackSpec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 集群工作进程
+ * 从协调进程取得攻击参数后在本地构造相同的候选空间，每个工作线程用自己的连接领取租约并遍历；
+ * 遍历中按心跳间隔续期并汇报测试量，收到停止指令、租约被收回或连接断开时立即停止当前区间。
+ */
+public class ClusterWorker {
+    private final String host;
+    private final int port;
+    private final int threads;
+    private final AttackListener listener;
+    private final AtomicLong keysTested = new AtomicLong();
+    private volatile boolean stopped;
+
+    public ClusterWorker(String host, int port, int threads, AttackListener listener) {
+        this.host = host;
+        this.port = port;
+        this.threads = threads;
+        this.listener = listener;
+    }
+
+    /**
+     * 连接协调进程并工作到收到停止指令或连接断开
+     * @throws IOException 无法连接或本地候选空间与协调进程不一致
+     */
+    public void run() throws IOException, InterruptedException {
+        ClusterConnection first = connect();
+        ObjectNode job = first.request(hello());
+        AttackSpec spec = ClusterConnection.MAPPER.treeToValue(job.get("spec"), AttackSpec.class);
+        long heartbeatNanos = job.path("heartbeatMillis").asLong(ClusterCoordinator.HEARTBEAT_MILLIS) * 1_000_000L;
+        try (ClusterSpace opened = ClusterSpace.open(spec.toConfig(threads))) {
+            CandidateSpace space = opened.space();
+            if (space.size() != job.path("spaceSize").asLong()) {
+                first.close();
+                throw new IOException("本地候选空间与协调进程不一致: " + space.size() + " != " + job.path("spaceSize").asLong());
+            }
+            listener.onLogMessage("已加入协调进程 " + host + ":" + port + "，" + space.describe() + "，线程数: " + threads);
+
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                ClusterConnection connection = i == 0 ? first : connect();
+                if (i > 0) {
+                    connection.request(hello());
+                }
+                LeaseRunner runner = new LeaseRunner(connection, space, opened.verifier(), heartbeatNanos);
+                Thread thread = new Thread(runner, "jwt-cluster-worker-" + i);
+                workers.add(thread);
+                thread.start();
+            }
+            for (Thread thread : workers) {
+                thread.join();
+            }
+            listener.onLogMessage("工作进程结束，已测试密钥数: " + keysTested.get());
+        } finally {
+            listener.onAttackComplete();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+    }
+
+    private ClusterConnection connect() throws IOException {
+        return new ClusterConnection(new Socket(host, port));
+    }
+
+    private static ObjectNode hello() throws IOException {
+        return ClusterConnection.message("hello").put("worker",
+                InetAddress.getLocalHost().getHostName() + ":" + ProcessHandle.current().pid());
+    }
+
+    /**
+     * 一个工作线程：领取租约、遍历、续期、上报，连接为本线程独占
+     */
+    private final class LeaseRunner implements Runnable {
+        private final ClusterConnection connection;
+        private final HmacVerifier verifier;
+        private final HmacVerifier.Worker worker;
+        private final CandidateSpace.Walker walker;
+        private final long heartbeatNanos;
+        private long leaseId;
+        private boolean leaseLost;
+        private long lastBeat;
+        private long reported;
+
+        LeaseRunner(ClusterConnection connection, CandidateSpace space, HmacVerifier verifier, long heartbeatNanos) {
+            this.connection = connection;
+            this.verifier = verifier;
+            this.worker = verifier.newWorker();
+            this.walker = space.newWalker(worker);
+            this.heartbeatNanos = heartbeatNanos;
+        }
+
+        @Override
+        public void run() {
+            try (connection) {
+                while (!stopped) {
+                    ObjectNode reply = connection.request(ClusterConnection.message("lease"));
+                    switch (reply.path("type").asText()) {
+                        case "lease":
+                            walk(reply.path("id").asLong(), reply.path("from").asLong(), reply.path("to").asLong());
+                            break;
+                        case "wait":
+                            Thread.sleep(reply.path("millis").asLong());
+                            break;
+                        default:
+                            stopped = true;
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                // 协调进程结束或失联，所有线程一起停止
+                stopped = true;
+            } catch (InterruptedException e) {
+                stopped = true;
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void walk(long id, long from, long to) throws IOException {
+            leaseId = id;
+            leaseLost = false;
+            lastBeat = System.nanoTime();
+            long position = from;
+            while (position < to && !shouldStop()) {
+                long end = walker.walk(position, to, this::shouldStop);
+                if (walker.hit() == null) {
+                    position = end;
+                    break;
+                }
+                for (int m = 0; m < worker.matchCount(); m++) {
+                    verifier.markSolved(worker.matchedTarget(m));
+                }
+                listener.onLogMessage("命中已上报: " + walker.hit());
+                // 上报原始字节的 Base64，协调进程复核的是同一组字节
+                apply(connection.request(ClusterConnection.message("found")
+                        .put("id", id).put("key", walker.hit().toBase64()).put("keys", unreported())));
+                position = end;
+            }
+            if (position == to && !leaseLost && !stopped) {
+                apply(connection.request(ClusterConnection.message("complete").put("id", id).put("keys", unreported())));
+            }
+        }
+
+        /**
+         * 遍历器每 {@link CandidateSpace#CHECK_INTERVAL} 个密钥调用一次；到达心跳间隔时续期租约
+         */
+        private boolean shouldStop() {
+            if (stopped || leaseLost) {
+                return true;
+            }
+            long now = System.nanoTime();
+            if (now - lastBeat >= heartbeatNanos) {
+                lastBeat = now;
+                try {
+                    apply(connection.request(ClusterConnection.message("heartbeat")
+                            .put("id", leaseId).put("keys", unreported())));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return stopped || leaseLost;
+        }
+
+        private void apply(ObjectNode reply) {
+            switch (reply.path("type").asText()) {
+                case "ok":
+                    for (JsonNode target : reply.path("solved")) {
+                        verifier.markSolved(target.asInt());
+                    }
+                    break;
+                case "expired":
+                    leaseLost = true;
+                    listener.onLogMessage("租约 " + leaseId + " 已被收回，放弃当前区间");
+                    break;
+                default:
+                    stopped = true;
+            }
+        }
+
+        /**
+         * @return 上次汇报之后新测试的密钥数
+         */
+        private long unreported() {
+            long tested = walker.keysTested();
+            long delta = tested - reported;
+            reported = tested;
+            keysTested.addAndGet(delta);
+            return delta;
+        }
+    }
+}
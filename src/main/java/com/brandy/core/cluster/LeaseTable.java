@@ -0,0 +1,150 @@
+package com.brandy.core.cluster;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 协调进程的租约表
+ * 序号空间按固定长度切成租约依次发放，工作进程需在租约到期前发送心跳续期；
+ * 到期的租约收回后优先重新发放。只有仍然有效的租约才能提交完成，
+ * 因此被收回后又迟到的提交不会重复计数，对应区间由新的持有者重新测试。
+ * 所有方法都在锁内执行，调用频率只有每个租约几次。
+ */
+public class LeaseTable {
+    private final long size;
+    private final long leaseSize;
+    private final long ttlMillis;
+    private long cursor;
+    private long nextId = 1;
+    private long completed;
+    // 到期收回、等待重新发放的区间
+    private final Deque<long[]> reclaimed = new ArrayDeque<>();
+    private final Map<Long, Lease> active = new HashMap<>();
+
+    /**
+     * @param size 序号空间大小
+     * @param leaseSize 每个租约的区间长度
+     * @param ttlMillis 租约有效期，心跳后重新计时
+     */
+    public LeaseTable(long size, long leaseSize, long ttlMillis) {
+        this.size = size;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 发放一个租约
+     * @return {租约号, from, to}，暂时没有可发放的区间时返回 null
+     */
+    public synchronized long[] acquire(String owner, long now) {
+        long[] range = reclaimed.pollFirst();
+        if (range == null) {
+            if (cursor >= size) {
+                return null;
+            }
+            range = new long[]{cursor, Math.min(size, cursor + leaseSize)};
+            cursor = range[1];
+        }
+        long id = nextId++;
+        active.put(id, new Lease(owner, range[0], range[1], now + ttlMillis));
+        return new long[]{id, range[0], range[1]};
+    }
+
+    /**
+     * 续期
+     * @return 租约仍然有效时返回 true，已被收回时返回 false
+     */
+    public synchronized boolean renew(long id, long now) {
+        Lease lease = active.get(id);
+        if (lease == null) {
+            return false;
+        }
+        lease.expiresAt = now + ttlMillis;
+        return true;
+    }
+
+    /**
+     * 提交租约区间已全部测试完成
+     * @return 租约仍然有效时返回 true
+     */
+    public synchronized boolean complete(long id) {
+        Lease lease = active.remove(id);
+        if (lease == null) {
+            return false;
+        }
+        completed += lease.to - lease.from;
+        return true;
+    }
+
+    /**
+     * 收回所有到期的租约
+     * @return 被收回的租约，用于日志
+     */
+    public synchronized Map<Long, String> expire(long now) {
+        Map<Long, String> expired = new HashMap<>();
+        Iterator<Map.Entry<Long, Lease>> it = active.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Lease> entry = it.next();
+            Lease lease = entry.getValue();
+            if (lease.expiresAt <= now) {
+                it.remove();
+                reclaimed.addLast(new long[]{lease.from, lease.to});
+                expired.put(entry.getKey(), lease.owner);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 收回某个工作进程持有的全部租约 (连接断开时)，不必等到到期
+     * @return 收回的租约数
+     */
+    public synchronized int release(String owner) {
+        int released = 0;
+        Iterator<Lease> it = active.values().iterator();
+        while (it.hasNext()) {
+            Lease lease = it.next();
+            if (lease.owner.equals(owner)) {
+                it.remove();
+                reclaimed.addLast(new long[]{lease.from, lease.to});
+                released++;
+            }
+        }
+        return released;
+    }
+
+    /**
+     * @return 已完成的序号数
+     */
+    public synchronized long completed() {
+        return completed;
+    }
+
+    /**
+     * @return 整个空间都已完成
+     */
+    public synchronized boolean isFinished() {
+        return completed >= size;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    private static final class Lease {
+        final String owner;
+        final long from;
+        final long to;
+        long expiresAt;
+
+        Lease(String owner, long from, long to, long expiresAt) {
+            this.owner = owner;
+            this.from = from;
+            this.to = to;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.brandy.core.crypto;
+
+/**
+ * 一次计算一批候选密钥的 HMAC 爆破核心 (多缓冲)
+ * 每个通道对应一个候选密钥，同一批的全部通道共用一条指令流；先用 {@link #setKey} 填入各通道，
+ * 再对每个目标调用 {@link #matches}，密钥状态在第一次 matches 时按批计算。
+ * 实例只属于一个工作线程，不是线程安全的。
+ */
+public interface HmacBatchKernel {
+
+    /**
+     * @return 每批的通道数，不超过 64
+     */
+    int lanes();
+
+    /**
+     * 把候选密钥 key[off, off + len) 载入第 lane 个通道；返回后 key 可以被修改
+     */
+    void setKey(int lane, byte[] key, int off, int len);
+
+    /**
+     * 用前 count 个通道的密钥计算第 target 个目标的 HMAC 并与其签名比较
+     * @return 匹配通道的位掩码，第 i 位对应第 i 个通道
+     */
+    long matches(int target, int count);
+
+    /**
+     * 目标数量
+     */
+    int targetCount();
+}
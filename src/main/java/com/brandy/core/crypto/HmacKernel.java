@@ -0,0 +1,25 @@
+package com.brandy.core.crypto;
+
+/**
+ * 爆破专用的 HMAC 计算核心
+ * 签名输入在整个攻击期间不变，因此消息块的扩展调度表只在构造 Plan 时计算一次；
+ * 每个候选密钥只需要计算 ipad/opad 两次压缩和消息块的轮函数。
+ * 实例只属于一个工作线程，不是线程安全的。
+ */
+public interface HmacKernel {
+
+    /**
+     * 载入候选密钥 key[off, off + len)，计算 ipad/opad 中间状态
+     */
+    void setKey(byte[] key, int off, int len);
+
+    /**
+     * 使用当前密钥状态计算第 target 个目标的 HMAC 并与其签名比较
+     */
+    boolean matches(int target);
+
+    /**
+     * 目标数量
+     */
+    int targetCount();
+}
@@ -0,0 +1,147 @@
+package com.brandy.core.crypto;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.lang.reflect.Method;
+import java.security.GeneralSecurityException;
+import java.util.function.Supplier;
+
+/**
+ * HMAC 爆破核心的选择与校验
+ */
+public final class HmacKernels {
+    private static final int[] SELF_TEST_KEY_LENGTHS = {1, 19, 32, 63, 64, 65, 127, 128, 129, 200};
+    // 向量核心位于 src/vector/java，只在以 vector 配置构建时打包
+    private static final String VECTOR_KERNELS = "com.brandy.core.crypto.VectorHmacKernels";
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private HmacKernels() {
+    }
+
+    /**
+     * 为 HS256/HS384/HS512 预计算共享数据并返回工作线程私有核心的工厂
+     * @param jwtAlgorithm JWT 算法名
+     * @param messages 各目标的签名输入
+     * @param signatures 各目标解码后的签名
+     * @return 核心工厂，算法不受支持时返回 null
+     */
+    public static Supplier<HmacKernel> forAlgorithm(String jwtAlgorithm, byte[][] messages, byte[][] signatures) {
+        switch (jwtAlgorithm) {
+            case "HS256": {
+                HmacSha256Kernel.Plan plan = new HmacSha256Kernel.Plan(messages, signatures);
+                return () -> new HmacSha256Kernel(plan);
+            }
+            case "HS384": {
+                HmacSha512Kernel.Plan plan = new HmacSha512Kernel.Plan(384, messages, signatures);
+                return () -> new HmacSha512Kernel(plan);
+            }
+            case "HS512": {
+                HmacSha512Kernel.Plan plan = new HmacSha512Kernel.Plan(512, messages, signatures);
+                return () -> new HmacSha512Kernel(plan);
+            }
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 基于 Vector API 的多缓冲核心工厂
+     * 需要以 vector 配置构建 (包含向量核心类)，并以 --add-modules jdk.incubator.vector 启动 JVM；
+     * 向量类只通过反射加载，缺少模块的 JVM 上不会触及。
+     * @return 核心工厂；模块或向量核心类不存在、算法不受支持或向量寄存器放不下两个通道时返回 null
+     */
+    @SuppressWarnings("unchecked")
+    public static Supplier<HmacBatchKernel> forBatch(String jwtAlgorithm, byte[][] messages, byte[][] signatures) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            Method factory = Class.forName(VECTOR_KERNELS)
+                    .getMethod("forAlgorithm", String.class, byte[][].class, byte[][].class);
+            return (Supplier<HmacBatchKernel>) factory.invoke(null, jwtAlgorithm, messages, signatures);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    /**
+     * 与 {@link #selfTest} 相同，但校验多缓冲核心：匹配的密钥轮流放在不同通道，
+     * 其余通道放其他长度的密钥，同时确认超出 count 的通道被排除
+     * @return 全部一致时返回 true
+     */
+    public static boolean selfTestBatch(String jwtAlgorithm, String javaAlgorithm, byte[] message) {
+        try {
+            Mac mac = Mac.getInstance(javaAlgorithm);
+            for (int round = 0; round < SELF_TEST_KEY_LENGTHS.length; round++) {
+                byte[] key = testKey(SELF_TEST_KEY_LENGTHS[round]);
+                mac.init(new SecretKeySpec(key, javaAlgorithm));
+                byte[] expected = mac.doFinal(message);
+                byte[] wrong = expected.clone();
+                wrong[wrong.length - 1] ^= 1;
+
+                Supplier<HmacBatchKernel> factory = forBatch(jwtAlgorithm,
+                        new byte[][]{message, message}, new byte[][]{expected, wrong});
+                if (factory == null) {
+                    return false;
+                }
+                HmacBatchKernel kernel = factory.get();
+                int lanes = kernel.lanes();
+                int hitLane = round % lanes;
+                for (int lane = 0; lane < lanes; lane++) {
+                    // 其余通道的长度与匹配密钥不同，不会命中
+                    int n = SELF_TEST_KEY_LENGTHS.length;
+                    byte[] other = testKey(SELF_TEST_KEY_LENGTHS[(round + 1 + lane % (n - 1)) % n]);
+                    byte[] laneKey = lane == hitLane ? key : other;
+                    kernel.setKey(lane, laneKey, 0, laneKey.length);
+                }
+                if (kernel.matches(0, lanes) != 1L << hitLane || kernel.matches(1, lanes) != 0
+                        || kernel.matches(0, hitLane) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 用 javax.crypto.Mac 对该消息长度下的核心结果做交叉校验，
+     * 覆盖块长边界和需要预先哈希的长密钥
+     * @return 全部一致时返回 true
+     */
+    public static boolean selfTest(String jwtAlgorithm, String javaAlgorithm, byte[] message) {
+        try {
+            Mac mac = Mac.getInstance(javaAlgorithm);
+            for (int length : SELF_TEST_KEY_LENGTHS) {
+                byte[] key = testKey(length);
+                mac.init(new SecretKeySpec(key, javaAlgorithm));
+                byte[] expected = mac.doFinal(message);
+                byte[] wrong = expected.clone();
+                wrong[wrong.length - 1] ^= 1;
+
+                Supplier<HmacKernel> factory = forAlgorithm(jwtAlgorithm,
+                        new byte[][]{message, message}, new byte[][]{expected, wrong});
+                if (factory == null) {
+                    return false;
+                }
+                HmacKernel kernel = factory.get();
+                kernel.setKey(key, 0, key.length);
+                if (!kernel.matches(0) || kernel.matches(1)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static byte[] testKey(int length) {
+        byte[] key = new byte[length];
+        for (int i = 0; i < length; i++) {
+            key[i] = (byte) (i * 31 + length);
+        }
+        return key;
+    }
+}
@@ -0,0 +1,249 @@
+package com.brandy.core.crypto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * HMAC-SHA256 爆破核心 (HS256)
+ * 全部运算都在基本类型数组上完成，单个候选不创建任何对象。
+ */
+public final class HmacSha256Kernel implements HmacKernel {
+    private static final int BLOCK_BYTES = 64;
+    private static final int DIGEST_WORDS = 8;
+
+    static final int[] K = {
+            0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5, 0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+            0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3, 0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+            0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc, 0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+            0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7, 0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+            0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13, 0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+            0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3, 0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+            0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5, 0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+            0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208, 0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+    };
+
+    static final int[] IV = {
+            0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a, 0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+    };
+
+    /**
+     * 与密钥无关的预计算数据：每个目标消息的填充块及其完整的 W[0..63] 调度表
+     * 构造后只读，可被所有工作线程共享
+     */
+    public static final class Plan {
+        private final int[][] schedules;
+        private final int[][] targets;
+
+        /**
+         * @param messages 各目标的签名输入 header.payload
+         * @param signatures 各目标解码后的签名，长度不是 32 字节的目标永远不会匹配
+         */
+        public Plan(byte[][] messages, byte[][] signatures) {
+            schedules = new int[messages.length][];
+            targets = new int[messages.length][];
+            for (int t = 0; t < messages.length; t++) {
+                schedules[t] = expandMessage(messages[t]);
+                targets[t] = signatures[t].length == DIGEST_WORDS * 4 ? toWords(signatures[t]) : null;
+            }
+        }
+
+        public int size() {
+            return schedules.length;
+        }
+
+        /**
+         * @return 第 t 个目标全部消息块的调度表，每块 64 个字
+         */
+        int[] schedule(int t) {
+            return schedules[t];
+        }
+
+        /**
+         * @return 第 t 个目标签名的大端字，长度不符时为 null
+         */
+        int[] target(int t) {
+            return targets[t];
+        }
+    }
+
+    private final Plan plan;
+    private final int[] innerState = new int[DIGEST_WORDS];
+    private final int[] outerState = new int[DIGEST_WORDS];
+    private final int[] state = new int[DIGEST_WORDS];
+    private final int[] w = new int[64];
+    private MessageDigest longKeyDigest;
+
+    public HmacSha256Kernel(Plan plan) {
+        this.plan = plan;
+    }
+
+    @Override
+    public int targetCount() {
+        return plan.size();
+    }
+
+    @Override
+    public void setKey(byte[] key, int off, int len) {
+        if (len > BLOCK_BYTES) {
+            // 超过块长的密钥先做一次哈希，实际场景很少，走 JCA 即可
+            key = hashLongKey(key, off, len);
+            off = 0;
+            len = key.length;
+        }
+        loadKeyBlock(key, off, len, 0x36363636);
+        System.arraycopy(IV, 0, innerState, 0, DIGEST_WORDS);
+        expand(w);
+        compress(innerState, w, 0);
+
+        loadKeyBlock(key, off, len, 0x5c5c5c5c);
+        System.arraycopy(IV, 0, outerState, 0, DIGEST_WORDS);
+        expand(w);
+        compress(outerState, w, 0);
+    }
+
+    @Override
+    public boolean matches(int target) {
+        int[] expected = plan.targets[target];
+        if (expected == null) {
+            return false;
+        }
+        int[] schedule = plan.schedules[target];
+        int[] s = state;
+        System.arraycopy(innerState, 0, s, 0, DIGEST_WORDS);
+        for (int offset = 0; offset < schedule.length; offset += 64) {
+            compress(s, schedule, offset);
+        }
+
+        // 外层：opad 状态 + 内层摘要 (32 字节) 组成的唯一一个填充块
+        int[] w = this.w;
+        System.arraycopy(s, 0, w, 0, DIGEST_WORDS);
+        w[8] = 0x80000000;
+        w[9] = 0;
+        w[10] = 0;
+        w[11] = 0;
+        w[12] = 0;
+        w[13] = 0;
+        w[14] = 0;
+        w[15] = (BLOCK_BYTES + DIGEST_WORDS * 4) * 8;
+        expand(w);
+        System.arraycopy(outerState, 0, s, 0, DIGEST_WORDS);
+        compress(s, w, 0);
+
+        for (int i = 0; i < DIGEST_WORDS; i++) {
+            if (s[i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void loadKeyBlock(byte[] key, int off, int len, int pad) {
+        int[] w = this.w;
+        for (int i = 0; i < 16; i++) {
+            w[i] = 0;
+        }
+        for (int i = 0; i < len; i++) {
+            w[i >>> 2] |= (key[off + i] & 0xff) << (24 - ((i & 3) << 3));
+        }
+        for (int i = 0; i < 16; i++) {
+            w[i] ^= pad;
+        }
+    }
+
+    private byte[] hashLongKey(byte[] key, int off, int len) {
+        try {
+            if (longKeyDigest == null) {
+                longKeyDigest = MessageDigest.getInstance("SHA-256");
+            }
+            longKeyDigest.update(key, off, len);
+            return longKeyDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 对 ipad 块之后的消息做 SHA-256 填充并展开每个块的调度表
+     */
+    private static int[] expandMessage(byte[] message) {
+        long bitLength = (BLOCK_BYTES + (long) message.length) * 8;
+        int blocks = (message.length + 8) / BLOCK_BYTES + 1;
+        byte[] padded = new byte[blocks * BLOCK_BYTES];
+        System.arraycopy(message, 0, padded, 0, message.length);
+        padded[message.length] = (byte) 0x80;
+        for (int i = 0; i < 8; i++) {
+            padded[padded.length - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+
+        int[] schedule = new int[blocks * 64];
+        int[] w = new int[64];
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < 16; i++) {
+                int p = b * BLOCK_BYTES + i * 4;
+                w[i] = ((padded[p] & 0xff) << 24) | ((padded[p + 1] & 0xff) << 16)
+                        | ((padded[p + 2] & 0xff) << 8) | (padded[p + 3] & 0xff);
+            }
+            expand(w);
+            System.arraycopy(w, 0, schedule, b * 64, 64);
+        }
+        return schedule;
+    }
+
+    private static int[] toWords(byte[] bytes) {
+        int[] words = new int[bytes.length / 4];
+        for (int i = 0; i < words.length; i++) {
+            int p = i * 4;
+            words[i] = ((bytes[p] & 0xff) << 24) | ((bytes[p + 1] & 0xff) << 16)
+                    | ((bytes[p + 2] & 0xff) << 8) | (bytes[p + 3] & 0xff);
+        }
+        return words;
+    }
+
+    private static void expand(int[] w) {
+        for (int t = 16; t < 64; t++) {
+            int x = w[t - 15];
+            int y = w[t - 2];
+            int s0 = Integer.rotateRight(x, 7) ^ Integer.rotateRight(x, 18) ^ (x >>> 3);
+            int s1 = Integer.rotateRight(y, 17) ^ Integer.rotateRight(y, 19) ^ (y >>> 10);
+            w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+        }
+    }
+
+    /**
+     * 只执行 64 轮运算，调度表 w[offset, offset + 64) 由调用方提前展开
+     */
+    private static void compress(int[] state, int[] w, int offset) {
+        int a = state[0];
+        int b = state[1];
+        int c = state[2];
+        int d = state[3];
+        int e = state[4];
+        int f = state[5];
+        int g = state[6];
+        int h = state[7];
+        for (int t = 0; t < 64; t++) {
+            int s1 = Integer.rotateRight(e, 6) ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+            int ch = (e & f) ^ (~e & g);
+            int t1 = h + s1 + ch + K[t] + w[offset + t];
+            int s0 = Integer.rotateRight(a, 2) ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+            int maj = (a & b) ^ (a & c) ^ (b & c);
+            int t2 = s0 + maj;
+            h = g;
+            g = f;
+            f = e;
+            e = d + t1;
+            d = c;
+            c = b;
+            b = a;
+            a = t1 + t2;
+        }
+        state[0] += a;
+        state[1] += b;
+        state[2] += c;
+        state[3] += d;
+        state[4] += e;
+        state[5] += f;
+        state[6] += g;
+        state[7] += h;
+    }
+}
@@ -0,0 +1,295 @@
+package com.brandy.core.crypto;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * HMAC-SHA384 / HMAC-SHA512 爆破核心 (HS384 / HS512)
+ * 两者共用 SHA-512 的压缩函数，只有初始向量和输出长度不同。
+ */
+public final class HmacSha512Kernel implements HmacKernel {
+    private static final int BLOCK_BYTES = 128;
+
+    static final long[] K = {
+            0x428a2f98d728ae22L, 0x7137449123ef65cdL, 0xb5c0fbcfec4d3b2fL, 0xe9b5dba58189dbbcL,
+            0x3956c25bf348b538L, 0x59f111f1b605d019L, 0x923f82a4af194f9bL, 0xab1c5ed5da6d8118L,
+            0xd807aa98a3030242L, 0x12835b0145706fbeL, 0x243185be4ee4b28cL, 0x550c7dc3d5ffb4e2L,
+            0x72be5d74f27b896fL, 0x80deb1fe3b1696b1L, 0x9bdc06a725c71235L, 0xc19bf174cf692694L,
+            0xe49b69c19ef14ad2L, 0xefbe4786384f25e3L, 0x0fc19dc68b8cd5b5L, 0x240ca1cc77ac9c65L,
+            0x2de92c6f592b0275L, 0x4a7484aa6ea6e483L, 0x5cb0a9dcbd41fbd4L, 0x76f988da831153b5L,
+            0x983e5152ee66dfabL, 0xa831c66d2db43210L, 0xb00327c898fb213fL, 0xbf597fc7beef0ee4L,
+            0xc6e00bf33da88fc2L, 0xd5a79147930aa725L, 0x06ca6351e003826fL, 0x142929670a0e6e70L,
+            0x27b70a8546d22ffcL, 0x2e1b21385c26c926L, 0x4d2c6dfc5ac42aedL, 0x53380d139d95b3dfL,
+            0x650a73548baf63deL, 0x766a0abb3c77b2a8L, 0x81c2c92e47edaee6L, 0x92722c851482353bL,
+            0xa2bfe8a14cf10364L, 0xa81a664bbc423001L, 0xc24b8b70d0f89791L, 0xc76c51a30654be30L,
+            0xd192e819d6ef5218L, 0xd69906245565a910L, 0xf40e35855771202aL, 0x106aa07032bbd1b8L,
+            0x19a4c116b8d2d0c8L, 0x1e376c085141ab53L, 0x2748774cdf8eeb99L, 0x34b0bcb5e19b48a8L,
+            0x391c0cb3c5c95a63L, 0x4ed8aa4ae3418acbL, 0x5b9cca4f7763e373L, 0x682e6ff3d6b2b8a3L,
+            0x748f82ee5defb2fcL, 0x78a5636f43172f60L, 0x84c87814a1f0ab72L, 0x8cc702081a6439ecL,
+            0x90befffa23631e28L, 0xa4506cebde82bde9L, 0xbef9a3f7b2c67915L, 0xc67178f2e372532bL,
+            0xca273eceea26619cL, 0xd186b8c721c0c207L, 0xeada7dd6cde0eb1eL, 0xf57d4f7fee6ed178L,
+            0x06f067aa72176fbaL, 0x0a637dc5a2c898a6L, 0x113f9804bef90daeL, 0x1b710b35131c471bL,
+            0x28db77f523047d84L, 0x32caab7b40c72493L, 0x3c9ebe0a15c9bebcL, 0x431d67c49c100d4cL,
+            0x4cc5d4becb3e42b6L, 0x597f299cfc657e2aL, 0x5fcb6fab3ad6faecL, 0x6c44198c4a475817L
+    };
+
+    private static final long[] IV_384 = {
+            0xcbbb9d5dc1059ed8L, 0x629a292a367cd507L, 0x9159015a3070dd17L, 0x152fecd8f70e5939L,
+            0x67332667ffc00b31L, 0x8eb44a8768581511L, 0xdb0c2e0d64f98fa7L, 0x47b5481dbefa4fa4L
+    };
+
+    private static final long[] IV_512 = {
+            0x6a09e667f3bcc908L, 0xbb67ae8584caa73bL, 0x3c6ef372fe94f82bL, 0xa54ff53a5f1d36f1L,
+            0x510e527fade682d1L, 0x9b05688c2b3e6c1fL, 0x1f83d9abfb41bd6bL, 0x5be0cd19137e2179L
+    };
+
+    /**
+     * 与密钥无关的预计算数据：每个目标消息的填充块及其完整的 W[0..79] 调度表
+     * 构造后只读，可被所有工作线程共享
+     */
+    public static final class Plan {
+        private final long[] iv;
+        private final int digestWords;
+        private final String digestAlgorithm;
+        private final long[][] schedules;
+        private final long[][] targets;
+
+        /**
+         * @param bits 384 或 512
+         * @param messages 各目标的签名输入 header.payload
+         * @param signatures 各目标解码后的签名，长度不符的目标永远不会匹配
+         */
+        public Plan(int bits, byte[][] messages, byte[][] signatures) {
+            if (bits != 384 && bits != 512) {
+                throw new IllegalArgumentException("Unsupported digest size: " + bits);
+            }
+            this.iv = bits == 384 ? IV_384 : IV_512;
+            this.digestWords = bits / 64;
+            this.digestAlgorithm = "SHA-" + bits;
+            schedules = new long[messages.length][];
+            targets = new long[messages.length][];
+            for (int t = 0; t < messages.length; t++) {
+                schedules[t] = expandMessage(messages[t]);
+                targets[t] = signatures[t].length == digestWords * 8 ? toWords(signatures[t]) : null;
+            }
+        }
+
+        public int size() {
+            return schedules.length;
+        }
+
+        long[] iv() {
+            return iv;
+        }
+
+        /**
+         * @return 输出的 64 位字数，HS384 为 6，HS512 为 8
+         */
+        int digestWords() {
+            return digestWords;
+        }
+
+        String digestAlgorithm() {
+            return digestAlgorithm;
+        }
+
+        /**
+         * @return 第 t 个目标全部消息块的调度表，每块 80 个字
+         */
+        long[] schedule(int t) {
+            return schedules[t];
+        }
+
+        /**
+         * @return 第 t 个目标签名的大端字，长度不符时为 null
+         */
+        long[] target(int t) {
+            return targets[t];
+        }
+    }
+
+    private final Plan plan;
+    private final int digestWords;
+    private final long[] innerState = new long[8];
+    private final long[] outerState = new long[8];
+    private final long[] state = new long[8];
+    private final long[] w = new long[80];
+    private MessageDigest longKeyDigest;
+
+    public HmacSha512Kernel(Plan plan) {
+        this.plan = plan;
+        this.digestWords = plan.digestWords;
+    }
+
+    @Override
+    public int targetCount() {
+        return plan.size();
+    }
+
+    @Override
+    public void setKey(byte[] key, int off, int len) {
+        if (len > BLOCK_BYTES) {
+            // 超过块长的密钥先做一次哈希，实际场景很少，走 JCA 即可
+            key = hashLongKey(key, off, len);
+            off = 0;
+            len = key.length;
+        }
+        loadKeyBlock(key, off, len, 0x3636363636363636L);
+        System.arraycopy(plan.iv, 0, innerState, 0, 8);
+        expand(w);
+        compress(innerState, w, 0);
+
+        loadKeyBlock(key, off, len, 0x5c5c5c5c5c5c5c5cL);
+        System.arraycopy(plan.iv, 0, outerState, 0, 8);
+        expand(w);
+        compress(outerState, w, 0);
+    }
+
+    @Override
+    public boolean matches(int target) {
+        long[] expected = plan.targets[target];
+        if (expected == null) {
+            return false;
+        }
+        long[] schedule = plan.schedules[target];
+        long[] s = state;
+        System.arraycopy(innerState, 0, s, 0, 8);
+        for (int offset = 0; offset < schedule.length; offset += 80) {
+            compress(s, schedule, offset);
+        }
+
+        // 外层：opad 状态 + 内层摘要 (48/64 字节) 组成的唯一一个填充块
+        long[] w = this.w;
+        int n = digestWords;
+        System.arraycopy(s, 0, w, 0, n);
+        w[n] = 0x8000000000000000L;
+        for (int i = n + 1; i < 15; i++) {
+            w[i] = 0;
+        }
+        w[15] = (BLOCK_BYTES + n * 8L) * 8;
+        expand(w);
+        System.arraycopy(outerState, 0, s, 0, 8);
+        compress(s, w, 0);
+
+        for (int i = 0; i < n; i++) {
+            if (s[i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void loadKeyBlock(byte[] key, int off, int len, long pad) {
+        long[] w = this.w;
+        for (int i = 0; i < 16; i++) {
+            w[i] = 0;
+        }
+        for (int i = 0; i < len; i++) {
+            w[i >>> 3] |= (key[off + i] & 0xffL) << (56 - ((i & 7) << 3));
+        }
+        for (int i = 0; i < 16; i++) {
+            w[i] ^= pad;
+        }
+    }
+
+    private byte[] hashLongKey(byte[] key, int off, int len) {
+        try {
+            if (longKeyDigest == null) {
+                longKeyDigest = MessageDigest.getInstance(plan.digestAlgorithm);
+            }
+            longKeyDigest.update(key, off, len);
+            return longKeyDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 对 ipad 块之后的消息做 SHA-512 填充 (128 位长度字段) 并展开每个块的调度表
+     */
+    private static long[] expandMessage(byte[] message) {
+        long bitLength = (BLOCK_BYTES + (long) message.length) * 8;
+        int blocks = (message.length + 16) / BLOCK_BYTES + 1;
+        byte[] padded = new byte[blocks * BLOCK_BYTES];
+        System.arraycopy(message, 0, padded, 0, message.length);
+        padded[message.length] = (byte) 0x80;
+        for (int i = 0; i < 8; i++) {
+            padded[padded.length - 1 - i] = (byte) (bitLength >>> (8 * i));
+        }
+
+        long[] schedule = new long[blocks * 80];
+        long[] w = new long[80];
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < 16; i++) {
+                w[i] = readLong(padded, b * BLOCK_BYTES + i * 8);
+            }
+            expand(w);
+            System.arraycopy(w, 0, schedule, b * 80, 80);
+        }
+        return schedule;
+    }
+
+    private static long[] toWords(byte[] bytes) {
+        long[] words = new long[bytes.length / 8];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = readLong(bytes, i * 8);
+        }
+        return words;
+    }
+
+    private static long readLong(byte[] b, int p) {
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v = (v << 8) | (b[p + i] & 0xffL);
+        }
+        return v;
+    }
+
+    private static void expand(long[] w) {
+        for (int t = 16; t < 80; t++) {
+            long x = w[t - 15];
+            long y = w[t - 2];
+            long s0 = Long.rotateRight(x, 1) ^ Long.rotateRight(x, 8) ^ (x >>> 7);
+            long s1 = Long.rotateRight(y, 19) ^ Long.rotateRight(y, 61) ^ (y >>> 6);
+            w[t] = w[t - 16] + s0 + w[t - 7] + s1;
+        }
+    }
+
+    /**
+     * 只执行 80 轮运算，调度表 w[offset, offset + 80) 由调用方提前展开
+     */
+    private static void compress(long[] state, long[] w, int offset) {
+        long a = state[0];
+        long b = state[1];
+        long c = state[2];
+        long d = state[3];
+        long e = state[4];
+        long f = state[5];
+        long g = state[6];
+        long h = state[7];
+        for (int t = 0; t < 80; t++) {
+            long s1 = Long.rotateRight(e, 14) ^ Long.rotateRight(e, 18) ^ Long.rotateRight(e, 41);
+            long ch = (e & f) ^ (~e & g);
+            long t1 = h + s1 + ch + K[t] + w[offset + t];
+            long s0 = Long.rotateRight(a, 28) ^ Long.rotateRight(a, 34) ^ Long.rotateRight(a, 39);
+            long maj = (a & b) ^ (a & c) ^ (b & c);
+            long t2 = s0 + maj;
+            h = g;
+            g = f;
+            f = e;
+            e = d + t1;
+            d = c;
+            c = b;
+            b = a;
+            a = t1 + t2;
+        }
+        state[0] += a;
+        state[1] += b;
+        state[2] += c;
+        state[3] += d;
+        state[4] += e;
+        state[5] += f;
+        state[6] += g;
+        state[7] += h;
+    }
+}
@@ -0,0 +1,301 @@
+package com.brandy.core.crypto;
+
+import com.brandy.core.model.KeyMaterial;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 把 PEM、JWK/JWKS、证书 (PEM 或 DER) 文件解析为候选公钥，并生成算法混淆攻击要测试的逐字节编码：
+ * 带与不带末尾换行的 PEM (SPKI，RSA 另有 PKCS#1)、DER、两种字段顺序的 JWK JSON，
+ * 以及文件中的原样文本 (PEM 块、JWK 对象、只含一个密钥时的整个文件)。
+ * 无法识别的文件或块直接跳过。
+ */
+public final class PublicKeyParser {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // PEM 正文只含 Base64 字符与空白，不会出现 '-'
+    private static final Pattern PEM_BLOCK = Pattern.compile("-----BEGIN ([A-Z0-9 ]+)-----[^-]*-----END \\1-----");
+    // AlgorithmIdentifier { rsaEncryption, NULL }
+    private static final byte[] RSA_ALGORITHM_ID = {0x30, 0x0d, 0x06, 0x09, 0x2a, (byte) 0x86, 0x48, (byte) 0x86,
+            (byte) 0xf7, 0x0d, 0x01, 0x01, 0x01, 0x05, 0x00};
+    private static final Base64.Encoder URL = Base64.getUrlEncoder().withoutPadding();
+
+    private PublicKeyParser() {
+    }
+
+    /**
+     * @return 文件中的全部公钥，无法识别时为空列表
+     */
+    public static List<KeyMaterial> parse(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        // ISO-8859-1 下字符下标与字节下标一一对应，便于截取原样字节
+        String text = new String(bytes, StandardCharsets.ISO_8859_1);
+        String source = file.toAbsolutePath().toString();
+        List<KeyMaterial> keys = new ArrayList<>();
+        if (text.contains("-----BEGIN ")) {
+            parsePem(source, bytes, text, keys);
+        } else if (text.trim().startsWith("{") || text.trim().startsWith("[")) {
+            parseJson(source, bytes, keys);
+        } else {
+            parseDer(source, bytes, keys);
+        }
+        if (keys.size() == 1) {
+            keys.get(0).addEncoding("File (as is)", bytes);
+        } else {
+            for (int i = 0; i < keys.size(); i++) {
+                keys.get(i).setSource(source + "#" + i);
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * 由 SubjectPublicKeyInfo 重建公钥
+     * @throws GeneralSecurityException 不是 RSA 或 EC 公钥
+     */
+    public static PublicKey toPublicKey(String keyType, byte[] spki) throws GeneralSecurityException {
+        return KeyFactory.getInstance(keyType).generatePublic(new X509EncodedKeySpec(spki));
+    }
+
+    private static void parsePem(String source, byte[] bytes, String text, List<KeyMaterial> keys) {
+        Matcher m = PEM_BLOCK.matcher(text);
+        while (m.find()) {
+            String type = m.group(1);
+            String body = text.substring(text.indexOf('\n', m.start()) + 1, text.lastIndexOf("-----END", m.end()));
+            try {
+                byte[] der = Base64.getMimeDecoder().decode(body);
+                KeyMaterial key;
+                switch (type) {
+                    case "PUBLIC KEY":
+                        key = encode(source, spkiKey(der));
+                        break;
+                    case "RSA PUBLIC KEY":
+                        key = encode(source, toPublicKey("RSA", wrapPkcs1(der)));
+                        break;
+                    case "CERTIFICATE": {
+                        X509Certificate certificate = certificate(der);
+                        key = encode(source, certificate.getPublicKey());
+                        key.addEncoding("Certificate DER", der);
+                        break;
+                    }
+                    default:
+                        continue;
+                }
+                byte[] block = Arrays.copyOfRange(bytes, m.start(), m.end());
+                key.addEncoding(type + " PEM (as in file)", block);
+                // 文件中块后面的换行 (LF 或 CRLF) 一起保留
+                int end = m.end();
+                int newline = end < text.length() && text.charAt(end) == '\r' ? 2 : 1;
+                if (end + newline <= text.length() && text.charAt(end + newline - 1) == '\n') {
+                    key.addEncoding(type + " PEM (as in file, with newline)", Arrays.copyOfRange(bytes, m.start(), end + newline));
+                }
+                keys.add(key);
+            } catch (GeneralSecurityException | IllegalArgumentException e) {
+                // 损坏的块跳过
+            }
+        }
+    }
+
+    private static void parseJson(String source, byte[] bytes, List<KeyMaterial> keys) {
+        JsonNode root;
+        try {
+            root = MAPPER.readTree(bytes);
+        } catch (IOException e) {
+            return;
+        }
+        JsonNode list = root.isArray() ? root : root.has("keys") ? root.get("keys") : MAPPER.createArrayNode().add(root);
+        for (JsonNode jwk : list) {
+            try {
+                KeyMaterial key = encode(source, jwkKey(jwk));
+                key.addEncoding("JWK (as in file)", MAPPER.writeValueAsBytes(jwk));
+                keys.add(key);
+            } catch (GeneralSecurityException | IllegalArgumentException | IOException e) {
+                // 私钥、对称密钥或字段缺失的 JWK 跳过
+            }
+        }
+    }
+
+    private static void parseDer(String source, byte[] bytes, List<KeyMaterial> keys) {
+        try {
+            KeyMaterial key = encode(source, certificate(bytes).getPublicKey());
+            key.addEncoding("Certificate DER", bytes);
+            keys.add(key);
+            return;
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // 不是证书，再按 SubjectPublicKeyInfo 尝试
+        }
+        try {
+            keys.add(encode(source, spkiKey(bytes)));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // 无法识别的文件
+        }
+    }
+
+    private static X509Certificate certificate(byte[] der) throws GeneralSecurityException {
+        return (X509Certificate) CertificateFactory.getInstance("X.509")
+                .generateCertificate(new ByteArrayInputStream(der));
+    }
+
+    private static PublicKey spkiKey(byte[] spki) throws GeneralSecurityException {
+        try {
+            return toPublicKey("RSA", spki);
+        } catch (GeneralSecurityException e) {
+            return toPublicKey("EC", spki);
+        }
+    }
+
+    private static PublicKey jwkKey(JsonNode jwk) throws GeneralSecurityException {
+        switch (jwk.path("kty").asText()) {
+            case "RSA":
+                return KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                        unsigned(jwk, "n"), unsigned(jwk, "e")));
+            case "EC": {
+                AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+                parameters.init(new ECGenParameterSpec(curveName(jwk.path("crv").asText())));
+                ECPoint point = new ECPoint(unsigned(jwk, "x"), unsigned(jwk, "y"));
+                return KeyFactory.getInstance("EC").generatePublic(
+                        new ECPublicKeySpec(point, parameters.getParameterSpec(ECParameterSpec.class)));
+            }
+            default:
+                throw new IllegalArgumentException("Unsupported JWK kty: " + jwk.path("kty").asText());
+        }
+    }
+
+    private static BigInteger unsigned(JsonNode jwk, String field) {
+        String value = jwk.path(field).asText("");
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Missing JWK field: " + field);
+        }
+        return new BigInteger(1, Base64.getUrlDecoder().decode(value));
+    }
+
+    private static String curveName(String crv) {
+        switch (crv) {
+            case "P-256":
+                return "secp256r1";
+            case "P-384":
+                return "secp384r1";
+            case "P-521":
+                return "secp521r1";
+            default:
+                throw new IllegalArgumentException("Unsupported JWK curve: " + crv);
+        }
+    }
+
+    /**
+     * 生成与密钥来源无关的标准编码
+     */
+    private static KeyMaterial encode(String source, PublicKey publicKey) {
+        byte[] spki = publicKey.getEncoded();
+        KeyMaterial key = new KeyMaterial(source, publicKey.getAlgorithm(), spki);
+        String pem = pem("PUBLIC KEY", spki);
+        key.addEncoding("PEM", ascii(pem + "\n"));
+        key.addEncoding("PEM (no trailing newline)", ascii(pem));
+        if (publicKey instanceof RSAPublicKey) {
+            RSAPublicKey rsa = (RSAPublicKey) publicKey;
+            byte[] pkcs1 = der(0x30, derInteger(rsa.getModulus()), derInteger(rsa.getPublicExponent()));
+            String pkcs1Pem = pem("RSA PUBLIC KEY", pkcs1);
+            key.addEncoding("PKCS#1 PEM", ascii(pkcs1Pem + "\n"));
+            key.addEncoding("PKCS#1 PEM (no trailing newline)", ascii(pkcs1Pem));
+            key.addEncoding("DER", spki);
+            key.addEncoding("PKCS#1 DER", pkcs1);
+            String n = URL.encodeToString(magnitude(rsa.getModulus(), 0));
+            String e = URL.encodeToString(magnitude(rsa.getPublicExponent(), 0));
+            key.addEncoding("JWK", ascii("{\"kty\":\"RSA\",\"n\":\"" + n + "\",\"e\":\"" + e + "\"}"));
+            key.addEncoding("JWK (RFC 7638)", ascii("{\"e\":\"" + e + "\",\"kty\":\"RSA\",\"n\":\"" + n + "\"}"));
+        } else if (publicKey instanceof ECPublicKey) {
+            ECPublicKey ec = (ECPublicKey) publicKey;
+            int fieldBytes = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            String crv = fieldBytes == 32 ? "P-256" : fieldBytes == 48 ? "P-384" : "P-521";
+            String x = URL.encodeToString(magnitude(ec.getW().getAffineX(), fieldBytes));
+            String y = URL.encodeToString(magnitude(ec.getW().getAffineY(), fieldBytes));
+            key.addEncoding("DER", spki);
+            key.addEncoding("JWK", ascii("{\"kty\":\"EC\",\"crv\":\"" + crv + "\",\"x\":\"" + x + "\",\"y\":\"" + y + "\"}"));
+            key.addEncoding("JWK (RFC 7638)",
+                    ascii("{\"crv\":\"" + crv + "\",\"kty\":\"EC\",\"x\":\"" + x + "\",\"y\":\"" + y + "\"}"));
+        }
+        return key;
+    }
+
+    /**
+     * 把 PKCS#1 RSAPublicKey 包装成 SubjectPublicKeyInfo
+     */
+    private static byte[] wrapPkcs1(byte[] pkcs1) {
+        byte[] bitString = new byte[pkcs1.length + 1];
+        System.arraycopy(pkcs1, 0, bitString, 1, pkcs1.length);
+        return der(0x30, RSA_ALGORITHM_ID, der(0x03, bitString));
+    }
+
+    private static String pem(String type, byte[] der) {
+        String body = Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der);
+        return "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----";
+    }
+
+    private static byte[] derInteger(BigInteger value) {
+        return der(0x02, value.toByteArray());
+    }
+
+    static byte[] der(int tag, byte[]... parts) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            content.writeBytes(part);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(tag);
+        int length = content.size();
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int lengthBytes = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | lengthBytes);
+            for (int i = lengthBytes - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        out.writeBytes(content.toByteArray());
+        return out.toByteArray();
+    }
+
+    /**
+     * 无符号大端字节，size 大于 0 时左侧补零到固定长度
+     */
+    static byte[] magnitude(BigInteger value, int size) {
+        byte[] bytes = value.toByteArray();
+        int start = bytes.length > 1 && bytes[0] == 0 ? 1 : 0;
+        int length = bytes.length - start;
+        byte[] out = new byte[Math.max(size, length)];
+        System.arraycopy(bytes, start, out, out.length - length, length);
+        return out;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
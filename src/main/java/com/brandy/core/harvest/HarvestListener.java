@@ -0,0 +1,22 @@
+package com.brandy.core.harvest;
+
+import com.brandy.core.model.KeyBytes;
+
+/**
+ * 被动捕获与后台破解的通知，回调来自后台线程
+ */
+public interface HarvestListener {
+
+    /**
+     * 捕获到一个之前没有见过的令牌
+     * @param source 来源，例如请求的 URL
+     */
+    void onTokenHarvested(String token, String algorithm, String source);
+
+    /**
+     * 后台破解找到了捕获令牌的密钥
+     */
+    void onHarvestedSecretFound(String token, KeyBytes secret);
+
+    void onHarvestLog(String message);
+}
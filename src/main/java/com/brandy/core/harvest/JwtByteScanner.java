@@ -0,0 +1,111 @@
+package com.brandy.core.harvest;
+
+/**
+ * 在原始报文字节上查找 JWS 紧凑格式令牌 (header.payload.signature)
+ * 手写的单遍状态机：不使用正则、不把报文转成字符串，只在找到完整令牌时回调其位置。
+ * 令牌以 "eyJ" (即 base64url 编码的 {"...) 开头且前一个字节不是 base64url 字符，
+ * 三段都只含 base64url 字符；后面紧跟第三个点的 (JWE 或更长的点分串) 不算令牌。
+ */
+public final class JwtByteScanner {
+    // 超过该长度的候选直接放弃，避免在大段 base64 数据上空转
+    public static final int MAX_TOKEN_LENGTH = 16 * 1024;
+    // "eyJ" 加上最短的 {"alg":"..."} 编码
+    private static final int MIN_HEADER_LENGTH = 10;
+
+    private static final int SEEK = 0;
+    private static final int HEADER = 1;
+    private static final int PAYLOAD = 2;
+    private static final int SIGNATURE = 3;
+    // 当前点分串不是 JWS，跳到它结束
+    private static final int SKIP = 4;
+
+    private static final boolean[] BASE64URL = new boolean[256];
+
+    static {
+        for (int c = 'A'; c <= 'Z'; c++) {
+            BASE64URL[c] = true;
+        }
+        for (int c = 'a'; c <= 'z'; c++) {
+            BASE64URL[c] = true;
+        }
+        for (int c = '0'; c <= '9'; c++) {
+            BASE64URL[c] = true;
+        }
+        BASE64URL['-'] = true;
+        BASE64URL['_'] = true;
+    }
+
+    /**
+     * 找到令牌时的回调，各位置都是 data 中的下标
+     */
+    public interface TokenSink {
+        /**
+         * @param start 令牌起点
+         * @param headerEnd 第一个点的位置
+         * @param payloadEnd 第二个点的位置
+         * @param end 令牌终点 (不含)；签名为空 (alg none) 时等于 payloadEnd + 1
+         */
+        void token(byte[] data, int start, int headerEnd, int payloadEnd, int end);
+    }
+
+    private JwtByteScanner() {
+    }
+
+    /**
+     * 扫描 data[from, to)
+     */
+    public static void scan(byte[] data, int from, int to, TokenSink sink) {
+        int state = SEEK;
+        int start = 0;
+        int headerEnd = 0;
+        int payloadEnd = 0;
+        boolean previousBase64 = false;
+        for (int i = from; i < to; i++) {
+            int c = data[i] & 0xff;
+            boolean base64 = BASE64URL[c];
+            switch (state) {
+                case SEEK:
+                    if (c == 'e' && !previousBase64 && i + 2 < to && data[i + 1] == 'y' && data[i + 2] == 'J') {
+                        start = i;
+                        state = HEADER;
+                        // 跳过 "yJ"，它们都是 base64url 字符
+                        i += 2;
+                    }
+                    break;
+                case HEADER:
+                    if (!base64) {
+                        state = c == '.' && i - start >= MIN_HEADER_LENGTH ? PAYLOAD : SEEK;
+                        headerEnd = i;
+                    }
+                    break;
+                case PAYLOAD:
+                    if (!base64) {
+                        state = c == '.' && i - headerEnd > 1 ? SIGNATURE : SEEK;
+                        payloadEnd = i;
+                    }
+                    break;
+                case SIGNATURE:
+                    if (!base64) {
+                        if (c == '.') {
+                            state = SKIP;
+                        } else {
+                            sink.token(data, start, headerEnd, payloadEnd, i);
+                            state = SEEK;
+                        }
+                    }
+                    break;
+                default:
+                    if (!base64 && c != '.') {
+                        state = SEEK;
+                    }
+            }
+            if (state != SEEK && state != SKIP && i - start >= MAX_TOKEN_LENGTH) {
+                state = SKIP;
+            }
+            previousBase64 = base64;
+        }
+        if (state == SIGNATURE) {
+            sink.token(data, start, headerEnd, payloadEnd, to);
+        }
+    }
+}
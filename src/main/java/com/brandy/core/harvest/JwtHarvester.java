@@ -0,0 +1,325 @@
+package com.brandy.core.harvest;
+
+import com.brandy.core.attack.AttackListener;
+import com.brandy.core.attack.HmacVerifier;
+import com.brandy.core.attack.JWTAttackEngine;
+import com.brandy.core.model.AttackConfig;
+import com.brandy.core.model.AttackTier;
+import com.brandy.core.model.KeyBytes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 从流量中被动捕获 JWT 并在后台破解
+ * 代理线程只把报文字节交给扫描线程就返回；扫描线程用 {@link JwtByteScanner} 查找令牌，
+ * 按签名去重后通知监听器。HS* 令牌加入按密钥指纹分组的 {@link TokenInventory}，
+ * 每组只有代表令牌进入破解队列，由单独的线程把队列中的令牌一起分层破解：先对全部令牌尝试常见默认密钥，
+ * 再用完整的内置字典 (攻击开始前会先尝试已知密钥，已穷尽的搜索直接跳过)，找到的密钥再一次性校验组内其余令牌。
+ * 两个队列与清单都有上限，满了直接丢弃，保证流量再大也不会阻塞代理或占满内存。
+ */
+public class JwtHarvester {
+    // 正文超过此大小的报文 (通常是大文件下载) 只扫描头部
+    public static final int MAX_SCAN_BYTES = 2 * 1024 * 1024;
+    private static final int SCAN_QUEUE_SIZE = 1024;
+    private static final int CRACK_QUEUE_SIZE = 1000;
+    // 每批一起破解的令牌数上限
+    private static final int CRACK_BATCH_SIZE = 64;
+    private static final int SIGNATURE_CAPACITY = 100_000;
+
+    private final HarvestListener listener;
+    private final int crackThreads;
+    private final SignatureSet seen = new SignatureSet(SIGNATURE_CAPACITY);
+    private final ThreadPoolExecutor scanner;
+    private final TokenInventory inventory = new TokenInventory(SIGNATURE_CAPACITY);
+    private final BlockingQueue<CrackJob> crackQueue = new ArrayBlockingQueue<>(CRACK_QUEUE_SIZE);
+    private final Thread cracker;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean enabled = true;
+    private volatile boolean crackEnabled = true;
+    private volatile boolean stopped;
+    private volatile JWTAttackEngine current;
+
+    /**
+     * @param crackThreads 后台破解使用的线程数，应小于前台攻击，避免拖慢 Burp
+     */
+    public JwtHarvester(HarvestListener listener, int crackThreads) {
+        this.listener = listener;
+        this.crackThreads = Math.max(1, crackThreads);
+        this.scanner = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(SCAN_QUEUE_SIZE), r -> {
+                    Thread t = new Thread(r, "jwt-harvest-scan");
+                    t.setDaemon(true);
+                    return t;
+                }, (task, executor) -> dropped.incrementAndGet());
+        this.cracker = new Thread(this::crackLoop, "jwt-harvest-crack");
+        this.cracker.setDaemon(true);
+        this.cracker.start();
+    }
+
+    /**
+     * 提交一个报文，立即返回；扫描在后台进行
+     * @param head 请求行与头部，调用后不得再修改
+     * @param body 正文，没有正文或正文过大时为 null；调用后不得再修改
+     */
+    public void submit(byte[] head, byte[] body, String source) {
+        if (enabled && !stopped) {
+            scanner.execute(() -> {
+                scan(head, 0, head.length, source);
+                if (body != null) {
+                    scan(body, 0, Math.min(body.length, MAX_SCAN_BYTES), source);
+                }
+            });
+        }
+    }
+
+    /**
+     * 在当前线程扫描 data[from, to)
+     */
+    public void scan(byte[] data, int from, int to, String source) {
+        JwtByteScanner.scan(data, from, to, (bytes, start, headerEnd, payloadEnd, end) ->
+                onToken(bytes, start, payloadEnd, end, source));
+    }
+
+    private void onToken(byte[] data, int start, int payloadEnd, int end, String source) {
+        // 没有签名的令牌 (alg none) 无密钥可破
+        if (end - payloadEnd <= 1) {
+            return;
+        }
+        // 只为签名分配字符串，重复令牌到此为止
+        if (!seen.add(new String(data, payloadEnd + 1, end - payloadEnd - 1, StandardCharsets.US_ASCII))) {
+            return;
+        }
+        TokenInfo info;
+        try {
+            info = TokenInfo.parse(new String(data, start, end - start, StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            // 以 eyJ 开头但头部不是 JSON，多半是碰巧匹配的 base64 数据
+            return;
+        }
+        listener.onTokenHarvested(info.getToken(), info.getAlgorithm(), source);
+        if (isHmac(info.getAlgorithm())) {
+            handle(info.fingerprint(), inventory.admit(info), info);
+        }
+    }
+
+    private void handle(String fingerprint, TokenInventory.Admission admission, TokenInfo info) {
+        switch (admission) {
+            case CRACK:
+                if (!crackEnabled || !crackQueue.offer(new CrackJob(fingerprint, info))) {
+                    inventory.abandoned(fingerprint);
+                }
+                break;
+            case VERIFY:
+                verify(fingerprint, Collections.singletonList(info), inventory.secretOf(fingerprint));
+                break;
+            default:
+                // 等待同组结果、所在组未能破解或清单已满
+        }
+    }
+
+    private static boolean isHmac(String algorithm) {
+        return "HS256".equals(algorithm) || "HS384".equals(algorithm) || "HS512".equals(algorithm);
+    }
+
+    private void crackLoop() {
+        while (!stopped) {
+            List<CrackJob> jobs = new ArrayList<>();
+            try {
+                jobs.add(crackQueue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            crackQueue.drainTo(jobs, CRACK_BATCH_SIZE - 1);
+            crack(jobs);
+        }
+    }
+
+    /**
+     * 用内置字典分层破解一批代表令牌，每破解一个立即校验其所在组，整批完成后才处理下一批
+     */
+    private void crack(List<CrackJob> jobs) {
+        List<String> tokens = new ArrayList<>();
+        for (CrackJob job : jobs) {
+            tokens.add(job.token.getToken());
+        }
+        AttackConfig config = new AttackConfig(tokens, null, crackThreads);
+        config.setTiers(List.of(AttackTier.QUICK, AttackTier.DICTIONARY));
+        boolean[] solved = new boolean[jobs.size()];
+        boolean[] exhausted = new boolean[1];
+        JWTAttackEngine engine = new JWTAttackEngine(config, new AttackListener() {
+            @Override
+            public void onSecretFound(KeyBytes secret) {
+            }
+
+            @Override
+            public void onTokenSecretFound(int tokenIndex, String token, KeyBytes secret) {
+                CrackJob job = jobs.get(tokenIndex);
+                solved[tokenIndex] = true;
+                listener.onHarvestedSecretFound(token, secret);
+                verify(job.fingerprint, inventory.cracked(job.fingerprint, secret), secret);
+            }
+
+            @Override
+            public void onProgressUpdate(int progress) {
+                // 批量模式只有遍历完全部候选时才上报 100
+                if (progress == 100) {
+                    exhausted[0] = true;
+                }
+            }
+
+            @Override
+            public void onLogMessage(String message) {
+                // 前台攻击的日志已经很多，后台只上报结果
+            }
+
+            @Override
+            public void onAttackComplete() {
+            }
+
+            @Override
+            public void onAttackFailed(String reason) {
+                listener.onHarvestLog("后台破解失败: " + reason);
+            }
+        });
+        current = engine;
+        if (!stopped) {
+            engine.start();
+            try {
+                engine.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                engine.stop();
+                Thread.currentThread().interrupt();
+            } finally {
+                current = null;
+            }
+        }
+        for (int i = 0; i < solved.length; i++) {
+            if (solved[i]) {
+                continue;
+            }
+            if (exhausted[0]) {
+                inventory.notFound(jobs.get(i).fingerprint);
+            } else {
+                inventory.abandoned(jobs.get(i).fingerprint);
+            }
+        }
+    }
+
+    /**
+     * 用组的密钥一次性校验多个令牌；不匹配的令牌指纹相同但密钥不同，单独成组重新破解
+     */
+    private void verify(String fingerprint, List<TokenInfo> members, KeyBytes secret) {
+        if (members.isEmpty()) {
+            return;
+        }
+        String[] inputs = new String[members.size()];
+        String[] signatures = new String[members.size()];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = members.get(i).getSigningInput();
+            signatures[i] = members.get(i).getSignature();
+        }
+        HmacVerifier verifier = new HmacVerifier(members.get(0).getAlgorithm(), inputs, signatures);
+        boolean[] matched = new boolean[inputs.length];
+        for (int target : HmacVerifier.matchVariants(verifier.newWorker(), secret)) {
+            matched[target] = true;
+        }
+        List<TokenInfo> mismatched = new ArrayList<>();
+        for (int i = 0; i < matched.length; i++) {
+            if (matched[i]) {
+                listener.onHarvestedSecretFound(members.get(i).getToken(), secret);
+            } else {
+                mismatched.add(members.get(i));
+            }
+        }
+        if (members.size() > 1) {
+            listener.onHarvestLog("同组令牌校验完成: " + (members.size() - mismatched.size()) + "/" + members.size()
+                    + " 使用密钥 " + secret);
+        }
+        for (TokenInfo info : mismatched) {
+            // 已经单独成组的令牌不会再不匹配，这里只处理按指纹分组的
+            if (fingerprint.equals(info.fingerprint())) {
+                handle(TokenInventory.splitFingerprint(info), inventory.split(info), info);
+            }
+        }
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 关闭后仍然捕获令牌，只是不再加入破解队列；已在队列中的组与正在破解的组回到待破解状态，
+     * 同组的下一个令牌到达时重新排队
+     */
+    public void setCrackEnabled(boolean crackEnabled) {
+        this.crackEnabled = crackEnabled;
+        if (!crackEnabled) {
+            List<CrackJob> queued = new ArrayList<>();
+            crackQueue.drainTo(queued);
+            for (CrackJob job : queued) {
+                inventory.abandoned(job.fingerprint);
+            }
+            JWTAttackEngine engine = current;
+            if (engine != null) {
+                engine.stop();
+            }
+        }
+    }
+
+    public boolean isCrackEnabled() {
+        return crackEnabled;
+    }
+
+    public TokenInventory getInventory() {
+        return inventory;
+    }
+
+    /**
+     * @return 捕获过的不同令牌数 (去重集合的当前大小)
+     */
+    public int getSeenCount() {
+        return seen.size();
+    }
+
+    /**
+     * @return 因扫描队列已满而没有扫描的报文数
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * 停止扫描与后台破解，扩展卸载时调用
+     */
+    public void shutdown() {
+        stopped = true;
+        scanner.shutdownNow();
+        cracker.interrupt();
+        JWTAttackEngine engine = current;
+        if (engine != null) {
+            engine.stop();
+        }
+    }
+
+    private static final class CrackJob {
+        final String fingerprint;
+        final TokenInfo token;
+
+        CrackJob(String fingerprint, TokenInfo token) {
+            this.fingerprint = fingerprint;
+            this.token = token;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.brandy.core.harvest;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 有容量上限的并发集合，用于按签名对捕获的令牌去重
+ * 超过容量后按插入顺序淘汰最早的签名；淘汰的令牌再次出现时会被当作新令牌，
+ * 但已破解或已穷尽的令牌在攻击开始前就会被已知密钥与穷尽记录拦下。
+ */
+public class SignatureSet {
+    private final int capacity;
+    private final Set<String> members = ConcurrentHashMap.newKeySet();
+    private final Queue<String> order = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public SignatureSet(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return 之前没有出现过时返回 true
+     */
+    public boolean add(String signature) {
+        if (!members.add(signature)) {
+            return false;
+        }
+        order.add(signature);
+        if (size.incrementAndGet() > capacity) {
+            String eldest = order.poll();
+            if (eldest != null) {
+                members.remove(eldest);
+                size.decrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void clear() {
+        members.clear();
+        order.clear();
+        size.set(0);
+    }
+}
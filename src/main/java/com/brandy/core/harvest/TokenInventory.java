@@ -0,0 +1,174 @@
+package com.brandy.core.harvest;
+
+import com.brandy.core.model.KeyBytes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 捕获令牌的内存清单，按签名密钥指纹 ({@link TokenInfo#fingerprint()}) 分组
+ * 每组只破解一个代表令牌；破解成功后用找到的密钥一次性校验组内其余令牌，之后加入的令牌直接校验；
+ * 代表令牌遍历完仍未破解的组不再攻击。破解被中断 (停止或关闭后台破解) 的组回到待破解状态，
+ * 下一个加入的令牌成为新的代表。
+ * 所有方法都在锁内执行，校验在锁外由调用方进行。
+ */
+public class TokenInventory {
+
+    public enum State {
+        // 等待代表令牌进入破解队列
+        PENDING,
+        // 代表令牌已在破解队列中或正在破解
+        CRACKING,
+        CRACKED,
+        // 代表令牌未能破解，组内令牌都跳过
+        NOT_FOUND
+    }
+
+    /**
+     * 令牌加入清单后调用方应采取的动作
+     */
+    public enum Admission {
+        // 成为代表令牌，需要破解
+        CRACK,
+        // 组内已有令牌在破解，等待结果
+        QUEUED,
+        // 组已破解，用 {@link #secretOf(String)} 的密钥直接校验
+        VERIFY,
+        // 组未能破解，跳过
+        SKIPPED,
+        // 清单已满且组尚未破解，令牌没有保存
+        DROPPED
+    }
+
+    private final int capacity;
+    private final Map<String, Group> groups = new HashMap<>();
+    private int stored;
+    private long tokens;
+    private long skipped;
+    private int crackedGroups;
+
+    /**
+     * @param capacity 最多保存的待校验令牌数
+     */
+    public TokenInventory(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized Admission admit(TokenInfo token) {
+        return admit(token.fingerprint(), token);
+    }
+
+    /**
+     * 组内校验不匹配的令牌说明指纹相同但密钥不同，按签名单独成组重新破解
+     */
+    public synchronized Admission split(TokenInfo token) {
+        return admit(splitFingerprint(token), token);
+    }
+
+    /**
+     * @return 单独成组的令牌所在组的指纹
+     */
+    public static String splitFingerprint(TokenInfo token) {
+        return token.fingerprint() + "|" + token.getSignature();
+    }
+
+    private Admission admit(String fingerprint, TokenInfo token) {
+        tokens++;
+        Group group = groups.computeIfAbsent(fingerprint, f -> new Group());
+        switch (group.state) {
+            case CRACKED:
+                return Admission.VERIFY;
+            case NOT_FOUND:
+                skipped++;
+                return Admission.SKIPPED;
+            case PENDING:
+                group.state = State.CRACKING;
+                return Admission.CRACK;
+            default:
+                if (stored >= capacity) {
+                    return Admission.DROPPED;
+                }
+                group.members.add(token);
+                stored++;
+                return Admission.QUEUED;
+        }
+    }
+
+    /**
+     * 代表令牌已破解
+     * @return 等待校验的组内其余令牌
+     */
+    public synchronized List<TokenInfo> cracked(String fingerprint, KeyBytes secret) {
+        Group group = groups.get(fingerprint);
+        group.state = State.CRACKED;
+        group.secret = secret;
+        crackedGroups++;
+        return group.drainMembers();
+    }
+
+    /**
+     * 代表令牌遍历完仍未破解，组内令牌不再攻击
+     */
+    public synchronized void notFound(String fingerprint) {
+        Group group = groups.get(fingerprint);
+        group.state = State.NOT_FOUND;
+        skipped += group.drainMembers().size();
+    }
+
+    /**
+     * 破解被中断或代表令牌没能进入破解队列，组回到待破解状态；已保存的令牌继续等待
+     */
+    public synchronized void abandoned(String fingerprint) {
+        groups.get(fingerprint).state = State.PENDING;
+    }
+
+    /**
+     * @return 组的密钥，未破解时返回 null
+     */
+    public synchronized KeyBytes secretOf(String fingerprint) {
+        Group group = groups.get(fingerprint);
+        return group == null ? null : group.secret;
+    }
+
+    public synchronized State stateOf(String fingerprint) {
+        Group group = groups.get(fingerprint);
+        return group == null ? null : group.state;
+    }
+
+    /**
+     * @return 加入过的令牌总数
+     */
+    public synchronized long getTokenCount() {
+        return tokens;
+    }
+
+    public synchronized int getGroupCount() {
+        return groups.size();
+    }
+
+    public synchronized int getCrackedGroupCount() {
+        return crackedGroups;
+    }
+
+    /**
+     * @return 因所在组未能破解而跳过的令牌数
+     */
+    public synchronized long getSkippedCount() {
+        return skipped;
+    }
+
+    private final class Group {
+        final List<TokenInfo> members = new ArrayList<>();
+        State state = State.PENDING;
+        KeyBytes secret;
+
+        List<TokenInfo> drainMembers() {
+            List<TokenInfo> drained = new ArrayList<>(members);
+            stored -= members.size();
+            members.clear();
+            return drained;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.brandy.core.mask;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Hashcat 风格的掩码
+ * 每个位置是一个字符集，整个密钥空间按混合进制编号：第 0 位变化最快。
+ * 启用长度范围时依次枚举长度 min..max 的前缀掩码，较短的长度排在前面。
+ *
+ * <pre>
+ * ?l a-z   ?u A-Z   ?d 0-9   ?s 特殊字符 (含空格)   ?a ?l?u?d?s
+ * ?h 0-9a-f   ?H 0-9A-F   ?b 0x00-0xff   ?1-?4 自定义字符集   ?? 字面量 ?
+ * </pre>
+ */
+public final class Mask {
+    public static final int MAX_CUSTOM_CHARSETS = 4;
+
+    private static final String LOWER = "abcdefghijklmnopqrstuvwxyz";
+    private static final String UPPER = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final String DIGITS = "0123456789";
+    private static final String SPECIAL = " !\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+    private final String text;
+    private final byte[][] charsets;
+    private final int minLength;
+    // 每个长度对应的起始序号与空间大小
+    private final long[] lengthStart;
+    private final long[] lengthSize;
+    private final long keyspace;
+
+    private Mask(String text, byte[][] charsets, int minLength, int maxLength) {
+        this.text = text;
+        this.charsets = charsets;
+        this.minLength = minLength;
+        int lengths = maxLength - minLength + 1;
+        this.lengthStart = new long[lengths];
+        this.lengthSize = new long[lengths];
+        long total = 0;
+        long size = 1;
+        for (int p = 0; p < maxLength; p++) {
+            size = Math.multiplyExact(size, charsets[p].length);
+            if (p + 1 >= minLength) {
+                lengthStart[p + 1 - minLength] = total;
+                lengthSize[p + 1 - minLength] = size;
+                total = Math.addExact(total, size);
+            }
+        }
+        this.keyspace = total;
+    }
+
+    /**
+     * 解析掩码
+     * @param mask 掩码文本，例如 ?u?l?l?l?d?d
+     * @param customCharsets ?1-?4 的定义，可以引用内置字符集，元素可为 null
+     * @param minLength 最短长度，0 表示与掩码等长
+     * @param maxLength 最长长度，0 表示与掩码等长
+     * @throws IllegalArgumentException 掩码或字符集无效，或密钥空间超过 2^63
+     */
+    public static Mask parse(String mask, String[] customCharsets, int minLength, int maxLength) {
+        byte[][] custom = new byte[MAX_CUSTOM_CHARSETS][];
+        for (int i = 0; customCharsets != null && i < Math.min(customCharsets.length, MAX_CUSTOM_CHARSETS); i++) {
+            if (customCharsets[i] != null && !customCharsets[i].isEmpty()) {
+                custom[i] = expand(customCharsets[i], null);
+            }
+        }
+        List<byte[]> positions = new ArrayList<>();
+        for (int i = 0; i < mask.length(); i++) {
+            char c = mask.charAt(i);
+            if (c == '?') {
+                if (i + 1 >= mask.length()) {
+                    throw new IllegalArgumentException("Mask ends with '?'");
+                }
+                positions.add(charset(mask.charAt(++i), custom));
+            } else {
+                positions.add(new byte[]{toByte(c)});
+            }
+        }
+        int length = positions.size();
+        if (length == 0) {
+            throw new IllegalArgumentException("Empty mask");
+        }
+        int max = maxLength <= 0 ? length : Math.min(maxLength, length);
+        int min = minLength <= 0 ? max : Math.min(minLength, max);
+        try {
+            return new Mask(mask, positions.toArray(new byte[0][]), min, max);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Keyspace exceeds 2^63: " + mask);
+        }
+    }
+
+    /**
+     * 展开字符集定义，去除重复字符并保持首次出现的顺序
+     */
+    private static byte[] expand(String definition, byte[][] custom) {
+        boolean[] seen = new boolean[256];
+        byte[] out = new byte[256];
+        int n = 0;
+        for (int i = 0; i < definition.length(); i++) {
+            char c = definition.charAt(i);
+            byte[] chars;
+            if (c == '?') {
+                if (i + 1 >= definition.length()) {
+                    throw new IllegalArgumentException("Charset ends with '?': " + definition);
+                }
+                chars = charset(definition.charAt(++i), custom);
+            } else {
+                chars = new byte[]{toByte(c)};
+            }
+            for (byte b : chars) {
+                if (!seen[b & 0xff]) {
+                    seen[b & 0xff] = true;
+                    out[n++] = b;
+                }
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static byte[] charset(char id, byte[][] custom) {
+        switch (id) {
+            case 'l':
+                return ascii(LOWER);
+            case 'u':
+                return ascii(UPPER);
+            case 'd':
+                return ascii(DIGITS);
+            case 's':
+                return ascii(SPECIAL);
+            case 'a':
+                return ascii(LOWER + UPPER + DIGITS + SPECIAL);
+            case 'h':
+                return ascii(DIGITS + "abcdef");
+            case 'H':
+                return ascii(DIGITS + "ABCDEF");
+            case 'b': {
+                byte[] all = new byte[256];
+                for (int i = 0; i < 256; i++) {
+                    all[i] = (byte) i;
+                }
+                return all;
+            }
+            case '?':
+                return new byte[]{'?'};
+            case '1': case '2': case '3': case '4':
+                if (custom == null || custom[id - '1'] == null) {
+                    throw new IllegalArgumentException("Custom charset ?" + id + " is not defined");
+                }
+                return custom[id - '1'];
+            default:
+                throw new IllegalArgumentException("Unknown charset ?" + id);
+        }
+    }
+
+    private static byte[] ascii(String chars) {
+        byte[] out = new byte[chars.length()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = (byte) chars.charAt(i);
+        }
+        return out;
+    }
+
+    private static byte toByte(char c) {
+        if (c > 0xff) {
+            throw new IllegalArgumentException("Non-byte character in mask: " + c);
+        }
+        return (byte) c;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * @return 精确的密钥总数
+     */
+    public long keyspace() {
+        return keyspace;
+    }
+
+    public int minLength() {
+        return minLength;
+    }
+
+    public int maxLength() {
+        return charsets.length;
+    }
+
+    /**
+     * @return 第 position 位的字符集，调用方不得修改
+     */
+    public byte[] positionCharset(int position) {
+        return charsets[position];
+    }
+
+    /**
+     * @return 序号所在长度的下标 (相对 {@link #minLength()})
+     */
+    public int lengthIndexOf(long index) {
+        int i = lengthStart.length - 1;
+        while (i > 0 && lengthStart[i] > index) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * @return 该长度第一个密钥的序号
+     */
+    public long lengthStart(int lengthIndex) {
+        return lengthStart[lengthIndex];
+    }
+
+    /**
+     * @return 该长度的密钥数
+     */
+    public long lengthSize(int lengthIndex) {
+        return lengthSize[lengthIndex];
+    }
+
+    /**
+     * 由序号直接计算密钥
+     * @param index [0, keyspace()) 内的序号
+     * @param key 输出缓冲区，长度至少为 {@link #maxLength()}
+     * @param digits 输出各位置在字符集中的下标，可为 null
+     * @return 密钥长度
+     */
+    public int keyAt(long index, byte[] key, int[] digits) {
+        int lengthIndex = lengthIndexOf(index);
+        int length = minLength + lengthIndex;
+        long rest = index - lengthStart[lengthIndex];
+        for (int p = 0; p < length; p++) {
+            byte[] cs = charsets[p];
+            int d = (int) (rest % cs.length);
+            rest /= cs.length;
+            key[p] = cs[d];
+            if (digits != null) {
+                digits[p] = d;
+            }
+        }
+        return length;
+    }
+
+    /**
+     * @return 完整描述掩码配置的字符串 (包含展开后的字符集)，用于检查点指纹
+     */
+    public String identity() {
+        StringBuilder sb = new StringBuilder(text).append('|').append(minLength).append('-').append(charsets.length);
+        for (byte[] cs : charsets) {
+            sb.append('|').append(HexFormat.of().formatHex(cs));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return minLength == charsets.length ? text : text + " (" + minLength + "-" + charsets.length + ")";
+    }
+}
@@ -1,16 +1,48 @@
 package com.brandy.core.model;
 
+import com.brandy.core.mask.Mask;
+import com.brandy.core.transform.KeyTransformPipeline;
+
 import java.nio.file.Path;
+import java.util.List;
 
 public class AttackConfig {
     private final String jwtToken;
+    private final List<String> jwtTokens;
+    private final boolean batch;
     private final String algorithm;
     private final Path dictionaryPath;
     private final int threadCount;
     private final boolean useBuiltinDictionary;
+    // 多个字典按权重合并去重，非空时取代单个字典
+    private List<DictionarySource> dictionaries = List.of();
+    // 可选的规则变换：规则文件路径，或使用内置规则
+    private Path rulesPath;
+    private boolean useBuiltinRules;
+    // 可选的掩码暴力枚举
+    private Mask mask;
+    // 字典模式下每个词尝试的密钥变换
+    private KeyTransformPipeline keyTransforms = KeyTransformPipeline.DEFAULT;
+    // 可选的算法混淆：候选公钥目录或文件
+    private Path publicKeysPath;
+    // 是否从匹配的检查点继续
+    private boolean resume;
+    // 是否使用本地的已知密钥与穷尽搜索记录
+    private boolean useHistory = true;
+    // 允许使用的 CPU 比例，以及是否按实测速率与系统负载自适应调节活动线程数
+    private int cpuBudgetPercent = 100;
+    private boolean adaptiveThreads = true;
+    // 是否尝试基于 Vector API 的多缓冲 HMAC 核心
+    private boolean vectorHmac;
+    // 分层攻击的各层，为空时不分层，直接使用配置的候选来源
+    private List<AttackTier> tiers = List.of();
+    // 快速层从字典中取的词数
+    private int quickWords = AttackTier.DEFAULT_QUICK_WORDS;
 
     public AttackConfig(String jwtToken, String algorithm, Path dictionaryPath, int threadCount) {
         this.jwtToken = jwtToken;
+        this.jwtTokens = List.of(jwtToken);
+        this.batch = false;
         this.algorithm = algorithm;
         this.dictionaryPath = dictionaryPath;
         this.threadCount = threadCount;
@@ -19,16 +51,46 @@ public class AttackConfig {
     
     public AttackConfig(String jwtToken, String algorithm, int threadCount) {
         this.jwtToken = jwtToken;
+        this.jwtTokens = List.of(jwtToken);
+        this.batch = false;
         this.algorithm = algorithm;
         this.dictionaryPath = null;
         this.threadCount = threadCount;
         this.useBuiltinDictionary = true;
     }
 
+    /**
+     * 批量模式：多个令牌一起爆破，算法取自各令牌头部的 alg
+     * @param dictionaryPath 用户字典路径，为 null 时使用内置字典
+     */
+    public AttackConfig(List<String> jwtTokens, Path dictionaryPath, int threadCount) {
+        this.jwtTokens = List.copyOf(jwtTokens);
+        this.jwtToken = this.jwtTokens.get(0);
+        this.batch = true;
+        this.algorithm = null;
+        this.dictionaryPath = dictionaryPath;
+        this.threadCount = threadCount;
+        this.useBuiltinDictionary = dictionaryPath == null;
+    }
+
     public String getJwtToken() {
         return jwtToken;
     }
 
+    /**
+     * @return 全部目标令牌，非批量模式下只有一个
+     */
+    public List<String> getJwtTokens() {
+        return jwtTokens;
+    }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    /**
+     * @return 非批量模式下选择的算法，批量模式下为 null
+     */
     public String getAlgorithm() {
         return algorithm;
     }
@@ -44,4 +106,174 @@ public class AttackConfig {
     public boolean isUseBuiltinDictionary() {
         return useBuiltinDictionary;
     }
+
+    public List<DictionarySource> getDictionaries() {
+        return dictionaries;
+    }
+
+    /**
+     * 设置多个字典来源，按权重交错合并并去重后作为一个字典使用；可与规则、密钥变换组合
+     */
+    public void setDictionaries(List<DictionarySource> dictionaries) {
+        this.dictionaries = List.copyOf(dictionaries);
+    }
+
+    /**
+     * @return 是否使用合并字典
+     */
+    public boolean isMergedDictionary() {
+        return !dictionaries.isEmpty();
+    }
+
+    public Path getRulesPath() {
+        return rulesPath;
+    }
+
+    /**
+     * 设置规则文件，每个字典词按文件中的每条规则变换后作为候选
+     */
+    public void setRulesPath(Path rulesPath) {
+        this.rulesPath = rulesPath;
+    }
+
+    public boolean isUseBuiltinRules() {
+        return useBuiltinRules;
+    }
+
+    public void setUseBuiltinRules(boolean useBuiltinRules) {
+        this.useBuiltinRules = useBuiltinRules;
+    }
+
+    /**
+     * @return 是否启用规则模式
+     */
+    public boolean isUseRules() {
+        return useBuiltinRules || rulesPath != null;
+    }
+
+    public Mask getMask() {
+        return mask;
+    }
+
+    /**
+     * 设置掩码后改为掩码暴力枚举，不再使用字典与规则；分层攻击时掩码只在 deep 层使用
+     */
+    public void setMask(Mask mask) {
+        this.mask = mask;
+    }
+
+    public boolean isMaskAttack() {
+        return mask != null;
+    }
+
+    public KeyTransformPipeline getKeyTransforms() {
+        return keyTransforms;
+    }
+
+    /**
+     * 设置字典模式下每个词尝试的密钥变换，默认为原始、Base64、Hex；规则、掩码与算法混淆模式不使用
+     */
+    public void setKeyTransforms(KeyTransformPipeline keyTransforms) {
+        this.keyTransforms = keyTransforms;
+    }
+
+    public Path getPublicKeysPath() {
+        return publicKeysPath;
+    }
+
+    /**
+     * 设置后改为算法混淆攻击：HS* 令牌以候选公钥的各种编码作为密钥爆破，
+     * RS*、PS*、ES* 令牌找出签名公钥后伪造 HS* 令牌；优先于掩码与字典
+     */
+    public void setPublicKeysPath(Path publicKeysPath) {
+        this.publicKeysPath = publicKeysPath;
+    }
+
+    public boolean isKeyConfusion() {
+        return publicKeysPath != null;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    /**
+     * 设置后，若存在与令牌、算法、候选来源和规则/掩码配置完全匹配的检查点，则跳过其中已完成的部分
+     */
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+
+    public boolean isUseHistory() {
+        return useHistory;
+    }
+
+    /**
+     * 关闭后不尝试已知密钥、不跳过已穷尽的搜索，也不写入新的记录；用于基准测试等需要完整重跑的场景
+     */
+    public void setUseHistory(boolean useHistory) {
+        this.useHistory = useHistory;
+    }
+
+    public int getCpuBudgetPercent() {
+        return cpuBudgetPercent;
+    }
+
+    /**
+     * 设置允许使用的 CPU 比例 (1-100)，按核心数折算为活动线程数的上限；攻击中修改请使用
+     * {@link com.brandy.core.attack.JWTAttackEngine#setCpuBudget(int)}
+     */
+    public void setCpuBudgetPercent(int cpuBudgetPercent) {
+        this.cpuBudgetPercent = Math.max(1, Math.min(100, cpuBudgetPercent));
+    }
+
+    public boolean isAdaptiveThreads() {
+        return adaptiveThreads;
+    }
+
+    /**
+     * 关闭后活动线程数只受 CPU 预算限制，不再试探与避让其他负载；用于基准测试等需要固定线程数的场景
+     */
+    public void setAdaptiveThreads(boolean adaptiveThreads) {
+        this.adaptiveThreads = adaptiveThreads;
+    }
+
+    public boolean isVectorHmac() {
+        return vectorHmac;
+    }
+
+    /**
+     * 开启后尝试一次校验一批候选的向量化 HMAC 核心 (字典与掩码模式)；
+     * 需要以 vector 配置构建并以 --add-modules jdk.incubator.vector 启动，不可用时自动回退到逐个校验
+     */
+    public void setVectorHmac(boolean vectorHmac) {
+        this.vectorHmac = vectorHmac;
+    }
+
+    public List<AttackTier> getTiers() {
+        return tiers;
+    }
+
+    /**
+     * 设置后按层攻击：每一层对全部令牌做完才进入下一层，批量爆破时尽早破解容易的令牌；
+     * 规则或掩码只在 deep 层使用，未配置时跳过该层。算法混淆模式不分层
+     */
+    public void setTiers(List<AttackTier> tiers) {
+        this.tiers = List.copyOf(tiers);
+    }
+
+    public boolean isTiered() {
+        return !tiers.isEmpty();
+    }
+
+    public int getQuickWords() {
+        return quickWords;
+    }
+
+    /**
+     * 设置快速层从字典 (按文件中的顺序，合并字典按权重交错后的顺序) 中取的词数
+     */
+    public void setQuickWords(int quickWords) {
+        this.quickWords = Math.max(0, quickWords);
+    }
 }
@@ -0,0 +1,234 @@
+package com.brandy.core.model;
+
+import com.brandy.core.mask.Mask;
+import com.brandy.core.transform.KeyTransformPipeline;
+import com.brandy.core.utils.JWTUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 攻击参数的可序列化描述
+ * 只包含令牌与候选来源的原始参数 (字典路径、规则、掩码文本与自定义字符集)，
+ * 命令行据此构造 {@link AttackConfig}，集群模式下协调进程把它以 JSON 发给工作进程，
+ * 各进程在本地构造出相同的候选空间。
+ */
+public class AttackSpec {
+    private List<String> tokens = new ArrayList<>();
+    // 单令牌时的算法，为 null 时取令牌头部的 alg
+    private String algorithm;
+    // 为 null 时使用内置字典
+    private String dictionaryPath;
+    // 合并字典的来源，文本形式见 DictionarySource；非空时取代 dictionaryPath
+    private List<String> dictionaries = new ArrayList<>();
+    private String rulesPath;
+    private boolean builtinRules;
+    private String mask;
+    private String[] customCharsets = new String[4];
+    private int minLength;
+    private int maxLength;
+    // 字典模式的密钥变换，为 null 时使用默认变换
+    private String keyTransforms;
+    // 是否尝试向量化 HMAC 核心，各工作进程按自己的 JVM 决定能否启用
+    private boolean vectorHmac;
+    // 分层攻击的层名列表 (见 AttackTier)，为 null 时不分层
+    private String tiers;
+    // 快速层从字典中取的词数，为 null 时使用默认值
+    private Integer quickWords;
+
+    /**
+     * 构造攻击配置；集群模式下工作线程数由各工作进程自行决定
+     * @throws IllegalArgumentException 令牌、算法、掩码或分层配置无效
+     * @throws IOException 字典文件不存在
+     */
+    public AttackConfig toConfig(int threads) throws IOException {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("No token given");
+        }
+        Path dictionary = dictionaryPath != null ? Paths.get(dictionaryPath) : null;
+        if (dictionary != null && !Files.isRegularFile(dictionary)) {
+            throw new IOException("Dictionary not found: " + dictionary);
+        }
+        List<DictionarySource> sources = new ArrayList<>();
+        for (String text : dictionaries) {
+            DictionarySource source = DictionarySource.parse(text);
+            if (!source.isBuiltin() && !Files.isRegularFile(source.getPath())) {
+                throw new IOException("Dictionary not found: " + source.getPath());
+            }
+            sources.add(source);
+        }
+        AttackConfig config;
+        if (tokens.size() > 1) {
+            config = new AttackConfig(tokens, dictionary, threads);
+        } else {
+            String token = tokens.get(0);
+            JWTUtils.parseJWT(token);
+            String alg = algorithm != null ? algorithm : JWTUtils.getAlgorithm(token);
+            config = dictionary != null
+                    ? new AttackConfig(token, alg, dictionary, threads)
+                    : new AttackConfig(token, alg, threads);
+        }
+        if (!sources.isEmpty()) {
+            config.setDictionaries(sources);
+        }
+        if (mask != null) {
+            config.setMask(Mask.parse(mask, customCharsets, minLength, maxLength));
+        } else if (rulesPath != null) {
+            config.setRulesPath(Paths.get(rulesPath));
+        } else if (builtinRules) {
+            config.setUseBuiltinRules(true);
+        }
+        if (keyTransforms != null) {
+            config.setKeyTransforms(KeyTransformPipeline.parse(keyTransforms));
+        }
+        config.setVectorHmac(vectorHmac);
+        if (tiers != null) {
+            config.setTiers(AttackTier.parseList(tiers));
+        }
+        if (quickWords != null) {
+            config.setQuickWords(quickWords);
+        }
+        return config;
+    }
+
+    /**
+     * @return 候选来源的简短描述，用于输出
+     */
+    public String describeSource() {
+        if (mask != null && tiers == null) {
+            return "mask:" + mask;
+        }
+        String source = !dictionaries.isEmpty() ? "merge:" + String.join("+", dictionaries)
+                : dictionaryPath != null ? dictionaryPath : "builtin";
+        if (rulesPath != null) {
+            source += "+rules:" + rulesPath;
+        } else if (builtinRules) {
+            source += "+rules:builtin";
+        }
+        if (keyTransforms != null) {
+            source += "+transforms:" + KeyTransformPipeline.parse(keyTransforms);
+        }
+        if (tiers == null) {
+            return source;
+        }
+        // 分层攻击时掩码作为 deep 层，与字典一起列出
+        return "tiers:" + AttackTier.toText(AttackTier.parseList(tiers)) + "+" + source
+                + (mask != null ? "+mask:" + mask : "");
+    }
+
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getDictionaryPath() {
+        return dictionaryPath;
+    }
+
+    public void setDictionaryPath(String dictionaryPath) {
+        this.dictionaryPath = dictionaryPath;
+    }
+
+    public List<String> getDictionaries() {
+        return dictionaries;
+    }
+
+    public void setDictionaries(List<String> dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    public String getRulesPath() {
+        return rulesPath;
+    }
+
+    public void setRulesPath(String rulesPath) {
+        this.rulesPath = rulesPath;
+    }
+
+    public boolean isBuiltinRules() {
+        return builtinRules;
+    }
+
+    public void setBuiltinRules(boolean builtinRules) {
+        this.builtinRules = builtinRules;
+    }
+
+    public String getMask() {
+        return mask;
+    }
+
+    public void setMask(String mask) {
+        this.mask = mask;
+    }
+
+    public String[] getCustomCharsets() {
+        return customCharsets;
+    }
+
+    public void setCustomCharsets(String[] customCharsets) {
+        this.customCharsets = customCharsets;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+
+    public void setMinLength(int minLength) {
+        this.minLength = minLength;
+    }
+
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    public void setMaxLength(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    public String getKeyTransforms() {
+        return keyTransforms;
+    }
+
+    public void setKeyTransforms(String keyTransforms) {
+        this.keyTransforms = keyTransforms;
+    }
+
+    public boolean isVectorHmac() {
+        return vectorHmac;
+    }
+
+    public void setVectorHmac(boolean vectorHmac) {
+        this.vectorHmac = vectorHmac;
+    }
+
+    public String getTiers() {
+        return tiers;
+    }
+
+    public void setTiers(String tiers) {
+        this.tiers = tiers;
+    }
+
+    public Integer getQuickWords() {
+        return quickWords;
+    }
+
+    public void setQuickWords(Integer quickWords) {
+        this.quickWords = quickWords;
+    }
+}
@@ -0,0 +1,116 @@
+package com.brandy.core.model;
+
+/**
+ * 攻击过程中的实时统计快照
+ * 由引擎每秒生成一次，字段在生成后不再修改。
+ */
+public class AttackStats {
+    /**
+     * 字典模式的变体名称，与 {@link CandidateArena} 中每个词的展开顺序一致
+     */
+    public static final String[] VARIANT_NAMES = {"raw", "base64", "hex"};
+
+    /**
+     * 不按变体展开的候选空间 (例如规则模式)
+     */
+    public static final String[] NO_VARIANTS = {};
+
+    private final long elapsedMillis;
+    private final long keysTested;
+    private final double keysPerSecond;
+    private final double[] threadKeysPerSecond;
+    private final long completedUnits;
+    private final long totalUnits;
+    private final long remainingKeys;
+    private final long etaMillis;
+    private final String[] variantNames;
+    private final int activeThreads;
+
+    public AttackStats(long elapsedMillis, long keysTested, double keysPerSecond, double[] threadKeysPerSecond,
+                       long completedUnits, long totalUnits, long remainingKeys, long etaMillis,
+                       String[] variantNames, int activeThreads) {
+        this.elapsedMillis = elapsedMillis;
+        this.keysTested = keysTested;
+        this.keysPerSecond = keysPerSecond;
+        this.threadKeysPerSecond = threadKeysPerSecond;
+        this.completedUnits = completedUnits;
+        this.totalUnits = totalUnits;
+        this.remainingKeys = remainingKeys;
+        this.etaMillis = etaMillis;
+        this.variantNames = variantNames;
+        this.activeThreads = activeThreads;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getKeysTested() {
+        return keysTested;
+    }
+
+    /**
+     * @return 最近一个采样周期内的速率
+     */
+    public double getKeysPerSecond() {
+        return keysPerSecond;
+    }
+
+    /**
+     * @return 每个工作线程最近一个采样周期内的速率
+     */
+    public double[] getThreadKeysPerSecond() {
+        return threadKeysPerSecond.clone();
+    }
+
+    /**
+     * @return 采样时的活动线程数，其余线程被 CPU 调节器暂停
+     */
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public long getCompletedUnits() {
+        return completedUnits;
+    }
+
+    public long getTotalUnits() {
+        return totalUnits;
+    }
+
+    /**
+     * @return 剩余密钥数；映射字典按已读字节的平均密度估算，尚无样本时为 -1
+     */
+    public long getRemainingKeys() {
+        return remainingKeys;
+    }
+
+    /**
+     * @return 候选空间的变体名称，不按变体展开时为空数组
+     */
+    public String[] getVariantNames() {
+        return variantNames.clone();
+    }
+
+    /**
+     * @return 每种变体各自剩余的密钥数，每个词展开的变体数相同，因此各变体相等；
+     *         不按变体展开或尚无估算时为 -1
+     */
+    public long getRemainingPerVariant() {
+        return remainingKeys < 0 || variantNames.length == 0 ? -1 : remainingKeys / variantNames.length;
+    }
+
+    /**
+     * @return 预计剩余时间，速率为 0 时为 -1
+     */
+    public long getEtaMillis() {
+        return etaMillis;
+    }
+
+    /**
+     * @return 进度百分比 (0-100)
+     */
+    public int getPercent() {
+        return totalUnits <= 0 ? 0 : (int) Math.min(100, completedUnits * 100 / totalUnits);
+    }
+}
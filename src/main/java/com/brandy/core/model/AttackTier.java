@@ -0,0 +1,76 @@
+package com.brandy.core.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层攻击中的一层，每一层对全部目标做完后才进入下一层，命中概率高、代价低的候选先测试
+ * 文本形式为以 ',' 分隔的层名，例如 "quick,dict,deep"。
+ *
+ * <pre>
+ * quick   已知密钥、常见默认密钥与字典的前若干个词
+ * dict    完整字典 (不应用规则)
+ * deep    规则或掩码
+ * </pre>
+ */
+public enum AttackTier {
+    QUICK("quick"),
+    DICTIONARY("dict"),
+    DEEP("deep");
+
+    // 快速层默认取字典的前 1 万个词
+    public static final int DEFAULT_QUICK_WORDS = 10_000;
+    public static final List<AttackTier> ALL = List.of(values());
+
+    private final String text;
+
+    AttackTier(String text) {
+        this.text = text;
+    }
+
+    public String text() {
+        return text;
+    }
+
+    /**
+     * 解析以 ',' 分隔的层名，按给出的顺序执行，重复的层只保留第一次出现
+     * @throws IllegalArgumentException 为空或包含未知的层名
+     */
+    public static List<AttackTier> parseList(String text) {
+        List<AttackTier> tiers = new ArrayList<>();
+        for (String part : text.split(",")) {
+            String name = part.trim().toLowerCase();
+            if (name.isEmpty()) {
+                continue;
+            }
+            AttackTier tier = of(name);
+            if (!tiers.contains(tier)) {
+                tiers.add(tier);
+            }
+        }
+        if (tiers.isEmpty()) {
+            throw new IllegalArgumentException("Empty attack tier list");
+        }
+        return tiers;
+    }
+
+    /**
+     * @return 可被 {@link #parseList(String)} 还原的文本形式
+     */
+    public static String toText(List<AttackTier> tiers) {
+        List<String> names = new ArrayList<>();
+        for (AttackTier tier : tiers) {
+            names.add(tier.text);
+        }
+        return String.join(",", names);
+    }
+
+    private static AttackTier of(String text) {
+        for (AttackTier tier : values()) {
+            if (tier.text.equals(text)) {
+                return tier;
+            }
+        }
+        throw new IllegalArgumentException("Unknown attack tier '" + text + "' (expected quick, dict or deep)");
+    }
+}
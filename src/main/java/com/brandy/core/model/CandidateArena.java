@@ -0,0 +1,103 @@
+package com.brandy.core.model;
+
+import com.brandy.core.utils.KeyEncoding;
+
+/**
+ * 预先展开好全部变体的候选密钥区
+ * 第 i 个词的第 v 个变体 (原始/Base64/Hex) 位于密钥序号 i * VARIANTS + v，
+ * 所有密钥字节同样放在一个连续数组中。构造后只读，可被多个攻击同时共享。
+ */
+public class CandidateArena {
+    public static final int VARIANTS = 3;
+
+    private final WordArena words;
+    private final WordArena keys;
+
+    private CandidateArena(WordArena words, WordArena keys) {
+        this.words = words;
+        this.keys = keys;
+    }
+
+    /**
+     * 为字典中的每个词预计算原始、Base64、Hex 三种变体
+     */
+    public static CandidateArena expand(WordArena words) {
+        int count = words.size();
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            int len = words.length(i);
+            total += len + KeyEncoding.base64Length(len) + KeyEncoding.hexLength(len);
+        }
+        if (total > Integer.MAX_VALUE - 8 || (long) count * VARIANTS + 1 > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("字典过大，无法整体展开: " + total + " 字节");
+        }
+
+        byte[] src = words.data();
+        byte[] data = new byte[(int) total];
+        int[] offsets = new int[count * VARIANTS + 1];
+        int p = 0;
+        for (int i = 0; i < count; i++) {
+            int off = words.offset(i);
+            int len = words.length(i);
+            int k = i * VARIANTS;
+            // 原始密钥
+            offsets[k] = p;
+            System.arraycopy(src, off, data, p, len);
+            p += len;
+            // Base64编码变体
+            offsets[k + 1] = p;
+            p += KeyEncoding.base64(src, off, len, data, p);
+            // Hex编码变体
+            offsets[k + 2] = p;
+            p += KeyEncoding.hex(src, off, len, data, p);
+        }
+        offsets[count * VARIANTS] = p;
+        return new CandidateArena(words, new WordArena(data, offsets));
+    }
+
+    /**
+     * 按展开后的字节数估算一个文本字典的内存占用，用于决定是否缓存
+     * @param fileBytes 文本字典字节数
+     */
+    public static long estimateFootprint(long fileBytes) {
+        // 原始 + Base64 (约 4/3) + Hex (2 倍)，再加上偏移表的开销
+        return fileBytes * 6;
+    }
+
+    public WordArena words() {
+        return words;
+    }
+
+    public WordArena keys() {
+        return keys;
+    }
+
+    /**
+     * @return 密钥总数
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    /**
+     * @return 第 key 个密钥对应的原始字典词
+     */
+    public String originalKey(int key) {
+        return words.word(key / VARIANTS);
+    }
+
+    /**
+     * @return 第 key 个密钥对应的原始字典词的字节
+     */
+    public KeyBytes originalKeyBytes(int key) {
+        int word = key / VARIANTS;
+        return KeyBytes.copyOf(words.data(), words.offset(word), words.length(word));
+    }
+
+    /**
+     * @return 词与密钥字节、偏移表占用的堆内存
+     */
+    public long footprintBytes() {
+        return words.footprintBytes() + keys.footprintBytes();
+    }
+}
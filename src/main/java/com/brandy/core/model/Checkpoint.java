@@ -0,0 +1,104 @@
+package com.brandy.core.model;
+
+/**
+ * 攻击检查点
+ * 记录一次字典/规则/掩码遍历已完成的序号区间，恢复时只调度剩余部分。
+ * 以 JSON 形式保存在本地，字段均为简单类型以便 Jackson 直接序列化。
+ */
+public class Checkpoint {
+    // 目标令牌的指纹，用于界面判断当前令牌是否有可恢复的进度
+    private String tokenFingerprint;
+    // 令牌 + 算法 + 候选来源 + 规则/掩码配置 + 空间大小的指纹，完全一致才允许恢复
+    private String fingerprint;
+    private String algorithm;
+    private String source;
+    private long spaceSize;
+    private long completedUnits;
+    // 已完成区间，依次为 from0, to0, from1, to1 ...
+    private long[] completedRanges = new long[0];
+    // 批量模式下已破解目标的密钥，按组内目标序号排列，未破解为 null
+    private String[] solvedSecrets = new String[0];
+    // solvedSecrets 的编码，为 KeyBytes.BASE64；旧版本写入的检查点没有此字段，按 UTF-8 文本读取
+    private String secretEncoding;
+    private long updatedAt;
+
+    public String getTokenFingerprint() {
+        return tokenFingerprint;
+    }
+
+    public void setTokenFingerprint(String tokenFingerprint) {
+        this.tokenFingerprint = tokenFingerprint;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getSpaceSize() {
+        return spaceSize;
+    }
+
+    public void setSpaceSize(long spaceSize) {
+        this.spaceSize = spaceSize;
+    }
+
+    public long getCompletedUnits() {
+        return completedUnits;
+    }
+
+    public void setCompletedUnits(long completedUnits) {
+        this.completedUnits = completedUnits;
+    }
+
+    public long[] getCompletedRanges() {
+        return completedRanges;
+    }
+
+    public void setCompletedRanges(long[] completedRanges) {
+        this.completedRanges = completedRanges;
+    }
+
+    public String[] getSolvedSecrets() {
+        return solvedSecrets;
+    }
+
+    public void setSolvedSecrets(String[] solvedSecrets) {
+        this.solvedSecrets = solvedSecrets;
+    }
+
+    public String getSecretEncoding() {
+        return secretEncoding;
+    }
+
+    public void setSecretEncoding(String secretEncoding) {
+        this.secretEncoding = secretEncoding;
+    }
+
+    public long getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(long updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,77 @@
+package com.brandy.core.model;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 合并字典中的一个来源及其权重
+ * 文本形式为 "路径[@权重]"，"builtin" 表示内置字典；权重越高的来源在合并后的顺序中越靠前，默认为 1。
+ */
+public final class DictionarySource {
+    public static final String BUILTIN = "builtin";
+
+    // 为 null 时表示内置字典
+    private final Path path;
+    private final double weight;
+
+    public DictionarySource(Path path, double weight) {
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            throw new IllegalArgumentException("Dictionary weight must be a positive number: " + weight);
+        }
+        this.path = path;
+        this.weight = weight;
+    }
+
+    /**
+     * 解析 "路径[@权重]"；'@' 之后不是数字时整段视为路径
+     * @throws IllegalArgumentException 路径为空或权重不是正数
+     */
+    public static DictionarySource parse(String text) {
+        String value = text.trim();
+        double weight = 1;
+        int at = value.lastIndexOf('@');
+        if (at >= 0) {
+            try {
+                weight = Double.parseDouble(value.substring(at + 1).trim());
+                value = value.substring(0, at).trim();
+            } catch (NumberFormatException e) {
+                // 文件名本身包含 '@'
+            }
+        }
+        if (value.isEmpty()) {
+            throw new IllegalArgumentException("Empty dictionary path in '" + text + "'");
+        }
+        return new DictionarySource(value.equals(BUILTIN) ? null : Paths.get(value).toAbsolutePath(), weight);
+    }
+
+    public static DictionarySource builtin(double weight) {
+        return new DictionarySource(null, weight);
+    }
+
+    public boolean isBuiltin() {
+        return path == null;
+    }
+
+    /**
+     * @return 字典文件路径，内置字典为 null
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    /**
+     * @return 可被 {@link #parse(String)} 还原的文本形式
+     */
+    @Override
+    public String toString() {
+        String name = path == null ? BUILTIN : path.toString();
+        if (weight == 1) {
+            return name;
+        }
+        return name + "@" + (weight == Math.rint(weight) ? String.valueOf((long) weight) : String.valueOf(weight));
+    }
+}
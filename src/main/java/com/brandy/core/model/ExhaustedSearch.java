@@ -0,0 +1,55 @@
+package com.brandy.core.model;
+
+/**
+ * 穷尽搜索记录
+ * 某个令牌签名已对某个字典 (及规则/掩码配置) 完整测试过且未命中，
+ * 相同条件再次攻击时直接跳过。
+ */
+public class ExhaustedSearch {
+    // 算法 + 令牌 + 候选来源与配置的指纹
+    private String fingerprint;
+    private String algorithm;
+    private String source;
+    private long spaceSize;
+    private long finishedAt;
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public long getSpaceSize() {
+        return spaceSize;
+    }
+
+    public void setSpaceSize(long spaceSize) {
+        this.spaceSize = spaceSize;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(long finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+}
@@ -0,0 +1,123 @@
+package com.brandy.core.model;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 命中密钥的原始字节
+ * 命中、监听器、已知密钥记录、检查点与集群上报都传递原始字节，写盘与传输时编码为 Base64，
+ * 掩码与规则生成的非 UTF-8 字节不经过字符串往返，复核与再次尝试时得到的是同一组字节。
+ * 显示文本单独生成：合法 UTF-8 且不含控制字符时原样显示，否则按 hashcat 的约定显示为 $HEX[...]。
+ */
+public final class KeyBytes {
+    /**
+     * 持久化字段的编码标记；没有标记的旧记录按 UTF-8 文本读取
+     */
+    public static final String BASE64 = "base64";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final byte[] bytes;
+    private final String display;
+
+    private KeyBytes(byte[] bytes, String display) {
+        this.bytes = bytes;
+        this.display = display != null ? display : describe(bytes);
+    }
+
+    /**
+     * 复制 data[off, off + len)
+     */
+    public static KeyBytes copyOf(byte[] data, int off, int len) {
+        return new KeyBytes(Arrays.copyOfRange(data, off, off + len), null);
+    }
+
+    /**
+     * 复制 data[off, off + len)，显示为给定的描述而不是密钥本身 (算法混淆模式下的公钥编码)
+     */
+    public static KeyBytes labeled(byte[] data, int off, int len, String label) {
+        return new KeyBytes(Arrays.copyOfRange(data, off, off + len), label);
+    }
+
+    /**
+     * 文本密钥按 UTF-8 编码，用于内置的默认密钥等文本来源
+     */
+    public static KeyBytes ofText(String text) {
+        return new KeyBytes(text.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    /**
+     * 读取持久化或上报的值
+     * @param encoding {@link #BASE64}，或为 null 表示旧版本写入的 UTF-8 文本
+     * @throws IllegalArgumentException Base64 格式错误
+     */
+    public static KeyBytes decode(String value, String encoding) {
+        if (BASE64.equals(encoding)) {
+            return new KeyBytes(Base64.getDecoder().decode(value), null);
+        }
+        return ofText(value);
+    }
+
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * @return 密钥字节的副本
+     */
+    public byte[] toByteArray() {
+        return bytes.clone();
+    }
+
+    /**
+     * @return 可逆的 Base64 编码，配合 {@link #BASE64} 标记持久化
+     */
+    public String toBase64() {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * @return 用于界面与日志的文本，不保证可逆
+     */
+    public String display() {
+        return display;
+    }
+
+    @Override
+    public String toString() {
+        return display;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof KeyBytes && Arrays.equals(bytes, ((KeyBytes) o).bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    private static String describe(byte[] bytes) {
+        try {
+            String text = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes))
+                    .toString();
+            if (!text.startsWith("$HEX[") && text.chars().noneMatch(Character::isISOControl)) {
+                return text;
+            }
+        } catch (CharacterCodingException e) {
+            // 非 UTF-8 字节，按十六进制显示
+        }
+        StringBuilder hex = new StringBuilder(bytes.length * 2 + 6).append("$HEX[");
+        for (byte b : bytes) {
+            hex.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        return hex.append(']').toString();
+    }
+}
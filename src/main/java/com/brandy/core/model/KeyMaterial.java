@@ -0,0 +1,74 @@
+package com.brandy.core.model;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 一个候选公钥及其逐字节的各种编码
+ * 算法混淆攻击把这些编码当作 HMAC 密钥；同一密钥的编码按生成顺序保存并已去重。
+ * 解析结果按文件缓存，字段都可由 Jackson 序列化。
+ */
+public class KeyMaterial {
+    // 文件路径，文件中有多个密钥时附带 #序号
+    private String source;
+    // RSA 或 EC
+    private String keyType;
+    // X.509 SubjectPublicKeyInfo，用于重建公钥校验非对称签名
+    private byte[] spki;
+    // 编码名称 -> 密钥字节
+    private Map<String, byte[]> encodings = new LinkedHashMap<>();
+
+    public KeyMaterial() {
+    }
+
+    public KeyMaterial(String source, String keyType, byte[] spki) {
+        this.source = source;
+        this.keyType = keyType;
+        this.spki = spki;
+    }
+
+    /**
+     * 添加一种编码，与已有编码字节完全相同时忽略
+     */
+    public void addEncoding(String name, byte[] bytes) {
+        for (byte[] existing : encodings.values()) {
+            if (Arrays.equals(existing, bytes)) {
+                return;
+            }
+        }
+        encodings.putIfAbsent(name, bytes);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getKeyType() {
+        return keyType;
+    }
+
+    public void setKeyType(String keyType) {
+        this.keyType = keyType;
+    }
+
+    public byte[] getSpki() {
+        return spki;
+    }
+
+    public void setSpki(byte[] spki) {
+        this.spki = spki;
+    }
+
+    public Map<String, byte[]> getEncodings() {
+        return encodings;
+    }
+
+    public void setEncodings(Map<String, byte[]> encodings) {
+        this.encodings = encodings;
+    }
+}
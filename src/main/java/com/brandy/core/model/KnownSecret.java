@@ -0,0 +1,110 @@
+package com.brandy.core.model;
+
+/**
+ * 已破解过的密钥
+ * 按算法与令牌上下文 (iss、kid、aud) 索引，再次遇到同一应用的令牌时优先尝试。
+ * 密钥以原始字节的 Base64 保存，secretEncoding 为 {@link KeyBytes#BASE64}；旧版本写入的记录没有编码标记，按 UTF-8 文本读取。
+ */
+public class KnownSecret {
+    private String algorithm;
+    private String issuer = "";
+    private String keyId = "";
+    private String audience = "";
+    private String secret;
+    private String secretEncoding;
+    private long crackedAt;
+    // 由 secret 与 secretEncoding 解码，不参与序列化
+    private KeyBytes key;
+
+    public KnownSecret() {
+    }
+
+    public KnownSecret(String algorithm, String issuer, String keyId, String audience, KeyBytes secret) {
+        this.algorithm = algorithm;
+        this.issuer = issuer;
+        this.keyId = keyId;
+        this.audience = audience;
+        if (secret != null) {
+            this.secret = secret.toBase64();
+            this.secretEncoding = KeyBytes.BASE64;
+            this.key = secret;
+        }
+        this.crackedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * @return 算法与 iss/kid/aud 组成的上下文，用作索引键
+     */
+    public String context() {
+        return algorithm + "|" + issuer + "|" + keyId + "|" + audience;
+    }
+
+    /**
+     * @return 密钥的原始字节
+     * @throws IllegalArgumentException 记录中的 Base64 已损坏
+     */
+    public KeyBytes key() {
+        if (key == null) {
+            key = KeyBytes.decode(secret, secretEncoding);
+        }
+        return key;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public void setAlgorithm(String algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public void setIssuer(String issuer) {
+        this.issuer = issuer;
+    }
+
+    public String getKeyId() {
+        return keyId;
+    }
+
+    public void setKeyId(String keyId) {
+        this.keyId = keyId;
+    }
+
+    public String getAudience() {
+        return audience;
+    }
+
+    public void setAudience(String audience) {
+        this.audience = audience;
+    }
+
+    public String getSecret() {
+        return secret;
+    }
+
+    public void setSecret(String secret) {
+        this.secret = secret;
+        this.key = null;
+    }
+
+    public String getSecretEncoding() {
+        return secretEncoding;
+    }
+
+    public void setSecretEncoding(String secretEncoding) {
+        this.secretEncoding = secretEncoding;
+        this.key = null;
+    }
+
+    public long getCrackedAt() {
+        return crackedAt;
+    }
+
+    public void setCrackedAt(long crackedAt) {
+        this.crackedAt = crackedAt;
+    }
+}
@@ -0,0 +1,52 @@
+package com.brandy.core.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 连续字节区 + 偏移表形式保存的字典
+ * 所有词拼接在同一个 byte[] 中，第 i 个词为 data[offsets[i], offsets[i + 1])，
+ * 相比 List&lt;String&gt; 没有逐词的对象头和 UTF-16 膨胀。
+ */
+public class WordArena {
+    private final byte[] data;
+    private final int[] offsets;
+
+    /**
+     * @param data 词字节
+     * @param offsets 长度为词数 + 1 的偏移表
+     */
+    public WordArena(byte[] data, int[] offsets) {
+        this.data = data;
+        this.offsets = offsets;
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    public byte[] data() {
+        return data;
+    }
+
+    public int offset(int index) {
+        return offsets[index];
+    }
+
+    public int length(int index) {
+        return offsets[index + 1] - offsets[index];
+    }
+
+    /**
+     * 只在命中或记录日志时构造字符串
+     */
+    public String word(int index) {
+        return new String(data, offsets[index], length(index), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return 词字节与偏移表占用的堆内存估算值
+     */
+    public long footprintBytes() {
+        return data.length + 4L * offsets.length;
+    }
+}
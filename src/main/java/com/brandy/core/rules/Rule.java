@@ -0,0 +1,366 @@
+package com.brandy.core.rules;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 编译后的一条 Hashcat 风格规则
+ * 规则文本在加载时解析成操作码数组，变换直接在字节数组上完成，单个候选不创建任何对象。
+ * 位置参数使用 Hashcat 约定：0-9 表示 0-9，A-Z 表示 10-35。
+ *
+ * <pre>
+ * :     不变                l / u / c / C  全小写 / 全大写 / 首字母大写 / 首字母小写其余大写
+ * t     大小写互换          TN             切换第 N 位大小写
+ * r     反转                d / f          重复 / 追加反转
+ * pN    重复 N 次           q              每个字符重复
+ * $X    追加字符 X          ^X             前置字符 X
+ * [ / ] 删除首 / 尾字符     DN             删除第 N 位
+ * 'N    截断为 N 个字符     xNM            取第 N 位起的 M 个字符
+ * iNX   第 N 位插入 X       oNX            第 N 位覆盖为 X
+ * sXY   X 替换为 Y          @X             删除所有 X
+ * zN/ZN 首/尾字符重复 N 次  { / }          循环左移 / 右移
+ * k / K 交换前两个 / 后两个字符
+ * </pre>
+ */
+public final class Rule {
+    /**
+     * 变换结果超过该长度时丢弃，与 Hashcat 的默认限制一致
+     */
+    public static final int MAX_LENGTH = 256;
+
+    private final String text;
+    private final char[] ops;
+    private final int[] arg1;
+    private final int[] arg2;
+
+    private Rule(String text, char[] ops, int[] arg1, int[] arg2) {
+        this.text = text;
+        this.ops = ops;
+        this.arg1 = arg1;
+        this.arg2 = arg2;
+    }
+
+    /**
+     * 解析一行规则，操作之间的空格会被忽略
+     * @throws IllegalArgumentException 包含未知操作或缺少参数
+     */
+    public static Rule parse(String text) {
+        List<int[]> parsed = new ArrayList<>();
+        int i = 0;
+        while (i < text.length()) {
+            char op = text.charAt(i++);
+            switch (op) {
+                case ' ':
+                    continue;
+                case ':': case 'l': case 'u': case 'c': case 'C': case 't': case 'r': case 'd': case 'f':
+                case 'q': case '[': case ']': case '{': case '}': case 'k': case 'K':
+                    parsed.add(new int[]{op, 0, 0});
+                    break;
+                case 'T': case 'p': case 'D': case '\'': case 'z': case 'Z':
+                    parsed.add(new int[]{op, position(text, i++), 0});
+                    break;
+                case '$': case '^': case '@':
+                    parsed.add(new int[]{op, character(text, i++), 0});
+                    break;
+                case 's':
+                    parsed.add(new int[]{op, character(text, i), character(text, i + 1)});
+                    i += 2;
+                    break;
+                case 'x':
+                    parsed.add(new int[]{op, position(text, i), position(text, i + 1)});
+                    i += 2;
+                    break;
+                case 'i': case 'o':
+                    parsed.add(new int[]{op, position(text, i), character(text, i + 1)});
+                    i += 2;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown rule function '" + op + "' in: " + text);
+            }
+        }
+        char[] ops = new char[parsed.size()];
+        int[] arg1 = new int[parsed.size()];
+        int[] arg2 = new int[parsed.size()];
+        for (int k = 0; k < ops.length; k++) {
+            ops[k] = (char) parsed.get(k)[0];
+            arg1[k] = parsed.get(k)[1];
+            arg2[k] = parsed.get(k)[2];
+        }
+        return new Rule(text, ops, arg1, arg2);
+    }
+
+    private static int character(String text, int i) {
+        if (i >= text.length()) {
+            throw new IllegalArgumentException("Missing argument in rule: " + text);
+        }
+        char c = text.charAt(i);
+        if (c > 0xff) {
+            throw new IllegalArgumentException("Non-byte argument in rule: " + text);
+        }
+        return c;
+    }
+
+    private static int position(String text, int i) {
+        int c = character(text, i);
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("Invalid position '" + (char) c + "' in rule: " + text);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 把规则应用到 word[off, off + len)
+     * @param work 工作线程私有的缓冲区，结果位于 {@link Workspace#output()}
+     * @return 结果长度，超过 {@link #MAX_LENGTH} 时返回 -1
+     */
+    public int apply(byte[] word, int off, int len, Workspace work) {
+        if (len > MAX_LENGTH) {
+            return -1;
+        }
+        byte[] a = work.buffer;
+        System.arraycopy(word, off, a, 0, len);
+        for (int k = 0; k < ops.length; k++) {
+            int n = arg1[k];
+            int m = arg2[k];
+            switch (ops[k]) {
+                case 'l':
+                    for (int i = 0; i < len; i++) {
+                        a[i] = lower(a[i]);
+                    }
+                    break;
+                case 'u':
+                    for (int i = 0; i < len; i++) {
+                        a[i] = upper(a[i]);
+                    }
+                    break;
+                case 'c':
+                    for (int i = 0; i < len; i++) {
+                        a[i] = i == 0 ? upper(a[i]) : lower(a[i]);
+                    }
+                    break;
+                case 'C':
+                    for (int i = 0; i < len; i++) {
+                        a[i] = i == 0 ? lower(a[i]) : upper(a[i]);
+                    }
+                    break;
+                case 't':
+                    for (int i = 0; i < len; i++) {
+                        a[i] = toggle(a[i]);
+                    }
+                    break;
+                case 'T':
+                    if (n < len) {
+                        a[n] = toggle(a[n]);
+                    }
+                    break;
+                case 'r':
+                    for (int i = 0, j = len - 1; i < j; i++, j--) {
+                        byte tmp = a[i];
+                        a[i] = a[j];
+                        a[j] = tmp;
+                    }
+                    break;
+                case 'd':
+                    if (len * 2 > MAX_LENGTH) {
+                        return -1;
+                    }
+                    System.arraycopy(a, 0, a, len, len);
+                    len *= 2;
+                    break;
+                case 'f':
+                    if (len * 2 > MAX_LENGTH) {
+                        return -1;
+                    }
+                    for (int i = 0; i < len; i++) {
+                        a[len + i] = a[len - 1 - i];
+                    }
+                    len *= 2;
+                    break;
+                case 'p':
+                    if (len * (n + 1) > MAX_LENGTH) {
+                        return -1;
+                    }
+                    for (int i = 1; i <= n; i++) {
+                        System.arraycopy(a, 0, a, len * i, len);
+                    }
+                    len *= n + 1;
+                    break;
+                case 'q':
+                    if (len * 2 > MAX_LENGTH) {
+                        return -1;
+                    }
+                    for (int i = len - 1; i >= 0; i--) {
+                        a[2 * i] = a[i];
+                        a[2 * i + 1] = a[i];
+                    }
+                    len *= 2;
+                    break;
+                case '$':
+                    if (len + 1 > MAX_LENGTH) {
+                        return -1;
+                    }
+                    a[len++] = (byte) n;
+                    break;
+                case '^':
+                    if (len + 1 > MAX_LENGTH) {
+                        return -1;
+                    }
+                    System.arraycopy(a, 0, a, 1, len++);
+                    a[0] = (byte) n;
+                    break;
+                case '[':
+                    if (len > 0) {
+                        System.arraycopy(a, 1, a, 0, --len);
+                    }
+                    break;
+                case ']':
+                    if (len > 0) {
+                        len--;
+                    }
+                    break;
+                case 'D':
+                    if (n < len) {
+                        System.arraycopy(a, n + 1, a, n, len - n - 1);
+                        len--;
+                    }
+                    break;
+                case '\'':
+                    len = Math.min(len, n);
+                    break;
+                case 'x':
+                    if (n < len) {
+                        int count = Math.min(m, len - n);
+                        System.arraycopy(a, n, a, 0, count);
+                        len = count;
+                    }
+                    break;
+                case 'i':
+                    if (n <= len) {
+                        if (len + 1 > MAX_LENGTH) {
+                            return -1;
+                        }
+                        System.arraycopy(a, n, a, n + 1, len - n);
+                        a[n] = (byte) m;
+                        len++;
+                    }
+                    break;
+                case 'o':
+                    if (n < len) {
+                        a[n] = (byte) m;
+                    }
+                    break;
+                case 's':
+                    for (int i = 0; i < len; i++) {
+                        if (a[i] == (byte) n) {
+                            a[i] = (byte) m;
+                        }
+                    }
+                    break;
+                case '@': {
+                    int out = 0;
+                    for (int i = 0; i < len; i++) {
+                        if (a[i] != (byte) n) {
+                            a[out++] = a[i];
+                        }
+                    }
+                    len = out;
+                    break;
+                }
+                case 'z':
+                    if (len > 0) {
+                        if (len + n > MAX_LENGTH) {
+                            return -1;
+                        }
+                        System.arraycopy(a, 0, a, n, len);
+                        for (int i = 1; i <= n; i++) {
+                            a[i] = a[0];
+                        }
+                        len += n;
+                    }
+                    break;
+                case 'Z':
+                    if (len > 0) {
+                        if (len + n > MAX_LENGTH) {
+                            return -1;
+                        }
+                        for (int i = 0; i < n; i++) {
+                            a[len + i] = a[len - 1];
+                        }
+                        len += n;
+                    }
+                    break;
+                case '{':
+                    if (len > 1) {
+                        byte first = a[0];
+                        System.arraycopy(a, 1, a, 0, len - 1);
+                        a[len - 1] = first;
+                    }
+                    break;
+                case '}':
+                    if (len > 1) {
+                        byte last = a[len - 1];
+                        System.arraycopy(a, 0, a, 1, len - 1);
+                        a[0] = last;
+                    }
+                    break;
+                case 'k':
+                    if (len > 1) {
+                        byte tmp = a[0];
+                        a[0] = a[1];
+                        a[1] = tmp;
+                    }
+                    break;
+                case 'K':
+                    if (len > 1) {
+                        byte tmp = a[len - 1];
+                        a[len - 1] = a[len - 2];
+                        a[len - 2] = tmp;
+                    }
+                    break;
+                default:
+                    // ':' 不变
+                    break;
+            }
+        }
+        return len;
+    }
+
+    private static byte lower(byte c) {
+        return c >= 'A' && c <= 'Z' ? (byte) (c + 32) : c;
+    }
+
+    private static byte upper(byte c) {
+        return c >= 'a' && c <= 'z' ? (byte) (c - 32) : c;
+    }
+
+    private static byte toggle(byte c) {
+        return c >= 'a' && c <= 'z' ? (byte) (c - 32) : c >= 'A' && c <= 'Z' ? (byte) (c + 32) : c;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * 工作线程私有的变换缓冲区
+     * 所有操作都原地完成并在变长前检查 {@link #MAX_LENGTH}，因此固定容量即可容纳任何中间结果。
+     */
+    public static final class Workspace {
+        private final byte[] buffer = new byte[MAX_LENGTH];
+
+        /**
+         * 最近一次 {@link #apply} 的结果，仅在下一次调用之前有效
+         */
+        public byte[] output() {
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.brandy.core.rules;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 规则文件：每行一条规则，空行与 # 开头的注释行被忽略
+ * 无法解析的行不会中断加载，而是记录在 {@link #getErrors()} 中。
+ */
+public class RuleSet {
+    private static final String BUILTIN_RULES = "/builtin_rules.txt";
+
+    private final String name;
+    private final List<Rule> rules;
+    private final List<String> errors;
+
+    private RuleSet(String name, List<Rule> rules, List<String> errors) {
+        this.name = name;
+        this.rules = Collections.unmodifiableList(rules);
+        this.errors = Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * 加载规则文件
+     * @throws IOException 如果文件无法读取
+     */
+    public static RuleSet load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return parse(path.getFileName().toString(), in);
+        }
+    }
+
+    /**
+     * 加载随插件发布的常用规则
+     * @throws IOException 如果资源缺失或无法读取
+     */
+    public static RuleSet loadBuiltin() throws IOException {
+        try (InputStream in = RuleSet.class.getResourceAsStream(BUILTIN_RULES)) {
+            if (in == null) {
+                throw new IOException("Built-in rules not found: " + BUILTIN_RULES);
+            }
+            return parse("builtin", in);
+        }
+    }
+
+    public static RuleSet parse(String name, InputStream in) throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.ISO_8859_1));
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                rules.add(Rule.parse(line));
+            } catch (IllegalArgumentException e) {
+                errors.add(lineNo + ": " + e.getMessage());
+            }
+        }
+        return new RuleSet(name, rules, errors);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Rule> getRules() {
+        return rules;
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    public Rule get(int index) {
+        return rules.get(index);
+    }
+
+    /**
+     * @return 被跳过的行及原因
+     */
+    public List<String> getErrors() {
+        return errors;
+    }
+}
@@ -0,0 +1,96 @@
+package com.brandy.core.transform;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从字典词到 HMAC 密钥字节的一条变换链
+ * 文本形式为以 ':' 连接的步骤，从左到右依次作用，例如 "sha256:hex" 表示词的 SHA-256 摘要的十六进制文本；
+ * "raw" 表示不做变换。解码类步骤遇到不合法的输入时整条链不产生密钥。
+ *
+ * <pre>
+ * raw                        原始词
+ * base64 / base64url         编码 (base64url 不带填充)
+ * base64-decode              标准或 url 字母表解码，填充可省略
+ * base64url-decode           url 字母表解码
+ * hex / hex-decode           十六进制编码 / 解码
+ * md5 / sha1 / sha256        摘要
+ * </pre>
+ */
+public final class KeyTransform {
+    public static final String RAW = "raw";
+
+    /**
+     * 变换步骤，输出只依赖输入字节
+     */
+    public enum Step {
+        BASE64("base64"),
+        BASE64URL("base64url"),
+        BASE64_DECODE("base64-decode"),
+        BASE64URL_DECODE("base64url-decode"),
+        HEX("hex"),
+        HEX_DECODE("hex-decode"),
+        MD5("md5"),
+        SHA1("sha1"),
+        SHA256("sha256");
+
+        private final String text;
+
+        Step(String text) {
+            this.text = text;
+        }
+
+        public String text() {
+            return text;
+        }
+
+        static Step of(String text) {
+            for (Step step : values()) {
+                if (step.text.equals(text)) {
+                    return step;
+                }
+            }
+            throw new IllegalArgumentException("Unknown key transform '" + text + "'");
+        }
+    }
+
+    private final String text;
+    private final Step[] steps;
+
+    private KeyTransform(String text, Step[] steps) {
+        this.text = text;
+        this.steps = steps;
+    }
+
+    /**
+     * @throws IllegalArgumentException 包含未知的步骤
+     */
+    public static KeyTransform parse(String text) {
+        String trimmed = text.trim().toLowerCase();
+        if (trimmed.isEmpty()) {
+            throw new IllegalArgumentException("Empty key transform");
+        }
+        List<Step> steps = new ArrayList<>();
+        for (String part : trimmed.split(":")) {
+            String step = part.trim();
+            if (!step.equals(RAW)) {
+                steps.add(Step.of(step));
+            }
+        }
+        // 规范化文本，保证相同的变换有相同的身份
+        StringBuilder canonical = new StringBuilder();
+        for (Step step : steps) {
+            canonical.append(canonical.length() == 0 ? "" : ":").append(step.text);
+        }
+        return new KeyTransform(steps.isEmpty() ? RAW : canonical.toString(), steps.toArray(new Step[0]));
+    }
+
+    Step[] steps() {
+        return steps;
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,237 @@
+package com.brandy.core.transform;
+
+import com.brandy.core.utils.KeyEncoding;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 每个字典词依次尝试的一组变换，文本形式为逗号分隔的 {@link KeyTransform}
+ * 默认的 "raw,base64,hex" 与字典预展开的三种变体一致。
+ * 变换由每个工作线程私有的 {@link Evaluator} 按需求值，结果写入可复用的缓冲区，单个候选不创建任何对象。
+ */
+public final class KeyTransformPipeline {
+    public static final String DEFAULT_SPEC = "raw,base64,hex";
+    public static final KeyTransformPipeline DEFAULT = parse(DEFAULT_SPEC);
+
+    private final List<KeyTransform> transforms;
+    private final String spec;
+
+    private KeyTransformPipeline(List<KeyTransform> transforms) {
+        this.transforms = Collections.unmodifiableList(transforms);
+        StringBuilder text = new StringBuilder();
+        for (KeyTransform transform : transforms) {
+            text.append(text.length() == 0 ? "" : ",").append(transform);
+        }
+        this.spec = text.toString();
+    }
+
+    /**
+     * 解析逗号分隔的变换列表，重复的变换只保留第一个
+     * @throws IllegalArgumentException 列表为空或包含未知的步骤
+     */
+    public static KeyTransformPipeline parse(String spec) {
+        Set<String> seen = new LinkedHashSet<>();
+        List<KeyTransform> transforms = new ArrayList<>();
+        for (String text : spec.split(",")) {
+            if (text.trim().isEmpty()) {
+                continue;
+            }
+            KeyTransform transform = KeyTransform.parse(text);
+            if (seen.add(transform.toString())) {
+                transforms.add(transform);
+            }
+        }
+        if (transforms.isEmpty()) {
+            throw new IllegalArgumentException("No key transform given");
+        }
+        return new KeyTransformPipeline(transforms);
+    }
+
+    /**
+     * @return 是否与字典预展开的默认变体完全一致
+     */
+    public boolean isDefault() {
+        return spec.equals(DEFAULT_SPEC);
+    }
+
+    /**
+     * @return 在本组合之前加上默认变换的组合，用于校验来源不确定的已知密钥
+     */
+    public KeyTransformPipeline withDefaults() {
+        return isDefault() ? this : parse(DEFAULT_SPEC + "," + spec);
+    }
+
+    public int size() {
+        return transforms.size();
+    }
+
+    public KeyTransform get(int index) {
+        return transforms.get(index);
+    }
+
+    /**
+     * @return 每个变换的名称，用于按变体统计剩余量
+     */
+    public String[] names() {
+        String[] names = new String[transforms.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = transforms.get(i).toString();
+        }
+        return names;
+    }
+
+    /**
+     * @return 规范化的文本形式，同时作为检查点与穷尽搜索记录的身份
+     */
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    public Evaluator newEvaluator() {
+        return new Evaluator(this);
+    }
+
+    /**
+     * 单线程使用的求值器
+     * 先用 {@link #reset} 设置当前词，再按任意顺序调用 {@link #apply}；每个变换对同一个词只计算一次，
+     * 与序号更小的变换输出相同的结果视为重复，不再返回。
+     */
+    public static final class Evaluator {
+        private static final int UNSET = -2;
+        private static final int SKIP = -1;
+
+        private final KeyTransformPipeline pipeline;
+        private final byte[][] outputs;
+        private final int[] lengths;
+        // 变换链中间结果，两个缓冲区交替使用
+        private byte[] scratchA = new byte[256];
+        private byte[] scratchB = new byte[256];
+        private MessageDigest md5;
+        private MessageDigest sha1;
+        private MessageDigest sha256;
+        private byte[] word;
+        private int wordOff;
+        private int wordLen;
+
+        private Evaluator(KeyTransformPipeline pipeline) {
+            this.pipeline = pipeline;
+            this.outputs = new byte[pipeline.size()][256];
+            this.lengths = new int[pipeline.size()];
+        }
+
+        /**
+         * 设置当前词，之前的结果全部失效；word 在下一次 reset 之前不能被修改
+         */
+        public void reset(byte[] word, int off, int len) {
+            this.word = word;
+            this.wordOff = off;
+            this.wordLen = len;
+            Arrays.fill(lengths, UNSET);
+        }
+
+        /**
+         * @return 第 index 个变换的结果长度，结果位于 {@link #output(int)} 的开头；
+         *         输入不适用于该变换或结果与之前的变换重复时返回 -1
+         */
+        public int apply(int index) {
+            if (lengths[index] == UNSET) {
+                int len = compute(index);
+                for (int earlier = 0; earlier < index && len >= 0; earlier++) {
+                    if (apply(earlier) == len && Arrays.equals(outputs[earlier], 0, len, outputs[index], 0, len)) {
+                        len = SKIP;
+                    }
+                }
+                lengths[index] = len;
+            }
+            return lengths[index];
+        }
+
+        public byte[] output(int index) {
+            return outputs[index];
+        }
+
+        /**
+         * 依次执行变换链，结果复制到该变换自己的输出缓冲区
+         */
+        private int compute(int index) {
+            KeyTransform.Step[] steps = pipeline.get(index).steps();
+            byte[] src = word;
+            int off = wordOff;
+            int len = wordLen;
+            for (KeyTransform.Step step : steps) {
+                byte[] dst = src == scratchA ? scratchB : scratchA;
+                int required = Math.max(64, Math.max(KeyEncoding.hexLength(len), KeyEncoding.base64Length(len)));
+                if (dst.length < required) {
+                    dst = new byte[required * 2];
+                    if (src == scratchA) {
+                        scratchB = dst;
+                    } else {
+                        scratchA = dst;
+                    }
+                }
+                len = applyStep(step, src, off, len, dst);
+                if (len < 0) {
+                    return SKIP;
+                }
+                src = dst;
+                off = 0;
+            }
+            if (outputs[index].length < len) {
+                outputs[index] = new byte[len * 2];
+            }
+            System.arraycopy(src, off, outputs[index], 0, len);
+            return len;
+        }
+
+        private int applyStep(KeyTransform.Step step, byte[] src, int off, int len, byte[] dst) {
+            switch (step) {
+                case BASE64:
+                    return KeyEncoding.base64(src, off, len, dst, 0);
+                case BASE64URL:
+                    return KeyEncoding.base64Url(src, off, len, dst, 0);
+                case BASE64_DECODE: {
+                    int decoded = KeyEncoding.base64Decode(src, off, len, dst, 0, false);
+                    return decoded >= 0 ? decoded : KeyEncoding.base64Decode(src, off, len, dst, 0, true);
+                }
+                case BASE64URL_DECODE:
+                    return KeyEncoding.base64Decode(src, off, len, dst, 0, true);
+                case HEX:
+                    return KeyEncoding.hex(src, off, len, dst, 0);
+                case HEX_DECODE:
+                    return KeyEncoding.hexDecode(src, off, len, dst, 0);
+                case MD5:
+                    return digest(md5 == null ? md5 = newDigest("MD5") : md5, src, off, len, dst);
+                case SHA1:
+                    return digest(sha1 == null ? sha1 = newDigest("SHA-1") : sha1, src, off, len, dst);
+                default:
+                    return digest(sha256 == null ? sha256 = newDigest("SHA-256") : sha256, src, off, len, dst);
+            }
+        }
+
+        private static int digest(MessageDigest digest, byte[] src, int off, int len, byte[] dst) {
+            digest.update(src, off, len);
+            try {
+                return digest.digest(dst, 0, dst.length);
+            } catch (DigestException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static MessageDigest newDigest(String algorithm) {
+            try {
+                return MessageDigest.getInstance(algorithm);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Unsupported digest: " + algorithm, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.Checkpoint;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 检查点的本地存储
+ * 文件名为 令牌指纹-完整指纹.json，写入先落到临时文件再原子替换。
+ * 所有写入与删除都在一个后台线程中按提交顺序执行；连续的异步保存只保留最新的一份，
+ * 因此工作线程与进度定时器不会被磁盘 IO 阻塞。
+ */
+public class CheckpointStore {
+    private static final CheckpointStore SHARED = new CheckpointStore(
+            Paths.get(System.getProperty("user.home"), ".jwtscaner", "checkpoints"));
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path directory;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "jwt-checkpoint-writer");
+        t.setDaemon(true);
+        return t;
+    });
+    // 尚未写出的异步保存，按完整指纹合并
+    private final Map<String, Checkpoint> pending = new LinkedHashMap<>();
+
+    public CheckpointStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return 扩展内共享的存储实例
+     */
+    public static CheckpointStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * @return 各部分按顺序拼接后的 SHA-256，截取前 16 字节的十六进制
+     */
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return 与完整指纹匹配的检查点，不存在或无法读取时返回 null
+     */
+    public Checkpoint load(String tokenFingerprint, String fingerprint) {
+        flush();
+        Path file = file(tokenFingerprint, fingerprint);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Checkpoint checkpoint = MAPPER.readValue(file.toFile(), Checkpoint.class);
+            return fingerprint.equals(checkpoint.getFingerprint()) ? checkpoint : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return 该令牌是否存在任何检查点
+     */
+    public boolean hasCheckpoint(String tokenFingerprint) {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, tokenFingerprint + "-*.json")) {
+            return files.iterator().hasNext();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 异步保存，不阻塞调用线程
+     */
+    public void saveAsync(Checkpoint checkpoint) {
+        boolean schedule;
+        synchronized (pending) {
+            schedule = pending.isEmpty();
+            pending.put(checkpoint.getFingerprint(), checkpoint);
+        }
+        if (schedule) {
+            writer.execute(this::drain);
+        }
+    }
+
+    /**
+     * 保存并等待写入完成，用于停止攻击时的最后一次保存
+     */
+    public void save(Checkpoint checkpoint) {
+        saveAsync(checkpoint);
+        flush();
+    }
+
+    /**
+     * 删除检查点 (遍历完成或找到密钥后)，排在之前的保存之后执行
+     */
+    public void delete(String tokenFingerprint, String fingerprint) {
+        submit(() -> {
+            synchronized (pending) {
+                pending.remove(fingerprint);
+            }
+            Files.deleteIfExists(file(tokenFingerprint, fingerprint));
+            return null;
+        });
+    }
+
+    /**
+     * 在写盘线程上执行其他本地存储的写入，与检查点共用同一线程，{@link #flush()} 同样会等待它们完成
+     */
+    void execute(Runnable task) {
+        writer.execute(task);
+    }
+
+    /**
+     * 等待所有已提交的写入完成
+     */
+    public void flush() {
+        await(submit(() -> {
+            drain();
+            return null;
+        }));
+    }
+
+    private void drain() {
+        while (true) {
+            Checkpoint next;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                String key = pending.keySet().iterator().next();
+                next = pending.remove(key);
+            }
+            try {
+                write(next);
+            } catch (IOException e) {
+                // 检查点只是加速恢复的手段，写入失败不影响攻击本身
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void write(Checkpoint checkpoint) throws IOException {
+        writeJson(file(checkpoint.getTokenFingerprint(), checkpoint.getFingerprint()), checkpoint);
+    }
+
+    /**
+     * 以 JSON 写入文件：先写临时文件再原子替换，读取方不会看到写了一半的内容
+     */
+    static void writeJson(Path target, Object value) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        MAPPER.writeValue(temp.toFile(), value);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private Path file(String tokenFingerprint, String fingerprint) {
+        return directory.resolve(tokenFingerprint + "-" + fingerprint + ".json");
+    }
+
+    private Future<?> submit(Callable<?> task) {
+        return writer.submit(task);
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.getCause().printStackTrace();
+        }
+    }
+}
@@ -1,45 +1,137 @@
 package com.brandy.core.utils;
 
-import com.brandy.core.model.KeyCandidate;
+import com.brandy.core.model.WordArena;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.Base64;
-import java.util.List;
-import java.util.stream.Stream;
-import java.util.HexFormat;
+import java.util.Arrays;
 
 
 public class DictLoader {
     private static final String BUILTIN_DICTIONARY_PATH = "builtin_dictionary.txt";
+    private static final String BUILTIN_BINARY_PATH = "builtin_dictionary.bin";
+    private static final String DEFAULT_SECRETS_PATH = "builtin_default_secrets.txt";
     
     /**
-     * 从文件路径加载字典
-     * @param path 字典文件路径
-     * @return 密钥候选流
-     * @throws IOException 如果文件读取失败
+     * 加载构建时预编译的二进制内置字典
+     * @return 内置字典，未打包二进制字典时返回 null，调用方应回退到文本字典
+     * @throws IOException 如果二进制字典损坏
      */
-    public static Stream<KeyCandidate> loadDictionary(Path path) throws IOException {
-        return Files.lines(path)
-                .map(String::trim)
-                .filter(line -> !line.isEmpty())
-                .flatMap(DictLoader::generateKeyVariants);
+    public static WordArena loadBuiltinArena() throws IOException {
+        InputStream is = DictLoader.class.getClassLoader().getResourceAsStream(BUILTIN_BINARY_PATH);
+        if (is == null) {
+            return null;
+        }
+        try (InputStream in = is) {
+            return DictionaryCompiler.load(in);
+        }
     }
-    
+
     /**
-     * 加载内置字典
-     * @return 密钥候选流
-     * @throws IOException 如果资源文件读取失败
+     * 把按行分隔的文本字典读入连续字节区，去除首尾空白并跳过空行
+     * 不去重：用户字典保持文件中的行序与词数，与过大时走内存映射流式读取的结果一致，
+     * 检查点与穷尽记录在两种读取方式间通用；需要去重时使用合并字典
+     * @param in 字典输入流，由调用方关闭
+     * @return 字典字节区
+     * @throws IOException 如果读取失败
      */
-    public static Stream<KeyCandidate> loadBuiltinDictionary() throws IOException {
-        // 先读取所有行到内存中，避免流关闭问题
-        List<String> lines = new ArrayList<>();
-        
+    public static WordArena loadArena(InputStream in) throws IOException {
+        byte[] data = new byte[64 * 1024];
+        int[] offsets = new int[1024];
+        int count = 0;
+        int length = 0;
+        WordReader reader = new WordReader(in);
+        while (reader.next()) {
+            int len = reader.length();
+            if ((long) length + len > Integer.MAX_VALUE - 8) {
+                throw new IOException("字典过大，无法载入内存");
+            }
+            if (length + len > data.length) {
+                data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) data.length * 2, length + len)));
+            }
+            if (count + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            }
+            System.arraycopy(reader.buffer(), reader.offset(), data, length, len);
+            offsets[count++] = length;
+            length += len;
+        }
+        offsets[count] = length;
+        return new WordArena(Arrays.copyOf(data, length), Arrays.copyOf(offsets, count + 1));
+    }
+
+    /**
+     * 读入文本字典并去重，重复的词只保留第一次出现；内置字典的编译与文本回退都用它，
+     * 因此两者的词数与顺序一致
+     * @param in 字典输入流，由调用方关闭
+     * @return 去重后的字典字节区
+     * @throws IOException 如果读取失败
+     */
+    public static WordArena loadDistinctArena(InputStream in) throws IOException {
+        return distinct(loadArena(in));
+    }
+
+    /**
+     * 原地压实去重：开放寻址表保存已保留词的序号，写指针永远不超过读指针
+     */
+    static WordArena distinct(WordArena words) {
+        int size = words.size();
+        byte[] data = words.data();
+        int[] table = new int[Integer.highestOneBit(Math.max(1, size)) << 2];
+        int mask = table.length - 1;
+        int[] offsets = new int[size + 1];
+        int count = 0;
+        int write = 0;
+        for (int i = 0; i < size; i++) {
+            int from = words.offset(i);
+            int length = words.length(i);
+            int hash = 0;
+            for (int j = from; j < from + length; j++) {
+                hash = 31 * hash + data[j];
+            }
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            boolean duplicate = false;
+            while (table[slot] != 0) {
+                int kept = table[slot] - 1;
+                if (Arrays.equals(data, offsets[kept], offsets[kept + 1], data, from, from + length)) {
+                    duplicate = true;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if (duplicate) {
+                continue;
+            }
+            System.arraycopy(data, from, data, write, length);
+            offsets[count] = write;
+            write += length;
+            offsets[++count] = write;
+            table[slot] = count;
+        }
+        return new WordArena(write == data.length ? data : Arrays.copyOf(data, write), Arrays.copyOf(offsets, count + 1));
+    }
+
+    /**
+     * 加载常见的默认密钥 (框架示例、文档与教程中的密钥)，分层攻击的快速层最先测试
+     * @return 默认密钥字节区
+     * @throws IOException 如果找不到资源文件
+     */
+    public static WordArena loadDefaultSecrets() throws IOException {
+        InputStream is = DictLoader.class.getClassLoader().getResourceAsStream(DEFAULT_SECRETS_PATH);
+        if (is == null) {
+            throw new IOException("无法找到默认密钥文件: " + DEFAULT_SECRETS_PATH);
+        }
+        try (InputStream in = is) {
+            return loadArena(in);
+        }
+    }
+
+    /**
+     * 以字节流方式打开文本内置字典
+     * @return 字典输入流
+     * @throws IOException 如果找不到资源文件
+     */
+    public static InputStream openBuiltinDictionary() throws IOException {
         // 尝试从类加载器加载资源
         InputStream is = DictLoader.class.getClassLoader().getResourceAsStream(BUILTIN_DICTIONARY_PATH);
         if (is == null) {
@@ -50,34 +142,6 @@ public class DictLoader {
         if (is == null) {
             throw new IOException("无法找到内置字典文件: " + BUILTIN_DICTIONARY_PATH);
         }
-        
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lines.add(line.trim());
-            }
-        }
-        
-        // 过滤空行并生成变体
-        return lines.stream()
-                .filter(line -> !line.isEmpty())
-                .flatMap(DictLoader::generateKeyVariants);
-    }
-
-    private static Stream<KeyCandidate> generateKeyVariants(String originalKey) {
-        List<KeyCandidate> variants = new ArrayList<>();
-
-        // 原始密钥
-        variants.add(new KeyCandidate(originalKey, originalKey));
-
-        // Base64编码变体
-        String base64Key = Base64.getEncoder().encodeToString(originalKey.getBytes());
-        variants.add(new KeyCandidate(originalKey, base64Key));
-
-        // Hex编码变体
-        String hexKey = HexFormat.of().formatHex(originalKey.getBytes());
-        variants.add(new KeyCandidate(originalKey, hexKey));
-
-        return variants.stream();
+        return is;
     }
 }
@@ -0,0 +1,199 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.CandidateArena;
+import com.brandy.core.model.DictionarySource;
+import com.brandy.core.model.WordArena;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * 扩展生命周期内共享的字典缓存
+ * 内置字典、最近使用的用户字典与合并字典只加载、展开一次，之后的攻击 (包括并发攻击) 只读共享同一个
+ * {@link CandidateArena}。缓存按最近最少使用淘汰，总占用不超过堆内存预算；
+ * 扩展卸载时调用 {@link #clear()} 释放全部缓存。
+ */
+public class DictionaryCache {
+    private static final String BUILTIN_KEY = "builtin";
+    private static final DictionaryCache SHARED = new DictionaryCache(Runtime.getRuntime().maxMemory() / 8);
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long budgetBytes;
+    private long usedBytes;
+
+    public DictionaryCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /**
+     * @return 扩展内共享的缓存实例
+     */
+    public static DictionaryCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * 获取内置字典，优先使用预编译的二进制字典，缺失时回退到文本字典 (与编译时相同的规则去重)
+     */
+    public CandidateArena builtin() throws IOException {
+        return get(BUILTIN_KEY, () -> {
+            WordArena words = DictLoader.loadBuiltinArena();
+            if (words == null) {
+                try (InputStream in = DictLoader.openBuiltinDictionary()) {
+                    words = DictLoader.loadDistinctArena(in);
+                }
+            }
+            return CandidateArena.expand(words);
+        });
+    }
+
+    /**
+     * 获取用户字典，文件内容变化 (大小或修改时间) 后重新加载
+     * @return 展开后的字典；预计超过缓存预算一半时返回 null，调用方应改用内存映射流式读取
+     */
+    public CandidateArena dictionary(Path path) throws IOException {
+        long size = Files.size(path);
+        if (CandidateArena.estimateFootprint(size) > getBudgetBytes() / 2) {
+            return null;
+        }
+        String key = path.toAbsolutePath().normalize() + "|" + size + "|" + Files.getLastModifiedTime(path).toMillis();
+        return get(key, () -> {
+            try (InputStream in = Files.newInputStream(path)) {
+                return CandidateArena.expand(DictLoader.loadArena(in));
+            }
+        });
+    }
+
+    /**
+     * 获取多个来源按权重合并、去重后的字典，任一来源的文件内容或权重变化后重新合并
+     * @return 展开后的字典；预计超过缓存预算一半时返回 null，调用方应改用 {@link DictionaryMerger#mergeToFile} 写入文件后内存映射
+     */
+    public CandidateArena merged(List<DictionarySource> sources) throws IOException {
+        if (CandidateArena.estimateFootprint(DictionaryMerger.estimateBytes(sources)) > getBudgetBytes() / 2) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder("merge");
+        for (DictionarySource source : sources) {
+            key.append('|').append(source);
+            if (!source.isBuiltin()) {
+                key.append(':').append(Files.size(source.getPath()))
+                        .append(':').append(Files.getLastModifiedTime(source.getPath()).toMillis());
+            }
+        }
+        return get(key.toString(), () -> CandidateArena.expand(DictionaryMerger.merge(sources)));
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * 调整内存预算，超出部分立即淘汰
+     */
+    public synchronized void setBudgetBytes(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+        evict(null);
+    }
+
+    /**
+     * 释放全部缓存，正在进行的攻击仍持有各自的引用直到结束
+     */
+    public synchronized void clear() {
+        entries.clear();
+        usedBytes = 0;
+    }
+
+    private CandidateArena get(String key, Loader loader) throws IOException {
+        Entry entry;
+        boolean owner = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry == null) {
+                entry = new Entry(new FutureTask<>(loader::load));
+                entries.put(key, entry);
+                owner = true;
+            }
+        }
+        if (owner) {
+            // 在锁外加载，其他请求同一字典的攻击等待同一次加载
+            entry.task.run();
+        }
+        try {
+            CandidateArena arena = entry.task.get();
+            if (owner) {
+                account(key, entry, arena);
+            }
+            return arena;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("字典加载被中断", e);
+        } catch (ExecutionException e) {
+            synchronized (this) {
+                entries.remove(key, entry);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private synchronized void account(String key, Entry entry, CandidateArena arena) {
+        if (entries.get(key) != entry) {
+            // 加载期间缓存已被清空
+            return;
+        }
+        entry.bytes = arena.footprintBytes();
+        usedBytes += entry.bytes;
+        evict(entry);
+    }
+
+    /**
+     * 按最近最少使用顺序淘汰，直到占用不超过预算；keep 为刚加入的条目，最后才淘汰
+     */
+    private void evict(Entry keep) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Entry candidate = it.next().getValue();
+            if (candidate == keep || !candidate.task.isDone()) {
+                continue;
+            }
+            it.remove();
+            usedBytes -= candidate.bytes;
+        }
+        if (usedBytes > budgetBytes && keep != null) {
+            // 单个字典就超过预算：本次攻击照常使用，但不保留在缓存中
+            entries.values().remove(keep);
+            usedBytes -= keep.bytes;
+        }
+    }
+
+    private interface Loader {
+        CandidateArena load() throws IOException;
+    }
+
+    private static final class Entry {
+        private final FutureTask<CandidateArena> task;
+        private long bytes;
+
+        Entry(FutureTask<CandidateArena> task) {
+            this.task = task;
+        }
+    }
+}
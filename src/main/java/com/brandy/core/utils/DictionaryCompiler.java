@@ -0,0 +1,143 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.WordArena;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 内置字典的二进制格式编译与加载
+ * 构建时 (pom.xml 的 process-classes 阶段) 把 builtin_dictionary.txt 编译为 builtin_dictionary.bin：
+ * <pre>
+ * int   MAGIC
+ * int   词数
+ * int   解压后的负载字节数
+ * deflate( 每个词: varint 长度 + 词字节 )
+ * </pre>
+ * 词经过去空白、去空行和去重 (与文本回退共用 {@link DictLoader#loadDistinctArena})；加载时解压进一个数组并原地压实成 {@link WordArena}。
+ */
+public class DictionaryCompiler {
+    public static final int MAGIC = 0x4A574431; // "JWD1"
+
+    /**
+     * 用法: DictionaryCompiler &lt;输入txt&gt; &lt;输出bin&gt;
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: DictionaryCompiler <input.txt> <output.bin>");
+            System.exit(1);
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        int words;
+        try (InputStream in = Files.newInputStream(input);
+             OutputStream out = Files.newOutputStream(output)) {
+            words = compile(in, out);
+        }
+        System.out.println("Compiled " + words + " words: " + Files.size(input) + " -> " + Files.size(output) + " bytes");
+    }
+
+    /**
+     * 把按行分隔的文本字典编译成二进制格式
+     * @return 去重后的词数
+     */
+    public static int compile(InputStream text, OutputStream out) throws IOException {
+        WordArena words = DictLoader.loadDistinctArena(text);
+        int count = words.size();
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        for (int i = 0; i < count; i++) {
+            writeVarint(payload, words.length(i));
+            payload.write(words.data(), words.offset(i), words.length(i));
+        }
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(count);
+        header.writeInt(payload.size());
+        header.flush();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            DeflaterOutputStream compressed = new DeflaterOutputStream(out, deflater, 64 * 1024);
+            payload.writeTo(compressed);
+            compressed.finish();
+        } finally {
+            deflater.end();
+        }
+        return count;
+    }
+
+    /**
+     * 读取二进制字典
+     * @throws IOException 格式错误或数据截断
+     */
+    public static WordArena load(InputStream in) throws IOException {
+        DataInputStream header = new DataInputStream(in);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("字典格式错误: magic 不匹配");
+        }
+        int count = header.readInt();
+        int payloadBytes = header.readInt();
+        if (count < 0 || payloadBytes < 0) {
+            throw new IOException("字典格式错误: 头部损坏");
+        }
+
+        byte[] data = new byte[payloadBytes];
+        try (InflaterInputStream inflater = new InflaterInputStream(in, new Inflater(), 64 * 1024)) {
+            int read = inflater.readNBytes(data, 0, payloadBytes);
+            if (read != payloadBytes) {
+                throw new IOException("字典数据被截断");
+            }
+        }
+
+        // 原地去掉长度前缀：写指针永远不超过读指针
+        int[] offsets = new int[count + 1];
+        int read = 0;
+        int write = 0;
+        for (int i = 0; i < count; i++) {
+            int length = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (read >= payloadBytes) {
+                    throw new IOException("字典数据被截断");
+                }
+                b = data[read++];
+                length |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            if (length > payloadBytes - read) {
+                throw new IOException("字典数据被截断");
+            }
+            offsets[i] = write;
+            System.arraycopy(data, read, data, write, length);
+            read += length;
+            write += length;
+        }
+        offsets[count] = write;
+        byte[] arena = write == data.length ? data : Arrays.copyOf(data, write);
+        return new WordArena(arena, offsets);
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.write((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+}
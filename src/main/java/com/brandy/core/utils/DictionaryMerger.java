@@ -0,0 +1,499 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.DictionarySource;
+import com.brandy.core.model.WordArena;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 把多个字典合并成一个去重的词区，或按行写入文件
+ * 每个来源一个顺序读取器，在调用线程内按权重轮流取词交错输出 (平滑加权轮询)：权重为 3 与 1 的两个来源依次贡献 3 个与 1 个词，
+ * 每个来源内部保持原有顺序，因此高权重来源靠前的词最先被测试，低权重来源也不会被排到最后才开始。
+ * 重复的词 (跨来源或同一来源内) 只保留第一次出现。
+ * 去重表是只存词序号的开放寻址 int 数组，比较时直接对照已写入词区的字节，每个词只额外占用约 8 字节。
+ * 合并到词区时全部词留在堆内，只用于能放进缓存预算的字典；更大的字典用 {@link #mergeToFile(List, Path)}
+ * 边交错边写入文件，内存占用有固定上限，结果交给内存映射流式读取。
+ */
+public class DictionaryMerger {
+    // 去重表容器最大 2^30 个槽，装载率不超过 1/2
+    private static final int MAX_WORDS = 1 << 29;
+    // 写入文件时内存中精确去重表的上限：词数与词字节数
+    private static final int SPOOL_EXACT_WORDS = 1 << 21;
+    private static final int SPOOL_EXACT_BYTES = 32 << 20;
+    // 溢出分区：每个分区预计的字节数与分区数上限
+    private static final long SPILL_PARTITION_BYTES = 32 << 20;
+    private static final int MAX_SPILL_PARTITIONS = 256;
+    // 布隆过滤器每个词 16 位，最多 2^27 位 (16MB)
+    private static final long MAX_BLOOM_BITS = 1L << 27;
+
+    private byte[] data = new byte[64 * 1024];
+    private int length;
+    private int[] offsets = new int[1024];
+    private int count;
+    private int[] table = new int[2048];
+    // 词数达到上限后停止交错
+    private int limit = MAX_WORDS;
+
+    DictionaryMerger() {
+    }
+
+    /**
+     * 合并全部来源，内置字典取自扩展级缓存
+     * @return 去重后的词区
+     * @throws IOException 字典无法读取，或合并后超过单个词区的容量
+     */
+    public static WordArena merge(List<DictionarySource> sources) throws IOException {
+        DictionaryMerger merger = new DictionaryMerger();
+        List<Source> open = new ArrayList<>();
+        try {
+            for (DictionarySource source : sources) {
+                open.add(source.isBuiltin()
+                        ? new ArenaSource(DictionaryCache.shared().builtin().words(), source.getWeight())
+                        : new ReaderSource(new WordReader(Files.newInputStream(source.getPath())), source.getWeight()));
+            }
+            interleave(open, merger::accept);
+        } finally {
+            for (Source source : open) {
+                source.close();
+            }
+        }
+        return merger.toArena();
+    }
+
+    /**
+     * 合并全部来源并按行写入 output，与 {@link #merge(List)} 得到相同的词序，但不在内存中保留合并结果
+     * 每个词先查布隆过滤器，未命中的一定是新词，只需一次内存访问；命中时再查内存中的精确去重表，确认重复才跳过。
+     * 精确去重表装满之后，其余的词溢出到按哈希划分的临时分区 ({@link SpillPartitions})，
+     * 结束时逐个分区精确去重并按原顺序追加到 output。内存占用与字典大小无关 (分区数达到上限之前)，
+     * 结果只取决于来源内容与权重，集群中各进程得到相同的文件。
+     * @return 写入的词数
+     * @throws IOException 字典无法读取或输出无法写入
+     */
+    public static long mergeToFile(List<DictionarySource> sources, Path output) throws IOException {
+        return mergeToFile(sources, output, SPOOL_EXACT_WORDS, SPILL_PARTITION_BYTES);
+    }
+
+    /**
+     * @return 用于 {@link #mergeToFile(List, Path)} 的临时文件
+     */
+    public static Path createSpool() throws IOException {
+        Path spool = Files.createTempFile("jwtscaner-merge-", ".txt");
+        spool.toFile().deleteOnExit();
+        return spool;
+    }
+
+    /**
+     * 删除临时文件；映射尚未释放时 (Windows) 无法立即删除，留到进程退出时删除
+     */
+    public static void deleteSpool(Path spool) {
+        try {
+            Files.deleteIfExists(spool);
+        } catch (IOException e) {
+            // 已在创建时登记退出时删除
+        }
+    }
+
+    static long mergeToFile(List<DictionarySource> sources, Path output, int exactWords, long partitionBytes)
+            throws IOException {
+        long estimatedBytes = estimateBytes(sources);
+        int partitions = (int) Math.min(MAX_SPILL_PARTITIONS, estimatedBytes / partitionBytes + 1);
+        List<Source> open = new ArrayList<>();
+        try (Spool spool = new Spool(Files.newOutputStream(output), estimatedBytes / 8, exactWords, partitions)) {
+            for (DictionarySource source : sources) {
+                open.add(source.isBuiltin()
+                        ? new ArenaSource(DictionaryCache.shared().builtin().words(), source.getWeight())
+                        : new ReaderSource(new WordReader(Files.newInputStream(source.getPath())), source.getWeight()));
+            }
+            interleave(open, spool);
+            return spool.finish();
+        } finally {
+            for (Source source : open) {
+                source.close();
+            }
+        }
+    }
+
+    /**
+     * 合并前若干个词：先放入 first 的全部词，再按权重交错各文件来源，直到新增 limit 个不重复的词；
+     * 文件只读取需要的部分。内置字典按字母序排列，不代表常见程度，因此不参与
+     * @return 去重后的词区
+     * @throws IOException 字典无法读取
+     */
+    public static WordArena mergeTop(WordArena first, List<DictionarySource> sources, int limit) throws IOException {
+        DictionaryMerger merger = new DictionaryMerger();
+        for (int i = 0; i < first.size(); i++) {
+            merger.add(first.data(), first.offset(i), first.length(i));
+        }
+        merger.limit = (int) Math.min(MAX_WORDS, (long) merger.count + limit);
+        if (merger.count >= merger.limit) {
+            return merger.toArena();
+        }
+        List<Source> open = new ArrayList<>();
+        try {
+            for (DictionarySource source : sources) {
+                if (!source.isBuiltin()) {
+                    open.add(new ReaderSource(new WordReader(Files.newInputStream(source.getPath())), source.getWeight()));
+                }
+            }
+            interleave(open, merger::accept);
+        } finally {
+            for (Source source : open) {
+                source.close();
+            }
+        }
+        return merger.toArena();
+    }
+
+    /**
+     * 估算合并结果的内存占用上限 (全部来源没有重复时)，用于决定是否缓存
+     */
+    public static long estimateBytes(List<DictionarySource> sources) throws IOException {
+        long total = 0;
+        for (DictionarySource source : sources) {
+            total += source.isBuiltin()
+                    ? DictionaryCache.shared().builtin().words().footprintBytes()
+                    : Files.size(source.getPath());
+        }
+        return total;
+    }
+
+    /**
+     * 平滑加权轮询：每一步所有来源累加自己的权重，累计值最大的来源输出一个词并减去总权重
+     */
+    private static void interleave(List<Source> sources, Sink sink) throws IOException {
+        List<Source> active = new ArrayList<>(sources);
+        double totalWeight = 0;
+        for (Source source : active) {
+            totalWeight += source.weight;
+        }
+        boolean more = true;
+        while (!active.isEmpty() && more) {
+            Source best = null;
+            for (Source source : active) {
+                source.credit += source.weight;
+                if (best == null || source.credit > best.credit) {
+                    best = source;
+                }
+            }
+            best.credit -= totalWeight;
+            if (best.next()) {
+                more = sink.accept(best.buffer(), best.offset(), best.length());
+            } else {
+                active.remove(best);
+                totalWeight -= best.weight;
+            }
+        }
+    }
+
+    /**
+     * 合并到词区时的输出
+     * @return 是否继续交错
+     */
+    private boolean accept(byte[] src, int off, int len) throws IOException {
+        add(src, off, len);
+        return count < limit;
+    }
+
+    /**
+     * @return 词已在词区中
+     */
+    private boolean contains(byte[] src, int off, int len) {
+        return table[probe(src, off, len)] != 0;
+    }
+
+    /**
+     * @return 与词相同的条目所在的槽，不存在时为应插入的空槽
+     */
+    private int probe(byte[] src, int off, int len) {
+        int mask = table.length - 1;
+        int slot = hash(src, off, len) & mask;
+        int entry;
+        while ((entry = table[slot]) != 0) {
+            int start = offsets[entry - 1];
+            int end = entry < count ? offsets[entry] : length;
+            if (end - start == len && Arrays.equals(data, start, end, src, off, off + len)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * 词不存在时追加到词区
+     * @return 是否新增
+     */
+    boolean add(byte[] src, int off, int len) throws IOException {
+        int slot = probe(src, off, len);
+        if (table[slot] != 0) {
+            return false;
+        }
+        if ((long) length + len > Integer.MAX_VALUE - 8 || count >= MAX_WORDS) {
+            throw new IOException("合并后的字典过大，无法载入内存");
+        }
+        if (length + len > data.length) {
+            data = Arrays.copyOf(data, (int) Math.min(Integer.MAX_VALUE - 8, Math.max((long) data.length * 2, length + len)));
+        }
+        if (count + 2 > offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        System.arraycopy(src, off, data, length, len);
+        offsets[count++] = length;
+        length += len;
+        table[slot] = count;
+        if (count * 2L > table.length) {
+            rehash();
+        }
+        return true;
+    }
+
+    private void rehash() {
+        int[] grown = new int[table.length * 2];
+        int mask = grown.length - 1;
+        for (int i = 0; i < count; i++) {
+            int start = offsets[i];
+            int end = i + 1 < count ? offsets[i + 1] : length;
+            int slot = hash(data, start, end - start) & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = i + 1;
+        }
+        table = grown;
+    }
+
+    private WordArena toArena() {
+        offsets[count] = length;
+        // 去重表不再需要，先释放再复制
+        table = null;
+        return new WordArena(Arrays.copyOf(data, length), Arrays.copyOf(offsets, count + 1));
+    }
+
+    /**
+     * FNV-1a，再用 murmur3 的收尾混合打散低位，线性探测只用低位
+     */
+    private static int hash(byte[] src, int off, int len) {
+        int h = 0x811c9dc5;
+        for (int i = off; i < off + len; i++) {
+            h = (h ^ src[i]) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * 64 位 FNV-1a，再用 murmur3 的 64 位收尾混合，供布隆过滤器使用
+     */
+    private static long hash64(byte[] src, int off, int len) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = off; i < off + len; i++) {
+            h = (h ^ src[i]) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 交错输出的去向
+     */
+    private interface Sink {
+        /**
+         * @return 是否继续交错
+         */
+        boolean accept(byte[] src, int off, int len) throws IOException;
+    }
+
+    /**
+     * 按行写入文件的输出：布隆过滤器、有上限的精确去重表与溢出分区
+     * 溢出开始后不再直接写入，直接写入的词的序号总在溢出的词之前，追加溢出部分即可保持顺序。
+     */
+    private static final class Spool implements Sink, Closeable {
+        private final OutputStream out;
+        private final BloomFilter bloom;
+        private final DictionaryMerger exact = new DictionaryMerger();
+        private final int exactWords;
+        private final int partitions;
+        private SpillPartitions spill;
+        private long written;
+
+        Spool(OutputStream out, long estimatedWords, int exactWords, int partitions) {
+            this.out = new BufferedOutputStream(out, 64 * 1024);
+            this.bloom = new BloomFilter(Math.min(MAX_BLOOM_BITS, Math.max(64, estimatedWords * 16)));
+            this.exactWords = exactWords;
+            this.partitions = partitions;
+        }
+
+        @Override
+        public boolean accept(byte[] src, int off, int len) throws IOException {
+            long h = hash64(src, off, len);
+            if (!bloom.add(h) && exact.contains(src, off, len)) {
+                return true;
+            }
+            if (spill == null && exact.count < exactWords && exact.length + len <= SPOOL_EXACT_BYTES) {
+                exact.add(src, off, len);
+                out.write(src, off, len);
+                out.write('\n');
+                written++;
+                return true;
+            }
+            if (spill == null) {
+                spill = new SpillPartitions(partitions);
+            }
+            spill.add(h, src, off, len);
+            return true;
+        }
+
+        /**
+         * 写出溢出部分
+         * @return 写入的总词数
+         */
+        long finish() throws IOException {
+            if (spill != null) {
+                written += spill.drainTo(out);
+            }
+            out.flush();
+            return written;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                out.close();
+            } finally {
+                if (spill != null) {
+                    spill.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * 分块布隆过滤器：每个词的 4 位落在同一个 long 内，查询与插入只访问一次内存
+     */
+    private static final class BloomFilter {
+        private final long[] blocks;
+        private final int mask;
+
+        BloomFilter(long bits) {
+            // 块数取 2 的幂，用高位选块
+            int n = Integer.highestOneBit((int) Math.max(1, bits / 64));
+            this.blocks = new long[n];
+            this.mask = n - 1;
+        }
+
+        /**
+         * @return 词此前一定不存在 (插入前对应位不全为 1)
+         */
+        boolean add(long h) {
+            int block = (int) (h >>> 40) & mask;
+            long bits = 1L << h | 1L << (h >>> 6) | 1L << (h >>> 12) | 1L << (h >>> 18);
+            long old = blocks[block];
+            blocks[block] = old | bits;
+            return (old & bits) != bits;
+        }
+    }
+
+    /**
+     * 参与交错的一个来源
+     */
+    private abstract static class Source implements Closeable {
+        final double weight;
+        double credit;
+
+        Source(double weight) {
+            this.weight = weight;
+        }
+
+        abstract boolean next() throws IOException;
+
+        abstract byte[] buffer();
+
+        abstract int offset();
+
+        abstract int length();
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static final class ReaderSource extends Source {
+        private final WordReader reader;
+
+        ReaderSource(WordReader reader, double weight) {
+            super(weight);
+            this.reader = reader;
+        }
+
+        @Override
+        boolean next() throws IOException {
+            return reader.next();
+        }
+
+        @Override
+        byte[] buffer() {
+            return reader.buffer();
+        }
+
+        @Override
+        int offset() {
+            return reader.offset();
+        }
+
+        @Override
+        int length() {
+            return reader.length();
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class ArenaSource extends Source {
+        private final WordArena words;
+        private int index = -1;
+
+        ArenaSource(WordArena words, double weight) {
+            super(weight);
+            this.words = words;
+        }
+
+        @Override
+        boolean next() {
+            return ++index < words.size();
+        }
+
+        @Override
+        byte[] buffer() {
+            return words.data();
+        }
+
+        @Override
+        int offset() {
+            return words.offset(index);
+        }
+
+        @Override
+        int length() {
+            return words.length(index);
+        }
+    }
+}
@@ -2,8 +2,10 @@
 package com.brandy.core.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
 import java.util.Base64;
 
 public class JWTUtils {
@@ -29,6 +31,58 @@ public class JWTUtils {
         return parts;
     }
 
+    /**
+     * 读取 JWT 头部的 alg 字段
+     * @throws IllegalArgumentException 格式错误或缺少 alg
+     */
+    public static String getAlgorithm(String jwt) throws IllegalArgumentException {
+        String[] parts = parseJWT(jwt);
+        try {
+            String alg = mapper.readTree(Base64.getUrlDecoder().decode(parts[0])).path("alg").asText("");
+            if (alg.isEmpty()) {
+                throw new IllegalArgumentException("Missing alg in JWT header");
+            }
+            return alg;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JWT header: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 读取 JWT 头部的字符串字段，例如 kid
+     * @return 字段值，缺失或格式错误时返回空字符串
+     */
+    public static String getHeaderField(String jwt, String name) {
+        return readField(jwt, 0, name);
+    }
+
+    /**
+     * 读取 JWT 载荷中的声明，例如 iss、aud；数组形式的声明 (aud) 以逗号连接
+     * @return 声明值，缺失或格式错误时返回空字符串
+     */
+    public static String getClaim(String jwt, String name) {
+        return readField(jwt, 1, name);
+    }
+
+    private static String readField(String jwt, int part, String name) {
+        try {
+            JsonNode node = mapper.readTree(Base64.getUrlDecoder().decode(parseJWT(jwt)[part])).path(name);
+            if (node.isArray()) {
+                StringBuilder joined = new StringBuilder();
+                for (JsonNode item : node) {
+                    if (joined.length() > 0) {
+                        joined.append(',');
+                    }
+                    joined.append(item.asText());
+                }
+                return joined.toString();
+            }
+            return node.isValueNode() ? node.asText() : "";
+        } catch (IOException | IllegalArgumentException e) {
+            return "";
+        }
+    }
+
     public static String decodeAndFormat(String part) {
         try {
             String decoded = new String(Base64.getUrlDecoder().decode(part));
@@ -0,0 +1,161 @@
+package com.brandy.core.utils;
+
+import java.util.Arrays;
+
+/**
+ * 直接在字节数组上完成的密钥编码，避免为每个变体创建字符串
+ */
+public class KeyEncoding {
+    private static final byte[] BASE64 =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes();
+    private static final byte[] BASE64_URL =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".getBytes();
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    // 字符到 6 位值的反查表，-1 表示不属于该字母表
+    private static final byte[] BASE64_VALUES = values(BASE64);
+    private static final byte[] BASE64_URL_VALUES = values(BASE64_URL);
+
+    public static int base64Length(int len) {
+        return (len + 2) / 3 * 4;
+    }
+
+    public static int hexLength(int len) {
+        return len * 2;
+    }
+
+    /**
+     * @return 解码结果长度的上限
+     */
+    public static int decodedLength(int len) {
+        return len * 3 / 4 + 3;
+    }
+
+    /**
+     * 标准 Base64 (带填充) 编码，与 Base64.getEncoder() 结果一致
+     * @return 写入的字节数
+     */
+    public static int base64(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        return encode(BASE64, src, off, len, dst, dstOff);
+    }
+
+    private static int encode(byte[] alphabet, byte[] src, int off, int len, byte[] dst, int dstOff) {
+        int end = off + len;
+        int p = dstOff;
+        int i = off;
+        for (; i + 3 <= end; i += 3) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[p++] = alphabet[bits >>> 18];
+            dst[p++] = alphabet[(bits >>> 12) & 0x3f];
+            dst[p++] = alphabet[(bits >>> 6) & 0x3f];
+            dst[p++] = alphabet[bits & 0x3f];
+        }
+        int rest = end - i;
+        if (rest == 1) {
+            int bits = (src[i] & 0xff) << 16;
+            dst[p++] = alphabet[bits >>> 18];
+            dst[p++] = alphabet[(bits >>> 12) & 0x3f];
+            dst[p++] = '=';
+            dst[p++] = '=';
+        } else if (rest == 2) {
+            int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8;
+            dst[p++] = alphabet[bits >>> 18];
+            dst[p++] = alphabet[(bits >>> 12) & 0x3f];
+            dst[p++] = alphabet[(bits >>> 6) & 0x3f];
+            dst[p++] = '=';
+        }
+        return p - dstOff;
+    }
+
+    /**
+     * 小写十六进制编码，与 HexFormat.of().formatHex() 结果一致
+     * @return 写入的字节数
+     */
+    public static int hex(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        int p = dstOff;
+        for (int i = off; i < off + len; i++) {
+            dst[p++] = HEX[(src[i] >>> 4) & 0x0f];
+            dst[p++] = HEX[src[i] & 0x0f];
+        }
+        return p - dstOff;
+    }
+
+    /**
+     * Base64url (不带填充) 编码，与 JWT 中各段的编码方式一致
+     * @return 写入的字节数
+     */
+    public static int base64Url(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        int written = encode(BASE64_URL, src, off, len, dst, dstOff);
+        while (written > 0 && dst[dstOff + written - 1] == '=') {
+            written--;
+        }
+        return written;
+    }
+
+    /**
+     * Base64 解码，末尾填充可有可无；url 为 true 时使用 Base64url 字母表
+     * @return 写入的字节数，输入不是合法的 Base64 时返回 -1
+     */
+    public static int base64Decode(byte[] src, int off, int len, byte[] dst, int dstOff, boolean url) {
+        byte[] values = url ? BASE64_URL_VALUES : BASE64_VALUES;
+        int end = off + len;
+        while (end > off && src[end - 1] == '=') {
+            end--;
+        }
+        if (off + len - end > 2 || (end - off) % 4 == 1 || end == off) {
+            return -1;
+        }
+        int p = dstOff;
+        int bits = 0;
+        int count = 0;
+        for (int i = off; i < end; i++) {
+            int v = values[src[i] & 0xff];
+            if (v < 0) {
+                return -1;
+            }
+            bits = bits << 6 | v;
+            if (++count == 4) {
+                dst[p++] = (byte) (bits >>> 16);
+                dst[p++] = (byte) (bits >>> 8);
+                dst[p++] = (byte) bits;
+                bits = 0;
+                count = 0;
+            }
+        }
+        if (count == 2) {
+            dst[p++] = (byte) (bits >>> 4);
+        } else if (count == 3) {
+            dst[p++] = (byte) (bits >>> 10);
+            dst[p++] = (byte) (bits >>> 2);
+        }
+        return p - dstOff;
+    }
+
+    /**
+     * 十六进制解码，不区分大小写
+     * @return 写入的字节数，输入长度为奇数或包含非十六进制字符时返回 -1
+     */
+    public static int hexDecode(byte[] src, int off, int len, byte[] dst, int dstOff) {
+        if (len == 0 || (len & 1) != 0) {
+            return -1;
+        }
+        int p = dstOff;
+        for (int i = off; i < off + len; i += 2) {
+            int hi = Character.digit(src[i], 16);
+            int lo = Character.digit(src[i + 1], 16);
+            if (hi < 0 || lo < 0) {
+                return -1;
+            }
+            dst[p++] = (byte) (hi << 4 | lo);
+        }
+        return p - dstOff;
+    }
+
+    private static byte[] values(byte[] alphabet) {
+        byte[] values = new byte[256];
+        Arrays.fill(values, (byte) -1);
+        for (int i = 0; i < alphabet.length; i++) {
+            values[alphabet[i]] = (byte) i;
+        }
+        return values;
+    }
+}
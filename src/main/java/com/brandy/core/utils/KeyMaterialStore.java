@@ -0,0 +1,171 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.crypto.PublicKeyParser;
+import com.brandy.core.model.KeyMaterial;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 算法混淆攻击的候选公钥缓存
+ * 目录下的每个文件只在大小或修改时间变化后重新解析，解析出的公钥与全部编码
+ * 按文件保存在一个 JSON 文件中，下次运行直接读取；目录中已删除文件的记录随之清除。
+ */
+public class KeyMaterialStore {
+    // 证书转储、JWKS 合集一般远小于此，超过的文件不当作密钥文件
+    private static final long MAX_FILE_BYTES = 16L * 1024 * 1024;
+    private static final int MAX_FILES = 100_000;
+    private static final KeyMaterialStore SHARED = new KeyMaterialStore(
+            Paths.get(System.getProperty("user.home"), ".jwtscaner"));
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path cacheFile;
+    // 绝对路径 -> 解析结果，按写入顺序排列
+    private Map<String, CachedFile> files;
+    private int parsedFiles;
+
+    public KeyMaterialStore(Path directory) {
+        this.cacheFile = directory.resolve("key_cache.json");
+    }
+
+    /**
+     * @return 扩展内共享的缓存实例
+     */
+    public static KeyMaterialStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * 读取目录 (递归) 或单个文件中的全部公钥
+     */
+    public synchronized List<KeyMaterial> load(Path path) throws IOException {
+        Map<String, CachedFile> cache = files();
+        String prefix = path.toAbsolutePath().normalize().toString();
+        List<Path> found;
+        try (Stream<Path> walk = Files.walk(path)) {
+            found = walk.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        List<KeyMaterial> keys = new ArrayList<>();
+        Set<String> present = new HashSet<>();
+        parsedFiles = 0;
+        for (Path file : found) {
+            long size = Files.size(file);
+            if (size > MAX_FILE_BYTES) {
+                continue;
+            }
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            String name = file.toAbsolutePath().normalize().toString();
+            present.add(name);
+            CachedFile cached = cache.get(name);
+            if (cached == null || cached.getSize() != size || cached.getModified() != modified) {
+                cached = new CachedFile(size, modified, PublicKeyParser.parse(file));
+                cache.remove(name);
+                cache.put(name, cached);
+                parsedFiles++;
+            }
+            keys.addAll(cached.getKeys());
+        }
+        boolean removed = cache.keySet().removeIf(name -> !present.contains(name)
+                && (name.equals(prefix) || name.startsWith(prefix + path.getFileSystem().getSeparator())));
+        if (parsedFiles > 0 || removed) {
+            evict(cache);
+            save(cache);
+        }
+        return keys;
+    }
+
+    /**
+     * @return 最近一次 {@link #load(Path)} 中重新解析 (未命中缓存) 的文件数
+     */
+    public synchronized int getParsedFiles() {
+        return parsedFiles;
+    }
+
+    private Map<String, CachedFile> files() {
+        if (files == null) {
+            files = new LinkedHashMap<>();
+            if (Files.isRegularFile(cacheFile)) {
+                try {
+                    files.putAll(MAPPER.readValue(cacheFile.toFile(), new TypeReference<Map<String, CachedFile>>() {
+                    }));
+                } catch (IOException e) {
+                    // 缓存损坏时全部重新解析，下次写入会覆盖
+                    e.printStackTrace();
+                }
+            }
+        }
+        return files;
+    }
+
+    private void save(Map<String, CachedFile> cache) {
+        try {
+            CheckpointStore.writeJson(cacheFile, cache);
+        } catch (IOException e) {
+            // 只是加速手段，写入失败不影响攻击本身
+            e.printStackTrace();
+        }
+    }
+
+    private static void evict(Map<String, CachedFile> cache) {
+        Iterator<String> oldest = cache.keySet().iterator();
+        while (cache.size() > MAX_FILES && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+
+    /**
+     * 一个文件的解析结果
+     */
+    public static class CachedFile {
+        private long size;
+        private long modified;
+        private List<KeyMaterial> keys = new ArrayList<>();
+
+        public CachedFile() {
+        }
+
+        public CachedFile(long size, long modified, List<KeyMaterial> keys) {
+            this.size = size;
+            this.modified = modified;
+            this.keys = keys;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public void setSize(long size) {
+            this.size = size;
+        }
+
+        public long getModified() {
+            return modified;
+        }
+
+        public void setModified(long modified) {
+            this.modified = modified;
+        }
+
+        public List<KeyMaterial> getKeys() {
+            return keys;
+        }
+
+        public void setKeys(List<KeyMaterial> keys) {
+            this.keys = keys;
+        }
+    }
+}
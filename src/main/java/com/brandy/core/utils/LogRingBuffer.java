@@ -0,0 +1,102 @@
+package com.brandy.core.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 无锁日志环形缓冲区
+ * 多个写线程各自用 getAndIncrement 取得序号并写入对应槽位，不加锁也不分配额外节点；
+ * 单个读线程按序号顺序取出。读线程跟不上时旧日志被覆盖，取出时按序号差计入丢弃数。
+ */
+public class LogRingBuffer {
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+    private final AtomicLong writeSequence = new AtomicLong();
+    // 只由读线程访问
+    private long readSequence;
+    private long dropped;
+
+    /**
+     * @param capacity 槽位数，向上取整为 2 的幂
+     */
+    public LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+
+    /**
+     * 写入一条日志，任意线程可调用
+     */
+    public void push(String message) {
+        long sequence = writeSequence.getAndIncrement();
+        slots.lazySet((int) (sequence & mask), new Entry(sequence, System.currentTimeMillis(), message));
+    }
+
+    /**
+     * 按写入顺序取出所有已发布的日志，只能由同一个读线程调用
+     * @return 取出的条数
+     */
+    public int drain(Consumer<Entry> consumer) {
+        long limit = writeSequence.get();
+        int count = 0;
+        while (readSequence < limit) {
+            Entry entry = slots.get((int) (readSequence & mask));
+            if (entry == null || entry.sequence < readSequence) {
+                // 写线程已取得序号但尚未写入槽位，下次再取
+                break;
+            }
+            if (entry.sequence > readSequence) {
+                // 槽位已被后续日志覆盖；早于最近 capacity 条的日志都已不可取，一并跳过
+                long skipped = Math.max(1, limit - slots.length() - readSequence);
+                dropped += skipped;
+                readSequence += skipped;
+                continue;
+            }
+            consumer.accept(entry);
+            readSequence++;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 丢弃所有未取出的日志，只能由读线程调用
+     */
+    public void clear() {
+        readSequence = writeSequence.get();
+        dropped = 0;
+    }
+
+    /**
+     * @return 因读线程跟不上而被覆盖的日志条数
+     */
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    public static final class Entry {
+        private final long sequence;
+        private final long timestamp;
+        private final String message;
+
+        Entry(long sequence, long timestamp, String message) {
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.message = message;
+        }
+
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.brandy.core.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的用户字典
+ * 文件按 1GB 为单位映射成多个区域，因此可以处理超过 2GB 的字典；
+ * {@link #split(int)} 把文件切成按换行对齐的分块 (也可用 {@link #alignToLineStart(long)} 对齐任意偏移)，每个工作线程用自己的 {@link Cursor}
+ * 直接在映射内存上遍历分块，词以字节形式拷入线程私有缓冲区，不做字符解码。
+ */
+public class MappedDictionary implements Closeable {
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_SIZE = 1L << REGION_SHIFT;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] regions;
+    private final long size;
+
+    private MappedDictionary(FileChannel channel, MappedByteBuffer[] regions, long size) {
+        this.channel = channel;
+        this.regions = regions;
+        this.size = size;
+    }
+
+    /**
+     * 以只读方式映射字典文件
+     * @param path 字典文件路径
+     * @throws IOException 如果文件无法打开或映射
+     */
+    public static MappedDictionary open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            int count = (int) ((size + REGION_SIZE - 1) >>> REGION_SHIFT);
+            MappedByteBuffer[] regions = new MappedByteBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << REGION_SHIFT;
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(REGION_SIZE, size - start));
+            }
+            return new MappedDictionary(channel, regions, size);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return 文件字节数
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * 把文件切成 chunks 个按换行对齐的分块
+     * @return 长度为 chunks + 1 的边界数组，第 i 个分块为 [bounds[i], bounds[i + 1])
+     */
+    public long[] split(int chunks) {
+        long[] bounds = new long[chunks + 1];
+        bounds[chunks] = size;
+        for (int i = 1; i < chunks; i++) {
+            bounds[i] = alignToLineStart(Math.max(bounds[i - 1], size * i / chunks));
+        }
+        return bounds;
+    }
+
+    /**
+     * @return position 处或其后第一个行首的位置，不存在时返回文件长度
+     */
+    public long alignToLineStart(long position) {
+        return alignToLineStart(position, size);
+    }
+
+    /**
+     * 与 {@link #alignToLineStart(long)} 相同，但只在 limit 之前查找，
+     * 避免在没有换行的超长区域上反复扫描
+     * @return position 处或其后第一个行首的位置，limit 之前不存在时返回 limit
+     */
+    public long alignToLineStart(long position, long limit) {
+        if (position <= 0) {
+            return 0;
+        }
+        // 从目标位置的前一个字节开始找换行
+        return Math.min(limit, indexOfNewline(position - 1, limit) + 1);
+    }
+
+    /**
+     * 创建遍历 [from, to) 内所有行的游标，from 必须位于行首
+     */
+    public Cursor cursor(long from, long to) {
+        return new Cursor(from, to);
+    }
+
+    private byte byteAt(long position) {
+        return regions[(int) (position >>> REGION_SHIFT)].get((int) (position & (REGION_SIZE - 1)));
+    }
+
+    /**
+     * @return from 之后第一个换行的位置，不存在时返回文件长度
+     */
+    private long indexOfNewline(long from) {
+        return indexOfNewline(from, size);
+    }
+
+    /**
+     * @return [from, limit) 内第一个换行的位置，不存在时返回 limit
+     */
+    private long indexOfNewline(long from, long limit) {
+        while (from < limit) {
+            MappedByteBuffer region = regions[(int) (from >>> REGION_SHIFT)];
+            long regionStart = from & ~(REGION_SIZE - 1);
+            int end = (int) Math.min(region.limit(), limit - regionStart);
+            for (int i = (int) (from - regionStart); i < end; i++) {
+                if (region.get(i) == '\n') {
+                    return regionStart + i;
+                }
+            }
+            from = regionStart + end;
+        }
+        return limit;
+    }
+
+    private void copy(long from, byte[] dst, int len) {
+        int copied = 0;
+        while (copied < len) {
+            long position = from + copied;
+            MappedByteBuffer region = regions[(int) (position >>> REGION_SHIFT)];
+            int index = (int) (position & (REGION_SIZE - 1));
+            int n = Math.min(len - copied, region.limit() - index);
+            region.get(index, dst, copied, n);
+            copied += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * 单线程使用的行游标，去除首尾空白 (<= 0x20) 并跳过空行
+     */
+    public final class Cursor {
+        private long position;
+        private final long end;
+        private byte[] word = new byte[256];
+        private int length;
+
+        private Cursor(long from, long to) {
+            this.position = from;
+            this.end = to;
+        }
+
+        /**
+         * 读取下一个非空词到 {@link #word()}
+         * @return 分块内没有更多词时返回 false
+         */
+        public boolean next() {
+            while (position < end) {
+                long s = position;
+                long e = indexOfNewline(s);
+                position = e < size ? e + 1 : size;
+                while (s < e && (byteAt(s) & 0xff) <= ' ') {
+                    s++;
+                }
+                while (e > s && (byteAt(e - 1) & 0xff) <= ' ') {
+                    e--;
+                }
+                if (e > s) {
+                    length = (int) Math.min(Integer.MAX_VALUE - 8, e - s);
+                    if (word.length < length) {
+                        word = new byte[Math.max(length, word.length * 2)];
+                    }
+                    copy(s, word, length);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 当前词的字节，仅在下一次调用 {@link #next()} 之前有效
+         */
+        public byte[] word() {
+            return word;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * 只在命中后上报时构造字符串
+         */
+        public String wordString() {
+            return new String(word, 0, length, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * @return 当前读取位置 (文件偏移)
+         */
+        public long position() {
+            return position;
+        }
+    }
+}
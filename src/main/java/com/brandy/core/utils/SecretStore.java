@@ -0,0 +1,293 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.ExhaustedSearch;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.KnownSecret;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 已知密钥与穷尽搜索记录的本地存储
+ * 已知密钥在加载任何字典之前先试一遍；穷尽搜索记录让相同令牌、相同字典与配置的攻击直接结束。
+ * 已知密钥按完整上下文、(算法, iss)、(算法, kid) 与算法建立索引，查询不必逐条比较。
+ * 两类记录各存一个 JSON 文件，首次使用时加载到内存；变更后交给 {@link CheckpointStore} 的写盘线程整体重写，
+ * 连续的变更只写一次，破解出密钥的工作线程不等待磁盘 IO。超过上限时淘汰最早的记录。
+ */
+public class SecretStore {
+    private static final int MAX_SECRETS = 10_000;
+    private static final int MAX_EXHAUSTED = 100_000;
+    private static final SecretStore SHARED = new SecretStore(
+            Paths.get(System.getProperty("user.home"), ".jwtscaner"));
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path secretsFile;
+    private final Path exhaustedFile;
+    // 上下文 + 密钥字节的 Base64 -> 记录，按写入顺序排列
+    private Map<String, KnownSecret> secrets;
+    // 索引键 -> 记录，按写入顺序排列
+    private final Map<String, List<KnownSecret>> index = new HashMap<>();
+    // 全部密钥去重后最近破解的优先，作为排序的最后一档；变更后置空，下次查询时重建
+    private List<KeyBytes> recent;
+    private Map<String, ExhaustedSearch> exhausted;
+    // 已提交但尚未执行的写盘任务
+    private boolean secretsSaveScheduled;
+    private boolean exhaustedSaveScheduled;
+
+    public SecretStore(Path directory) {
+        this.secretsFile = directory.resolve("known_secrets.json");
+        this.exhaustedFile = directory.resolve("exhausted_searches.json");
+    }
+
+    /**
+     * @return 扩展内共享的存储实例
+     */
+    public static SecretStore shared() {
+        return SHARED;
+    }
+
+    /**
+     * 按与目标上下文的接近程度排列已知密钥：iss/kid/aud 完全一致、同算法且同 iss 或同 kid、同算法、其余
+     * @return 去重后的原始密钥字节，每一档内最近破解的优先
+     */
+    public synchronized List<KeyBytes> candidates(String algorithm, String issuer, String keyId, String audience) {
+        secrets();
+        Set<KeyBytes> ranked = new LinkedHashSet<>();
+        addRecentFirst(ranked, index.get(contextKey(new KnownSecret(algorithm, issuer, keyId, audience, null))));
+        if (!issuer.isEmpty()) {
+            addRecentFirst(ranked, index.get(issuerKey(algorithm, issuer)));
+        }
+        if (!keyId.isEmpty()) {
+            addRecentFirst(ranked, index.get(keyIdKey(algorithm, keyId)));
+        }
+        addRecentFirst(ranked, index.get(algorithmKey(algorithm)));
+        if (recent == null) {
+            Set<KeyBytes> all = new LinkedHashSet<>();
+            addRecentFirst(all, new ArrayList<>(secrets.values()));
+            recent = new ArrayList<>(all);
+        }
+        List<KeyBytes> ordered = new ArrayList<>(recent.size());
+        ordered.addAll(ranked);
+        for (KeyBytes secret : recent) {
+            if (!ranked.contains(secret)) {
+                ordered.add(secret);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * 记录破解结果，同一上下文的同一密钥只保留最新一条
+     */
+    public synchronized void remember(KnownSecret secret) {
+        Map<String, KnownSecret> map = secrets();
+        String key = storeKey(secret);
+        KnownSecret previous = map.remove(key);
+        if (previous != null) {
+            unindex(previous);
+        }
+        map.put(key, secret);
+        index(secret);
+        recent = null;
+        Iterator<KnownSecret> oldest = map.values().iterator();
+        while (map.size() > MAX_SECRETS && oldest.hasNext()) {
+            unindex(oldest.next());
+            oldest.remove();
+        }
+        if (!secretsSaveScheduled) {
+            secretsSaveScheduled = true;
+            CheckpointStore.shared().execute(this::saveSecrets);
+        }
+    }
+
+    /**
+     * @return 穷尽搜索记录的指纹：算法、完整令牌 (含签名) 与候选来源配置
+     */
+    public static String exhaustedFingerprint(String algorithm, String token, String sourceId) {
+        return CheckpointStore.fingerprint("exhausted", algorithm, token, sourceId);
+    }
+
+    public synchronized boolean isExhausted(String fingerprint) {
+        return exhausted().containsKey(fingerprint);
+    }
+
+    /**
+     * 记录一批穷尽搜索结果，一次写盘
+     */
+    public synchronized void markExhausted(List<ExhaustedSearch> searches) {
+        if (searches.isEmpty()) {
+            return;
+        }
+        Map<String, ExhaustedSearch> map = exhausted();
+        for (ExhaustedSearch search : searches) {
+            map.remove(search.getFingerprint());
+            map.put(search.getFingerprint(), search);
+        }
+        evict(map, MAX_EXHAUSTED);
+        if (!exhaustedSaveScheduled) {
+            exhaustedSaveScheduled = true;
+            CheckpointStore.shared().execute(this::saveExhausted);
+        }
+    }
+
+    /**
+     * 在写盘线程上执行：锁内取快照，锁外写文件；快照之后的变更会重新提交一次写盘
+     */
+    private void saveSecrets() {
+        List<KnownSecret> snapshot;
+        synchronized (this) {
+            secretsSaveScheduled = false;
+            snapshot = new ArrayList<>(secrets.values());
+        }
+        save(secretsFile, snapshot);
+    }
+
+    private void saveExhausted() {
+        List<ExhaustedSearch> snapshot;
+        synchronized (this) {
+            exhaustedSaveScheduled = false;
+            snapshot = new ArrayList<>(exhausted.values());
+        }
+        save(exhaustedFile, snapshot);
+    }
+
+    private Map<String, KnownSecret> secrets() {
+        if (secrets == null) {
+            secrets = new LinkedHashMap<>();
+            for (KnownSecret secret : load(secretsFile, new TypeReference<List<KnownSecret>>() {})) {
+                if (secret.getAlgorithm() == null || secret.getSecret() == null) {
+                    continue;
+                }
+                String key;
+                try {
+                    key = storeKey(secret);
+                } catch (IllegalArgumentException e) {
+                    // Base64 已损坏的记录直接丢弃，下次写盘时移除
+                    continue;
+                }
+                KnownSecret previous = secrets.put(key, secret);
+                if (previous != null) {
+                    unindex(previous);
+                }
+                index(secret);
+            }
+        }
+        return secrets;
+    }
+
+    /**
+     * 按密钥字节去重：旧版本的文本记录与新版本的 Base64 记录是同一密钥时视为同一条
+     */
+    private static String storeKey(KnownSecret secret) {
+        return secret.context() + "\n" + secret.key().toBase64();
+    }
+
+    private void index(KnownSecret secret) {
+        for (String key : indexKeys(secret)) {
+            index.computeIfAbsent(key, k -> new ArrayList<>()).add(secret);
+        }
+    }
+
+    private void unindex(KnownSecret secret) {
+        for (String key : indexKeys(secret)) {
+            List<KnownSecret> list = index.get(key);
+            if (list != null && list.remove(secret) && list.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static List<String> indexKeys(KnownSecret secret) {
+        List<String> keys = new ArrayList<>(4);
+        keys.add(contextKey(secret));
+        if (secret.getIssuer() != null && !secret.getIssuer().isEmpty()) {
+            keys.add(issuerKey(secret.getAlgorithm(), secret.getIssuer()));
+        }
+        if (secret.getKeyId() != null && !secret.getKeyId().isEmpty()) {
+            keys.add(keyIdKey(secret.getAlgorithm(), secret.getKeyId()));
+        }
+        keys.add(algorithmKey(secret.getAlgorithm()));
+        return keys;
+    }
+
+    private static String contextKey(KnownSecret secret) {
+        return "ctx\n" + secret.context();
+    }
+
+    private static String issuerKey(String algorithm, String issuer) {
+        return "iss\n" + algorithm + "\n" + issuer;
+    }
+
+    private static String keyIdKey(String algorithm, String keyId) {
+        return "kid\n" + algorithm + "\n" + keyId;
+    }
+
+    private static String algorithmKey(String algorithm) {
+        return "alg\n" + algorithm;
+    }
+
+    private static void addRecentFirst(Set<KeyBytes> ordered, List<KnownSecret> secrets) {
+        if (secrets == null) {
+            return;
+        }
+        for (int i = secrets.size() - 1; i >= 0; i--) {
+            ordered.add(secrets.get(i).key());
+        }
+    }
+
+    private Map<String, ExhaustedSearch> exhausted() {
+        if (exhausted == null) {
+            exhausted = new LinkedHashMap<>();
+            for (ExhaustedSearch search : load(exhaustedFile, new TypeReference<List<ExhaustedSearch>>() {})) {
+                if (search.getFingerprint() != null) {
+                    exhausted.put(search.getFingerprint(), search);
+                }
+            }
+        }
+        return exhausted;
+    }
+
+    private static <T> List<T> load(Path file, TypeReference<List<T>> type) {
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+        try {
+            return MAPPER.readValue(file.toFile(), type);
+        } catch (IOException e) {
+            // 文件损坏时当作空存储，下次写入会覆盖
+            e.printStackTrace();
+            return List.of();
+        }
+    }
+
+    private static void save(Path file, Iterable<?> values) {
+        List<Object> list = new ArrayList<>();
+        values.forEach(list::add);
+        try {
+            CheckpointStore.writeJson(file, list);
+        } catch (IOException e) {
+            // 只是加速手段，写入失败不影响攻击本身
+            e.printStackTrace();
+        }
+    }
+
+    private static void evict(Map<String, ?> map, int max) {
+        Iterator<String> oldest = map.keySet().iterator();
+        while (map.size() > max && oldest.hasNext()) {
+            oldest.next();
+            oldest.remove();
+        }
+    }
+}
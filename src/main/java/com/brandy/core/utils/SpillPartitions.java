@@ -0,0 +1,190 @@
+package com.brandy.core.utils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.PriorityQueue;
+
+/**
+ * 合并字典写入文件时，精确去重表放不下的词
+ * 按哈希分到若干个临时分区文件，相同的词一定落在同一分区；每条记录为序号增量、词长 (变长整数) 与词字节。
+ * 结束时逐个分区在内存中精确去重，再按序号归并写出，保持交错顺序。
+ * 同一时刻只有一个分区的去重表在内存中，大小与分区字节数成正比。
+ */
+final class SpillPartitions implements Closeable {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final Path directory;
+    private final Path[] files;
+    private final OutputStream[] outputs;
+    private final long[] lastSequence;
+    private long sequence;
+
+    SpillPartitions(int partitions) throws IOException {
+        this.directory = Files.createTempDirectory("jwtscaner-merge-");
+        this.files = new Path[partitions];
+        this.outputs = new OutputStream[partitions];
+        this.lastSequence = new long[partitions];
+        try {
+            for (int i = 0; i < partitions; i++) {
+                files[i] = directory.resolve("part-" + i);
+                outputs[i] = new BufferedOutputStream(Files.newOutputStream(files[i]), BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * 追加一个词，序号按调用顺序递增
+     * @param hash 词的 64 位哈希，决定分区
+     */
+    void add(long hash, byte[] src, int off, int len) throws IOException {
+        int partition = (int) Long.remainderUnsigned(hash, files.length);
+        OutputStream out = outputs[partition];
+        writeVarLong(out, sequence - lastSequence[partition]);
+        writeVarLong(out, len);
+        out.write(src, off, len);
+        lastSequence[partition] = sequence++;
+    }
+
+    /**
+     * 逐个分区去重，再按序号归并，每个词一行写入 out
+     * @return 写入的词数
+     */
+    long drainTo(OutputStream out) throws IOException {
+        for (OutputStream output : outputs) {
+            output.close();
+        }
+        Path[] survivors = new Path[files.length];
+        for (int i = 0; i < files.length; i++) {
+            survivors[i] = directory.resolve("unique-" + i);
+            dedup(files[i], survivors[i]);
+            Files.delete(files[i]);
+        }
+        PriorityQueue<Run> queue = new PriorityQueue<>((a, b) -> Long.compare(a.sequence, b.sequence));
+        try {
+            for (Path survivor : survivors) {
+                Run run = new Run(new BufferedInputStream(Files.newInputStream(survivor), BUFFER_SIZE));
+                if (run.next()) {
+                    queue.add(run);
+                } else {
+                    run.in.close();
+                }
+            }
+            long written = 0;
+            while (!queue.isEmpty()) {
+                Run run = queue.poll();
+                out.write(run.word, 0, run.length);
+                out.write('\n');
+                written++;
+                if (run.next()) {
+                    queue.add(run);
+                } else {
+                    run.in.close();
+                }
+            }
+            return written;
+        } finally {
+            for (Run run : queue) {
+                run.in.close();
+            }
+        }
+    }
+
+    /**
+     * 一个分区内只保留每个词第一次出现的记录
+     */
+    private static void dedup(Path input, Path output) throws IOException {
+        DictionaryMerger seen = new DictionaryMerger();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(input), BUFFER_SIZE);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), BUFFER_SIZE)) {
+            Run run = new Run(in);
+            long last = 0;
+            while (run.next()) {
+                if (seen.add(run.word, 0, run.length)) {
+                    writeVarLong(out, run.sequence - last);
+                    writeVarLong(out, run.length);
+                    out.write(run.word, 0, run.length);
+                    last = run.sequence;
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (OutputStream output : outputs) {
+            if (output != null) {
+                output.close();
+            }
+        }
+        for (int i = 0; i < files.length; i++) {
+            Files.deleteIfExists(directory.resolve("part-" + i));
+            Files.deleteIfExists(directory.resolve("unique-" + i));
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7fL) != 0) {
+            out.write((int) (value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * 按序号递增读取一个分区文件的记录
+     */
+    private static final class Run {
+        private final InputStream in;
+        private long sequence;
+        private byte[] word = new byte[64];
+        private int length;
+
+        Run(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * @return 没有更多记录时返回 false
+         */
+        boolean next() throws IOException {
+            int first = in.read();
+            if (first < 0) {
+                return false;
+            }
+            sequence += readVarLong(first);
+            length = (int) readVarLong(in.read());
+            if (length > word.length) {
+                word = new byte[Math.max(length, word.length * 2)];
+            }
+            if (in.readNBytes(word, 0, length) != length) {
+                throw new EOFException("分区文件不完整");
+            }
+            return true;
+        }
+
+        private long readVarLong(int b) throws IOException {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                if (b < 0) {
+                    throw new EOFException("分区文件不完整");
+                }
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+                b = in.read();
+            }
+        }
+    }
+}
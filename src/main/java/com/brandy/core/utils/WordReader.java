@@ -0,0 +1,119 @@
+package com.brandy.core.utils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 按行读取字典的字节流读取器
+ * 直接在内部缓冲区上切分行并去除首尾空白 (与 String.trim 相同的 <= 0x20 规则)，
+ * 不做字符解码，也不为每行创建字符串。
+ */
+public class WordReader implements Closeable {
+    private final InputStream in;
+    private byte[] buffer = new byte[64 * 1024];
+    private int start;
+    private int limit;
+    private boolean eof;
+    private volatile long bytesRead;
+
+    private int wordOffset;
+    private int wordLength;
+
+    public WordReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * 读取下一个非空词
+     * @return 没有更多词时返回 false
+     */
+    public boolean next() throws IOException {
+        while (true) {
+            int newline = -1;
+            for (int i = start; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    newline = i;
+                    break;
+                }
+            }
+            int lineEnd;
+            int nextStart;
+            if (newline >= 0) {
+                lineEnd = newline;
+                nextStart = newline + 1;
+            } else if (!eof) {
+                fill();
+                continue;
+            } else if (start < limit) {
+                lineEnd = limit;
+                nextStart = limit;
+            } else {
+                return false;
+            }
+
+            int s = start;
+            int e = lineEnd;
+            start = nextStart;
+            while (s < e && (buffer[s] & 0xff) <= ' ') {
+                s++;
+            }
+            while (e > s && (buffer[e - 1] & 0xff) <= ' ') {
+                e--;
+            }
+            if (e > s) {
+                wordOffset = s;
+                wordLength = e - s;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 当前词所在的缓冲区，仅在下一次调用 {@link #next()} 之前有效
+     */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    public int offset() {
+        return wordOffset;
+    }
+
+    public int length() {
+        return wordLength;
+    }
+
+    /**
+     * @return 已从底层流读取的字节数，用于按字节估算进度
+     */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    private void fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, limit - start);
+            limit -= start;
+            start = 0;
+        }
+        if (limit == buffer.length) {
+            // 单行超过缓冲区，扩容
+            byte[] grown = new byte[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, limit);
+            buffer = grown;
+        }
+        int n = in.read(buffer, limit, buffer.length - limit);
+        if (n < 0) {
+            eof = true;
+        } else {
+            limit += n;
+            bytesRead += n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -4,28 +4,55 @@ import burp.api.montoya.MontoyaApi;
 import burp.api.montoya.ui.UserInterface;
 import com.brandy.core.attack.AttackListener;
 import com.brandy.core.attack.JWTAttackEngine;
+import com.brandy.core.harvest.HarvestListener;
+import com.brandy.core.harvest.JwtHarvester;
+import com.brandy.core.harvest.TokenInventory;
+import com.brandy.core.mask.Mask;
 import com.brandy.core.model.AttackConfig;
+import com.brandy.core.model.AttackStats;
+import com.brandy.core.model.AttackTier;
+import com.brandy.core.model.DictionarySource;
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.transform.KeyTransformPipeline;
+import com.brandy.core.utils.CheckpointStore;
 import com.brandy.core.utils.JWTUtils;
 import net.miginfocom.swing.MigLayout;
 
 import javax.swing.*;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.ActionEvent;
-import java.nio.file.Paths;
-import java.util.Date;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
-public class JWTAuditorTab extends JPanel implements AttackListener {
+public class JWTAuditorTab extends JPanel implements AttackListener, HarvestListener {
     private final MontoyaApi api;
     private JTextField jwtField;
+    // 批量模式：每行一个令牌，按算法分组一起爆破
+    private JCheckBox batchModeCheckbox;
+    private JTextArea batchTokensArea;
+    private JScrollPane batchTokensScroll;
     private JComboBox<String> algorithmCombo;
     private JButton loadDictButton;
     private JTextArea resultArea;
     private JProgressBar progressBar;
+    // 实时统计：速率、剩余量、预计剩余时间，以及每个线程的速率
+    private JLabel statsLabel;
+    private JLabel threadStatsLabel;
+    private JSpinner cpuBudgetSpinner;
+    // 分层攻击：先对全部令牌做完快速层与字典层，再进入规则或掩码
+    private JCheckBox tieredCheckbox;
     private JButton startButton;
     private JLabel dictPathLabel;
     private JButton stopButton; // 新增
+    // 当前令牌存在检查点时可用，跳过已完成的部分继续攻击
+    private JButton resumeButton;
     private JScrollPane resultScroll; // 新增
 
     //新增secretArea
@@ -34,14 +61,45 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
 //    //新增区域复制按钮
 //    private JPanel secretPanel;
 
-    // 在resultArea下方添加日志区域
-    private JTextArea logArea;
+    // 在resultArea下方添加日志区域，按固定帧率批量刷新
+    private LogConsole logConsole;
+    private JButton exportLogsButton;
     private JWTAttackEngine attackEngine;
     
     // 添加内置字典选项
     private JCheckBox useBuiltinDictCheckbox;
     private boolean useBuiltinDictionary = true; // 默认使用内置字典
-
+    // 选择的字典文件，多于一个时合并去重
+    private List<Path> dictionaryPaths = List.of();
+
+    // 字典模式下每个词尝试的密钥变换
+    private JTextField transformsField;
+
+    // 规则变换选项，未选择规则文件时使用内置规则
+    private JCheckBox useRulesCheckbox;
+    private JButton loadRulesButton;
+    private JLabel rulesPathLabel;
+    private Path rulesPath;
+
+    // 掩码暴力枚举选项
+    private JCheckBox useMaskCheckbox;
+    private JTextField maskField;
+    private JTextField[] customCharsetFields;
+    private JSpinner minLengthSpinner;
+    private JSpinner maxLengthSpinner;
+    private JLabel keyspaceLabel;
+
+    // 算法混淆：以候选公钥的各种编码作为 HMAC 密钥
+    private JCheckBox useKeyConfusionCheckbox;
+    private JButton loadKeysButton;
+    private JLabel keysPathLabel;
+    private Path publicKeysPath;
+
+    // 被动捕获代理流量中的令牌，HS* 令牌在后台破解
+    private JCheckBox harvestCheckbox;
+    private JCheckBox backgroundCrackCheckbox;
+    private JLabel harvestCountLabel;
+    private JwtHarvester harvester;
 
     public JWTAuditorTab(MontoyaApi api) {
         this.api = api;
@@ -54,6 +112,19 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         jwtField = new JTextField(40);
         jwtField.setToolTipText("Paste JWT token here (header.payload.signature)");
 
+        batchModeCheckbox = new JCheckBox("Batch Mode (one token per line)");
+        batchTokensArea = new JTextArea(4, 60);
+        batchTokensScroll = new JScrollPane(batchTokensArea);
+        batchTokensScroll.setVisible(false);
+        batchModeCheckbox.addActionListener(e -> {
+            boolean batch = batchModeCheckbox.isSelected();
+            batchTokensScroll.setVisible(batch);
+            jwtField.setEnabled(!batch);
+            // 批量模式下算法取自各令牌头部
+            algorithmCombo.setEnabled(!batch && !useKeyConfusionCheckbox.isSelected());
+            revalidate();
+        });
+
         algorithmCombo = new JComboBox<>(new String[]{"HS256", "HS384", "HS512", "RS256", "RS384", "RS512"});
         algorithmCombo.setSelectedIndex(0);
 
@@ -74,9 +145,111 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
             }
         });
 
+        // 密钥变换组件
+        transformsField = new JTextField(KeyTransformPipeline.DEFAULT_SPEC, 40);
+        transformsField.setToolTipText("Comma-separated, steps chained with ':' (e.g. raw,base64-decode,sha256:hex). "
+                + "Steps: raw base64 base64url base64-decode base64url-decode hex hex-decode md5 sha1 sha256");
+
+        // 规则组件
+        useRulesCheckbox = new JCheckBox("Apply Rules");
+        loadRulesButton = new JButton("Load Rules");
+        loadRulesButton.setEnabled(false);
+        rulesPathLabel = new JLabel("Using built-in rules");
+        rulesPathLabel.setForeground(Color.GRAY);
+        rulesPathLabel.setEnabled(false);
+        useRulesCheckbox.addActionListener(e -> {
+            loadRulesButton.setEnabled(useRulesCheckbox.isSelected());
+            rulesPathLabel.setEnabled(useRulesCheckbox.isSelected());
+        });
+        loadRulesButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                rulesPath = chooser.getSelectedFile().toPath();
+                rulesPathLabel.setText(rulesPath.toString());
+                rulesPathLabel.setForeground(Color.BLACK);
+            }
+        });
+
+        // 掩码组件：长度为 0 表示与掩码等长
+        useMaskCheckbox = new JCheckBox("Mask Attack");
+        maskField = new JTextField("?l?l?l?l?d?d", 20);
+        maskField.setToolTipText("?l ?u ?d ?s ?a ?h ?H ?b, ?1-?2 custom charsets, ?? literal '?'");
+        customCharsetFields = new JTextField[]{new JTextField(8), new JTextField(8)};
+        minLengthSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 64, 1));
+        maxLengthSpinner = new JSpinner(new SpinnerNumberModel(0, 0, 64, 1));
+        keyspaceLabel = new JLabel(" ");
+        setMaskControlsEnabled(false);
+        useMaskCheckbox.addActionListener(e -> setMaskControlsEnabled(useMaskCheckbox.isSelected()));
+        DocumentListener keyspaceUpdater = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updateKeyspace();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updateKeyspace();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                updateKeyspace();
+            }
+        };
+        maskField.getDocument().addDocumentListener(keyspaceUpdater);
+        for (JTextField field : customCharsetFields) {
+            field.getDocument().addDocumentListener(keyspaceUpdater);
+        }
+        minLengthSpinner.addChangeListener(e -> updateKeyspace());
+        maxLengthSpinner.addChangeListener(e -> updateKeyspace());
+        updateKeyspace();
+
+        // 算法混淆组件：可选择目录 (递归读取) 或单个文件
+        useKeyConfusionCheckbox = new JCheckBox("Public Keys as HMAC Secrets");
+        useKeyConfusionCheckbox.setToolTipText("HS* tokens: try each key encoding as the secret; "
+                + "RS/PS/ES tokens: find the signing key and forge HS* tokens");
+        loadKeysButton = new JButton("Load Keys");
+        loadKeysButton.setEnabled(false);
+        keysPathLabel = new JLabel("No key directory selected");
+        keysPathLabel.setForeground(Color.GRAY);
+        useKeyConfusionCheckbox.addActionListener(e -> {
+            loadKeysButton.setEnabled(useKeyConfusionCheckbox.isSelected());
+            // 算法取自令牌头部
+            algorithmCombo.setEnabled(!useKeyConfusionCheckbox.isSelected() && !batchModeCheckbox.isSelected());
+        });
+        loadKeysButton.addActionListener(e -> {
+            JFileChooser chooser = new JFileChooser();
+            chooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+            if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+                publicKeysPath = chooser.getSelectedFile().toPath();
+                keysPathLabel.setText(publicKeysPath.toString());
+                keysPathLabel.setForeground(Color.BLACK);
+            }
+        });
+
+        // 被动捕获组件，挂接捕获器之前不可用
+        harvestCheckbox = new JCheckBox("Harvest JWTs from Proxy", true);
+        backgroundCrackCheckbox = new JCheckBox("Crack HS* in Background", true);
+        harvestCountLabel = new JLabel("Captured: 0");
+        harvestCountLabel.setForeground(Color.GRAY);
+        harvestCheckbox.setEnabled(false);
+        backgroundCrackCheckbox.setEnabled(false);
+        harvestCheckbox.addActionListener(e -> {
+            if (harvester != null) {
+                harvester.setEnabled(harvestCheckbox.isSelected());
+            }
+        });
+        backgroundCrackCheckbox.addActionListener(e -> {
+            if (harvester != null) {
+                harvester.setCrackEnabled(backgroundCrackCheckbox.isSelected());
+            }
+        });
+
         // 操作按钮
         startButton = new JButton("Start Attack");
         stopButton = new JButton("Stop");
+        resumeButton = new JButton("Resume");
+        resumeButton.setEnabled(false);
 
         // 结果展示
         resultArea = new JTextArea(15, 60);
@@ -85,8 +258,10 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         resultScroll.setVerticalScrollBarPolicy(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS);
 
         //日志区域
-        logArea = new JTextArea(5, 60);
-        logArea.setEditable(false);
+        logConsole = new LogConsole(5, 60);
+        exportLogsButton = new JButton("Export Logs");
+        exportLogsButton.setEnabled(false);
+        exportLogsButton.addActionListener(this::handleExportLogs);
 
 
 
@@ -107,9 +282,46 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         progressBar.setStringPainted(true);
         progressBar.setVisible(false);
 
+        statsLabel = new JLabel(" ");
+        threadStatsLabel = new JLabel(" ");
+        threadStatsLabel.setForeground(Color.GRAY);
+
+        // CPU 预算，攻击过程中修改立即生效，默认给 Burp 的代理线程留出余量
+        cpuBudgetSpinner = new JSpinner(new SpinnerNumberModel(75, 10, 100, 5));
+        cpuBudgetSpinner.setToolTipText("Maximum share of CPU cores used for cracking; can be changed during an attack");
+        cpuBudgetSpinner.addChangeListener(e -> {
+            if (attackEngine != null && !startButton.isEnabled()) {
+                attackEngine.setCpuBudget((Integer) cpuBudgetSpinner.getValue());
+            }
+        });
+
+        tieredCheckbox = new JCheckBox("Tiered (quick → dict → rules/mask)");
+        tieredCheckbox.setToolTipText("Try default secrets and the top dictionary words against every token first, "
+                + "then the full dictionary, then rules or the mask");
+
         // 事件绑定
         loadDictButton.addActionListener(this::handleLoadDict);
         startButton.addActionListener(this::handleStartAttack);
+        resumeButton.addActionListener(e -> startAttack(true));
+        DocumentListener checkpointUpdater = new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                updateResumeButton();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                updateResumeButton();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                updateResumeButton();
+            }
+        };
+        jwtField.getDocument().addDocumentListener(checkpointUpdater);
+        batchTokensArea.getDocument().addDocumentListener(checkpointUpdater);
+        batchModeCheckbox.addActionListener(e -> updateResumeButton());
         stopButton.addActionListener(this::handleStop);
     }
 
@@ -121,6 +333,8 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         // 第一行：JWT输入
         add(new JLabel("JWT Token:"), "gapright 10");
         add(jwtField, "growx, span");
+        add(batchModeCheckbox, "skip 1, span");
+        add(batchTokensScroll, "skip 1, growx, span, h 80::, hidemode 3");
 
         // 第二行：算法选择
         add(new JLabel("Algorithm:"), "gapright 10");
@@ -132,17 +346,57 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         add(loadDictButton, "width 120!");
         add(dictPathLabel, "gapleft 10, wrap");
 
+        // 密钥变换
+        add(new JLabel("Transforms:"), "gapright 10");
+        add(transformsField, "width 300::, wrap");
+
+        // 规则选择
+        add(new JLabel("Rules:"), "gapright 10");
+        add(useRulesCheckbox, "split 3");
+        add(loadRulesButton, "width 120!");
+        add(rulesPathLabel, "gapleft 10, wrap");
+
+        // 掩码选择
+        add(new JLabel("Mask:"), "gapright 10");
+        add(useMaskCheckbox, "split 10");
+        add(maskField, "width 160::");
+        add(new JLabel("?1"), "gapleft 10");
+        add(customCharsetFields[0]);
+        add(new JLabel("?2"));
+        add(customCharsetFields[1]);
+        add(new JLabel("Length"), "gapleft 10");
+        add(minLengthSpinner);
+        add(maxLengthSpinner);
+        add(keyspaceLabel, "gapleft 10, wrap");
+
+        // 算法混淆
+        add(new JLabel("Key Confusion:"), "gapright 10");
+        add(useKeyConfusionCheckbox, "split 3");
+        add(loadKeysButton, "width 120!");
+        add(keysPathLabel, "gapleft 10, wrap");
+
+        // 被动捕获
+        add(new JLabel("Passive:"), "gapright 10");
+        add(harvestCheckbox, "split 3");
+        add(backgroundCrackCheckbox);
+        add(harvestCountLabel, "gapleft 10, wrap");
+
         // 第四行：控制按钮
-        add(startButton, "split 2, gapright 10, width 100!");
-        add(stopButton, "width 100!, wrap");
+        add(startButton, "split 6, gapright 10, width 100!");
+        add(stopButton, "gapright 10, width 100!");
+        add(resumeButton, "width 100!");
+        add(new JLabel("CPU Budget %"), "gapleft 20");
+        add(cpuBudgetSpinner, "width 60!");
+        add(tieredCheckbox, "gapleft 20, wrap");
 
         // 结果区域
         add(new JLabel("Results:"), "newline, gaptop 10");
         add(resultScroll, "grow, span, h 200::");
 
         //日志区域
-        add(new JLabel("AttackLogs:"), "newline, gaptop 10");
-        add(new JScrollPane(logArea), "newline, grow, span, h 80::");
+        add(new JLabel("AttackLogs:"), "newline, gaptop 10, split 2");
+        add(exportLogsButton, "gapleft 10");
+        add(new JScrollPane(logConsole.getComponent()), "newline, grow, span, h 80::");
 
         // 新增密钥展示区
         add(new JLabel("Found Secret:"), "newline, gaptop 10");
@@ -154,13 +408,27 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
 
         // 进度条
         add(progressBar, "newline, growx, gaptop 5, span");
+        add(statsLabel, "newline, growx, span");
+        add(threadStatsLabel, "newline, growx, span");
     }
 
     // 事件处理方法（需补充业务逻辑）
     private void handleLoadDict(ActionEvent e) {
         JFileChooser chooser = new JFileChooser();
+        chooser.setMultiSelectionEnabled(true);
         if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            dictPathLabel.setText(chooser.getSelectedFile().getAbsolutePath());
+            List<Path> paths = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            for (File file : chooser.getSelectedFiles()) {
+                paths.add(file.toPath().toAbsolutePath());
+                names.add(file.getName());
+            }
+            if (paths.isEmpty()) {
+                return;
+            }
+            dictionaryPaths = paths;
+            dictPathLabel.setText(paths.size() == 1 ? paths.get(0).toString()
+                    : paths.size() + " dictionaries, merged: " + String.join(", ", names));
             dictPathLabel.setForeground(Color.BLACK);
             useBuiltinDictionary = false;
             useBuiltinDictCheckbox.setSelected(false);
@@ -168,6 +436,13 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
     }
 
     private void handleStartAttack(ActionEvent e) {
+        startAttack(false);
+    }
+
+    /**
+     * @param resume 是否从匹配的检查点继续
+     */
+    private void startAttack(boolean resume) {
 //        resultArea.setText(""); // 清空结果
 //        secretArea.setText(""); //清空secretKey
 //        progressBar.setValue(0);
@@ -178,48 +453,99 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         }
         try {
             // 添加输入校验
-            if (jwtField.getText().isEmpty()) {
+            List<String> batchTokens = batchModeCheckbox.isSelected() ? readBatchTokens() : List.of();
+            if (batchModeCheckbox.isSelected() ? batchTokens.isEmpty() : jwtField.getText().isEmpty()) {
                 JOptionPane.showMessageDialog(this, "JWT Token 不能为空", "错误", JOptionPane.ERROR_MESSAGE);
                 return;
             }
+            String firstToken = batchModeCheckbox.isSelected() ? batchTokens.get(0) : jwtField.getText();
+            if (useKeyConfusionCheckbox.isSelected() && publicKeysPath == null) {
+                JOptionPane.showMessageDialog(this, "请选择公钥目录或文件", "错误", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            // 算法混淆模式下不同令牌的算法各不相同，算法取自令牌头部
+            String algorithm = useKeyConfusionCheckbox.isSelected()
+                    ? JWTUtils.getAlgorithm(firstToken) : (String) algorithmCombo.getSelectedItem();
 
             AttackConfig config;
-            if (useBuiltinDictionary) {
-                // 使用内置字典
+            if (batchModeCheckbox.isSelected()) {
+                if (!useBuiltinDictionary && dictionaryPaths.isEmpty()) {
+                    JOptionPane.showMessageDialog(this, "请选择字典文件", "错误", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                config = new AttackConfig(batchTokens,
+                        useBuiltinDictionary || dictionaryPaths.size() > 1 ? null : dictionaryPaths.get(0), maxThreads());
+            } else if (useBuiltinDictionary || dictionaryPaths.size() > 1) {
+                // 使用内置字典，多个字典时随后改为合并字典
                 config = new AttackConfig(
                         jwtField.getText(),
-                        (String) algorithmCombo.getSelectedItem(),
-                        10
+                        algorithm,
+                        maxThreads()
                 );
             } else {
                 // 使用用户选择的字典
-                if (dictPathLabel.getText().equals("No dictionary selected") || 
-                    dictPathLabel.getText().equals("Using built-in dictionary")) {
+                if (dictionaryPaths.isEmpty()) {
                     JOptionPane.showMessageDialog(this, "请选择字典文件", "错误", JOptionPane.ERROR_MESSAGE);
                     return;
                 }
                 config = new AttackConfig(
                         jwtField.getText(),
-                        (String) algorithmCombo.getSelectedItem(),
-                        Paths.get(dictPathLabel.getText()),
-                        10
+                        algorithm,
+                        dictionaryPaths.get(0),
+                        maxThreads()
                 );
             }
+            if (!useBuiltinDictionary && dictionaryPaths.size() > 1) {
+                // 界面上按选择的顺序等权交错，需要按权重排序时使用命令行
+                List<DictionarySource> sources = new ArrayList<>();
+                for (Path path : dictionaryPaths) {
+                    sources.add(new DictionarySource(path, 1));
+                }
+                config.setDictionaries(sources);
+            }
+
+            if (useKeyConfusionCheckbox.isSelected()) {
+                config.setPublicKeysPath(publicKeysPath);
+            } else if (tieredCheckbox.isSelected()) {
+                // 分层时密钥变换用于快速层与字典层，规则或掩码留给 deep 层
+                config.setTiers(AttackTier.ALL);
+                config.setKeyTransforms(KeyTransformPipeline.parse(transformsField.getText()));
+                if (useMaskCheckbox.isSelected()) {
+                    config.setMask(parseMask());
+                } else if (useRulesCheckbox.isSelected()) {
+                    config.setRulesPath(rulesPath);
+                    config.setUseBuiltinRules(rulesPath == null);
+                }
+            } else if (useMaskCheckbox.isSelected()) {
+                config.setMask(parseMask());
+            } else if (useRulesCheckbox.isSelected()) {
+                config.setRulesPath(rulesPath);
+                config.setUseBuiltinRules(rulesPath == null);
+            } else {
+                config.setKeyTransforms(KeyTransformPipeline.parse(transformsField.getText()));
+            }
+
+            config.setResume(resume);
+            config.setCpuBudgetPercent((Integer) cpuBudgetSpinner.getValue());
 
             attackEngine = new JWTAttackEngine(config, this);
-            attackEngine.start();
 
-            // 重置UI状态
+            // 重置UI状态，先于攻击线程的回调进入事件队列
             SwingUtilities.invokeLater(() -> {
-                resultArea.setText(JWTUtils.parseAndFormat(jwtField.getText()));
+                resultArea.setText(JWTUtils.parseAndFormat(firstToken));
                 secretArea.setText("");
                 secretArea.setBackground(Color.WHITE);
-                logArea.setText("");
+                logConsole.startRun();
+                exportLogsButton.setEnabled(logConsole.hasRunLog());
                 progressBar.setValue(0);
                 progressBar.setVisible(true);
+                statsLabel.setText(" ");
+                threadStatsLabel.setText(" ");
                 startButton.setEnabled(false);
+                resumeButton.setEnabled(false);
                 stopButton.setEnabled(true); // 启用停止按钮
             });
+            attackEngine.start();
 
         } catch (Exception ex) {
             SwingUtilities.invokeLater(() -> {
@@ -235,6 +561,72 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
 
     }
 
+    private void setMaskControlsEnabled(boolean enabled) {
+        maskField.setEnabled(enabled);
+        for (JTextField field : customCharsetFields) {
+            field.setEnabled(enabled);
+        }
+        minLengthSpinner.setEnabled(enabled);
+        maxLengthSpinner.setEnabled(enabled);
+        keyspaceLabel.setEnabled(enabled);
+    }
+
+    /**
+     * @throws IllegalArgumentException 掩码或字符集无效
+     */
+    private Mask parseMask() {
+        String[] custom = new String[customCharsetFields.length];
+        for (int i = 0; i < custom.length; i++) {
+            custom[i] = customCharsetFields[i].getText();
+        }
+        return Mask.parse(maskField.getText(), custom,
+                (Integer) minLengthSpinner.getValue(), (Integer) maxLengthSpinner.getValue());
+    }
+
+    /**
+     * 输入变化时立即显示精确的密钥空间大小
+     */
+    private void updateKeyspace() {
+        try {
+            Mask mask = parseMask();
+            keyspaceLabel.setText("Keyspace: " + String.format("%,d", mask.keyspace()));
+            keyspaceLabel.setForeground(Color.BLACK);
+        } catch (IllegalArgumentException ex) {
+            keyspaceLabel.setText(ex.getMessage());
+            keyspaceLabel.setForeground(Color.RED);
+        }
+    }
+
+    /**
+     * 当前输入的令牌有检查点时才允许恢复
+     */
+    private void updateResumeButton() {
+        List<String> tokens = batchModeCheckbox.isSelected() ? readBatchTokens()
+                : jwtField.getText().isEmpty() ? List.of() : List.of(jwtField.getText());
+        resumeButton.setEnabled(startButton.isEnabled() && !tokens.isEmpty()
+                && CheckpointStore.shared().hasCheckpoint(JWTAttackEngine.tokenFingerprint(tokens)));
+    }
+
+    /**
+     * @return 线程池大小，实际活动线程数由 CPU 预算与自适应调节决定
+     */
+    private static int maxThreads() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * 读取批量令牌，忽略空行
+     */
+    private List<String> readBatchTokens() {
+        List<String> tokens = new ArrayList<>();
+        for (String line : batchTokensArea.getText().split("\\R")) {
+            if (!line.isBlank()) {
+                tokens.add(line.trim());
+            }
+        }
+        return tokens;
+    }
+
     private void handleStop(ActionEvent e) {
 //        // TODO: 停止爆破逻辑
 //        startButton.setEnabled(true);
@@ -244,19 +636,101 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         }
         startButton.setEnabled(true);
         progressBar.setVisible(false);
+        updateResumeButton();
+    }
+
+    /**
+     * 挂接被动捕获器，界面上的开关随之可用
+     */
+    public void setHarvester(JwtHarvester harvester) {
+        this.harvester = harvester;
+        SwingUtilities.invokeLater(() -> {
+            harvestCheckbox.setEnabled(true);
+            backgroundCrackCheckbox.setEnabled(true);
+            harvester.setEnabled(harvestCheckbox.isSelected());
+            harvester.setCrackEnabled(backgroundCrackCheckbox.isSelected());
+        });
+    }
+
+    /**
+     * 扩展卸载时停止正在进行的攻击
+     */
+    public void shutdown() {
+        if (attackEngine != null) {
+            attackEngine.stop();
+        }
+        SwingUtilities.invokeLater(logConsole::dispose);
     }
 
     // 实现AttackListener接口方法
     @Override
-    public void onSecretFound(String originalKey) {
+    public void onSecretFound(KeyBytes originalKey) {
         SwingUtilities.invokeLater(() -> {
-            secretArea.setText(originalKey); // 显示原始密钥
+            secretArea.setText(originalKey.display()); // 显示原始密钥
             secretArea.setBackground(new Color(220, 255, 220));
+            JOptionPane.showMessageDialog(this, "恭喜！已找到正确的密钥：\n" + originalKey,
+                    "密钥找到", JOptionPane.INFORMATION_MESSAGE);
         });
     }
 
+    @Override
+    public void onSecretNotFound() {
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(this,
+                "很遗憾，未找到正确的密钥。\n请尝试使用其他字典或调整攻击参数。",
+                "密钥未找到", JOptionPane.WARNING_MESSAGE));
+    }
+
 
 
+    @Override
+    public void onTokenSecretFound(int tokenIndex, String token, KeyBytes secret) {
+        SwingUtilities.invokeLater(() -> {
+            secretArea.append("#" + (tokenIndex + 1) + " " + secret + "    " + token + "\n");
+            secretArea.setBackground(new Color(220, 255, 220));
+        });
+    }
+
+    @Override
+    public void onForgedToken(int tokenIndex, String algorithm, String keySource, String encoding, String token) {
+        appendResult("\n[" + algorithm + "] " + keySource + " [" + encoding + "]\n" + token, Color.BLACK);
+    }
+
+    @Override
+    public void onTokenHarvested(String token, String algorithm, String source) {
+        log("捕获令牌 (" + algorithm + "): " + source);
+        SwingUtilities.invokeLater(() -> {
+            updateHarvestCount();
+            // 输入框为空时直接填入，省去手工复制
+            if (jwtField.getText().trim().isEmpty() && !batchModeCheckbox.isSelected()) {
+                jwtField.setText(token);
+            }
+        });
+    }
+
+    @Override
+    public void onHarvestedSecretFound(String token, KeyBytes secret) {
+        api.logging().logToOutput("后台破解成功: " + secret + "    " + token);
+        log("后台破解成功: " + secret);
+        SwingUtilities.invokeLater(() -> {
+            secretArea.append("[harvested] " + secret + "    " + token + "\n");
+            secretArea.setBackground(new Color(220, 255, 220));
+            updateHarvestCount();
+        });
+    }
+
+    private void updateHarvestCount() {
+        TokenInventory inventory = harvester.getInventory();
+        harvestCountLabel.setText("Captured: " + harvester.getSeenCount()
+                + " | Key Groups: " + inventory.getGroupCount()
+                + " | Cracked: " + inventory.getCrackedGroupCount()
+                + " | Skipped: " + inventory.getSkippedCount());
+    }
+
+    @Override
+    public void onHarvestLog(String message) {
+        log(message);
+    }
+
     // 可在结果区域添加带颜色标记的输出
     public void appendResult(String text, Color color) {
         SwingUtilities.invokeLater(() -> {
@@ -278,9 +752,20 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
 
     //记录日志过程
     private void log(String message) {
-        SwingUtilities.invokeLater(() -> {
-            logArea.append("[+] " + new Date() + " " + message + "\n");
-        });
+        logConsole.log(message);
+    }
+
+    private void handleExportLogs(ActionEvent e) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("jwtscaner-attack.log"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            logConsole.export(chooser.getSelectedFile().toPath());
+        } catch (IOException ex) {
+            JOptionPane.showMessageDialog(this, "导出日志失败: " + ex.getMessage(), "错误", JOptionPane.ERROR_MESSAGE);
+        }
     }
 
 
@@ -290,6 +775,49 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         SwingUtilities.invokeLater(() -> progressBar.setValue(progress));
     }
 
+    @Override
+    public void onStatsUpdate(AttackStats stats) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("Speed: ").append(formatCount((long) stats.getKeysPerSecond())).append(" keys/s")
+                .append(" | Tested: ").append(formatCount(stats.getKeysTested()));
+        if (stats.getRemainingKeys() >= 0) {
+            summary.append(" | Remaining: ").append(formatCount(stats.getRemainingKeys()));
+            if (stats.getRemainingPerVariant() >= 0) {
+                summary.append(" (").append(String.join("/", stats.getVariantNames())).append(" ")
+                        .append(formatCount(stats.getRemainingPerVariant())).append(" each)");
+            }
+        }
+        summary.append(" | Elapsed: ").append(formatDuration(stats.getElapsedMillis()))
+                .append(" | ETA: ").append(stats.getEtaMillis() < 0 ? "--" : formatDuration(stats.getEtaMillis()));
+
+        StringBuilder threads = new StringBuilder("Threads (active ")
+                .append(stats.getActiveThreads()).append('/').append(stats.getThreadKeysPerSecond().length).append("):");
+        double[] rates = stats.getThreadKeysPerSecond();
+        for (int i = 0; i < rates.length; i++) {
+            threads.append(" #").append(i).append(' ').append(formatCount((long) rates[i]));
+        }
+        SwingUtilities.invokeLater(() -> {
+            statsLabel.setText(summary.toString());
+            threadStatsLabel.setText(threads.toString());
+        });
+    }
+
+    private static String formatCount(long value) {
+        if (value >= 1_000_000_000L) {
+            return String.format("%.2fG", value / 1e9);
+        } else if (value >= 1_000_000L) {
+            return String.format("%.2fM", value / 1e6);
+        } else if (value >= 1_000L) {
+            return String.format("%.1fK", value / 1e3);
+        }
+        return String.valueOf(value);
+    }
+
+    private static String formatDuration(long millis) {
+        long seconds = millis / 1000;
+        return String.format("%02d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+
     @Override
     public void onLogMessage(String message) {
         log(message);
@@ -301,6 +829,7 @@ public class JWTAuditorTab extends JPanel implements AttackListener {
         SwingUtilities.invokeLater(() -> {
             startButton.setEnabled(true);
             progressBar.setVisible(false);
+            updateResumeButton();
         });
     }
 
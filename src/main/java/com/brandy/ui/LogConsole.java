@@ -0,0 +1,152 @@
+package com.brandy.ui;
+
+import com.brandy.core.utils.LogRingBuffer;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+
+/**
+ * 攻击日志区域
+ * 任意线程只把日志写入无锁环形缓冲区；界面线程按固定帧率一次取出全部新日志，
+ * 用一次文档更新追加并裁剪到最大行数。每次攻击的完整日志同时写入临时文件，结束后可导出。
+ */
+public class LogConsole {
+    // 20 帧/秒足以跟上阅读，又不会占满事件线程
+    private static final int FRAME_MILLIS = 50;
+    private static final int MAX_LINES = 2000;
+    private static final int BUFFER_CAPACITY = 16384;
+
+    private final JTextArea area;
+    private final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+    private final Timer timer;
+    private final StringBuilder batch = new StringBuilder();
+    // 以下字段只在事件线程访问
+    private long reportedDropped;
+    private Path runLog;
+    private BufferedWriter runLogWriter;
+
+    public LogConsole(int rows, int columns) {
+        area = new JTextArea(rows, columns);
+        area.setEditable(false);
+        timer = new Timer(FRAME_MILLIS, e -> flush());
+        timer.start();
+    }
+
+    public JTextArea getComponent() {
+        return area;
+    }
+
+    /**
+     * 写入一条日志，任意线程可调用
+     */
+    public void log(String message) {
+        buffer.push(message);
+    }
+
+    /**
+     * 开始新的一次攻击：清空显示并新建本次的完整日志文件，需在事件线程调用
+     */
+    public void startRun() {
+        buffer.clear();
+        reportedDropped = 0;
+        area.setText("");
+        closeRunLog();
+        try {
+            if (runLog != null) {
+                // 上一次攻击的日志不再可导出
+                Files.deleteIfExists(runLog);
+            }
+            runLog = Files.createTempFile("jwtscaner-run-", ".log");
+            runLog.toFile().deleteOnExit();
+            runLogWriter = Files.newBufferedWriter(runLog, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            runLog = null;
+            area.append("[!] 无法创建日志文件，本次日志不可导出: " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * @return 当前是否有可导出的日志
+     */
+    public boolean hasRunLog() {
+        return runLog != null;
+    }
+
+    /**
+     * 把本次攻击的完整日志复制到目标文件，需在事件线程调用
+     */
+    public void export(Path target) throws IOException {
+        if (runLog == null) {
+            throw new IOException("没有可导出的日志");
+        }
+        flush();
+        if (runLogWriter != null) {
+            runLogWriter.flush();
+        }
+        Files.copy(runLog, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public void dispose() {
+        timer.stop();
+        closeRunLog();
+    }
+
+    /**
+     * 每帧取出缓冲区中的新日志，一次追加到文本区域和日志文件
+     */
+    private void flush() {
+        batch.setLength(0);
+        buffer.drain(entry -> batch.append("[+] ").append(new Date(entry.getTimestamp())).append(' ')
+                .append(entry.getMessage()).append('\n'));
+        if (buffer.getDropped() > reportedDropped) {
+            batch.append("[!] 日志输出过快，已丢弃 ").append(buffer.getDropped() - reportedDropped).append(" 条\n");
+            reportedDropped = buffer.getDropped();
+        }
+        if (batch.length() == 0) {
+            return;
+        }
+        if (runLogWriter != null) {
+            try {
+                runLogWriter.append(batch);
+            } catch (IOException e) {
+                closeRunLog();
+                batch.append("[!] 写入日志文件失败: ").append(e.getMessage()).append('\n');
+            }
+        }
+        area.append(batch.toString());
+        trim();
+    }
+
+    /**
+     * 超出最大行数时从头部删除多余的行
+     */
+    private void trim() {
+        int excess = area.getLineCount() - 1 - MAX_LINES;
+        if (excess <= 0) {
+            return;
+        }
+        try {
+            area.replaceRange(null, 0, area.getLineEndOffset(excess - 1));
+        } catch (BadLocationException e) {
+            area.setText("");
+        }
+    }
+
+    private void closeRunLog() {
+        if (runLogWriter != null) {
+            try {
+                runLogWriter.close();
+            } catch (IOException e) {
+                // 临时文件，忽略关闭失败
+            }
+            runLogWriter = null;
+        }
+    }
+}
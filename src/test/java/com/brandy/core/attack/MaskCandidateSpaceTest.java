@@ -0,0 +1,40 @@
+package com.brandy.core.attack;
+
+import com.brandy.core.mask.Mask;
+import com.brandy.core.model.KeyBytes;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class MaskCandidateSpaceTest {
+
+    @Test
+    void nonUtf8HitKeepsRawBytesForRecheck() throws Exception {
+        byte[] secret = {(byte) 0xff, 0x41};
+        String signingInput = "eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJ4In0";
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+        String signature = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII)));
+        HmacVerifier verifier = new HmacVerifier("HS256", signingInput, signature);
+
+        CandidateSpace space = new MaskCandidateSpace(Mask.parse("?b?b", null, 0, 0));
+        CandidateSpace.Walker walker = space.newWalker(verifier.newWorker());
+        walker.walk(0, space.size(), () -> false);
+
+        KeyBytes hit = walker.hit();
+        assertNotNull(hit);
+        assertArrayEquals(secret, hit.toByteArray());
+        assertEquals("$HEX[ff41]", hit.display());
+        // 经 Base64 上报或持久化后复核的仍是同一组字节
+        KeyBytes reported = KeyBytes.decode(hit.toBase64(), KeyBytes.BASE64);
+        assertArrayEquals(new int[]{0}, HmacVerifier.matchVariants(verifier.newWorker(), reported));
+    }
+}
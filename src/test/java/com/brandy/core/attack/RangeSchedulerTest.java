@@ -0,0 +1,101 @@
+package com.brandy.core.attack;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RangeSchedulerTest {
+
+    @Test
+    void singleWorkerClaimsBlocksInOrder() {
+        RangeScheduler scheduler = new RangeScheduler(25, 1, 10);
+        long[] range = new long[2];
+        List<String> claimed = new ArrayList<>();
+        while (scheduler.claim(0, range)) {
+            claimed.add(range[0] + "-" + range[1]);
+        }
+        assertEquals(List.of("0-10", "10-20", "20-25"), claimed);
+        assertTrue(scheduler.isDrained());
+    }
+
+    @Test
+    void idleWorkerStealsFromBusiestPartition() {
+        RangeScheduler scheduler = new RangeScheduler(1000, 2, 10);
+        long[] range = new long[2];
+        // 线程 1 领完自己的分区
+        while (scheduler.claim(1, range) && range[0] >= 500) {
+            assertTrue(range[1] <= 1000);
+        }
+        // 最后一次 claim 已经从线程 0 的分区窃取
+        assertTrue(range[0] < 500, "stolen range " + range[0]);
+        assertTrue(range[0] >= 250, "steals the tail half: " + range[0]);
+    }
+
+    @Test
+    void concurrentWorkersCoverEveryIndexExactlyOnce() throws InterruptedException {
+        int size = 100_000;
+        int workers = 4;
+        RangeScheduler scheduler = new RangeScheduler(size, workers, 37);
+        AtomicLongArray hits = new AtomicLongArray(size);
+        Thread[] threads = new Thread[workers];
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            threads[w] = new Thread(() -> {
+                long[] range = new long[2];
+                while (scheduler.claim(worker, range)) {
+                    for (long i = range[0]; i < range[1]; i++) {
+                        hits.incrementAndGet((int) i);
+                    }
+                    scheduler.complete(range[0], range[1]);
+                }
+            });
+            threads[w].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        for (int i = 0; i < size; i++) {
+            assertEquals(1, hits.get(i), "index " + i);
+        }
+        assertEquals(size, scheduler.completed());
+        assertArrayEquals(new long[]{0, size}, scheduler.completedRanges());
+    }
+
+    @Test
+    void completedRangesAreMerged() {
+        RangeScheduler scheduler = new RangeScheduler(100, 1, 10);
+        scheduler.complete(20, 30);
+        scheduler.complete(0, 10);
+        scheduler.complete(10, 20);
+        scheduler.complete(50, 60);
+        assertArrayEquals(new long[]{0, 30, 50, 60}, scheduler.completedRanges());
+        assertEquals(40, scheduler.completed());
+    }
+
+    @Test
+    void resumeSchedulesOnlyTheGaps() {
+        // 检查点中的区间可能重叠或越界
+        RangeScheduler scheduler = new RangeScheduler(100, 2, 1000, new long[]{0, 30, 20, 40, 90, 150});
+        assertEquals(50, scheduler.completed());
+        boolean[] claimed = new boolean[100];
+        long[] range = new long[2];
+        for (int w = 0; w < 2; w++) {
+            while (scheduler.claim(w, range)) {
+                for (long i = range[0]; i < range[1]; i++) {
+                    assertFalse(claimed[(int) i], "claimed twice: " + i);
+                    claimed[(int) i] = true;
+                }
+            }
+        }
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i >= 40 && i < 90, claimed[i], "index " + i);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.brandy.core.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaseTableTest {
+    private static final long TTL = 1000;
+
+    @Test
+    void leasesCoverTheSpaceInOrder() {
+        LeaseTable table = new LeaseTable(25, 10, TTL);
+        long[] a = table.acquire("w1", 0);
+        long[] b = table.acquire("w2", 0);
+        long[] c = table.acquire("w1", 0);
+        assertArrayEquals(new long[]{1, 0, 10}, a);
+        assertArrayEquals(new long[]{2, 10, 20}, b);
+        assertArrayEquals(new long[]{3, 20, 25}, c);
+        assertNull(table.acquire("w3", 0));
+
+        assertTrue(table.complete(a[0]));
+        assertTrue(table.complete(b[0]));
+        assertFalse(table.isFinished());
+        assertTrue(table.complete(c[0]));
+        assertEquals(25, table.completed());
+        assertTrue(table.isFinished());
+    }
+
+    @Test
+    void expiredLeaseIsReissuedFirstAndLateCompletionIgnored() {
+        LeaseTable table = new LeaseTable(100, 10, TTL);
+        long[] stale = table.acquire("slow", 0);
+        long[] fresh = table.acquire("fast", 500);
+
+        assertTrue(table.expire(TTL - 1).isEmpty());
+        Map<Long, String> expired = table.expire(TTL);
+        assertEquals(Map.of(stale[0], "slow"), expired);
+
+        // 收回的区间先于游标后面的新区间发放，租约号是新的
+        long[] reissued = table.acquire("fast", TTL);
+        assertEquals(stale[1], reissued[1]);
+        assertEquals(stale[2], reissued[2]);
+        assertTrue(reissued[0] != stale[0]);
+        assertArrayEquals(new long[]{4, 20, 30}, table.acquire("fast", TTL));
+
+        // 迟到的提交与续期都不再有效，区间不会重复计数
+        assertFalse(table.renew(stale[0], TTL));
+        assertFalse(table.complete(stale[0]));
+        assertTrue(table.complete(reissued[0]));
+        assertTrue(table.complete(fresh[0]));
+        assertEquals(20, table.completed());
+    }
+
+    @Test
+    void renewalPostponesExpiry() {
+        LeaseTable table = new LeaseTable(10, 10, TTL);
+        long[] lease = table.acquire("w", 0);
+        assertTrue(table.renew(lease[0], 900));
+        assertTrue(table.expire(1500).isEmpty());
+        assertEquals(1, table.expire(1900).size());
+    }
+
+    @Test
+    void releaseReclaimsOnlyThatOwnersLeases() {
+        LeaseTable table = new LeaseTable(40, 10, TTL);
+        long[] a = table.acquire("gone", 0);
+        long[] b = table.acquire("alive", 0);
+        long[] c = table.acquire("gone", 0);
+
+        assertEquals(2, table.release("gone"));
+        assertEquals(0, table.release("gone"));
+        assertFalse(table.complete(a[0]));
+        assertTrue(table.complete(b[0]));
+
+        long[] first = table.acquire("alive", 0);
+        long[] second = table.acquire("alive", 0);
+        assertEquals(a[1], first[1]);
+        assertEquals(c[1], second[1]);
+    }
+}
@@ -0,0 +1,130 @@
+package com.brandy.core.crypto;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 手写的 SHA-2 HMAC 核心与 javax.crypto.Mac 的差分测试
+ * 密钥长度覆盖块长 (SHA-256 为 64 字节，SHA-384/512 为 128 字节) 前后与需要预先哈希的长密钥，
+ * 消息长度覆盖填充边界与多块消息。
+ */
+class HmacKernelsTest {
+    private static final int[] KEY_LENGTHS = {1, 19, 32, 48, 55, 56, 63, 64, 65, 111, 112, 127, 128, 129, 200, 1000};
+    private static final int[] MESSAGE_LENGTHS = {0, 1, 55, 56, 63, 64, 65, 111, 112, 119, 120, 127, 128, 129, 255, 256, 1000};
+
+    @Test
+    void hs256MatchesJca() throws GeneralSecurityException {
+        assertMatchesJca("HS256", "HmacSHA256");
+    }
+
+    @Test
+    void hs384MatchesJca() throws GeneralSecurityException {
+        assertMatchesJca("HS384", "HmacSHA384");
+    }
+
+    @Test
+    void hs512MatchesJca() throws GeneralSecurityException {
+        assertMatchesJca("HS512", "HmacSHA512");
+    }
+
+    @Test
+    void keyCanBeReplacedWithoutNewKernel() throws GeneralSecurityException {
+        byte[] message = bytes(300, 7);
+        byte[] first = bytes(70, 1);
+        byte[] second = bytes(20, 2);
+        HmacKernel kernel = HmacKernels.forAlgorithm("HS256",
+                new byte[][]{message, message}, new byte[][]{mac("HmacSHA256", first, message), mac("HmacSHA256", second, message)}).get();
+
+        kernel.setKey(first, 0, first.length);
+        assertTrue(kernel.matches(0));
+        assertFalse(kernel.matches(1));
+        kernel.setKey(second, 0, second.length);
+        assertFalse(kernel.matches(0));
+        assertTrue(kernel.matches(1));
+    }
+
+    @Test
+    void keyIsReadFromOffset() throws GeneralSecurityException {
+        byte[] message = bytes(100, 3);
+        byte[] key = bytes(40, 5);
+        byte[] padded = new byte[key.length + 10];
+        System.arraycopy(key, 0, padded, 7, key.length);
+        HmacKernel kernel = HmacKernels.forAlgorithm("HS512",
+                new byte[][]{message}, new byte[][]{mac("HmacSHA512", key, message)}).get();
+
+        kernel.setKey(padded, 7, key.length);
+        assertTrue(kernel.matches(0));
+    }
+
+    @Test
+    void unsupportedAlgorithmHasNoKernel() {
+        assertNull(HmacKernels.forAlgorithm("RS256", new byte[][]{new byte[1]}, new byte[][]{new byte[1]}));
+    }
+
+    @Test
+    void selfTestPasses() {
+        byte[] message = bytes(150, 9);
+        assertTrue(HmacKernels.selfTest("HS256", "HmacSHA256", message));
+        assertTrue(HmacKernels.selfTest("HS384", "HmacSHA384", message));
+        assertTrue(HmacKernels.selfTest("HS512", "HmacSHA512", message));
+    }
+
+    /**
+     * 每种消息长度一个目标，另加一个签名被篡改的目标，逐个密钥长度对比
+     */
+    private static void assertMatchesJca(String jwtAlgorithm, String javaAlgorithm) throws GeneralSecurityException {
+        for (int keyLength : KEY_LENGTHS) {
+            byte[] key = bytes(keyLength, keyLength);
+            byte[][] messages = new byte[MESSAGE_LENGTHS.length + 1][];
+            byte[][] signatures = new byte[messages.length][];
+            for (int i = 0; i < MESSAGE_LENGTHS.length; i++) {
+                messages[i] = bytes(MESSAGE_LENGTHS[i], i);
+                signatures[i] = mac(javaAlgorithm, key, messages[i]);
+            }
+            int tampered = MESSAGE_LENGTHS.length;
+            messages[tampered] = messages[0];
+            signatures[tampered] = signatures[0].clone();
+            signatures[tampered][0] ^= 1;
+
+            Supplier<HmacKernel> factory = HmacKernels.forAlgorithm(jwtAlgorithm, messages, signatures);
+            assertNotNull(factory, jwtAlgorithm);
+            HmacKernel kernel = factory.get();
+            assertEquals(messages.length, kernel.targetCount());
+            kernel.setKey(key, 0, key.length);
+            for (int i = 0; i < MESSAGE_LENGTHS.length; i++) {
+                assertTrue(kernel.matches(i), jwtAlgorithm + " key " + keyLength + " message " + MESSAGE_LENGTHS[i]);
+            }
+            assertFalse(kernel.matches(tampered), jwtAlgorithm + " key " + keyLength + " tampered signature");
+
+            // 相差一个字节的密钥不应命中
+            byte[] other = key.clone();
+            other[other.length - 1] ^= 0x40;
+            kernel.setKey(other, 0, other.length);
+            assertFalse(kernel.matches(0), jwtAlgorithm + " key " + keyLength + " wrong key");
+        }
+    }
+
+    private static byte[] mac(String javaAlgorithm, byte[] key, byte[] message) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(javaAlgorithm);
+        mac.init(new SecretKeySpec(key, javaAlgorithm));
+        return mac.doFinal(message);
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] out = new byte[length];
+        for (int i = 0; i < length; i++) {
+            out[i] = (byte) (i * 131 + seed * 17 + 1);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,100 @@
+package com.brandy.core.mask;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaskTest {
+
+    @Test
+    void firstPositionVariesFastest() {
+        Mask mask = Mask.parse("?d?l", null, 0, 0);
+        assertEquals(260, mask.keyspace());
+        assertEquals("0a", keyAt(mask, 0));
+        assertEquals("1a", keyAt(mask, 1));
+        assertEquals("9a", keyAt(mask, 9));
+        assertEquals("0b", keyAt(mask, 10));
+        assertEquals("9z", keyAt(mask, 259));
+    }
+
+    @Test
+    void literalsAndEscapedQuestionMark() {
+        Mask mask = Mask.parse("key-?d??", null, 0, 0);
+        assertEquals(10, mask.keyspace());
+        assertEquals("key-7?", keyAt(mask, 7));
+    }
+
+    @Test
+    void shorterLengthsComeFirst() {
+        Mask mask = Mask.parse("?d?d?d", null, 1, 3);
+        assertEquals(10 + 100 + 1000, mask.keyspace());
+        assertEquals(1, mask.minLength());
+        assertEquals(3, mask.maxLength());
+        assertEquals("0", keyAt(mask, 0));
+        assertEquals("9", keyAt(mask, 9));
+        assertEquals("00", keyAt(mask, 10));
+        assertEquals("99", keyAt(mask, 109));
+        assertEquals("000", keyAt(mask, 110));
+        assertEquals("999", keyAt(mask, 1109));
+        assertEquals(1, mask.lengthIndexOf(10));
+        assertEquals(110, mask.lengthStart(2));
+        assertEquals(1000, mask.lengthSize(2));
+    }
+
+    @Test
+    void customCharsetsAreDeduplicatedInOrder() {
+        Mask mask = Mask.parse("?1?2", new String[]{"cabca", "?h?d"}, 0, 0);
+        assertEquals("cab", new String(mask.positionCharset(0), StandardCharsets.ISO_8859_1));
+        assertEquals("0123456789abcdef", new String(mask.positionCharset(1), StandardCharsets.ISO_8859_1));
+        // 自定义字符集只能引用内置字符集
+        assertThrows(IllegalArgumentException.class, () -> Mask.parse("?2", new String[]{"ab", "?1"}, 0, 0));
+        assertEquals(3 * 10, Mask.parse("?1?d", new String[]{"cab"}, 0, 0).keyspace());
+    }
+
+    @Test
+    void everyIndexMapsToADistinctKey() {
+        Mask mask = Mask.parse("?1?h?1", new String[]{"xyz"}, 1, 3);
+        Set<String> keys = new HashSet<>();
+        int[] digits = new int[mask.maxLength()];
+        byte[] key = new byte[mask.maxLength()];
+        for (long i = 0; i < mask.keyspace(); i++) {
+            int length = mask.keyAt(i, key, digits);
+            // digits 与输出字符一致
+            for (int p = 0; p < length; p++) {
+                assertEquals(mask.positionCharset(p)[digits[p]], key[p]);
+            }
+            keys.add(new String(key, 0, length, StandardCharsets.ISO_8859_1));
+        }
+        assertEquals(3 + 3 * 16 + 3 * 16 * 3, mask.keyspace());
+        assertEquals(mask.keyspace(), keys.size());
+        assertTrue(keys.contains("zfx"));
+    }
+
+    @Test
+    void invalidMasksAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Mask.parse("", null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Mask.parse("abc?", null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Mask.parse("?x", null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Mask.parse("?1", null, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> Mask.parse("?b?b?b?b?b?b?b?b", null, 0, 0));
+    }
+
+    @Test
+    void identityIncludesExpandedCharsets() {
+        String a = Mask.parse("?1", new String[]{"ab"}, 0, 0).identity();
+        String b = Mask.parse("?1", new String[]{"ac"}, 0, 0).identity();
+        assertTrue(!a.equals(b));
+    }
+
+    private static String keyAt(Mask mask, long index) {
+        byte[] key = new byte[mask.maxLength()];
+        int length = mask.keyAt(index, key, null);
+        return new String(key, 0, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.brandy.core.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class KeyBytesTest {
+
+    @Test
+    void nonUtf8BytesSurviveBase64RoundTrip() {
+        byte[] raw = {(byte) 0xff, 0x41};
+        KeyBytes key = KeyBytes.copyOf(new byte[]{1, (byte) 0xff, 0x41, 2}, 1, 2);
+        assertArrayEquals(raw, key.toByteArray());
+        assertEquals("$HEX[ff41]", key.display());
+
+        KeyBytes decoded = KeyBytes.decode(key.toBase64(), KeyBytes.BASE64);
+        assertArrayEquals(raw, decoded.toByteArray());
+        assertEquals(key, decoded);
+        assertEquals(key.hashCode(), decoded.hashCode());
+    }
+
+    @Test
+    void utf8TextIsDisplayedAsIs() {
+        KeyBytes key = KeyBytes.ofText("密钥-secret");
+        assertEquals("密钥-secret", key.display());
+        assertEquals(key, KeyBytes.decode(key.toBase64(), KeyBytes.BASE64));
+    }
+
+    @Test
+    void ambiguousTextIsDisplayedAsHex() {
+        assertEquals("$HEX[610a]", KeyBytes.ofText("a\n").display());
+        assertEquals("$HEX[244845585b5d]", KeyBytes.ofText("$HEX[]").display());
+        assertEquals("", KeyBytes.copyOf(new byte[0], 0, 0).display());
+    }
+
+    @Test
+    void legacyRecordsAreReadAsUtf8Text() {
+        KeyBytes legacy = KeyBytes.decode("päss", null);
+        assertEquals(KeyBytes.ofText("päss"), legacy);
+        assertEquals(5, legacy.length());
+        assertThrows(IllegalArgumentException.class, () -> KeyBytes.decode("not base64!", KeyBytes.BASE64));
+    }
+
+    @Test
+    void labelOnlyChangesDisplay() {
+        byte[] der = {0x30, (byte) 0x82, 0x01};
+        KeyBytes labeled = KeyBytes.labeled(der, 0, der.length, "pub.pem [der]");
+        assertEquals("pub.pem [der]", labeled.display());
+        assertEquals(KeyBytes.copyOf(der, 0, der.length), labeled);
+    }
+}
@@ -0,0 +1,118 @@
+package com.brandy.core.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 规则操作与 Hashcat 文档中的示例输出对照 (示例词 p@ssW0rd)
+ */
+class RuleTest {
+    private static final String WORD = "p@ssW0rd";
+
+    @Test
+    void caseFunctions() {
+        assertApplies(":", "p@ssW0rd");
+        assertApplies("l", "p@ssw0rd");
+        assertApplies("u", "P@SSW0RD");
+        assertApplies("c", "P@ssw0rd");
+        assertApplies("C", "p@SSW0RD");
+        assertApplies("t", "P@SSw0RD");
+        assertApplies("T3", "p@sSW0rd");
+    }
+
+    @Test
+    void duplicationFunctions() {
+        assertApplies("r", "dr0Wss@p");
+        assertApplies("d", "p@ssW0rdp@ssW0rd");
+        assertApplies("p2", "p@ssW0rdp@ssW0rdp@ssW0rd");
+        assertApplies("f", "p@ssW0rddr0Wss@p");
+        assertApplies("q", "pp@@ssssWW00rrdd");
+        assertApplies("z2", "ppp@ssW0rd");
+        assertApplies("Z2", "p@ssW0rddd");
+    }
+
+    @Test
+    void rotationAndSwapFunctions() {
+        assertApplies("{", "@ssW0rdp");
+        assertApplies("}", "dp@ssW0r");
+        assertApplies("k", "@pssW0rd");
+        assertApplies("K", "p@ssW0dr");
+    }
+
+    @Test
+    void insertAndDeleteFunctions() {
+        assertApplies("$1", "p@ssW0rd1");
+        assertApplies("^1", "1p@ssW0rd");
+        assertApplies("[", "@ssW0rd");
+        assertApplies("]", "p@ssW0r");
+        assertApplies("D3", "p@sW0rd");
+        assertApplies("x04", "p@ss");
+        assertApplies("'6", "p@ssW0");
+        assertApplies("i4!", "p@ss!W0rd");
+        assertApplies("o3$", "p@s$W0rd");
+        assertApplies("ss$", "p@$$W0rd");
+        assertApplies("@s", "p@W0rd");
+    }
+
+    @Test
+    void functionsAreAppliedInOrderAndSpacesIgnored() {
+        assertApplies("c $2 $0 $2 $4", "P@ssw0rd2024");
+        assertApplies("sa@ so0 c", "P@ssw0rd");
+    }
+
+    @Test
+    void positionsBeyondWordAreIgnored() {
+        assertApplies("T9", WORD);
+        assertApplies("DZ", WORD);
+        assertApplies("o9x", WORD);
+        assertApplies("x9Z", WORD);
+    }
+
+    @Test
+    void resultLongerThanLimitIsRejected() {
+        Rule.Workspace work = new Rule.Workspace();
+        byte[] word = new byte[200];
+        assertEquals(-1, Rule.parse("d").apply(word, 0, word.length, work));
+        assertEquals(-1, Rule.parse("pZ").apply(WORD.getBytes(StandardCharsets.ISO_8859_1), 0, WORD.length(), work));
+        assertEquals(Rule.MAX_LENGTH, Rule.parse("d").apply(new byte[128], 0, 128, work));
+    }
+
+    @Test
+    void invalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse("X"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse("$"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse("T!"));
+        assertThrows(IllegalArgumentException.class, () -> Rule.parse("s1"));
+    }
+
+    @Test
+    void ruleSetSkipsCommentsAndRecordsErrors() throws IOException {
+        String text = "# comment\n:\n\nc\nX\n$1 $2\n";
+        RuleSet rules = RuleSet.parse("test", new ByteArrayInputStream(text.getBytes(StandardCharsets.ISO_8859_1)));
+        assertEquals(3, rules.size());
+        assertEquals("$1 $2", rules.get(2).getText());
+        assertEquals(1, rules.getErrors().size());
+        assertTrue(rules.getErrors().get(0).startsWith("5: "), rules.getErrors().get(0));
+    }
+
+    @Test
+    void builtinRulesParseWithoutErrors() throws IOException {
+        RuleSet rules = RuleSet.loadBuiltin();
+        assertTrue(rules.size() > 0);
+        assertEquals(0, rules.getErrors().size(), String.valueOf(rules.getErrors()));
+    }
+
+    private static void assertApplies(String rule, String expected) {
+        Rule.Workspace work = new Rule.Workspace();
+        byte[] word = WORD.getBytes(StandardCharsets.ISO_8859_1);
+        int length = Rule.parse(rule).apply(word, 0, word.length, work);
+        assertEquals(expected, new String(work.output(), 0, length, StandardCharsets.ISO_8859_1), "rule " + rule);
+    }
+}
@@ -0,0 +1,69 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.WordArena;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class DictLoaderTest {
+
+    @Test
+    void loadArenaTrimsAndKeepsDuplicates() throws IOException {
+        WordArena words = DictLoader.loadArena(text(" a \r\nb\n\n\ta\nc"));
+        assertEquals(4, words.size());
+        assertEquals("a", words.word(0));
+        assertEquals("a", words.word(2));
+        assertEquals("c", words.word(3));
+    }
+
+    @Test
+    void loadDistinctArenaKeepsFirstOccurrence() throws IOException {
+        WordArena words = DictLoader.loadDistinctArena(text("b\na\nb\nab\na\nba\n"));
+        assertEquals(4, words.size());
+        assertEquals("b", words.word(0));
+        assertEquals("a", words.word(1));
+        assertEquals("ab", words.word(2));
+        assertEquals("ba", words.word(3));
+    }
+
+    @Test
+    void compiledDictionaryMatchesTextFallback() throws IOException {
+        String text = "x\ny\nx\n  z  \ny\nlonger word\n";
+        ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+        int count = DictionaryCompiler.compile(text(text), compiled);
+        WordArena binary = DictionaryCompiler.load(new ByteArrayInputStream(compiled.toByteArray()));
+        WordArena fallback = DictLoader.loadDistinctArena(text(text));
+
+        assertEquals(4, count);
+        assertEquals(fallback.size(), binary.size());
+        for (int i = 0; i < binary.size(); i++) {
+            assertEquals(fallback.word(i), binary.word(i));
+        }
+    }
+
+    @Test
+    void builtinTextFallbackMatchesCompiledCount() throws IOException {
+        WordArena fallback;
+        try (InputStream in = DictLoader.openBuiltinDictionary()) {
+            fallback = DictLoader.loadDistinctArena(in);
+        }
+        ByteArrayOutputStream compiled = new ByteArrayOutputStream();
+        int count;
+        try (InputStream in = DictLoader.openBuiltinDictionary()) {
+            count = DictionaryCompiler.compile(in, compiled);
+        }
+        assertNotNull(fallback);
+        assertEquals(count, fallback.size());
+    }
+
+    private static InputStream text(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,67 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.WordArena;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DictionaryCompilerTest {
+
+    @Test
+    void compileTrimsAndDropsDuplicatesInOrder() throws IOException {
+        byte[] compiled = compile("x\r\ny\nx\n\n  z  \ny\nlonger word\n");
+        WordArena words = DictionaryCompiler.load(new ByteArrayInputStream(compiled));
+        assertEquals(4, words.size());
+        assertEquals("x", words.word(0));
+        assertEquals("y", words.word(1));
+        assertEquals("z", words.word(2));
+        assertEquals("longer word", words.word(3));
+    }
+
+    @Test
+    void nonAsciiBytesSurviveRoundTrip() throws IOException {
+        byte[] text = {'a', '\n', (byte) 0xff, 'A', '\n', (byte) 0xe4, (byte) 0xbd, (byte) 0xa0, '\n'};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, DictionaryCompiler.compile(new ByteArrayInputStream(text), out));
+        WordArena words = DictionaryCompiler.load(new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(2, words.length(1));
+        assertEquals((byte) 0xff, words.data()[words.offset(1)]);
+        assertEquals("你", words.word(2));
+    }
+
+    @Test
+    void corruptInputIsRejected() throws IOException {
+        byte[] compiled = compile("alpha\nbeta\ngamma\n");
+        byte[] badMagic = compiled.clone();
+        badMagic[0] ^= 1;
+        assertThrows(IOException.class, () -> DictionaryCompiler.load(new ByteArrayInputStream(badMagic)));
+        byte[] truncated = Arrays.copyOf(compiled, 14);
+        assertThrows(IOException.class, () -> DictionaryCompiler.load(new ByteArrayInputStream(truncated)));
+    }
+
+    @Test
+    void builtinBinaryMatchesTextDictionary() throws IOException {
+        WordArena binary = DictLoader.loadBuiltinArena();
+        assertNotNull(binary);
+        int count;
+        try (InputStream in = DictLoader.openBuiltinDictionary()) {
+            count = DictionaryCompiler.compile(in, new ByteArrayOutputStream());
+        }
+        assertEquals(count, binary.size());
+    }
+
+    private static byte[] compile(String text) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DictionaryCompiler.compile(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,136 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.DictionarySource;
+import com.brandy.core.model.WordArena;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DictionaryMergerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void sourcesAreInterleavedByWeight() throws IOException {
+        Path heavy = write("heavy.txt", "a1", "a2", "a3", "a4", "a5", "a6");
+        Path light = write("light.txt", "b1", "b2", "b3");
+
+        WordArena merged = DictionaryMerger.merge(List.of(
+                new DictionarySource(heavy, 3), new DictionarySource(light, 1)));
+
+        // 权重 3:1，每 4 个词中 3 个来自 heavy；heavy 用完后只剩 light
+        assertEquals(List.of("a1", "a2", "b1", "a3", "a4", "a5", "b2", "a6", "b3"), words(merged));
+    }
+
+    @Test
+    void equalWeightsAlternate() throws IOException {
+        Path first = write("first.txt", "a1", "a2", "a3");
+        Path second = write("second.txt", "b1", "b2", "b3", "b4", "b5");
+
+        WordArena merged = DictionaryMerger.merge(List.of(
+                new DictionarySource(first, 1), new DictionarySource(second, 1)));
+
+        assertEquals(List.of("a1", "b1", "a2", "b2", "a3", "b3", "b4", "b5"), words(merged));
+    }
+
+    @Test
+    void duplicatesKeepFirstOccurrence() throws IOException {
+        Path first = write("first.txt", "secret", "admin", "secret", "  padded  ", "", "shared");
+        Path second = write("second.txt", "shared", "padded", "Secret", "admin", "unique");
+
+        WordArena merged = DictionaryMerger.merge(List.of(
+                new DictionarySource(first, 1), new DictionarySource(second, 1)));
+
+        // 去除首尾空白、跳过空行；大小写不同的词不算重复，重复的词仍占用所在来源的一次输出机会
+        assertEquals(List.of("secret", "shared", "admin", "padded", "Secret", "unique"), words(merged));
+    }
+
+    @Test
+    void manyWordsSurviveRehashing() throws IOException {
+        String[] a = new String[5000];
+        String[] b = new String[5000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = "w" + i;
+            b[i] = "w" + (i + 2500);
+        }
+        WordArena merged = DictionaryMerger.merge(List.of(
+                new DictionarySource(write("a.txt", a), 1), new DictionarySource(write("b.txt", b), 1)));
+        assertEquals(7500, merged.size());
+    }
+
+    @Test
+    void mergeTopKeepsFirstAndAddsLimitedNewWords() throws IOException {
+        WordArena first = arena("changeme", "secret");
+        Path heavy = write("heavy.txt", "secret", "a1", "a2", "a3", "a4");
+        Path light = write("light.txt", "b1", "b2");
+
+        WordArena top = DictionaryMerger.mergeTop(first, List.of(
+                new DictionarySource(heavy, 2), new DictionarySource(light, 1)), 3);
+
+        // first 中的词全部保留且不计入上限；重复的 secret 被跳过
+        assertEquals(List.of("changeme", "secret", "b1", "a1", "a2"), words(top));
+        assertEquals(2, DictionaryMerger.mergeTop(first, List.of(new DictionarySource(heavy, 1)), 0).size());
+    }
+
+    @Test
+    void mergeToFileWritesSameWordsAsMerge() throws IOException {
+        List<DictionarySource> sources = List.of(
+                new DictionarySource(write("first.txt", "secret", "admin", "secret", "  padded  ", "", "shared"), 2),
+                new DictionarySource(write("second.txt", "shared", "padded", "Secret", "admin", "unique"), 1));
+        Path out = dir.resolve("merged.txt");
+
+        long count = DictionaryMerger.mergeToFile(sources, out);
+
+        List<String> lines = Files.readAllLines(out, StandardCharsets.UTF_8);
+        assertEquals(words(DictionaryMerger.merge(sources)), lines);
+        assertEquals(lines.size(), count);
+    }
+
+    @Test
+    void mergeToFileSpillsBeyondExactTableWithoutChangingResult() throws IOException {
+        String[] a = new String[3000];
+        String[] b = new String[3000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = "w" + i;
+            b[i] = "w" + (i + 1500);
+        }
+        List<DictionarySource> sources = List.of(
+                new DictionarySource(write("a.txt", a), 2), new DictionarySource(write("b.txt", b), 1));
+        Path out = dir.resolve("merged.txt");
+
+        // 内存中只精确去重前 100 个词，其余溢出到按 1KB 估算的分区
+        long count = DictionaryMerger.mergeToFile(sources, out, 100, 1024);
+
+        List<String> lines = Files.readAllLines(out, StandardCharsets.UTF_8);
+        assertEquals(words(DictionaryMerger.merge(sources)), lines);
+        assertEquals(4500, count);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        Path file = dir.resolve(name);
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static WordArena arena(String... words) throws IOException {
+        return DictLoader.loadArena(new ByteArrayInputStream(
+                String.join("\n", words).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static List<String> words(WordArena arena) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < arena.size(); i++) {
+            words.add(arena.word(i));
+        }
+        return words;
+    }
+}
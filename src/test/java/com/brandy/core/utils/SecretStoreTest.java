@@ -0,0 +1,43 @@
+package com.brandy.core.utils;
+
+import com.brandy.core.model.KeyBytes;
+import com.brandy.core.model.KnownSecret;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SecretStoreTest {
+
+    @Test
+    void nonUtf8SecretSurvivesReload() throws IOException {
+        Path dir = Files.createTempDirectory("secret-store");
+        byte[] raw = {(byte) 0xff, 0x41};
+        new SecretStore(dir).remember(new KnownSecret("HS256", "iss", "", "", KeyBytes.copyOf(raw, 0, raw.length)));
+        CheckpointStore.shared().flush();
+
+        List<KeyBytes> candidates = new SecretStore(dir).candidates("HS256", "iss", "", "");
+        assertEquals(1, candidates.size());
+        assertArrayEquals(raw, candidates.get(0).toByteArray());
+    }
+
+    @Test
+    void legacyTextRecordsAreReadAsUtf8AndDeduplicated() throws IOException {
+        Path dir = Files.createTempDirectory("secret-store");
+        Files.write(dir.resolve("known_secrets.json"), ("[{\"algorithm\":\"HS256\",\"issuer\":\"a\",\"secret\":\"päss\"},"
+                + "{\"algorithm\":\"HS256\",\"issuer\":\"b\",\"secret\":\"broken!\",\"secretEncoding\":\"base64\"}]")
+                .getBytes(StandardCharsets.UTF_8));
+        SecretStore store = new SecretStore(dir);
+        store.remember(new KnownSecret("HS256", "a", "", "", KeyBytes.ofText("päss")));
+        CheckpointStore.shared().flush();
+
+        List<KeyBytes> candidates = new SecretStore(dir).candidates("HS256", "a", "", "");
+        assertEquals(List.of(KeyBytes.ofText("päss")), candidates);
+    }
+}
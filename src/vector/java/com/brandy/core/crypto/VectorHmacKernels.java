@@ -0,0 +1,38 @@
+package com.brandy.core.crypto;
+
+import java.util.function.Supplier;
+
+/**
+ * 多缓冲核心的入口，只由 {@link HmacKernels#forBatch} 通过反射调用
+ */
+public final class VectorHmacKernels {
+
+    private VectorHmacKernels() {
+    }
+
+    /**
+     * @return 工作线程私有核心的工厂；算法不受支持或首选向量宽度放不下两个通道时返回 null
+     */
+    public static Supplier<HmacBatchKernel> forAlgorithm(String jwtAlgorithm, byte[][] messages, byte[][] signatures) {
+        switch (jwtAlgorithm) {
+            case "HS256": {
+                if (VectorHmacSha256Kernel.SPECIES.length() < 2) {
+                    return null;
+                }
+                HmacSha256Kernel.Plan plan = new HmacSha256Kernel.Plan(messages, signatures);
+                return () -> new VectorHmacSha256Kernel(plan);
+            }
+            case "HS384":
+            case "HS512": {
+                if (VectorHmacSha512Kernel.SPECIES.length() < 2) {
+                    return null;
+                }
+                HmacSha512Kernel.Plan plan = new HmacSha512Kernel.Plan(
+                        jwtAlgorithm.equals("HS384") ? 384 : 512, messages, signatures);
+                return () -> new VectorHmacSha512Kernel(plan);
+            }
+            default:
+                return null;
+        }
+    }
+}
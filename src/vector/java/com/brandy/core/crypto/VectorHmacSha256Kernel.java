@@ -0,0 +1,259 @@
+package com.brandy.core.crypto;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 多缓冲 HMAC-SHA256 核心 (HS256)，每个 int 通道一个候选密钥，AVX2 上一批 8 个，AVX-512 上 16 个
+ * 数组按 [字序号 * 通道数 + 通道] 交错存放，一个字的全部通道一次载入。
+ * 签名输入对所有通道相同，消息块的 K[t] + W[t] 预先相加后以标量广播；只有 ipad/opad 块与外层块需要逐通道展开调度表。
+ * 轮函数直接写在压缩循环中而不拆成小方法：C2 未内联这类方法时向量会被装箱，吞吐会下降一个数量级。
+ */
+final class VectorHmacSha256Kernel implements HmacBatchKernel {
+    static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+    private static final int BLOCK_BYTES = 64;
+    private static final int DIGEST_WORDS = 8;
+
+    private final HmacSha256Kernel.Plan plan;
+    private final int lanes = SPECIES.length();
+    // 各目标消息块的 K[t] + W[t]，与密钥无关
+    private final int[][] roundInputs;
+    private final int[] keyWords = new int[16 * lanes];
+    private final int[] w = new int[64 * lanes];
+    private final int[] innerState = new int[DIGEST_WORDS * lanes];
+    private final int[] outerState = new int[DIGEST_WORDS * lanes];
+    private final int[] state = new int[DIGEST_WORDS * lanes];
+    // 载入新密钥后，ipad/opad 状态在下一次 matches 时重新计算
+    private boolean keysChanged;
+    private MessageDigest longKeyDigest;
+
+    VectorHmacSha256Kernel(HmacSha256Kernel.Plan plan) {
+        this.plan = plan;
+        this.roundInputs = new int[plan.size()][];
+        for (int t = 0; t < plan.size(); t++) {
+            int[] schedule = plan.schedule(t);
+            int[] inputs = new int[schedule.length];
+            for (int i = 0; i < schedule.length; i++) {
+                inputs[i] = HmacSha256Kernel.K[i & 63] + schedule[i];
+            }
+            roundInputs[t] = inputs;
+        }
+    }
+
+    @Override
+    public int lanes() {
+        return lanes;
+    }
+
+    @Override
+    public int targetCount() {
+        return plan.size();
+    }
+
+    @Override
+    public void setKey(int lane, byte[] key, int off, int len) {
+        if (len > BLOCK_BYTES) {
+            // 超过块长的密钥先做一次哈希，实际场景很少，走 JCA 即可
+            key = hashLongKey(key, off, len);
+            off = 0;
+            len = key.length;
+        }
+        int[] words = keyWords;
+        for (int i = 0; i < 16; i++) {
+            words[i * lanes + lane] = 0;
+        }
+        for (int i = 0; i < len; i++) {
+            words[(i >>> 2) * lanes + lane] |= (key[off + i] & 0xff) << (24 - ((i & 3) << 3));
+        }
+        keysChanged = true;
+    }
+
+    @Override
+    public long matches(int target, int count) {
+        int[] expected = plan.target(target);
+        if (expected == null) {
+            return 0;
+        }
+        if (keysChanged) {
+            prepareKeys();
+            keysChanged = false;
+        }
+        int[] inputs = roundInputs[target];
+        System.arraycopy(innerState, 0, state, 0, state.length);
+        for (int offset = 0; offset < inputs.length; offset += 64) {
+            compressShared(state, inputs, offset);
+        }
+
+        // 外层：opad 状态 + 内层摘要 (32 字节) 组成的唯一一个填充块
+        System.arraycopy(state, 0, w, 0, DIGEST_WORDS * lanes);
+        broadcast(w, 8, 0x80000000);
+        for (int i = 9; i < 15; i++) {
+            broadcast(w, i, 0);
+        }
+        broadcast(w, 15, (BLOCK_BYTES + DIGEST_WORDS * 4) * 8);
+        expand(w);
+        System.arraycopy(outerState, 0, state, 0, state.length);
+        compressLanes(state, w);
+
+        // 整批时直接用全真掩码，JDK 17 上 indexInRange 对非常量参数不会内联，会拖慢整个热路径
+        VectorMask<Integer> matched = count == lanes ? SPECIES.maskAll(true) : SPECIES.indexInRange(0, count);
+        for (int i = 0; i < DIGEST_WORDS && matched.anyTrue(); i++) {
+            matched = matched.and(IntVector.fromArray(SPECIES, state, i * lanes).eq(expected[i]));
+        }
+        return matched.toLong();
+    }
+
+    /**
+     * 计算全部通道的 ipad/opad 中间状态
+     */
+    private void prepareKeys() {
+        prepareKey(0x36363636, innerState);
+        prepareKey(0x5c5c5c5c, outerState);
+    }
+
+    private void prepareKey(int pad, int[] target) {
+        for (int i = 0; i < 16; i++) {
+            IntVector.fromArray(SPECIES, keyWords, i * lanes).lanewise(VectorOperators.XOR, pad).intoArray(w, i * lanes);
+        }
+        expand(w);
+        for (int i = 0; i < DIGEST_WORDS; i++) {
+            broadcast(target, i, HmacSha256Kernel.IV[i]);
+        }
+        compressLanes(target, w);
+    }
+
+    private void broadcast(int[] array, int word, int value) {
+        IntVector.broadcast(SPECIES, value).intoArray(array, word * lanes);
+    }
+
+    private byte[] hashLongKey(byte[] key, int off, int len) {
+        try {
+            if (longKeyDigest == null) {
+                longKeyDigest = MessageDigest.getInstance("SHA-256");
+            }
+            longKeyDigest.update(key, off, len);
+            return longKeyDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 逐通道展开 w[16..63]
+     */
+    private void expand(int[] w) {
+        for (int t = 16; t < 64; t++) {
+            IntVector x = IntVector.fromArray(SPECIES, w, (t - 15) * lanes);
+            IntVector y = IntVector.fromArray(SPECIES, w, (t - 2) * lanes);
+            IntVector s0 = x.lanewise(VectorOperators.ROR, 7)
+                    .lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.ROR, 18))
+                    .lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 3));
+            IntVector s1 = y.lanewise(VectorOperators.ROR, 17)
+                    .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.ROR, 19))
+                    .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 10));
+            IntVector.fromArray(SPECIES, w, (t - 16) * lanes)
+                    .add(s0)
+                    .add(IntVector.fromArray(SPECIES, w, (t - 7) * lanes))
+                    .add(s1)
+                    .intoArray(w, t * lanes);
+        }
+    }
+
+    /**
+     * 调度表逐通道不同的压缩 (ipad/opad 块与外层块)
+     */
+    private void compressLanes(int[] st, int[] w) {
+        IntVector a = IntVector.fromArray(SPECIES, st, 0);
+        IntVector b = IntVector.fromArray(SPECIES, st, lanes);
+        IntVector c = IntVector.fromArray(SPECIES, st, 2 * lanes);
+        IntVector d = IntVector.fromArray(SPECIES, st, 3 * lanes);
+        IntVector e = IntVector.fromArray(SPECIES, st, 4 * lanes);
+        IntVector f = IntVector.fromArray(SPECIES, st, 5 * lanes);
+        IntVector g = IntVector.fromArray(SPECIES, st, 6 * lanes);
+        IntVector h = IntVector.fromArray(SPECIES, st, 7 * lanes);
+        for (int t = 0; t < 64; t++) {
+            IntVector sum1 = e.lanewise(VectorOperators.ROR, 6)
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 11))
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 25));
+            // Ch(e, f, g) = g ^ (e & (f ^ g))
+            IntVector ch = g.lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.AND, f.lanewise(VectorOperators.XOR, g)));
+            IntVector sum0 = a.lanewise(VectorOperators.ROR, 2)
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 13))
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 22));
+            // Maj(a, b, c) = (a & b) | (c & (a | b))
+            IntVector maj = a.lanewise(VectorOperators.AND, b)
+                    .lanewise(VectorOperators.OR, c.lanewise(VectorOperators.AND, a.lanewise(VectorOperators.OR, b)));
+            IntVector t1 = h.add(sum1).add(ch)
+                    .add(HmacSha256Kernel.K[t])
+                    .add(IntVector.fromArray(SPECIES, w, t * lanes));
+            IntVector t2 = sum0.add(maj);
+            h = g;
+            g = f;
+            f = e;
+            e = d.add(t1);
+            d = c;
+            c = b;
+            b = a;
+            a = t1.add(t2);
+        }
+        IntVector.fromArray(SPECIES, st, 0).add(a).intoArray(st, 0);
+        IntVector.fromArray(SPECIES, st, lanes).add(b).intoArray(st, lanes);
+        IntVector.fromArray(SPECIES, st, 2 * lanes).add(c).intoArray(st, 2 * lanes);
+        IntVector.fromArray(SPECIES, st, 3 * lanes).add(d).intoArray(st, 3 * lanes);
+        IntVector.fromArray(SPECIES, st, 4 * lanes).add(e).intoArray(st, 4 * lanes);
+        IntVector.fromArray(SPECIES, st, 5 * lanes).add(f).intoArray(st, 5 * lanes);
+        IntVector.fromArray(SPECIES, st, 6 * lanes).add(g).intoArray(st, 6 * lanes);
+        IntVector.fromArray(SPECIES, st, 7 * lanes).add(h).intoArray(st, 7 * lanes);
+    }
+
+    /**
+     * 签名输入的消息块压缩，所有通道共用同一个 K[t] + W[t]
+     */
+    private void compressShared(int[] st, int[] inputs, int offset) {
+        IntVector a = IntVector.fromArray(SPECIES, st, 0);
+        IntVector b = IntVector.fromArray(SPECIES, st, lanes);
+        IntVector c = IntVector.fromArray(SPECIES, st, 2 * lanes);
+        IntVector d = IntVector.fromArray(SPECIES, st, 3 * lanes);
+        IntVector e = IntVector.fromArray(SPECIES, st, 4 * lanes);
+        IntVector f = IntVector.fromArray(SPECIES, st, 5 * lanes);
+        IntVector g = IntVector.fromArray(SPECIES, st, 6 * lanes);
+        IntVector h = IntVector.fromArray(SPECIES, st, 7 * lanes);
+        for (int t = 0; t < 64; t++) {
+            IntVector sum1 = e.lanewise(VectorOperators.ROR, 6)
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 11))
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 25));
+            // Ch(e, f, g) = g ^ (e & (f ^ g))
+            IntVector ch = g.lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.AND, f.lanewise(VectorOperators.XOR, g)));
+            IntVector sum0 = a.lanewise(VectorOperators.ROR, 2)
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 13))
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 22));
+            // Maj(a, b, c) = (a & b) | (c & (a | b))
+            IntVector maj = a.lanewise(VectorOperators.AND, b)
+                    .lanewise(VectorOperators.OR, c.lanewise(VectorOperators.AND, a.lanewise(VectorOperators.OR, b)));
+            IntVector t1 = h.add(sum1).add(ch).add(inputs[offset + t]);
+            IntVector t2 = sum0.add(maj);
+            h = g;
+            g = f;
+            f = e;
+            e = d.add(t1);
+            d = c;
+            c = b;
+            b = a;
+            a = t1.add(t2);
+        }
+        IntVector.fromArray(SPECIES, st, 0).add(a).intoArray(st, 0);
+        IntVector.fromArray(SPECIES, st, lanes).add(b).intoArray(st, lanes);
+        IntVector.fromArray(SPECIES, st, 2 * lanes).add(c).intoArray(st, 2 * lanes);
+        IntVector.fromArray(SPECIES, st, 3 * lanes).add(d).intoArray(st, 3 * lanes);
+        IntVector.fromArray(SPECIES, st, 4 * lanes).add(e).intoArray(st, 4 * lanes);
+        IntVector.fromArray(SPECIES, st, 5 * lanes).add(f).intoArray(st, 5 * lanes);
+        IntVector.fromArray(SPECIES, st, 6 * lanes).add(g).intoArray(st, 6 * lanes);
+        IntVector.fromArray(SPECIES, st, 7 * lanes).add(h).intoArray(st, 7 * lanes);
+    }
+
+}
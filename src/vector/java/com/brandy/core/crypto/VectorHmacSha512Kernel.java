@@ -0,0 +1,253 @@
+package com.brandy.core.crypto;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * 多缓冲 HMAC-SHA384 / HMAC-SHA512 核心 (HS384 / HS512)，每个 long 通道一个候选密钥，AVX2 上一批 4 个，AVX-512 上 8 个
+ * 布局与 {@link VectorHmacSha256Kernel} 相同，只是字长为 64 位、每块 80 轮。
+ */
+final class VectorHmacSha512Kernel implements HmacBatchKernel {
+    static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+    private static final int BLOCK_BYTES = 128;
+
+    private final HmacSha512Kernel.Plan plan;
+    private final int lanes = SPECIES.length();
+    private final int digestWords;
+    // 各目标消息块的 K[t] + W[t]，与密钥无关
+    private final long[][] roundInputs;
+    private final long[] keyWords = new long[16 * lanes];
+    private final long[] w = new long[80 * lanes];
+    private final long[] innerState = new long[8 * lanes];
+    private final long[] outerState = new long[8 * lanes];
+    private final long[] state = new long[8 * lanes];
+    // 载入新密钥后，ipad/opad 状态在下一次 matches 时重新计算
+    private boolean keysChanged;
+    private MessageDigest longKeyDigest;
+
+    VectorHmacSha512Kernel(HmacSha512Kernel.Plan plan) {
+        this.plan = plan;
+        this.digestWords = plan.digestWords();
+        this.roundInputs = new long[plan.size()][];
+        for (int t = 0; t < plan.size(); t++) {
+            long[] schedule = plan.schedule(t);
+            long[] inputs = new long[schedule.length];
+            for (int i = 0; i < schedule.length; i++) {
+                inputs[i] = HmacSha512Kernel.K[i % 80] + schedule[i];
+            }
+            roundInputs[t] = inputs;
+        }
+    }
+
+    @Override
+    public int lanes() {
+        return lanes;
+    }
+
+    @Override
+    public int targetCount() {
+        return plan.size();
+    }
+
+    @Override
+    public void setKey(int lane, byte[] key, int off, int len) {
+        if (len > BLOCK_BYTES) {
+            // 超过块长的密钥先做一次哈希，实际场景很少，走 JCA 即可
+            key = hashLongKey(key, off, len);
+            off = 0;
+            len = key.length;
+        }
+        long[] words = keyWords;
+        for (int i = 0; i < 16; i++) {
+            words[i * lanes + lane] = 0;
+        }
+        for (int i = 0; i < len; i++) {
+            words[(i >>> 3) * lanes + lane] |= (long) (key[off + i] & 0xff) << (56 - ((i & 7) << 3));
+        }
+        keysChanged = true;
+    }
+
+    @Override
+    public long matches(int target, int count) {
+        long[] expected = plan.target(target);
+        if (expected == null) {
+            return 0;
+        }
+        if (keysChanged) {
+            prepareKey(0x3636363636363636L, innerState);
+            prepareKey(0x5c5c5c5c5c5c5c5cL, outerState);
+            keysChanged = false;
+        }
+        long[] inputs = roundInputs[target];
+        System.arraycopy(innerState, 0, state, 0, state.length);
+        for (int offset = 0; offset < inputs.length; offset += 80) {
+            compressShared(state, inputs, offset);
+        }
+
+        // 外层：opad 状态 + 内层摘要 (48/64 字节) 组成的唯一一个填充块
+        int n = digestWords;
+        System.arraycopy(state, 0, w, 0, n * lanes);
+        broadcast(w, n, 0x8000000000000000L);
+        for (int i = n + 1; i < 15; i++) {
+            broadcast(w, i, 0);
+        }
+        broadcast(w, 15, (BLOCK_BYTES + n * 8L) * 8);
+        expand(w);
+        System.arraycopy(outerState, 0, state, 0, state.length);
+        compressLanes(state, w);
+
+        // 整批时直接用全真掩码，JDK 17 上 indexInRange 对非常量参数不会内联，会拖慢整个热路径
+        VectorMask<Long> matched = count == lanes ? SPECIES.maskAll(true) : SPECIES.indexInRange(0, count);
+        for (int i = 0; i < n && matched.anyTrue(); i++) {
+            matched = matched.and(LongVector.fromArray(SPECIES, state, i * lanes).eq(expected[i]));
+        }
+        return matched.toLong();
+    }
+
+    private void prepareKey(long pad, long[] target) {
+        for (int i = 0; i < 16; i++) {
+            LongVector.fromArray(SPECIES, keyWords, i * lanes).lanewise(VectorOperators.XOR, pad).intoArray(w, i * lanes);
+        }
+        expand(w);
+        long[] iv = plan.iv();
+        for (int i = 0; i < 8; i++) {
+            broadcast(target, i, iv[i]);
+        }
+        compressLanes(target, w);
+    }
+
+    private void broadcast(long[] array, int word, long value) {
+        LongVector.broadcast(SPECIES, value).intoArray(array, word * lanes);
+    }
+
+    private byte[] hashLongKey(byte[] key, int off, int len) {
+        try {
+            if (longKeyDigest == null) {
+                longKeyDigest = MessageDigest.getInstance(plan.digestAlgorithm());
+            }
+            longKeyDigest.update(key, off, len);
+            return longKeyDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 逐通道展开 w[16..79]
+     */
+    private void expand(long[] w) {
+        for (int t = 16; t < 80; t++) {
+            LongVector x = LongVector.fromArray(SPECIES, w, (t - 15) * lanes);
+            LongVector y = LongVector.fromArray(SPECIES, w, (t - 2) * lanes);
+            LongVector s0 = x.lanewise(VectorOperators.ROR, 1)
+                    .lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.ROR, 8))
+                    .lanewise(VectorOperators.XOR, x.lanewise(VectorOperators.LSHR, 7));
+            LongVector s1 = y.lanewise(VectorOperators.ROR, 19)
+                    .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.ROR, 61))
+                    .lanewise(VectorOperators.XOR, y.lanewise(VectorOperators.LSHR, 6));
+            LongVector.fromArray(SPECIES, w, (t - 16) * lanes)
+                    .add(s0)
+                    .add(LongVector.fromArray(SPECIES, w, (t - 7) * lanes))
+                    .add(s1)
+                    .intoArray(w, t * lanes);
+        }
+    }
+
+    /**
+     * 调度表逐通道不同的压缩 (ipad/opad 块与外层块)
+     */
+    private void compressLanes(long[] st, long[] w) {
+        LongVector a = LongVector.fromArray(SPECIES, st, 0);
+        LongVector b = LongVector.fromArray(SPECIES, st, lanes);
+        LongVector c = LongVector.fromArray(SPECIES, st, 2 * lanes);
+        LongVector d = LongVector.fromArray(SPECIES, st, 3 * lanes);
+        LongVector e = LongVector.fromArray(SPECIES, st, 4 * lanes);
+        LongVector f = LongVector.fromArray(SPECIES, st, 5 * lanes);
+        LongVector g = LongVector.fromArray(SPECIES, st, 6 * lanes);
+        LongVector h = LongVector.fromArray(SPECIES, st, 7 * lanes);
+        for (int t = 0; t < 80; t++) {
+            LongVector sum1 = e.lanewise(VectorOperators.ROR, 14)
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 18))
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 41));
+            // Ch(e, f, g) = g ^ (e & (f ^ g))
+            LongVector ch = g.lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.AND, f.lanewise(VectorOperators.XOR, g)));
+            LongVector sum0 = a.lanewise(VectorOperators.ROR, 28)
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 34))
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 39));
+            // Maj(a, b, c) = (a & b) | (c & (a | b))
+            LongVector maj = a.lanewise(VectorOperators.AND, b)
+                    .lanewise(VectorOperators.OR, c.lanewise(VectorOperators.AND, a.lanewise(VectorOperators.OR, b)));
+            LongVector t1 = h.add(sum1).add(ch)
+                    .add(HmacSha512Kernel.K[t])
+                    .add(LongVector.fromArray(SPECIES, w, t * lanes));
+            LongVector t2 = sum0.add(maj);
+            h = g;
+            g = f;
+            f = e;
+            e = d.add(t1);
+            d = c;
+            c = b;
+            b = a;
+            a = t1.add(t2);
+        }
+        LongVector.fromArray(SPECIES, st, 0).add(a).intoArray(st, 0);
+        LongVector.fromArray(SPECIES, st, lanes).add(b).intoArray(st, lanes);
+        LongVector.fromArray(SPECIES, st, 2 * lanes).add(c).intoArray(st, 2 * lanes);
+        LongVector.fromArray(SPECIES, st, 3 * lanes).add(d).intoArray(st, 3 * lanes);
+        LongVector.fromArray(SPECIES, st, 4 * lanes).add(e).intoArray(st, 4 * lanes);
+        LongVector.fromArray(SPECIES, st, 5 * lanes).add(f).intoArray(st, 5 * lanes);
+        LongVector.fromArray(SPECIES, st, 6 * lanes).add(g).intoArray(st, 6 * lanes);
+        LongVector.fromArray(SPECIES, st, 7 * lanes).add(h).intoArray(st, 7 * lanes);
+    }
+
+    /**
+     * 签名输入的消息块压缩，所有通道共用同一个 K[t] + W[t]
+     */
+    private void compressShared(long[] st, long[] inputs, int offset) {
+        LongVector a = LongVector.fromArray(SPECIES, st, 0);
+        LongVector b = LongVector.fromArray(SPECIES, st, lanes);
+        LongVector c = LongVector.fromArray(SPECIES, st, 2 * lanes);
+        LongVector d = LongVector.fromArray(SPECIES, st, 3 * lanes);
+        LongVector e = LongVector.fromArray(SPECIES, st, 4 * lanes);
+        LongVector f = LongVector.fromArray(SPECIES, st, 5 * lanes);
+        LongVector g = LongVector.fromArray(SPECIES, st, 6 * lanes);
+        LongVector h = LongVector.fromArray(SPECIES, st, 7 * lanes);
+        for (int t = 0; t < 80; t++) {
+            LongVector sum1 = e.lanewise(VectorOperators.ROR, 14)
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 18))
+                    .lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.ROR, 41));
+            // Ch(e, f, g) = g ^ (e & (f ^ g))
+            LongVector ch = g.lanewise(VectorOperators.XOR, e.lanewise(VectorOperators.AND, f.lanewise(VectorOperators.XOR, g)));
+            LongVector sum0 = a.lanewise(VectorOperators.ROR, 28)
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 34))
+                    .lanewise(VectorOperators.XOR, a.lanewise(VectorOperators.ROR, 39));
+            // Maj(a, b, c) = (a & b) | (c & (a | b))
+            LongVector maj = a.lanewise(VectorOperators.AND, b)
+                    .lanewise(VectorOperators.OR, c.lanewise(VectorOperators.AND, a.lanewise(VectorOperators.OR, b)));
+            LongVector t1 = h.add(sum1).add(ch).add(inputs[offset + t]);
+            LongVector t2 = sum0.add(maj);
+            h = g;
+            g = f;
+            f = e;
+            e = d.add(t1);
+            d = c;
+            c = b;
+            b = a;
+            a = t1.add(t2);
+        }
+        LongVector.fromArray(SPECIES, st, 0).add(a).intoArray(st, 0);
+        LongVector.fromArray(SPECIES, st, lanes).add(b).intoArray(st, lanes);
+        LongVector.fromArray(SPECIES, st, 2 * lanes).add(c).intoArray(st, 2 * lanes);
+        LongVector.fromArray(SPECIES, st, 3 * lanes).add(d).intoArray(st, 3 * lanes);
+        LongVector.fromArray(SPECIES, st, 4 * lanes).add(e).intoArray(st, 4 * lanes);
+        LongVector.fromArray(SPECIES, st, 5 * lanes).add(f).intoArray(st, 5 * lanes);
+        LongVector.fromArray(SPECIES, st, 6 * lanes).add(g).intoArray(st, 6 * lanes);
+        LongVector.fromArray(SPECIES, st, 7 * lanes).add(h).intoArray(st, 7 * lanes);
+    }
+
+}